@@ -4,9 +4,12 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
 
+import life.catalogue.api.util.PagingUtil;
+
 /**
  * A generic paging response wrapping a list payload
  *
@@ -15,6 +18,7 @@ import javax.annotation.Nullable;
 public class ResultPage<T> extends Page implements Iterable<T> {
   private int total;
   private List<T> result;
+  private String next;
   
   public ResultPage() {
   }
@@ -33,6 +37,21 @@ public class ResultPage<T> extends Page implements Iterable<T> {
     this.result = result;
   }
 
+  /**
+   * Creates a keyset page of records ordered by their id.
+   * Keyset pages are not counted, the total only covers the returned records.
+   * A next token is added if the page is full, as more records might follow.
+   *
+   * @param id function to extract the sort key of a record
+   */
+  public static <T> ResultPage<T> keyset(int limit, List<T> result, Function<T, ?> id) {
+    ResultPage<T> page = new ResultPage<>(new Page(0, limit), result.size(), result);
+    if (limit > 0 && result.size() == limit) {
+      page.next = PagingUtil.encodeToken(id.apply(result.get(limit - 1)));
+    }
+    return page;
+  }
+
   public static <T>  ResultPage<T> empty(){
     return new ResultPage<T>(new Page(0,10), 0, Collections.emptyList());
   }
@@ -45,13 +64,38 @@ public class ResultPage<T> extends Page implements Iterable<T> {
   public List<T> getResult() {
     return result;
   }
+
+  /**
+   * @return opaque token to request the following page with keyset pagination or null if there are no more records
+   */
+  @Nullable
+  public String getNext() {
+    return next;
+  }
+
+  public void setNext(String next) {
+    this.next = next;
+  }
+
+  /**
+   * Adds a next token to an offset based page of records ordered by their id,
+   * so clients can switch to keyset pagination.
+   *
+   * @param id function to extract the sort key of a record
+   */
+  public ResultPage<T> withNext(Function<T, ?> id) {
+    if (!isLast() && result != null && !result.isEmpty()) {
+      next = PagingUtil.encodeToken(id.apply(result.get(result.size() - 1)));
+    }
+    return this;
+  }
   
   /**
    * @return true if this is the last page and there are no more pages with content if the offset is
    * increased.
    */
   public boolean isLast() {
-    return total <= getOffset() + getLimit();
+    return next == null && total <= getOffset() + getLimit();
   }
   
   public int size() {
@@ -69,12 +113,12 @@ public class ResultPage<T> extends Page implements Iterable<T> {
     if (o == null || getClass() != o.getClass())
       return false;
     ResultPage<?> other = (ResultPage<?>) o;
-    return total == other.total && Objects.equals(result, other.result);
+    return total == other.total && Objects.equals(result, other.result) && Objects.equals(next, other.next);
   }
   
   @Override
   public int hashCode() {
-    return Objects.hash(total, result);
+    return Objects.hash(total, result, next);
   }
   
   @Override
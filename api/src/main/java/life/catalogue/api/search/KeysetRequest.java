@@ -0,0 +1,29 @@
+package life.catalogue.api.search;
+
+import javax.ws.rs.QueryParam;
+
+/**
+ * Opt-in keyset pagination for lists ordered by id.
+ * The after token is taken from the next property of a previous result page
+ * and replaces the offset of the requested page.
+ */
+public class KeysetRequest {
+
+  @QueryParam("after")
+  private String after;
+
+  public KeysetRequest() {
+  }
+
+  public KeysetRequest(String after) {
+    this.after = after;
+  }
+
+  public String getAfter() {
+    return after;
+  }
+
+  public void setAfter(String after) {
+    this.after = after;
+  }
+}
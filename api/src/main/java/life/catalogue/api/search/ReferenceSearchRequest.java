@@ -31,6 +31,9 @@ public class ReferenceSearchRequest {
   
   @QueryParam("sortBy")
   private SortBy sortBy;
+
+  @QueryParam("after")
+  private String after;
   
   public static ReferenceSearchRequest byQuery(String query) {
     ReferenceSearchRequest q = new ReferenceSearchRequest();
@@ -42,7 +45,8 @@ public class ReferenceSearchRequest {
     return StringUtils.isBlank(q)
         && year == null
         && StringUtils.isBlank(sectorKey)
-        && sortBy == null;
+        && sortBy == null
+        && after == null;
   }
   
   public String getQ() {
@@ -98,6 +102,17 @@ public class ReferenceSearchRequest {
   public void setSortBy(SortBy sortBy) {
     this.sortBy = Preconditions.checkNotNull(sortBy);
   }
+
+  /**
+   * @return optional token for keyset pagination, only supported with native sorting by id
+   */
+  public String getAfter() {
+    return after;
+  }
+
+  public void setAfter(String after) {
+    this.after = after;
+  }
   
   @Override
   public boolean equals(Object o) {
@@ -108,11 +123,12 @@ public class ReferenceSearchRequest {
         Objects.equals(year, that.year) &&
         Objects.equals(sectorKey, that.sectorKey) &&
         Objects.equals(issues, that.issues) &&
-        sortBy == that.sortBy;
+        sortBy == that.sortBy &&
+        Objects.equals(after, that.after);
   }
   
   @Override
   public int hashCode() {
-    return Objects.hash(q, year, sectorKey, issues, sortBy);
+    return Objects.hash(q, year, sectorKey, issues, sortBy, after);
   }
 }
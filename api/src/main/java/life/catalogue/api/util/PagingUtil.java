@@ -1,5 +1,7 @@
 package life.catalogue.api.util;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Iterator;
 import java.util.function.Function;
 
@@ -11,6 +13,26 @@ public class PagingUtil {
   public static <T> Iterator<T> pageAll(Function<Page, ResultPage<T>> func) {
     return new ResultPageIterator<T>(func);
   }
+
+  /**
+   * Encodes the id of the last record of a page into an opaque token
+   * that can be used to request the following page via keyset pagination.
+   */
+  public static String encodeToken(Object lastId) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @return the id of the last record encoded in a token
+   * @throws IllegalArgumentException if the token is not a valid token
+   */
+  public static String decodeToken(String token) {
+    try {
+      return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid page token " + token);
+    }
+  }
   
   static class ResultPageIterator<T> implements Iterator<T> {
     private final Page page = new Page();
@@ -337,7 +337,9 @@ public enum Issue {
       "Value for reference authors was stored literally and not broken down into individual authors"),
 
   CITATION_UNPARSED(REFERENCE, Level.INFO,
-      "Value for citation was accepted as-is");
+      "Value for citation was accepted as-is"),
+
+  NAME_MATCH_FUZZY(NAME, Level.WARNING, "The name was not found in the Names Index, but matched a similarly spelled name.");
   
   
   /**
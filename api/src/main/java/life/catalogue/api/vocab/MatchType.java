@@ -12,6 +12,11 @@ public enum MatchType {
    */
   VARIANT(Issue.NAME_MATCH_VARIANT),
   
+  /**
+   * The name is not known, but matches a similar name, usually a misspelling of it.
+   */
+  FUZZY(Issue.NAME_MATCH_FUZZY),
+  
   /**
    * No existing name matching, but the name was newly inserted.
    */
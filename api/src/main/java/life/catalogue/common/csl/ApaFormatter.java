@@ -0,0 +1,287 @@
+package life.catalogue.common.csl;
+
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.collect.ImmutableSet;
+import life.catalogue.api.model.CslData;
+import life.catalogue.api.model.CslDate;
+import life.catalogue.api.model.CslName;
+import life.catalogue.api.vocab.CSLRefType;
+
+/**
+ * Native, thread safe renderer of APA bibliography entries in plain text
+ * producing the very same output as the citeproc engine used in CslUtil.
+ *
+ * Only the common subset of journal articles is supported:
+ * authors, year, title, container title, volume, issue, pages and DOI.
+ * Any data that would be rendered differently by citeproc, e.g. other types, editors, name particles
+ * or values that are subject to citeprocs text transformations, is rejected and null is returned.
+ */
+public class ApaFormatter {
+  private static final int ET_AL_MIN = 8;
+  private static final int ET_AL_USE_FIRST = 6;
+  private static final String DOI_PREFIX = "https://doi.org/";
+  private static final Pattern PAGE_RANGE = Pattern.compile("^(\\d+)[-–](\\d+)$");
+  // CSL title case stop words, all of which are also known to citeproc
+  private static final Set<String> STOP_WORDS = ImmutableSet.of(
+      "a", "an", "and", "as", "at", "but", "by", "down", "for", "from", "in", "into", "nor",
+      "of", "on", "onto", "or", "over", "so", "the", "till", "to", "up", "via", "with", "yet"
+  );
+
+  private ApaFormatter() {
+  }
+
+  /**
+   * @return the APA citation or null if the data is not supported and needs to be rendered by citeproc
+   */
+  public static String format(CslData data) {
+    if (!isSupported(data)) {
+      return null;
+    }
+    StringBuilder sb = new StringBuilder(128);
+    if (!appendAuthors(sb, data.getAuthor())) {
+      return null;
+    }
+    appendDelimited(sb, ". ", issued(data.getIssued()));
+    appendDelimited(sb, ". ", data.getTitle());
+    if (data.getContainerTitle() != null) {
+      String pages = pages(data.getPage());
+      if (pages == null) {
+        return null;
+      }
+      appendDelimited(sb, ". ", data.getContainerTitle());
+      if (data.getVolume() != null) {
+        appendDelimited(sb, ", ", data.getVolume());
+        if (data.getIssue() != null) {
+          sb.append('(').append(data.getIssue()).append(')');
+        }
+      }
+      if (!pages.isEmpty()) {
+        appendDelimited(sb, ", ", pages);
+      }
+    }
+    appendDelimited(sb, ".", "");
+    if (data.getDOI() != null) {
+      sb.append(' ').append(DOI_PREFIX).append(data.getDOI());
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Appends a delimiter and value, avoiding duplicate periods just like citeproc does.
+   */
+  private static void appendDelimited(StringBuilder sb, String delimiter, String value) {
+    if (delimiter.charAt(0) == '.' && sb.length() > 0) {
+      char last = sb.charAt(sb.length() - 1);
+      if (last == '.' || last == '?' || last == '!') {
+        delimiter = delimiter.substring(1);
+      }
+    }
+    sb.append(delimiter).append(value);
+  }
+
+  private static boolean isSupported(CslData d) {
+    if (d == null || (d.getType() != null && d.getType() != CSLRefType.ARTICLE_JOURNAL)) {
+      return false;
+    }
+    // rendered values
+    if (d.getAuthor() == null || d.getAuthor().length == 0
+        || !isPlain(d.getTitle()) || d.getTitle().isEmpty()
+        || (d.getContainerTitle() != null && !isTitleCased(d.getContainerTitle()))
+        || (d.getVolume() != null && !isPlain(d.getVolume()))
+        || (d.getIssue() != null && (d.getVolume() == null || !isPlain(d.getIssue())))
+        || (d.getPage() != null && !isPlain(d.getPage()))
+        || (d.getContainerTitle() == null && (d.getVolume() != null || d.getPage() != null))
+        || (d.getDOI() != null && (!isPlain(d.getDOI()) || d.getDOI().startsWith("http")))
+        || (d.getURL() != null && d.getDOI() == null)
+        || (d.getIssued() != null && year(d.getIssued()) == null)
+    ) {
+      return false;
+    }
+    // anything else that might show up in an APA entry
+    return d.getCollectionEditor() == null && d.getComposer() == null && d.getContainerAuthor() == null
+        && d.getDirector() == null && d.getEditor() == null && d.getEditorialDirector() == null
+        && d.getInterviewer() == null && d.getIllustrator() == null && d.getOriginalAuthor() == null
+        && d.getRecipient() == null && d.getReviewedAuthor() == null && d.getTranslator() == null
+        && d.getContainer() == null && d.getEventDate() == null && d.getOriginalDate() == null && d.getSubmitted() == null
+        && d.getAnnote() == null && d.getArchive() == null && d.getArchiveLocation() == null && d.getArchivePlace() == null
+        && d.getAuthority() == null && d.getCallNumber() == null && d.getChapterNumber() == null
+        && d.getCitationNumber() == null && d.getCitationLabel() == null && d.getCollectionNumber() == null
+        && d.getCollectionTitle() == null && d.getDimensions() == null && d.getEdition() == null
+        && d.getEvent() == null && d.getEventPlace() == null && d.getFirstReferenceNoteNumber() == null
+        && d.getGenre() == null && d.getJurisdiction() == null && d.getLocator() == null && d.getMedium() == null
+        && d.getNote() == null && d.getNumber() == null && d.getNumberOfPages() == null && d.getNumberOfVolumes() == null
+        && d.getOriginalPublisher() == null && d.getOriginalPublisherPlace() == null && d.getPageFirst() == null
+        && d.getPMCID() == null && d.getPMID() == null && d.getPublisherPlace() == null && d.getReferences() == null
+        && d.getReviewedTitle() == null && d.getScale() == null && d.getSection() == null && d.getStatus() == null
+        && d.getVersion() == null && d.getYearSuffix() == null;
+  }
+
+  /**
+   * @return true if the value is not modified by citeprocs text processing, i.e. quotes, markup and surrounding whitespace
+   */
+  private static boolean isPlain(String x) {
+    if (x == null || !x.equals(x.trim())) {
+      return false;
+    }
+    for (int i = 0; i < x.length(); i++) {
+      char c = x.charAt(i);
+      if (c == '"' || c == '\'' || c == '<' || c == '>' || c == '&' || c == '\n' || c == '\t'
+          || (c == ' ' && i > 0 && x.charAt(i - 1) == ' ')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return true if the value is plain and applying title case does not change it
+   */
+  private static boolean isTitleCased(String x) {
+    if (!isPlain(x) || x.isEmpty() || x.indexOf(':') >= 0) {
+      return false;
+    }
+    String[] words = x.split(" ");
+    for (int i = 0; i < words.length; i++) {
+      String w = words[i];
+      boolean stopWord = STOP_WORDS.contains(w.toLowerCase());
+      boolean inner = i > 0 && i < words.length - 1;
+      for (String part : w.split("[-/]")) {
+        if (part.isEmpty() || !Character.isLetterOrDigit(part.charAt(0))) {
+          return false;
+        }
+        boolean lower = Character.isLowerCase(part.charAt(0));
+        // stop words stay lowercase inside titles, all other words are capitalized
+        if (stopWord && inner ? !lower || !part.equals(w) : lower) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static Integer year(CslDate date) {
+    if (date.getSeason() != null || date.getCirca() != null || date.getLiteral() != null || date.getRaw() != null
+        || date.getDateParts() == null || date.getDateParts().length != 1
+        || date.getDateParts()[0] == null || date.getDateParts()[0].length == 0
+        || date.getDateParts()[0][0] <= 0) {
+      return null;
+    }
+    return date.getDateParts()[0][0];
+  }
+
+  private static String issued(CslDate date) {
+    return date == null ? "(n.d.)" : "(" + year(date) + ")";
+  }
+
+  /**
+   * @return the page with expanded numeric ranges, an empty string for no page or null if not supported
+   */
+  private static String pages(String page) {
+    if (page == null) {
+      return "";
+    }
+    if (page.indexOf(',') >= 0) {
+      return null;
+    }
+    if (page.indexOf('-') < 0 && page.indexOf('–') < 0) {
+      return page;
+    }
+    Matcher m = PAGE_RANGE.matcher(page);
+    if (!m.find()) {
+      return null;
+    }
+    String start = m.group(1);
+    String end = m.group(2);
+    if (end.length() < start.length()) {
+      end = start.substring(0, start.length() - end.length()) + end;
+    }
+    if (start.startsWith("0") || end.startsWith("0") || Long.parseLong(end) <= Long.parseLong(start)) {
+      return null;
+    }
+    return start + "–" + end;
+  }
+
+  /**
+   * Appends all authors in sort order with initialized given names.
+   * @return false if any name is not supported
+   */
+  private static boolean appendAuthors(StringBuilder sb, CslName[] authors) {
+    final boolean etAl = authors.length >= ET_AL_MIN;
+    final int size = etAl ? ET_AL_USE_FIRST : authors.length;
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        sb.append(", ");
+        if (!etAl && i == size - 1) {
+          sb.append("& ");
+        }
+      }
+      if (!appendName(sb, authors[i])) {
+        return false;
+      }
+    }
+    if (etAl) {
+      sb.append(", et al.");
+    }
+    return true;
+  }
+
+  private static boolean appendName(StringBuilder sb, CslName n) {
+    if (n == null || n.getLiteral() != null || n.getIsInstitution() != null || n.getSuffix() != null
+        || n.getDroppingParticle() != null || n.getNonDroppingParticle() != null
+        || n.getCommaPrefix() != null || n.getCommaSuffix() != null || n.getStaticOrdering() != null
+        || n.getStaticParticles() != null || n.getParseNames() != null
+        || !isPlain(n.getFamily()) || n.getFamily().isEmpty() || n.getFamily().indexOf(',') >= 0) {
+      return false;
+    }
+    // lower case words are particles which citeproc treats specially
+    for (String w : n.getFamily().split(" ")) {
+      if (w.isEmpty() || !Character.isUpperCase(w.charAt(0))) {
+        return false;
+      }
+    }
+    sb.append(n.getFamily());
+    if (n.getGiven() != null) {
+      if (!isPlain(n.getGiven())) {
+        return false;
+      }
+      sb.append(", ");
+      return appendInitials(sb, n.getGiven());
+    }
+    return true;
+  }
+
+  /**
+   * Initializes given names with ". ", keeping hyphens: Jean-Pierre Luc becomes J.-P. L.
+   */
+  private static boolean appendInitials(StringBuilder sb, String given) {
+    boolean first = true;
+    for (String token : given.split(" ")) {
+      if (token.isEmpty()) {
+        return false;
+      }
+      if (!first) {
+        sb.append(' ');
+      }
+      first = false;
+      boolean firstPart = true;
+      for (String part : token.split("-", -1)) {
+        // single letters with or without a period and capitalized names only.
+        // Abbreviations and all capital names are initialized differently by citeproc
+        String name = part.endsWith(".") ? part.substring(0, part.length() - 1) : part;
+        if (name.isEmpty() || !Character.isUpperCase(name.charAt(0))
+            || (name.length() > 1 && (part.endsWith(".") || !name.substring(1).chars().allMatch(Character::isLowerCase)))) {
+          return false;
+        }
+        if (!firstPart) {
+          sb.append('-');
+        }
+        firstPart = false;
+        sb.appendCodePoint(name.codePointAt(0)).append('.');
+      }
+    }
+    return true;
+  }
+}
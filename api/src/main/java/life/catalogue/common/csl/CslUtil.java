@@ -13,23 +13,43 @@ import de.undercouch.citeproc.csl.CSLItemData;
 import life.catalogue.api.model.CslData;
 import life.catalogue.api.model.Reference;
 
+/**
+ * Builds APA citation strings from CSL data.
+ * Most journal articles are rendered natively by the ApaFormatter,
+ * all other data falls back to the slow and synchronized JavaScript citeproc engine
+ * which is only started when it is needed for the first time.
+ */
 public class CslUtil {
   private static final String CITATION_STYLE = "apa";
-  private final static ReferenceProvider provider = new ReferenceProvider();
-  private final static CSL csl;
   private static Timer timer;
+  private static Timer citeprocTimer;
   
-  static {
-    try {
-      csl = new CSL(provider, CITATION_STYLE);
-      csl.setOutputFormat("text");
-    } catch (IOException e) {
-      throw new IllegalStateException("APA CSL processor could not be created", e);
+  /**
+   * Lazily initialized citeproc engine.
+   */
+  private static class Citeproc {
+    private final static ReferenceProvider provider = new ReferenceProvider();
+    private final static CSL csl;
+  
+    static {
+      try {
+        csl = new CSL(provider, CITATION_STYLE);
+        csl.setOutputFormat("text");
+      } catch (IOException e) {
+        throw new IllegalStateException("APA CSL processor could not be created", e);
+      }
+    }
+  
+    private static synchronized String build(CslData data) {
+      String key = provider.setData(data);
+      csl.registerCitationItems(key);
+      return csl.makeBibliography().getEntries()[0].trim();
     }
   }
   
   public static void register(MetricRegistry registry) {
     timer = registry.timer("life.catalogue.csl.citation-builder");
+    citeprocTimer = registry.timer("life.catalogue.csl.citeproc");
   }
   
   static class ReferenceProvider implements ItemDataProvider {
@@ -61,19 +81,14 @@ public class CslUtil {
     }
   }
   
-  /**
-   * WARNING!
-   * This is a very slow method that takes a second or more to build the citation string !!!
-   * It uses the JavaScript citeproc library internally.
-   */
   public static String buildCitation(Reference r) {
     return buildCitation(r.getCsl());
   }
   
   /**
-   * WARNING!
-   * This is a very slow method that takes a second or more to build the citation string !!!
-   * It uses the JavaScript citeproc library internally.
+   * Builds an APA citation natively if possible.
+   * WARNING! Unsupported data is rendered by the JavaScript citeproc library
+   * which is very slow and takes a second or more to build the citation string !!!
    */
   public static String buildCitation(CslData data) {
     if (data == null)
@@ -81,7 +96,8 @@ public class CslUtil {
   
     Timer.Context ctx = timer == null ? null : timer.time();
     try {
-      return buildCitationInternal(data);
+      String citation = ApaFormatter.format(data);
+      return citation != null ? citation : buildCitationCiteproc(data);
     } finally {
       if (ctx != null) {
         ctx.stop();
@@ -89,13 +105,17 @@ public class CslUtil {
     }
   }
   
-  private static synchronized String buildCitationInternal(CslData data) {
-    String key = provider.setData(data);
-    csl.registerCitationItems(key);
-    return csl.makeBibliography().getEntries()[0].trim();
+  /**
+   * Always uses the citeproc engine to build the citation.
+   */
+  static String buildCitationCiteproc(CslData data) {
+    Timer.Context ctx = citeprocTimer == null ? null : citeprocTimer.time();
+    try {
+      return Citeproc.build(data);
+    } finally {
+      if (ctx != null) {
+        ctx.stop();
+      }
+    }
   }
-  
-  
-  
-  
 }
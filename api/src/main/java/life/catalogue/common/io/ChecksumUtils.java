@@ -10,6 +10,13 @@ public class ChecksumUtils {
 
   private static final char[] hexCode = "0123456789ABCDEF".toCharArray();
 
+  /**
+   * @return a new MD5 digest to calculate checksums on the fly, e.g. with a DigestOutputStream
+   */
+  public static MessageDigest md5Digest() {
+    return digest("MD5");
+  }
+  
   public static String getMD5Checksum(File file) throws IOException {
     return getFileChecksum("MD5", file);
   }
@@ -18,13 +25,16 @@ public class ChecksumUtils {
     return getFileChecksum("SHA-1", file);
   }
   
-  private static String getFileChecksum(String algorithmName, File file) throws IOException {
-    MessageDigest digest;
+  private static MessageDigest digest(String algorithmName) {
     try {
-      digest = MessageDigest.getInstance(algorithmName);
+      return MessageDigest.getInstance(algorithmName);
     } catch (NoSuchAlgorithmException e) {
       throw new RuntimeException(e);
     }
+  }
+  
+  private static String getFileChecksum(String algorithmName, File file) throws IOException {
+    MessageDigest digest = digest(algorithmName);
     
     //Get file input stream for reading the file content
     FileInputStream fis = new FileInputStream(file);
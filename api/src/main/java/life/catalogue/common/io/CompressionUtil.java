@@ -1,6 +1,11 @@
 package life.catalogue.common.io;
 
 import java.io.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.zip.*;
 
@@ -24,6 +29,49 @@ public class CompressionUtil {
   private static final Logger LOG = LoggerFactory.getLogger(CompressionUtil.class);
   private static final int BUFFER = 2048;
   private static final String APPLE_RESOURCE_FORK = "__MACOSX";
+  private static final byte[] ZIP_MAGIC = {'P', 'K', 3, 4};
+  
+  /**
+   * @return true if the file starts with the signature of a zip archive
+   */
+  public static boolean isZip(File file) throws IOException {
+    byte[] header = new byte[ZIP_MAGIC.length];
+    try (InputStream in = new FileInputStream(file)) {
+      return in.readNBytes(header, 0, header.length) == header.length && Arrays.equals(ZIP_MAGIC, header);
+    }
+  }
+  
+  /**
+   * Opens a zip archive as a file system so its entries can be read lazily without extracting them first.
+   * Use {@link #zipRoot(FileSystem)} to get the directory with the archive content.
+   * Note that the zip file system is writable and any changes made to it are written back to the archive on closing,
+   * so callers must only read from it. The file system must be closed by the caller.
+   */
+  public static FileSystem openZip(File zipFile) throws IOException {
+    return FileSystems.newFileSystem(zipFile.toPath(), (ClassLoader) null);
+  }
+  
+  /**
+   * Returns the directory of an opened zip archive that holds the content, i.e. a single wrapping root directory if existing.
+   * Hidden files and resource forks are ignored just like in {@link #unzipFile(File, File)}.
+   */
+  public static Path zipRoot(FileSystem zip) throws IOException {
+    Path root = zip.getRootDirectories().iterator().next();
+    List<Path> visible = new ArrayList<>();
+    try (DirectoryStream<Path> ds = Files.newDirectoryStream(root)) {
+      for (Path p : ds) {
+        String name = p.getFileName().toString();
+        if (!name.startsWith(".") && !name.toUpperCase().contains(APPLE_RESOURCE_FORK)) {
+          visible.add(p);
+        }
+      }
+    }
+    if (visible.size() == 1 && Files.isDirectory(visible.get(0))) {
+      LOG.debug("Use single root folder {} found in zip archive", visible.get(0));
+      return visible.get(0);
+    }
+    return root;
+  }
   
   /**
    * Tries to decompress a file trying gzip or zip regardless of the filename or its suffix.
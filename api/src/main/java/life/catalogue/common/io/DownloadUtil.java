@@ -5,6 +5,8 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -12,6 +14,7 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAccessor;
 import java.util.regex.Pattern;
+import javax.annotation.Nullable;
 
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
@@ -56,7 +59,7 @@ public class DownloadUtil {
    * @throws DownloadException if any error occurred incl all http 4xx, 5xx responses
    */
   public void download(URI url, File downloadTo) throws DownloadException {
-    downloadIfModifiedSince(url, null, downloadTo);
+    downloadIfModifiedSince(url, null, downloadTo, null);
   }
   
   /**
@@ -70,6 +73,21 @@ public class DownloadUtil {
    * @throws DownloadException if any error occurred incl all http 4xx, 5xx responses
    */
   public boolean downloadIfModified(URI url, File downloadTo) throws DownloadException {
+    return downloadIfModified(url, downloadTo, null);
+  }
+  
+  /**
+   * Downloads a uri to a local file using conditional GET just as {@link #downloadIfModified(URI, File)},
+   * but also updating the given digest with all bytes downloaded.
+   * This avoids reading the file again to calculate its checksum.
+   * The digest is left untouched if the file was not modified.
+   *
+   * @param downloadTo file to download to
+   * @param digest optional digest to update with the downloaded content
+   * @return true if changed or false if unmodified since lastModified
+   * @throws DownloadException if any error occurred incl all http 4xx, 5xx responses
+   */
+  public boolean downloadIfModified(URI url, File downloadTo, @Nullable MessageDigest digest) throws DownloadException {
     ZonedDateTime lastModified = null;
     if (downloadTo.exists()) {
       lastModified = ZonedDateTime.ofInstant(
@@ -77,7 +95,7 @@ public class DownloadUtil {
           ZoneId.systemDefault()
       );
     }
-    return downloadIfModifiedSince(url, lastModified, downloadTo);
+    return downloadIfModifiedSince(url, lastModified, downloadTo, digest);
   }
   
   /**
@@ -94,10 +112,11 @@ public class DownloadUtil {
    *
    * @param downloadTo   file to download to
    * @param lastModified last modified date to use in conditional get
+   * @param digest       optional digest to update with the downloaded content
    * @return true if changed or false if unmodified since lastModified
    * @throws DownloadException if any error occurred incl all http 4xx, 5xx responses
    */
-  private boolean downloadIfModifiedSince(final URI url, final ZonedDateTime lastModified, final File downloadTo) throws DownloadException {
+  private boolean downloadIfModifiedSince(final URI url, final ZonedDateTime lastModified, final File downloadTo, @Nullable MessageDigest digest) throws DownloadException {
     if (url == null) return false;
     
     HttpGet get = new HttpGet(url.toString());
@@ -129,7 +148,7 @@ public class DownloadUtil {
         
       } else if (status.getStatusCode() / 100 == 2) {
         // write to file only when download succeeds
-        saveToFile(response, downloadTo);
+        saveToFile(response, downloadTo, digest);
         LOG.debug("Successfully downloaded {} to {}", url, downloadTo.getAbsolutePath());
         return true;
         
@@ -158,15 +177,21 @@ public class DownloadUtil {
    *
    * @param response
    * @param downloadTo
+   * @param digest optional digest to update with all bytes written
    * @throws IOException
    */
-  private void saveToFile(CloseableHttpResponse response, File downloadTo) throws IOException {
+  private void saveToFile(CloseableHttpResponse response, File downloadTo, @Nullable MessageDigest digest) throws IOException {
     HttpEntity entity = response.getEntity();
     if (entity != null) {
       // copy stream to local file
       downloadTo.getParentFile().mkdirs();
       try (OutputStream fos = new FileOutputStream(downloadTo, false)) {
-        entity.writeTo(fos);
+        if (digest != null) {
+          digest.reset();
+          entity.writeTo(new DigestOutputStream(fos, digest));
+        } else {
+          entity.writeTo(fos);
+        }
       }
       // update last modified of file with http header date from server
       Header modHeader = response.getFirstHeader(LAST_MODIFIED);
@@ -28,6 +28,20 @@ public class UTF8IoUtils {
     return readerFromStream(new GZIPInputStream(new FileInputStream(f)));
   }
 
+  /**
+   * Opens a reader for a file which is decompressed on the fly in case it starts with the gzip magic bytes.
+   */
+  public static BufferedReader readerFromGzipOrPlainFile(File f) throws IOException {
+    InputStream in = new BufferedInputStream(new FileInputStream(f));
+    in.mark(2);
+    int magic = in.read() | (in.read() << 8);
+    in.reset();
+    if (magic == GZIPInputStream.GZIP_MAGIC) {
+      in = new GZIPInputStream(in);
+    }
+    return readerFromStream(in);
+  }
+
   public static BufferedReader readerFromFile(File f) throws IOException {
     return readerFromStream(new FileInputStream(f));
   }
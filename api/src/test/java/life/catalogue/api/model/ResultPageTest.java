@@ -0,0 +1,80 @@
+package life.catalogue.api.model;
+
+import life.catalogue.api.util.PagingUtil;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class ResultPageTest {
+
+  @Test
+  public void keyset() {
+    ResultPage<String> p = ResultPage.keyset(3, List.of("a", "b", "c"), Function.identity());
+    assertEquals(3, p.size());
+    assertEquals(3, p.getTotal());
+    assertEquals(0, p.getOffset());
+    assertEquals(3, p.getLimit());
+    assertNotNull(p.getNext());
+    assertEquals("c", PagingUtil.decodeToken(p.getNext()));
+    assertFalse(p.isLast());
+
+    // not full, no more records
+    p = ResultPage.keyset(3, List.of("d", "e"), Function.identity());
+    assertNull(p.getNext());
+    assertTrue(p.isLast());
+
+    p = ResultPage.keyset(3, List.of(), Function.identity());
+    assertNull(p.getNext());
+    assertTrue(p.isLast());
+  }
+
+  @Test
+  public void withNext() {
+    ResultPage<Integer> p = new ResultPage<>(new Page(0, 3), 10, List.of(1, 2, 3)).withNext(Function.identity());
+    assertEquals("3", PagingUtil.decodeToken(p.getNext()));
+    assertFalse(p.isLast());
+
+    p = new ResultPage<>(new Page(6, 3), 10, List.of(7, 8, 9)).withNext(Function.identity());
+    assertEquals("9", PagingUtil.decodeToken(p.getNext()));
+    assertFalse(p.isLast());
+
+    // last page
+    p = new ResultPage<>(new Page(9, 3), 10, List.of(10)).withNext(Function.identity());
+    assertNull(p.getNext());
+    assertTrue(p.isLast());
+
+    p = new ResultPage<>(new Page(7, 3), 10, List.of(8, 9, 10)).withNext(Function.identity());
+    assertNull(p.getNext());
+    assertTrue(p.isLast());
+
+    p = new ResultPage<>(new Page(0, 3), 0, List.<Integer>of()).withNext(Function.identity());
+    assertNull(p.getNext());
+    assertTrue(p.isLast());
+  }
+
+  @Test
+  public void equals() {
+    ResultPage<String> p1 = ResultPage.keyset(2, List.of("a", "b"), Function.identity());
+    ResultPage<String> p2 = ResultPage.keyset(2, List.of("a", "b"), Function.identity());
+    assertEquals(p1, p2);
+    assertEquals(p1.hashCode(), p2.hashCode());
+
+    p2.setNext(null);
+    assertNotEquals(p1, p2);
+  }
+
+  @Test
+  public void token() {
+    assertEquals("ref-1b", PagingUtil.decodeToken(PagingUtil.encodeToken("ref-1b")));
+    assertEquals("13:4/5 ü", PagingUtil.decodeToken(PagingUtil.encodeToken("13:4/5 ü")));
+    assertEquals("1234", PagingUtil.decodeToken(PagingUtil.encodeToken(1234)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidToken() {
+    PagingUtil.decodeToken("no token!");
+  }
+}
@@ -0,0 +1,154 @@
+package life.catalogue.common.csl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import life.catalogue.api.jackson.ApiModule;
+import life.catalogue.api.model.CslData;
+import life.catalogue.api.model.CslDate;
+import life.catalogue.api.model.CslName;
+import life.catalogue.api.vocab.CSLRefType;
+import life.catalogue.common.io.Resources;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ApaFormatterTest {
+
+  /**
+   * Makes sure the native formatter renders exactly the same as citeproc for all supported data.
+   */
+  @Test
+  public void sameAsCiteproc() throws IOException {
+    int supported = 0;
+    for (CslData d : corpus()) {
+      String cite = ApaFormatter.format(d);
+      if (cite != null) {
+        supported++;
+        assertEquals(CslUtil.buildCitationCiteproc(d), cite);
+      }
+    }
+    assertTrue(supported >= 10);
+  }
+
+  @Test
+  public void format() {
+    CslData d = article("The Structure of Ordinary Water", "Science", "169", "3946", "635-41", 1970,
+        name("Frank", "Henry S."));
+    assertEquals("Frank, H. S. (1970). The Structure of Ordinary Water. Science, 169(3946), 635–641.", ApaFormatter.format(d));
+
+    d = article("Guess what?", "Journal of Biology", null, null, null, null,
+        name("Döring", "Markus"), name("Meyer", "Jean-Pierre"));
+    assertEquals("Döring, M., & Meyer, J.-P. (n.d.). Guess what? Journal of Biology.", ApaFormatter.format(d));
+
+    d.setDOI("10.1093/database/baw125");
+    assertEquals("Döring, M., & Meyer, J.-P. (n.d.). Guess what? Journal of Biology. https://doi.org/10.1093/database/baw125", ApaFormatter.format(d));
+  }
+
+  @Test
+  public void etAl() {
+    CslData d = article("Title", "Database", null, null, "12", 2016, authors(7));
+    assertEquals("A, A., B, B., C, C., D, D., E, E., F, F., & G, G. (2016). Title. Database, 12.", ApaFormatter.format(d));
+
+    d.setAuthor(authors(8));
+    assertEquals("A, A., B, B., C, C., D, D., E, E., F, F., et al. (2016). Title. Database, 12.", ApaFormatter.format(d));
+  }
+
+  @Test
+  public void unsupported() {
+    List<CslData> unsupported = new ArrayList<>();
+    // type
+    CslData d = article("Title", "Database", "1", null, null, 2016, name("Frank", "H."));
+    d.setType(CSLRefType.BOOK);
+    unsupported.add(d);
+    // editors
+    d = article("Title", "Database", "1", null, null, 2016, name("Frank", "H."));
+    d.setEditor(new CslName[]{name("Meyer", "P.")});
+    unsupported.add(d);
+    // name particles
+    unsupported.add(article("Title", "Database", "1", null, null, 2016, name("van der Berg", "H.")));
+    // quotes
+    unsupported.add(article("The \"real\" thing", "Database", "1", null, null, 2016, name("Frank", "H.")));
+    // title case
+    unsupported.add(article("Title", "journal of biology", "1", null, null, 2016, name("Frank", "H.")));
+    unsupported.add(article("Title", "Journal Of Biology", "1", null, null, 2016, name("Frank", "H.")));
+    // no authors
+    unsupported.add(article("Title", "Database", "1", null, null, 2016));
+    // URL only
+    d = article("Title", "Database", "1", null, null, 2016, name("Frank", "H."));
+    d.setURL("http://gbif.org");
+    unsupported.add(d);
+    // odd pages
+    unsupported.add(article("Title", "Database", "1", null, "D12-D14", 2016, name("Frank", "H.")));
+
+    for (CslData x : unsupported) {
+      assertNull(ApaFormatter.format(x));
+    }
+  }
+
+  private static List<CslData> corpus() throws IOException {
+    InputStream in = Resources.stream("references/test.json");
+    List<CslData> corpus = ApiModule.MAPPER.readValue(in, new TypeReference<List<CslData>>(){});
+
+    corpus.add(article("The Structure of Ordinary Water", "Science", "169", "3946", "635-641", 1970, name("Frank", "Henry S.")));
+    corpus.add(article("Mitochondrial DNA extraction and sequencing of formalin-fixed archival snake tissue", "Mitochondrial DNA", "19", null, "433-437", 2008,
+        name("Friedman", "M."), name("DeSalle", "R.")));
+    corpus.add(article("Character-based DNA barcoding allows discrimination of genera, species and populations in Odonata", "Proc. R. Soc. B", "275", "1632", "273", 2008,
+        name("Rach", "J."), name("DeSalle", "R."), name("Sarkar", "I. N."), name("Schierwater", "B."), name("Hadrys", "H.")));
+    corpus.add(article("B-HIT - a tool for harvesting and indexing biodiversity data", "PLoS One", "10", "11", "e0142240", 2015,
+        name("Kelbert", "Patricia"), name("Droege", "Gabriele"), name("Barker", "Katharine"), name("Braak", "Kyle"), name("Cawsey", "E. Margaret"),
+        name("Coddington", "Jonathan"), name("Robertson", "Tim"), name("Whitacre", "Jamie"), name("Güntsch", "Anton")));
+    corpus.add(article("Why use HTS?", "Journal of the Royal Society", "12", null, "1211-15", 2016, name("Lavín Trueba", "José Luis")));
+    corpus.add(article("Biological Resource Centres.", "Annals of Botany", null, null, null, 2001, name("Smith", null)));
+    corpus.add(article("Notes on Carabidae", "Zootaxa", "4000", "2", "101–117", 2015, name("Müller", "Hans-Jürgen"), name("Ödön", "Zsolt")));
+    corpus.add(article("A new species", "ZooKeys", "365", null, "1", null, name("Bánki", "Olaf"), name("Roskov", "Yury"), name("Döring", "Markus")));
+    corpus.add(article("Title only", null, null, null, null, 2020, name("Doe", "J")));
+    corpus.add(article("Seven authors", "Database", "2016", null, "baw125", 2016, authors(7)));
+    corpus.add(article("Eight authors", "Database", "2016", null, "baw125", 2016, authors(8)));
+    CslData d = article("With a DOI", "Database", "2016", null, "baw125", 2016, name("Droege", "G."));
+    d.setDOI("10.1093/database/baw125");
+    d.setURL("http://dx.doi.org/10.1093/database/baw125");
+    d.setPublisher("Oxford University Press (OUP)");
+    corpus.add(d);
+    // unsupported ones only rendered by citeproc
+    corpus.add(article("Title", "journal of biology", "1", null, null, 2016, name("van der Berg", "H.")));
+    return corpus;
+  }
+
+  private static CslData article(String title, String container, String volume, String issue, String page, Integer year, CslName... authors) {
+    CslData d = new CslData();
+    d.setType(CSLRefType.ARTICLE_JOURNAL);
+    d.setTitle(title);
+    d.setContainerTitle(container);
+    d.setVolume(volume);
+    d.setIssue(issue);
+    d.setPage(page);
+    if (year != null) {
+      d.setIssued(new CslDate());
+      d.getIssued().setDateParts(new int[][]{{year}});
+    }
+    if (authors.length > 0) {
+      d.setAuthor(authors);
+    }
+    return d;
+  }
+
+  private static CslName name(String family, String given) {
+    CslName n = new CslName();
+    n.setFamily(family);
+    n.setGiven(given);
+    return n;
+  }
+
+  private static CslName[] authors(int size) {
+    CslName[] authors = new CslName[size];
+    for (int i = 0; i < size; i++) {
+      String x = String.valueOf((char) ('A' + i));
+      authors[i] = name(x, x);
+    }
+    return authors;
+  }
+}
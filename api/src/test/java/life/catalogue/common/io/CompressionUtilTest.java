@@ -0,0 +1,69 @@
+package life.catalogue.common.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CompressionUtilTest {
+  File tmp;
+
+  @Before
+  public void init() throws IOException {
+    tmp = Files.createTempDirectory("compression").toFile();
+  }
+
+  @After
+  public void cleanup() throws IOException {
+    FileUtils.deleteDirectory(tmp);
+  }
+
+  private File zip(String... files) throws IOException {
+    File dir = new File(tmp, "content");
+    for (String fn : files) {
+      File f = new File(dir, fn);
+      FileUtils.write(f, fn, StandardCharsets.UTF_8);
+    }
+    File zip = new File(tmp, "archive.zip");
+    CompressionUtil.zipDir(dir, zip, true);
+    FileUtils.deleteDirectory(dir);
+    return zip;
+  }
+
+  @Test
+  public void zipRoot() throws IOException {
+    File zip = zip("dwca/meta.xml", "dwca/taxa.txt", "__MACOSX/dwca/._taxa.txt");
+    assertTrue(CompressionUtil.isZip(zip));
+    try (FileSystem fs = CompressionUtil.openZip(zip)) {
+      Path root = CompressionUtil.zipRoot(fs);
+      assertEquals("dwca", root.getFileName().toString().replace("/", ""));
+      assertEquals("dwca/taxa.txt", new String(Files.readAllBytes(root.resolve("taxa.txt")), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void zipRootFlat() throws IOException {
+    File zip = zip("meta.xml", "taxa.txt");
+    try (FileSystem fs = CompressionUtil.openZip(zip)) {
+      Path root = CompressionUtil.zipRoot(fs);
+      assertTrue(Files.exists(root.resolve("meta.xml")));
+      assertTrue(Files.exists(root.resolve("taxa.txt")));
+    }
+  }
+
+  @Test
+  public void noZip() throws IOException {
+    File f = new File(tmp, "taxa.txt");
+    FileUtils.write(f, "PK", StandardCharsets.UTF_8);
+    assertFalse(CompressionUtil.isZip(f));
+  }
+}
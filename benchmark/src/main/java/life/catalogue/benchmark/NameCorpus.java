@@ -0,0 +1,75 @@
+package life.catalogue.benchmark;
+
+import life.catalogue.api.model.IssueContainer;
+import life.catalogue.api.model.Name;
+import life.catalogue.parser.NameParser;
+import org.gbif.nameparser.api.Rank;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic corpus of scientific names with authorship and rank bundled as names.tsv
+ * so benchmark results are comparable across versions.
+ */
+public class NameCorpus {
+  private static final String RESOURCE = "/names.tsv";
+
+  /**
+   * A single raw corpus record.
+   */
+  public static class Row {
+    public final String scientificName;
+    public final String authorship;
+    public final Rank rank;
+
+    Row(String scientificName, String authorship, Rank rank) {
+      this.scientificName = scientificName;
+      this.authorship = authorship;
+      this.rank = rank;
+    }
+
+    public String getLabel() {
+      return authorship == null ? scientificName : scientificName + " " + authorship;
+    }
+  }
+
+  /**
+   * @return all raw corpus records in their original order
+   */
+  public static List<Row> rows() {
+    List<Row> rows = new ArrayList<>();
+    try (BufferedReader br = new BufferedReader(new InputStreamReader(NameCorpus.class.getResourceAsStream(RESOURCE), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = br.readLine()) != null) {
+        if (line.isEmpty() || line.startsWith("#")) continue;
+        String[] cols = line.split("\t", -1);
+        rows.add(new Row(cols[0], cols[1].isEmpty() ? null : cols[1], Rank.valueOf(cols[2].toUpperCase())));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return rows;
+  }
+
+  /**
+   * @return all corpus records parsed into names with ids n0, n1, ...
+   */
+  public static List<Name> names() {
+    List<Name> names = new ArrayList<>();
+    int idx = 0;
+    for (Row r : rows()) {
+      Name n = NameParser.PARSER.parse(r.getLabel(), r.rank, null, IssueContainer.VOID)
+          .orElseThrow(() -> new IllegalStateException("Failed to parse corpus name " + r.getLabel()))
+          .getName();
+      n.setId("n" + idx++);
+      names.add(n);
+    }
+    return names;
+  }
+}
@@ -0,0 +1,151 @@
+package life.catalogue.benchmark;
+
+import life.catalogue.api.model.Name;
+import life.catalogue.common.tax.AuthorshipNormalizer;
+import life.catalogue.db.mapper.NameMapper;
+import life.catalogue.matching.NameIndex;
+import life.catalogue.matching.NameIndexFactory;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches all names of the corpus against an in memory names index which was loaded with the very same corpus.
+ * Instead of postgres the index is fed by a stub session factory that only knows how to list the corpus names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class NameIndexBenchmark {
+
+  @Param({"false", "true"})
+  public boolean fuzzy;
+
+  private List<Name> names;
+  private NameIndex ni;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    names = NameCorpus.names();
+    ni = NameIndexFactory.memory(fuzzy, corpusFactory(NameCorpus.names()), AuthorshipNormalizer.INSTANCE);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    ni.close();
+  }
+
+  @Benchmark
+  public void match(Blackhole bh) {
+    for (Name n : names) {
+      bh.consume(ni.match(n, false, false));
+    }
+  }
+
+  /**
+   * @return a session factory whose sessions only support the NameMapper methods needed to load the index
+   */
+  private static SqlSessionFactory corpusFactory(List<Name> corpus) {
+    NameMapper mapper = stub(NameMapper.class, (method, args) -> {
+      switch (method) {
+        case "processDataset":
+          return new ListCursor<>(corpus);
+        case "count":
+          return corpus.size();
+      }
+      return null;
+    });
+    SqlSession session = stub(SqlSession.class, (method, args) -> {
+      switch (method) {
+        case "getMapper":
+          return mapper;
+        case "close":
+          return Void.TYPE;
+      }
+      return null;
+    });
+    return stub(SqlSessionFactory.class, (method, args) -> method.startsWith("openSession") ? session : null);
+  }
+
+  private interface Handler {
+    /**
+     * @return the result of the method call, Void.TYPE for void methods or null if unsupported
+     */
+    Object invoke(String method, Object[] args);
+  }
+
+  private static <T> T stub(Class<T> iface, Handler handler) {
+    return iface.cast(Proxy.newProxyInstance(iface.getClassLoader(), new Class<?>[]{iface}, (proxy, method, args) -> {
+      switch (method.getName()) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "Stub" + iface.getSimpleName();
+      }
+      Object result = handler.invoke(method.getName(), args);
+      if (result == null) {
+        throw new UnsupportedOperationException(iface.getSimpleName() + "." + method.getName() + " is not supported by the benchmark stub");
+      }
+      return result == Void.TYPE ? null : result;
+    }));
+  }
+
+  private static class ListCursor<T> implements Cursor<T> {
+    private final List<T> list;
+    private int idx = -1;
+    private boolean open = true;
+
+    ListCursor(List<T> list) {
+      this.list = list;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return open;
+    }
+
+    @Override
+    public boolean isConsumed() {
+      return idx + 1 >= list.size();
+    }
+
+    @Override
+    public int getCurrentIndex() {
+      return idx;
+    }
+
+    @Override
+    public void close() {
+      open = false;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      Iterator<T> iter = list.iterator();
+      return new Iterator<T>() {
+        @Override
+        public boolean hasNext() {
+          return iter.hasNext();
+        }
+
+        @Override
+        public T next() {
+          idx++;
+          return iter.next();
+        }
+      };
+    }
+  }
+}
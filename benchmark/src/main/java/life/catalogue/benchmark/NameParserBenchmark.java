@@ -0,0 +1,34 @@
+package life.catalogue.benchmark;
+
+import life.catalogue.api.model.IssueContainer;
+import life.catalogue.parser.NameParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses all names of the corpus per invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class NameParserBenchmark {
+  private List<NameCorpus.Row> rows;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    rows = NameCorpus.rows();
+  }
+
+  @Benchmark
+  public void parse(Blackhole bh) {
+    for (NameCorpus.Row r : rows) {
+      bh.consume(NameParser.PARSER.parse(r.getLabel(), r.rank, null, IssueContainer.VOID));
+    }
+  }
+}
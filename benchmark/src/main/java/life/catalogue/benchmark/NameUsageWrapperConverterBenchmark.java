@@ -0,0 +1,84 @@
+package life.catalogue.benchmark;
+
+import life.catalogue.api.model.Name;
+import life.catalogue.api.model.SimpleName;
+import life.catalogue.api.model.Taxon;
+import life.catalogue.api.search.NameUsageWrapper;
+import life.catalogue.api.vocab.TaxonomicStatus;
+import life.catalogue.es.nu.NameUsageWrapperConverter;
+import org.gbif.nameparser.api.Rank;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deflates and inflates the ES payload of a name usage wrapper for every name of the corpus per invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class NameUsageWrapperConverterBenchmark {
+  private List<NameUsageWrapper> usages;
+  private List<String> payloads;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    usages = wrappers();
+    payloads = new ArrayList<>();
+    for (NameUsageWrapper nuw : usages) {
+      payloads.add(NameUsageWrapperConverter.deflate(nuw));
+    }
+  }
+
+  /**
+   * @return an accepted taxon wrapper with a fixed classification for every name of the corpus
+   */
+  static List<NameUsageWrapper> wrappers() {
+    List<NameUsageWrapper> usages = new ArrayList<>();
+    List<SimpleName> classification = classification();
+    for (Name n : NameCorpus.names()) {
+      n.setDatasetKey(3);
+      Taxon t = new Taxon();
+      t.setId("t" + n.getId());
+      t.setDatasetKey(3);
+      t.setName(n);
+      t.setStatus(TaxonomicStatus.ACCEPTED);
+      NameUsageWrapper nuw = new NameUsageWrapper(t);
+      nuw.setClassification(classification);
+      usages.add(nuw);
+    }
+    return usages;
+  }
+
+  private static List<SimpleName> classification() {
+    List<SimpleName> cl = new ArrayList<>();
+    cl.add(new SimpleName("k", "Animalia", Rank.KINGDOM));
+    cl.add(new SimpleName("p", "Arthropoda", Rank.PHYLUM));
+    cl.add(new SimpleName("c", "Insecta", Rank.CLASS));
+    cl.add(new SimpleName("o", "Hymenoptera", Rank.ORDER));
+    cl.add(new SimpleName("f", "Apidae", Rank.FAMILY));
+    cl.add(new SimpleName("g", "Bombus", Rank.GENUS));
+    return cl;
+  }
+
+  @Benchmark
+  public void deflate(Blackhole bh) throws IOException {
+    for (NameUsageWrapper nuw : usages) {
+      bh.consume(NameUsageWrapperConverter.deflate(nuw));
+    }
+  }
+
+  @Benchmark
+  public void inflate(Blackhole bh) throws IOException {
+    for (String p : payloads) {
+      bh.consume(NameUsageWrapperConverter.inflate(p));
+    }
+  }
+}
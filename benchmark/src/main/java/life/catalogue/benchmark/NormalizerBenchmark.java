@@ -0,0 +1,58 @@
+package life.catalogue.benchmark;
+
+import life.catalogue.api.model.Name;
+import life.catalogue.common.tax.AuthorshipNormalizer;
+import life.catalogue.common.tax.SciNameNormalizer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalizes all names and authorships of the corpus per invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class NormalizerBenchmark {
+  private List<NameCorpus.Row> rows;
+  private List<Name> names;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    rows = NameCorpus.rows();
+    names = NameCorpus.names();
+  }
+
+  @Benchmark
+  public void sciNameNormalize(Blackhole bh) {
+    for (NameCorpus.Row r : rows) {
+      bh.consume(SciNameNormalizer.normalize(r.scientificName));
+    }
+  }
+
+  @Benchmark
+  public void sciNameNormalizeAll(Blackhole bh) {
+    for (NameCorpus.Row r : rows) {
+      bh.consume(SciNameNormalizer.normalizeAll(r.scientificName));
+    }
+  }
+
+  @Benchmark
+  public void authorshipNormalizeString(Blackhole bh) {
+    for (NameCorpus.Row r : rows) {
+      bh.consume(AuthorshipNormalizer.normalize(r.authorship));
+    }
+  }
+
+  @Benchmark
+  public void authorshipNormalizeParsed(Blackhole bh) {
+    for (Name n : names) {
+      bh.consume(AuthorshipNormalizer.normalize(n.getCombinationAuthorship()));
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package life.catalogue.benchmark;
+
+import life.catalogue.api.search.NameUsageWrapper;
+import life.catalogue.es.PayloadCodec;
+import life.catalogue.es.nu.NameUsageWrapperConverter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Encodes and decodes the ES payload of a name usage wrapper with each payload codec for every name of the corpus per invocation.
+ * Decoding includes the base64 step done for search responses. The average payload size is logged during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PayloadCodecBenchmark {
+  private static final Logger LOG = LoggerFactory.getLogger(PayloadCodecBenchmark.class);
+
+  @Param({"JSON_DEFLATE", "SMILE", "SMILE_DEFLATE"})
+  public PayloadCodec codec;
+
+  private List<NameUsageWrapper> usages;
+  private List<String> payloads;
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);
+  private final Deflater deflater = new Deflater();
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    usages = NameUsageWrapperConverterBenchmark.wrappers();
+    payloads = new ArrayList<>();
+    long size = 0;
+    for (NameUsageWrapper nuw : usages) {
+      String p = Base64.getEncoder().encodeToString(encode(nuw));
+      payloads.add(p);
+      size += p.length();
+    }
+    LOG.info("{} average payload size {} bytes", codec, size / payloads.size());
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    deflater.end();
+  }
+
+  private byte[] encode(NameUsageWrapper nuw) throws IOException {
+    buffer.reset();
+    codec.encode(nuw, buffer, deflater, NameUsageWrapperConverter.ZIP_PAYLOAD);
+    return buffer.toByteArray();
+  }
+
+  @Benchmark
+  public void encode(Blackhole bh) throws IOException {
+    for (NameUsageWrapper nuw : usages) {
+      buffer.reset();
+      codec.encode(nuw, buffer, deflater, NameUsageWrapperConverter.ZIP_PAYLOAD);
+      bh.consume(buffer.size());
+    }
+  }
+
+  @Benchmark
+  public void decode(Blackhole bh) throws IOException {
+    for (String p : payloads) {
+      bh.consume(NameUsageWrapperConverter.inflate(p));
+    }
+  }
+}
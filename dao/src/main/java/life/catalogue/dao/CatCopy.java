@@ -27,7 +27,7 @@ public class CatCopy {
   
   private static final Transliterator transLatin = Transliterator.getInstance("Any-Latin; de-ascii; Latin-ASCII");
   
-  private static final Map<EntityType, Class<? extends TaxonExtensionMapper<? extends DatasetScopedEntity<Integer>>>> extMapper = new HashMap<>();
+  static final Map<EntityType, Class<? extends TaxonExtensionMapper<? extends DatasetScopedEntity<Integer>>>> extMapper = new HashMap<>();
   static {
     extMapper.put(EntityType.DISTRIBUTION, DistributionMapper.class);
     extMapper.put(EntityType.VERNACULAR, VernacularNameMapper.class);
@@ -126,15 +126,7 @@ public class CatCopy {
     Integer vKey = null;
     if (createVerbatim && n.getVerbatimKey() != null) {
       VerbatimRecordMapper vm = session.getMapper(VerbatimRecordMapper.class);
-      VerbatimRecord vSrc = vm.get(DSID.vkey(n));
-      VerbatimRecord v = new VerbatimRecord(vSrc);
-      v.setDatasetKey(targetDatasetKey);
-      v.setType(ColdpTerm.Name);
-      v.put(DwcTerm.datasetID, u.getDatasetKey().toString());
-      v.put(ColdpTerm.ID, vSrc.getFirstRaw(ColdpTerm.ID, AcefTerm.ID, AcefTerm.AcceptedTaxonID, DwcTerm.taxonID, DwcaTerm.ID));
-      v.put(ColdpTerm.scientificName, vSrc.getFirstRaw(ColdpTerm.scientificName, DwcTerm.scientificName));
-      v.put(ColdpTerm.authorship, vSrc.getFirstRaw(ColdpTerm.authorship, AcefTerm.InfraSpeciesAuthorString, AcefTerm.AuthorString, DwcTerm.scientificNameAuthorship));
-      v.put(ColdpTerm.rank, vSrc.getFirstRaw(ColdpTerm.rank, AcefTerm.InfraSpeciesMarker, DwcTerm.taxonRank, DwcTerm.verbatimTaxonRank));
+      VerbatimRecord v = copyVerbatim(vm.get(DSID.vkey(n)), u.getDatasetKey(), targetDatasetKey);
       vm.create(v);
       vKey=v.getId();
     }
@@ -143,12 +135,28 @@ public class CatCopy {
     batchSession.getMapper(NameMapper.class).create(n);
   }
   
-  private static NameUsageBase setKeys(NameUsageBase t, int datasetKey) {
+  /**
+   * Creates a new verbatim name record for the target dataset with the verbatim name & authorship
+   * of the given source record.
+   */
+  static VerbatimRecord copyVerbatim(VerbatimRecord vSrc, int sourceDatasetKey, int targetDatasetKey) {
+    VerbatimRecord v = new VerbatimRecord(vSrc);
+    v.setDatasetKey(targetDatasetKey);
+    v.setType(ColdpTerm.Name);
+    v.put(DwcTerm.datasetID, String.valueOf(sourceDatasetKey));
+    v.put(ColdpTerm.ID, vSrc.getFirstRaw(ColdpTerm.ID, AcefTerm.ID, AcefTerm.AcceptedTaxonID, DwcTerm.taxonID, DwcaTerm.ID));
+    v.put(ColdpTerm.scientificName, vSrc.getFirstRaw(ColdpTerm.scientificName, DwcTerm.scientificName));
+    v.put(ColdpTerm.authorship, vSrc.getFirstRaw(ColdpTerm.authorship, AcefTerm.InfraSpeciesAuthorString, AcefTerm.AuthorString, DwcTerm.scientificNameAuthorship));
+    v.put(ColdpTerm.rank, vSrc.getFirstRaw(ColdpTerm.rank, AcefTerm.InfraSpeciesMarker, DwcTerm.taxonRank, DwcTerm.verbatimTaxonRank));
+    return v;
+  }
+  
+  static NameUsageBase setKeys(NameUsageBase t, int datasetKey) {
     t.setDatasetKey(datasetKey);
     return newKey(t);
   }
   
-  private static Name setKeys(Name n, int datasetKey, int sectorKey) {
+  static Name setKeys(Name n, int datasetKey, int sectorKey) {
     n.setDatasetKey(datasetKey);
     n.setSectorKey(sectorKey);
     newKey(n);
@@ -169,7 +177,7 @@ public class CatCopy {
     return e;
   }
   
-  private static void updateVernacularName(VernacularName vn, IssueContainer rec) {
+  static void updateVernacularName(VernacularName vn, IssueContainer rec) {
     if (StringUtils.isBlank(vn.getLatin())) {
       vn.setLatin(latinName(vn.getName()));
       rec.addIssue(Issue.VERNACULAR_NAME_TRANSLITERATED);
@@ -0,0 +1,298 @@
+package life.catalogue.dao;
+
+import life.catalogue.api.model.*;
+import life.catalogue.api.vocab.EntityType;
+import life.catalogue.api.vocab.Origin;
+import life.catalogue.db.mapper.*;
+import org.apache.ibatis.session.SqlSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Batched variant of CatCopy.copyUsage used to copy entire sectors.
+ *
+ * Usages are modified and given new ids right away, but are only buffered.
+ * Once a page is full all references, verbatim records and taxon extensions of the page
+ * are loaded from the source dataset with a few set based queries
+ * and names, usages and extensions are then inserted statement by statement in large JDBC batches.
+ *
+ * References are copied or matched by their citation only once per instance
+ * and the source to copy reference ids are cached for its entire lifetime.
+ *
+ * The given session must use ExecutorType.BATCH and is committed after each page.
+ */
+public class CatCopyBatch {
+  private static final Logger LOG = LoggerFactory.getLogger(CatCopyBatch.class);
+
+  private final SqlSession batchSession;
+  private final int sourceDatasetKey;
+  private final int targetDatasetKey;
+  private final int sectorKey;
+  private final int user;
+  private final boolean createVerbatim;
+  private final Set<EntityType> extensions;
+  private final int pageSize;
+  private final ReferenceMapper rm;
+  private final VerbatimRecordMapper vm;
+  private final NameMapper nm;
+  private final TaxonMapper tm;
+  private final SynonymMapper sm;
+  // source reference id -> id in target, null for missing source references
+  private final Map<String, String> refIds = new HashMap<>();
+  private final List<Item> page = new ArrayList<>();
+
+  /**
+   * A buffered usage already carrying its new ids, but still with source reference ids.
+   */
+  private static class Item {
+    final NameUsageBase u;
+    // original source ids and keys, all null for implicit usages
+    final String origId;
+    final Integer origVerbatimKey;
+
+    Item(NameUsageBase u, String origId, Integer origVerbatimKey) {
+      this.u = u;
+      this.origId = origId;
+      this.origVerbatimKey = origVerbatimKey;
+    }
+
+    boolean isImplicit() {
+      return origId == null;
+    }
+  }
+
+  /**
+   * @param createVerbatim if true also creates a verbatim record for the name with the verbatim name & authorship as values
+   * @param include associated entity types to be copied too
+   * @param pageSize number of usages to buffer before they are written
+   */
+  public CatCopyBatch(SqlSession batchSession, int sourceDatasetKey, int targetDatasetKey, int sectorKey, int user,
+                      boolean createVerbatim, Set<EntityType> include, int pageSize) {
+    this.batchSession = batchSession;
+    this.sourceDatasetKey = sourceDatasetKey;
+    this.targetDatasetKey = targetDatasetKey;
+    this.sectorKey = sectorKey;
+    this.user = user;
+    this.createVerbatim = createVerbatim;
+    this.extensions = include.stream()
+        .filter(CatCopy.extMapper::containsKey)
+        .collect(Collectors.toSet());
+    this.pageSize = pageSize;
+    rm = batchSession.getMapper(ReferenceMapper.class);
+    vm = batchSession.getMapper(VerbatimRecordMapper.class);
+    nm = batchSession.getMapper(NameMapper.class);
+    tm = batchSession.getMapper(TaxonMapper.class);
+    sm = batchSession.getMapper(SynonymMapper.class);
+  }
+
+  /**
+   * Copies the given source usage under the given parent.
+   * Just like CatCopy.copyUsage the usage and its name are modified to represent the newly generated records
+   * and receive new ids immediately, so they can be used as parents before they are written.
+   *
+   * @return the original source usage id
+   */
+  public DSID<String> copyUsage(NameUsageBase u, String parentId) {
+    final DSID<String> orig = new DSIDValue<>(u);
+    Name n = u.getName();
+    final Integer origVerbatimKey = n.getVerbatimKey();
+    n.applyUser(user, true);
+    n.setOrigin(Origin.SOURCE);
+    CatCopy.setKeys(n, targetDatasetKey, u.getSectorKey());
+
+    CatCopy.setKeys(u, targetDatasetKey);
+    u.applyUser(user, true);
+    u.setOrigin(Origin.SOURCE);
+    u.setParentId(parentId);
+    add(new Item(u, orig.getId(), origVerbatimKey));
+    return orig;
+  }
+
+  /**
+   * Adds a new usage, e.g. an implicit taxon, which is written as it is together with its name
+   * in the same order as all other usages.
+   */
+  public void create(NameUsageBase u) {
+    add(new Item(u, null, null));
+  }
+
+  private void add(Item item) {
+    page.add(item);
+    if (page.size() >= pageSize) {
+      flush();
+    }
+  }
+
+  /**
+   * Writes all buffered usages with their associated data and commits the batch session.
+   */
+  public void flush() {
+    if (page.isEmpty()) {
+      return;
+    }
+    // load source data in bulk
+    Map<EntityType, Map<String, List<DatasetScopedEntity<Integer>>>> ext = loadExtensions();
+    Set<String> refs = new HashSet<>();
+    for (Item i : page) {
+      if (!i.isImplicit()) {
+        refs.add(i.u.getName().getPublishedInId());
+        refs.addAll(i.u.getReferenceIds());
+      }
+    }
+    ext.values().forEach(m -> m.values().forEach(list -> list.forEach(e -> {
+      if (e instanceof Referenced) {
+        refs.add(((Referenced) e).getReferenceId());
+      }
+    })));
+    lookupReferences(refs);
+
+    // verbatim records need their generated keys before names can refer to them
+    if (createVerbatim) {
+      copyVerbatim();
+    }
+
+    // names first, then all usages in their original order so parents always precede their children
+    for (Item i : page) {
+      Name n = i.u.getName();
+      if (!i.isImplicit()) {
+        n.setPublishedInId(lookupReference(n.getPublishedInId()));
+      }
+      nm.create(n);
+    }
+    for (Item i : page) {
+      if (!i.isImplicit()) {
+        i.u.setReferenceIds(
+            i.u.getReferenceIds().stream()
+                .map(this::lookupReference)
+                .collect(Collectors.toList())
+        );
+      }
+      if (i.u.isTaxon()) {
+        tm.create((Taxon) i.u);
+      } else {
+        sm.create((Synonym) i.u);
+      }
+    }
+    for (Map.Entry<EntityType, Map<String, List<DatasetScopedEntity<Integer>>>> e : ext.entrySet()) {
+      copyExtensions(e.getKey(), e.getValue());
+    }
+    batchSession.commit();
+    LOG.debug("Copied {} usages into dataset {}", page.size(), targetDatasetKey);
+    page.clear();
+  }
+
+  private Map<EntityType, Map<String, List<DatasetScopedEntity<Integer>>>> loadExtensions() {
+    Map<EntityType, Map<String, List<DatasetScopedEntity<Integer>>>> ext = new HashMap<>();
+    if (!extensions.isEmpty()) {
+      Set<String> taxonIds = page.stream()
+          .filter(i -> !i.isImplicit() && i.u.isTaxon())
+          .map(i -> i.origId)
+          .collect(Collectors.toSet());
+      if (!taxonIds.isEmpty()) {
+        for (EntityType type : extensions) {
+          Map<String, List<DatasetScopedEntity<Integer>>> byTaxon = new HashMap<>();
+          for (TaxonExtension<DatasetScopedEntity<Integer>> te : mapper(type).listByTaxa(sourceDatasetKey, taxonIds)) {
+            byTaxon.computeIfAbsent(te.getTaxonID(), k -> new ArrayList<>()).add(te.getObj());
+          }
+          ext.put(type, byTaxon);
+        }
+      }
+    }
+    return ext;
+  }
+
+  private TaxonExtensionMapper<DatasetScopedEntity<Integer>> mapper(EntityType type) {
+    return (TaxonExtensionMapper<DatasetScopedEntity<Integer>>) batchSession.getMapper(CatCopy.extMapper.get(type));
+  }
+
+  private void copyVerbatim() {
+    Set<Integer> keys = page.stream()
+        .map(i -> i.origVerbatimKey)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+    if (keys.isEmpty()) {
+      return;
+    }
+    Map<Integer, VerbatimRecord> copies = new HashMap<>();
+    for (VerbatimRecord v : vm.listByKeys(sourceDatasetKey, keys)) {
+      VerbatimRecord copy = CatCopy.copyVerbatim(v, sourceDatasetKey, targetDatasetKey);
+      vm.create(copy);
+      copies.put(v.getId(), copy);
+    }
+    // executes the batch and populates the generated keys
+    batchSession.flushStatements();
+    for (Item i : page) {
+      if (i.origVerbatimKey != null && copies.containsKey(i.origVerbatimKey)) {
+        i.u.getName().setVerbatimKey(copies.get(i.origVerbatimKey).getId());
+      }
+    }
+  }
+
+  private void copyExtensions(EntityType type, Map<String, List<DatasetScopedEntity<Integer>>> byTaxon) {
+    final TaxonExtensionMapper<DatasetScopedEntity<Integer>> mapper = mapper(type);
+    for (Item i : page) {
+      if (i.isImplicit() || !byTaxon.containsKey(i.origId)) continue;
+      for (DatasetScopedEntity<Integer> e : byTaxon.get(i.origId)) {
+        e.setId(null);
+        e.setDatasetKey(targetDatasetKey);
+        e.applyUser(user);
+        if (e instanceof VerbatimEntity) {
+          // nullify verbatim keys until we create new verbatim records to keep issues
+          ((VerbatimEntity) e).setVerbatimKey(null);
+        }
+        if (e instanceof Referenced) {
+          Referenced eRef = (Referenced) e;
+          eRef.setReferenceId(lookupReference(eRef.getReferenceId()));
+        }
+        if (EntityType.VERNACULAR == type) {
+          CatCopy.updateVernacularName((VernacularName) e, IssueContainer.VOID);
+        }
+        mapper.create(e, i.u.getId());
+      }
+    }
+  }
+
+  /**
+   * Loads all source references not seen before in one go and copies or matches them in the target.
+   */
+  private void lookupReferences(Set<String> ids) {
+    Set<String> missing = ids.stream()
+        .filter(id -> id != null && !refIds.containsKey(id))
+        .collect(Collectors.toSet());
+    if (missing.isEmpty()) {
+      return;
+    }
+    for (Reference r : rm.listByIds(sourceDatasetKey, missing)) {
+      missing.remove(r.getId());
+      copyReference(r);
+    }
+    for (String id : missing) {
+      LOG.warn("Reference {} is missing in source dataset {}", id, sourceDatasetKey);
+      refIds.put(id, null);
+    }
+  }
+
+  private String lookupReference(String refID) {
+    return refID == null ? null : refIds.get(refID);
+  }
+
+  private void copyReference(Reference ref) {
+    final String origID = ref.getId();
+    List<Reference> matches = rm.find(targetDatasetKey, sectorKey, ref.getCitation());
+    if (matches.isEmpty()) {
+      // insert new ref
+      ref.setSectorKey(sectorKey);
+      ReferenceDao.copyReference(batchSession, ref, targetDatasetKey, user);
+      refIds.put(origID, ref.getId());
+
+    } else {
+      if (matches.size() > 1) {
+        LOG.warn("{} duplicate references in catalogue {} with citation {}", matches.size(), targetDatasetKey, ref.getCitation());
+      }
+      refIds.put(origID, matches.get(0).getId());
+    }
+  }
+}
@@ -2,13 +2,17 @@ package life.catalogue.dao;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import life.catalogue.api.model.Dataset;
 import life.catalogue.api.model.DatasetImport;
 import life.catalogue.api.model.Page;
 import life.catalogue.api.model.ResultPage;
 import life.catalogue.api.vocab.*;
+import life.catalogue.common.concurrent.NamedThreadFactory;
+import life.catalogue.common.lang.InterruptedRuntimeException;
 import life.catalogue.db.mapper.DatasetImportMapper;
 import life.catalogue.db.mapper.DatasetMapper;
+import life.catalogue.db.type2.MetricCount;
 import life.catalogue.db.type2.StringCount;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
@@ -23,13 +27,22 @@ import java.io.File;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class DatasetImportDao {
   
   @SuppressWarnings("unused")
   private static final Logger LOG = LoggerFactory.getLogger(DatasetImportDao.class);
   
+  // number of metric queries to run concurrently
+  private static final int METRICS_THREADS = 4;
+  
   private final SqlSessionFactory factory;
   private final NamesTreeDao treeDao;
   
@@ -108,64 +121,138 @@ public class DatasetImportDao {
     DatasetImport di = new DatasetImport();
     di.setDatasetKey(datasetKey);
     di.setCreatedBy(user);
-    try (SqlSession session = factory.openSession(true)) {
-      DatasetImportMapper mapper = session.getMapper(DatasetImportMapper.class);
-      updateMetrics(mapper, di);
-    }
+    updateMetrics(di, false);
     return di;
   }
   
+  /**
+   * Updates the metrics of the given import and writes its text tree and names index files.
+   */
   public void updateMetrics(DatasetImport di) {
-    try (SqlSession session = factory.openSession(true)) {
-      DatasetImportMapper mapper = session.getMapper(DatasetImportMapper.class);
-      updateMetrics(mapper, di);
+    updateMetrics(di, true);
+  }
   
-      treeDao.updateDatasetTree(di.getDatasetKey(), di.getAttempt());
-      treeDao.updateDatasetNames(di.getDatasetKey(), di.getAttempt());
+  /**
+   * Aggregates all metrics with a few combined queries, usually a single scan per partition table,
+   * which are executed concurrently each with its own session.
+   * Every task only sets its own properties of the given import.
+   */
+  private void updateMetrics(DatasetImport di, boolean files) {
+    final int key = di.getDatasetKey();
+    List<Runnable> tasks = new ArrayList<>();
+    // largest tables first
+    tasks.add(withMapper(m -> verbatimMetrics(di, m.countVerbatimMetrics(key))));
+    tasks.add(withMapper(m -> usageMetrics(di, m.countUsageMetrics(key))));
+    tasks.add(withMapper(m -> nameMetrics(di, m.countNameMetrics(key))));
+    if (files) {
+      tasks.add(() -> {
+        try {
+          treeDao.updateDatasetTree(key, di.getAttempt());
+        } catch (IOException e) {
+          LOG.error("Failed to print text tree for dataset {}", key, e);
+        }
+      });
+      tasks.add(() -> treeDao.updateDatasetNames(key, di.getAttempt()));
+    }
+    tasks.add(withMapper(m -> {
+      List<StringCount> counts = m.countDistributionsByGazetteer(key);
+      di.setDistributionCount(total(counts));
+      di.setDistributionsByGazetteerCount(countMap(Gazetteer.class, counts));
+    }));
+    tasks.add(withMapper(m -> {
+      List<StringCount> counts = m.countVernacularsByLanguage(key);
+      di.setVernacularCount(total(counts));
+      di.setVernacularsByLanguageCount(countMap(counts));
+    }));
+    tasks.add(withMapper(m -> {
+      List<StringCount> counts = m.countTypeMaterialByStatus(key);
+      di.setTypeMaterialCount(total(counts));
+      di.setTypeMaterialByStatusCount(countMap(TypeStatus.class, counts));
+    }));
+    tasks.add(withMapper(m -> {
+      List<StringCount> counts = m.countMediaByType(key);
+      di.setMediaCount(total(counts));
+      di.setMediaByTypeCount(countMap(MediaType.class, counts));
+    }));
+    tasks.add(withMapper(m -> di.setNameRelationsByTypeCount(countMap(NomRelType.class, m.countNameRelationsByType(key)))));
+    tasks.add(withMapper(m -> di.setReferenceCount(m.countReference(key))));
+    tasks.add(withMapper(m -> di.setDescriptionCount(m.countDescription(key))));
+    
+    ExecutorService exec = Executors.newFixedThreadPool(METRICS_THREADS, new NamedThreadFactory("Metrics-" + key));
+    try {
+      List<Future<?>> futures = new ArrayList<>(tasks.size());
+      for (Runnable t : tasks) {
+        futures.add(exec.submit(t));
+      }
+      for (Future<?> f : futures) {
+        f.get();
+      }
       
-    } catch (IOException e) {
-      LOG.error("Failed to print text tree for dataset {}", di.getDatasetKey(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedRuntimeException("Interrupted while updating metrics for dataset " + key);
+      
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+      
+    } finally {
+      exec.shutdownNow();
     }
   }
   
-  private void updateMetrics(DatasetImportMapper mapper, DatasetImport di) {
-    final int key = di.getDatasetKey();
+  private Runnable withMapper(Consumer<DatasetImportMapper> task) {
+    return () -> {
+      try (SqlSession session = factory.openSession(true)) {
+        task.accept(session.getMapper(DatasetImportMapper.class));
+      }
+    };
+  }
   
-    di.setDescriptionCount(mapper.countDescription(key));
-    di.setDistributionCount(mapper.countDistribution(key));
-    di.setMediaCount(mapper.countMedia(key));
-    di.setNameCount(mapper.countName(key));
-    di.setTypeMaterialCount(mapper.countTypeMaterial(key));
-    di.setReferenceCount(mapper.countReference(key));
-    di.setSynonymCount(mapper.countSynonym(key));
-    di.setTaxonCount(mapper.countTaxon(key));
-    di.setVerbatimCount(mapper.countVerbatim(key));
-    di.setVernacularCount(mapper.countVernacular(key));
-  
-    di.setDistributionsByGazetteerCount(DatasetImportDao.countMap(Gazetteer.class, mapper.countDistributionsByGazetteer(key)));
-    di.setIssuesCount(DatasetImportDao.countMap(Issue.class, mapper.countIssues(key)));
-    di.setMediaByTypeCount(DatasetImportDao.countMap(MediaType.class, mapper.countMediaByType(key)));
-    di.setNameRelationsByTypeCount(DatasetImportDao.countMap(NomRelType.class, mapper.countNameRelationsByType(key)));
-    di.setNamesByOriginCount(DatasetImportDao.countMap(Origin.class, mapper.countNamesByOrigin(key)));
-    di.setNamesByRankCount(countMap(DatasetImportDao::parseRank, mapper.countNamesByRank(key)));
-    di.setNamesByStatusCount(DatasetImportDao.countMap(NomStatus.class, mapper.countNamesByStatus(key)));
-    di.setNamesByTypeCount(DatasetImportDao.countMap(NameType.class, mapper.countNamesByType(key)));
-    di.setTypeMaterialByStatusCount(DatasetImportDao.countMap(TypeStatus.class, mapper.countTypeMaterialByStatus(key)));
-    di.setTaxaByRankCount(countMap(DatasetImportDao::parseRank, mapper.countTaxaByRank(key)));
-    di.setUsagesByStatusCount(DatasetImportDao.countMap(TaxonomicStatus.class, mapper.countUsagesByStatus(key)));
-    di.setVerbatimByTypeCount(countMap(DatasetImportDao::parseRowType, mapper.countVerbatimByType(key)));
-    di.setVernacularsByLanguageCount(countMap(mapper.countVernacularsByLanguage(key)));
-    
+  private static void nameMetrics(DatasetImport di, List<MetricCount> counts) {
+    di.setNameCount(total(metric(counts, "rank")));
+    di.setNamesByRankCount(countMap(DatasetImportDao::parseRank, metric(counts, "rank")));
+    di.setNamesByTypeCount(countMap(NameType.class, metric(counts, "type")));
+    di.setNamesByStatusCount(countMap(NomStatus.class, metric(counts, "status")));
+    di.setNamesByOriginCount(countMap(Origin.class, metric(counts, "origin")));
+  }
+  
+  private static void usageMetrics(DatasetImport di, List<MetricCount> counts) {
+    di.setTaxonCount(total(metric(counts, "taxonRank")));
+    di.setSynonymCount(total(metric(counts, "synonymRank")));
+    di.setTaxaByRankCount(countMap(DatasetImportDao::parseRank, metric(counts, "taxonRank")));
+    di.setUsagesByStatusCount(countMap(TaxonomicStatus.class, metric(counts, "status")));
+  }
+  
+  private static void verbatimMetrics(DatasetImport di, List<MetricCount> counts) {
+    di.setVerbatimCount(total(metric(counts, "type")));
+    di.setVerbatimByTypeCount(countMap(DatasetImportDao::parseRowType, metric(counts, "type")));
+    di.setIssuesCount(countMap(Issue.class, metric(counts, "issue")));
     // verbatim term metrics for each row type
-    for (Term rowType : di.getVerbatimByTypeCount().keySet()) {
-      Map<Term, Integer> terms = countMap(DatasetImportDao::parseTerm, mapper.countVerbatimTerms(key, rowType));
-      if (!terms.isEmpty()) {
-        di.getVerbatimByTermCount().put(rowType, terms);
+    for (MetricCount cnt : metric(counts, "term")) {
+      if (!Strings.isNullOrEmpty(cnt.getRowType()) && !Strings.isNullOrEmpty(cnt.getKey())) {
+        Term rowType = parseRowType(cnt.getRowType()).get();
+        di.getVerbatimByTermCount()
+            .computeIfAbsent(rowType, k -> new HashMap<>())
+            .put(parseTerm(cnt.getKey()).get(), cnt.getCount());
       }
     }
   }
   
-  public static Map<String, Integer> countMap(List<StringCount> counts) {
+  private static List<MetricCount> metric(List<MetricCount> counts, String metric) {
+    return counts.stream()
+        .filter(c -> metric.equals(c.getMetric()))
+        .collect(Collectors.toList());
+  }
+  
+  /**
+   * @return the sum of all counts, including the ones without a key
+   */
+  private static int total(List<? extends StringCount> counts) {
+    return counts.stream().mapToInt(StringCount::getCount).sum();
+  }
+  
+  public static Map<String, Integer> countMap(List<? extends StringCount> counts) {
     Map<String, Integer> map = new HashMap<>(counts.size());
     for (StringCount cnt : counts) {
       if (cnt.getKey() != null) {
@@ -175,7 +262,7 @@ public class DatasetImportDao {
     return map;
   }
   
-  public static <K extends Enum<K>> Map<K, Integer> countMap(Class<K> clazz, List<StringCount> counts) {
+  public static <K extends Enum<K>> Map<K, Integer> countMap(Class<K> clazz, List<? extends StringCount> counts) {
     Map<K, Integer> map = new HashMap<>(counts.size());
     for (StringCount cnt : counts) {
       if (cnt.getKey() != null) {
@@ -185,7 +272,7 @@ public class DatasetImportDao {
     return map;
   }
   
-  public static <K> Map<K, Integer> countMap(Function<String, Optional<K>> converter, List<StringCount> counts) {
+  public static <K> Map<K, Integer> countMap(Function<String, Optional<K>> converter, List<? extends StringCount> counts) {
     Map<K, Integer> map = new HashMap<>(counts.size());
     for (StringCount cnt : counts) {
       if (!Strings.isNullOrEmpty(cnt.getKey())) {
@@ -1,5 +1,6 @@
 package life.catalogue.dao;
 
+import com.google.common.collect.Lists;
 import life.catalogue.api.model.*;
 import life.catalogue.db.mapper.DatasetPartitionMapper;
 import life.catalogue.db.mapper.NameMapper;
@@ -11,12 +12,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class MatchingDao {
   private static final Logger LOG = LoggerFactory.getLogger(MatchingDao.class);
+  // max number of names to match with a single query
+  private static final int BATCH_SIZE = 1000;
   
   private final SqlSession session;
   private final NameUsageMapper uMapper;
@@ -40,36 +43,106 @@ public class MatchingDao {
     if (session.getMapper(DatasetPartitionMapper.class).exists(datasetKey)){
       // https://github.com/Sp2000/colplus-backend/issues/283
       for (NameUsageBase t : uMapper.listByName(datasetKey, name.getName(), name.getRank())) {
-        // take authorship, code, status and parent as optional filters, i.e. if null accept any value
-        if (StringUtils.trimToNull(name.getAuthorship()) != null && !name.getAuthorship().equalsIgnoreCase(t.getName().authorshipComplete())) {
-          continue;
+        if (matches(name, t, u -> {
+          Name parent = nMapper.getByUsage(datasetKey, u.getParentId());
+          return parent == null ? null : parent.getScientificName();
+        })) {
+          matches.add(t);
+        }
+      }
+    } else {
+      LOG.warn("Fail to match {} from dataset {} which has not data partition", name, datasetKey);
+    }
+    return matches;
+  }
+
+  /**
+   * Strictly matches many simple names to name usages from a given dataset, just like matchDataset(SimpleName, int) does for a single name.
+   * Instead of 2 queries per name all candidates and the parent names of taxa are loaded with 2 set based queries per batch of names.
+   *
+   * @return list of matches for each name, in the same order as the given names
+   */
+  public List<List<NameUsageBase>> matchDataset(List<SimpleName> names, int datasetKey) {
+    List<List<NameUsageBase>> result = new ArrayList<>(names.size());
+    if (!session.getMapper(DatasetPartitionMapper.class).exists(datasetKey)){
+      LOG.warn("Fail to match {} names from dataset {} which has not data partition", names.size(), datasetKey);
+      names.forEach(n -> result.add(new ArrayList<>()));
+      return result;
+    }
+    for (List<SimpleName> batch : Lists.partition(names, BATCH_SIZE)) {
+      // load all candidates by their lower case name
+      Set<String> scinames = batch.stream()
+          .map(SimpleName::getName)
+          .filter(Objects::nonNull)
+          .collect(Collectors.toSet());
+      Map<String, List<NameUsageBase>> candidates = new HashMap<>();
+      if (!scinames.isEmpty()) {
+        for (NameUsageBase u : uMapper.listByNames(datasetKey, scinames)) {
+          candidates.computeIfAbsent(lower(u.getName().getScientificName()), k -> new ArrayList<>()).add(u);
         }
-        if (name.getStatus() != null && !Objects.equals(name.getStatus(), t.getStatus())) {
-          continue;
+      }
+      // synonyms already have their parent name. For taxa we need to look that up
+      Set<String> taxonIds = new HashSet<>();
+      for (SimpleName sn : batch) {
+        if (sn.getParent() != null) {
+          candidates.getOrDefault(lower(sn.getName()), Collections.emptyList()).stream()
+              .filter(NameUsageBase::isTaxon)
+              .forEach(u -> taxonIds.add(u.getId()));
         }
-        if (name.getCode() != null && !Objects.equals(name.getCode(), t.getName().getCode())) {
-          continue;
+      }
+      Map<String, String> parents = new HashMap<>();
+      if (!taxonIds.isEmpty()) {
+        for (SimpleName p : uMapper.listParentNames(datasetKey, taxonIds)) {
+          parents.put(p.getId(), p.getName());
         }
-        if (name.getParent() != null) {
-          // synonyms already have their parent name. For taxa we need to look that up
-          // https://github.com/Sp2000/colplus-backend/issues/349
-          Name parent;
-          if (t.isSynonym()) {
-            Synonym s = (Synonym) t;
-            parent = s.getAccepted().getName();
-          } else {
-            parent = nMapper.getByUsage(datasetKey, t.getParentId());
-          }
-          if (parent == null || !name.getParent().equalsIgnoreCase(parent.getScientificName())) {
-            continue;
+      }
+      for (SimpleName sn : batch) {
+        List<NameUsageBase> matches = new ArrayList<>();
+        for (NameUsageBase t : candidates.getOrDefault(lower(sn.getName()), Collections.emptyList())) {
+          if ((sn.getRank() == null || sn.getRank() == t.getName().getRank())
+              && matches(sn, t, u -> parents.get(u.getId()))) {
+            matches.add(t);
           }
         }
-        matches.add(t);
+        result.add(matches);
       }
-    } else {
-      LOG.warn("Fail to match {} from dataset {} which has not data partition", name, datasetKey);
     }
-    return matches;
+    return result;
+  }
+
+  private static String lower(String x) {
+    return x == null ? null : x.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Takes authorship, code, status and parent as optional filters, i.e. if null accept any value
+   * @param parentName function returning the parent name of a taxon
+   */
+  private static boolean matches(SimpleName name, NameUsageBase t, Function<NameUsageBase, String> parentName) {
+    if (StringUtils.trimToNull(name.getAuthorship()) != null && !name.getAuthorship().equalsIgnoreCase(t.getName().authorshipComplete())) {
+      return false;
+    }
+    if (name.getStatus() != null && !Objects.equals(name.getStatus(), t.getStatus())) {
+      return false;
+    }
+    if (name.getCode() != null && !Objects.equals(name.getCode(), t.getName().getCode())) {
+      return false;
+    }
+    if (name.getParent() != null) {
+      // synonyms already have their parent name. For taxa we need to look that up
+      // https://github.com/Sp2000/colplus-backend/issues/349
+      String parent;
+      if (t.isSynonym()) {
+        Name an = ((Synonym) t).getAccepted().getName();
+        parent = an == null ? null : an.getScientificName();
+      } else {
+        parent = parentName.apply(t);
+      }
+      if (parent == null || !name.getParent().equalsIgnoreCase(parent)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
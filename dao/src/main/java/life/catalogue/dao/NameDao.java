@@ -1,6 +1,7 @@
 package life.catalogue.dao;
 
 import life.catalogue.api.model.*;
+import life.catalogue.api.util.PagingUtil;
 import life.catalogue.api.vocab.NomRelType;
 import life.catalogue.db.mapper.NameMapper;
 import life.catalogue.db.mapper.NameRelationMapper;
@@ -36,6 +37,22 @@ public class NameDao extends DatasetStringEntityDao<Name, NameMapper> {
     return null;
   }
 
+  /**
+   * Lists names ordered by their id.
+   * If an after token from a previous page is given keyset pagination is used and the page offset is ignored.
+   */
+  public ResultPage<Name> list(int datasetKey, @Nullable String after, @Nullable Page page) {
+    Page p = page == null ? new Page() : page;
+    if (after == null) {
+      return list(datasetKey, p).withNext(Name::getId);
+    }
+    final String lastId = PagingUtil.decodeToken(after);
+    try (SqlSession session = factory.openSession()) {
+      List<Name> result = session.getMapper(NameMapper.class).listAfter(datasetKey, lastId, p);
+      return ResultPage.keyset(p.getLimit(), result, Name::getId);
+    }
+  }
+
   public ResultPage<Name> listOrphans(int datasetKey, @Nullable LocalDateTime before, @Nullable Page page) {
     Page p = page == null ? new Page() : page;
     try (SqlSession session = factory.openSession()) {
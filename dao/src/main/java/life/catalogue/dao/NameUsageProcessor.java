@@ -1,9 +1,15 @@
 package life.catalogue.dao;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.Iterables;
+import life.catalogue.api.model.NameUsageBase;
 import life.catalogue.api.model.Sector;
+import life.catalogue.api.model.SimpleName;
 import life.catalogue.api.model.SimpleNameClassification;
 import life.catalogue.api.search.NameUsageWrapper;
+import life.catalogue.common.concurrent.NamedThreadFactory;
+import life.catalogue.common.func.BatchConsumer;
+import life.catalogue.common.lang.InterruptedRuntimeException;
 import life.catalogue.db.mapper.NameUsageWrapperMapper;
 import life.catalogue.db.mapper.TaxonMapper;
 import org.apache.ibatis.cursor.Cursor;
@@ -13,19 +19,62 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class NameUsageProcessor {
   private static final Logger LOG = LoggerFactory.getLogger(NameUsageProcessor.class);
+  // max number of parent classifications to keep in the SET mode cache
+  private static final int CLASSIFICATION_CACHE_SIZE = 10000;
+  // deeper classifications are considered to be cyclic
+  private static final int MAX_DEPTH = 1000;
+
+  /**
+   * The strategy used to process entire datasets.
+   */
+  public enum Mode {
+    /**
+     * Iterates through the trees of all root taxa separately, one recursive query per root
+     * and a lookup of the full objects for every 50 usages.
+     */
+    TREE,
+
+    /**
+     * Keeps all parent usages in memory and streams all usages of the dataset with a single cursor,
+     * building their classifications in java. Falls back to TREE for datasets with too many parents.
+     */
+    SET
+  }
 
   private final SqlSessionFactory factory;
-  
+  private final Mode mode;
+  private final int maxParents;
+
   public NameUsageProcessor(SqlSessionFactory factory) {
+    this(factory, Mode.TREE, 0);
+  }
+
+  /**
+   * @param maxParents maximum number of parent usages to hold in memory in SET mode
+   */
+  public NameUsageProcessor(SqlSessionFactory factory, Mode mode, int maxParents) {
     this.factory = factory;
+    this.mode = mode;
+    this.maxParents = maxParents;
   }
   
   /**
@@ -35,23 +84,195 @@ public class NameUsageProcessor {
    *  2. call the SimpleName tree processor that iterates over all usages in taxonomic order and generates the classification
    *  3. call getWrapperDetail for each id to get the full object without classification and stream results
    *
-   *  Alternatively one could hold the entire classification in memory (10 million only need ~500MB)
-   *  and select the wrapper objects in batch id ranges.
-   *  But that would require traversing the entire tree so we are sure we have processed all ids, not just children of the root node.
-   *  ID ranges must make sure the java sorting is exactly the same as the postgres (C-collation) sorting.
+   *  In SET mode we instead hold all parent usages in memory (10 million only need ~500MB)
+   *  and stream all wrapper objects ordered by their id with a single cursor.
+   *  Classifications are built from the parents in memory, only usages that can be reached from a root taxon are processed.
    *
    * @param consumer
    */
   public void processDataset(int datasetKey, Consumer<NameUsageWrapper> consumer) {
-    List<String> rootIds;
-    try (SqlSession s = factory.openSession(true)) {
-      rootIds = s.getMapper(TaxonMapper.class).listRootIds(datasetKey);
+    if (mode == Mode.SET) {
+      Map<String, SimpleName> parents = loadParents(datasetKey);
+      if (parents != null) {
+        processUsages(datasetKey, parents, consumer);
+        return;
+      }
     }
+    List<String> rootIds = listRootIds(datasetKey);
     LOG.info("Process dataset {} with {} root taxa", datasetKey, rootIds.size());
     for (String id : rootIds) {
       processTree(datasetKey, null, id, consumer);
     }
   }
+
+  /**
+   * Same as processDataset but processes the trees of several root taxa in parallel, each with its own db session.
+   * A new consumer is requested for every root taxon and closed once its tree has been processed.
+   * Blocks until all trees have been processed.
+   *
+   * In SET mode all usages are read sequentially with a single cursor and passed to just one consumer,
+   * so parallelism is left to the consumer.
+   *
+   * @param threads maximum number of trees to process in parallel
+   * @param consumerSupplier supplier for new consumers which must be safe to be called from different threads
+   */
+  public void processDataset(int datasetKey, int threads, Supplier<BatchConsumer<NameUsageWrapper>> consumerSupplier) {
+    if (mode == Mode.SET) {
+      Map<String, SimpleName> parents = loadParents(datasetKey);
+      if (parents != null) {
+        try (BatchConsumer<NameUsageWrapper> consumer = consumerSupplier.get()) {
+          processUsages(datasetKey, parents, consumer);
+        }
+        return;
+      }
+    }
+    List<String> rootIds = listRootIds(datasetKey);
+    if (rootIds.isEmpty()) {
+      return;
+    }
+    threads = Math.min(threads, rootIds.size());
+    LOG.info("Process dataset {} with {} root taxa using {} threads", datasetKey, rootIds.size(), threads);
+    ExecutorService exec = Executors.newFixedThreadPool(threads, new NamedThreadFactory("UsageProcessor-" + datasetKey));
+    try {
+      List<Future<?>> futures = new ArrayList<>(rootIds.size());
+      for (String id : rootIds) {
+        futures.add(exec.submit(() -> {
+          try (BatchConsumer<NameUsageWrapper> consumer = consumerSupplier.get()) {
+            processTree(datasetKey, null, id, consumer);
+          }
+        }));
+      }
+      for (Future<?> f : futures) {
+        f.get();
+      }
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedRuntimeException("Interrupted while processing dataset " + datasetKey);
+
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+
+    } finally {
+      exec.shutdownNow();
+    }
+  }
+
+  private List<String> listRootIds(int datasetKey) {
+    try (SqlSession s = factory.openSession(true)) {
+      return s.getMapper(TaxonMapper.class).listRootIds(datasetKey);
+    }
+  }
+  
+  /**
+   * @return all parent usages by their id or null if there are more than maxParents
+   */
+  private Map<String, SimpleName> loadParents(int datasetKey) {
+    Map<String, SimpleName> parents = new HashMap<>();
+    try (SqlSession s = factory.openSession()) {
+      Cursor<SimpleName> c = s.getMapper(NameUsageWrapperMapper.class).processParents(datasetKey);
+      for (SimpleName sn : c) {
+        if (parents.size() >= maxParents) {
+          LOG.info("Dataset {} has more than {} parent usages. Process trees instead", datasetKey, maxParents);
+          return null;
+        }
+        parents.put(sn.getId(), sn);
+      }
+    }
+    LOG.info("Loaded {} parent usages for dataset {}", parents.size(), datasetKey);
+    return parents;
+  }
+
+  private void processUsages(int datasetKey, Map<String, SimpleName> parents, Consumer<NameUsageWrapper> consumer) {
+    LOG.info("Process all usages of dataset {}", datasetKey);
+    ClassificationCache classifications = new ClassificationCache(parents);
+    int skipped = 0;
+    try (SqlSession s = factory.openSession()) {
+      Cursor<NameUsageWrapper> c = s.getMapper(NameUsageWrapperMapper.class).processDatasetWithoutClassification(datasetKey);
+      for (NameUsageWrapper obj : c) {
+        NameUsageBase u = (NameUsageBase) obj.getUsage();
+        List<SimpleName> parentCl;
+        if (u.getParentId() == null) {
+          // only accepted root taxa are processed
+          parentCl = u.isSynonym() ? null : Collections.emptyList();
+        } else {
+          parentCl = classifications.get(u.getParentId());
+        }
+        if (parentCl == null) {
+          LOG.debug("Usage {} of dataset {} is not part of the tree", u.getId(), datasetKey);
+          skipped++;
+          continue;
+        }
+        List<SimpleName> cl = new ArrayList<>(parentCl.size() + 1);
+        cl.addAll(parentCl);
+        cl.add(new SimpleName(u.getId(), u.getName().getScientificName(), u.getName().getRank()));
+        obj.setClassification(cl);
+        consumer.accept(obj);
+      }
+    }
+    if (skipped > 0) {
+      LOG.info("Skipped {} usages of dataset {} which are not connected to a root taxon", skipped, datasetKey);
+    }
+  }
+
+  /**
+   * Classifications of parent usages, including the parent itself, built from parents held in memory.
+   * Keeps only the most recently used ones, but as all usages share the few higher taxa most lookups are cheap.
+   * Not thread safe.
+   */
+  private static class ClassificationCache {
+    private final Map<String, SimpleName> parents;
+    private final Map<String, List<SimpleName>> cache = new LinkedHashMap<>(CLASSIFICATION_CACHE_SIZE, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, List<SimpleName>> eldest) {
+        return size() > CLASSIFICATION_CACHE_SIZE;
+      }
+    };
+
+    ClassificationCache(Map<String, SimpleName> parents) {
+      this.parents = parents;
+    }
+
+    /**
+     * @return the classification starting with the root taxon and ending with the given parent
+     *         or null if the parent cannot be reached from an accepted root taxon
+     */
+    List<SimpleName> get(String parentId) {
+      // walk up until we hit a known classification or the root
+      Deque<SimpleName> missing = new ArrayDeque<>();
+      List<SimpleName> cl = null;
+      String id = parentId;
+      while (id != null) {
+        cl = cache.get(id);
+        if (cl != null) {
+          break;
+        }
+        SimpleName p = parents.get(id);
+        if (p == null || missing.size() > MAX_DEPTH) {
+          // broken or cyclic tree
+          return null;
+        }
+        missing.push(p);
+        id = p.getParent();
+      }
+      if (cl == null) {
+        if (missing.peek().getStatus() != null && missing.peek().getStatus().isSynonym()) {
+          return null;
+        }
+        cl = Collections.emptyList();
+      }
+      while (!missing.isEmpty()) {
+        SimpleName p = missing.pop();
+        List<SimpleName> pcl = new ArrayList<>(cl.size() + 1);
+        pcl.addAll(cl);
+        pcl.add(new SimpleName(p.getId(), p.getName(), p.getRank()));
+        cache.put(p.getId(), pcl);
+        cl = pcl;
+      }
+      return cl;
+    }
+  }
   
   /**
    * Process all catalogue usages from a given sector
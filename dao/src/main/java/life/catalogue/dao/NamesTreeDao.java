@@ -35,7 +35,7 @@ public class NamesTreeDao {
   }
   
   public static Set<String> readNames(File nf) throws IOException{
-    try (BufferedReader br = UTF8IoUtils.readerFromFile(nf)) {
+    try (BufferedReader br = UTF8IoUtils.readerFromGzipOrPlainFile(nf)) {
       return br.lines().collect(Collectors.toSet());
     }
   }
@@ -1,10 +1,20 @@
 package life.catalogue.dao;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
+import com.google.common.base.Throwables;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import life.catalogue.api.model.DatasetScoped;
+import life.catalogue.common.concurrent.NamedThreadFactory;
+import life.catalogue.common.lang.InterruptedRuntimeException;
 import life.catalogue.db.mapper.DatasetPartitionMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +46,15 @@ public class Partitioner {
    * See https://github.com/Sp2000/colplus-backend/issues/127
    */
   public static synchronized void partition(SqlSessionFactory factory, int datasetKey) {
+    partition(factory, datasetKey, false);
+  }
+  
+  /**
+   * Creates all dataset partitions needed, removing any previous partition and data for the given datasetKey.
+   * @param deferFullText if true the full text triggers of the new verbatim and reference partitions are disabled
+   *                      and buildFullText must be called once all data is inserted.
+   */
+  public static synchronized void partition(SqlSessionFactory factory, int datasetKey, boolean deferFullText) {
     interruptIfCancelled();
     LOG.info("Create empty partition for dataset {}", datasetKey);
     try (SqlSession session = factory.openSession(false)) {
@@ -45,10 +64,62 @@ public class Partitioner {
       
       // then create
       mapper.create(datasetKey);
+      if (deferFullText) {
+        mapper.disableFullTextTriggers(datasetKey);
+      }
       session.commit();
     }
   }
   
+  /**
+   * Computes the full text documents of verbatim records and references with a single update per table,
+   * both running in parallel, and enables the full text triggers again for subsequent changes.
+   * As the updates leave a dead tuple for every row both tables are vacuumed and analyzed afterwards.
+   * Call this for partitions created with deferred full text before indexAndAttach.
+   */
+  public static void buildFullText(SqlSessionFactory factory, int datasetKey) {
+    interruptIfCancelled();
+    LOG.info("Build full text documents for dataset {}", datasetKey);
+    List<Consumer<DatasetPartitionMapper>> tasks = new ArrayList<>();
+    tasks.add(m -> {
+      m.updateVerbatimFullText(datasetKey);
+      m.vacuumAnalyze("verbatim", datasetKey);
+    });
+    tasks.add(m -> {
+      m.updateReferenceFullText(datasetKey);
+      m.vacuumAnalyze("reference", datasetKey);
+    });
+    ExecutorService exec = Executors.newFixedThreadPool(tasks.size(), new NamedThreadFactory("FullText-" + datasetKey));
+    try {
+      List<Future<?>> futures = new ArrayList<>(tasks.size());
+      for (Consumer<DatasetPartitionMapper> t : tasks) {
+        futures.add(exec.submit(() -> {
+          try (SqlSession session = factory.openSession(true)) {
+            t.accept(session.getMapper(DatasetPartitionMapper.class));
+          }
+        }));
+      }
+      for (Future<?> f : futures) {
+        f.get();
+      }
+      
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedRuntimeException("Interrupted while building full text documents for dataset " + datasetKey);
+      
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+      
+    } finally {
+      exec.shutdownNow();
+    }
+    
+    try (SqlSession session = factory.openSession(true)) {
+      session.getMapper(DatasetPartitionMapper.class).enableFullTextTriggers(datasetKey);
+    }
+  }
+  
   public static synchronized void delete(SqlSessionFactory factory, int datasetKey) {
     try (SqlSession session = factory.openSession(false)) {
       delete(session, datasetKey);
@@ -2,6 +2,7 @@ package life.catalogue.dao;
 
 import life.catalogue.api.model.*;
 import life.catalogue.api.search.ReferenceSearchRequest;
+import life.catalogue.api.util.PagingUtil;
 import life.catalogue.common.csl.CslUtil;
 import life.catalogue.db.mapper.ReferenceMapper;
 import org.apache.commons.lang3.StringUtils;
@@ -68,7 +69,14 @@ public class ReferenceDao extends DatasetStringEntityDao<Reference, ReferenceMap
   public ResultPage<Reference> search(int datasetKey, ReferenceSearchRequest nullableReq, Page page) {
     page = page == null ? new Page() : page;
     final ReferenceSearchRequest req = nullableReq == null || nullableReq.isEmpty() ? new ReferenceSearchRequest() : nullableReq;
-    if (req.getSortBy() == null) {
+    final String after = req.getAfter() == null ? null : PagingUtil.decodeToken(req.getAfter());
+    if (after != null) {
+      // keyset pagination requires the native id order
+      if (req.getSortBy() != null && req.getSortBy() != ReferenceSearchRequest.SortBy.NATIVE) {
+        throw new IllegalArgumentException("Paging with an after token requires sorting by " + ReferenceSearchRequest.SortBy.NATIVE);
+      }
+      req.setSortBy(ReferenceSearchRequest.SortBy.NATIVE);
+    } else if (req.getSortBy() == null) {
       if (!StringUtils.isBlank(req.getQ())) {
         req.setSortBy(ReferenceSearchRequest.SortBy.RELEVANCE);
       } else {
@@ -81,8 +89,13 @@ public class ReferenceDao extends DatasetStringEntityDao<Reference, ReferenceMap
     
     try (SqlSession session = factory.openSession()) {
       ReferenceMapper mapper = session.getMapper(ReferenceMapper.class);
-      List<Reference> result = mapper.search(datasetKey, req, page);
-      return new ResultPage<>(page, result, () -> mapper.searchCount(datasetKey, req));
+      if (after != null) {
+        Page p = new Page(0, page.getLimit());
+        return ResultPage.keyset(p.getLimit(), mapper.search(datasetKey, req, after, p), Reference::getId);
+      }
+      List<Reference> result = mapper.search(datasetKey, req, null, page);
+      ResultPage<Reference> rp = new ResultPage<>(page, result, () -> mapper.searchCount(datasetKey, req));
+      return req.getSortBy() == ReferenceSearchRequest.SortBy.NATIVE ? rp.withNext(Reference::getId) : rp;
     }
   }
 
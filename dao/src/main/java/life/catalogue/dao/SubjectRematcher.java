@@ -10,15 +10,14 @@ import life.catalogue.db.mapper.DatasetMapper;
 import life.catalogue.db.mapper.DecisionMapper;
 import life.catalogue.db.mapper.EstimateMapper;
 import life.catalogue.db.mapper.SectorMapper;
+import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
+import java.util.stream.Collectors;
 
 public class SubjectRematcher {
   private static final Logger LOG = LoggerFactory.getLogger(SubjectRematcher.class);
@@ -156,9 +155,7 @@ public class SubjectRematcher {
     LOG.info("Rematch all sector and decision subjects in dataset {}", datasetKey);
     try(SqlSession session = factory.openSession(true)) {
       init(session);
-      for (Sector s : sm.listByDataset(null, datasetKey)) {
-        matchSectorSubjectOnly(s);
-      }
+      matchDatasetSectorSubjects(datasetKey);
       session.commit();
       matchDatasetDecision(datasetKey);
       session.commit();
@@ -271,13 +268,74 @@ public class SubjectRematcher {
     }
   }
   
-  private void matchSectorSubjectOnly(Sector s) {
-    if (s.getSubject() != null) {
-      String sIdBefore = s.getSubject().getId();
-      matchSectorSubject(s);
-      if (updateCounter(sectors, sIdBefore, s.getSubject().getId())) {
-        sm.update(s);
+  /**
+   * Rematches all sector subjects of a dataset in bulk with the same outcome as matching each subject individually.
+   * Duplicates are detected with the subject ids of all sectors kept in memory and updates are done in a single batch.
+   */
+  private void matchDatasetSectorSubjects(final int subjectDatasetKey) {
+    List<Sector> sectorList = sm.listByDataset(null, subjectDatasetKey).stream()
+        .filter(s -> s.getSubject() != null)
+        .collect(Collectors.toList());
+    final SubjectIds ids = new SubjectIds();
+    sectorList.forEach(s -> ids.add(s.getDatasetKey(), s.getSubject().getId(), s.getId()));
+    
+    Iterator<List<NameUsageBase>> matches = mdao.matchDataset(
+        sectorList.stream().map(Sector::getSubject).collect(Collectors.toList()), subjectDatasetKey
+    ).iterator();
+    try (SqlSession batch = factory.openSession(ExecutorType.BATCH, false)) {
+      SectorMapper bsm = batch.getMapper(SectorMapper.class);
+      for (Sector s : sectorList) {
+        final String idBefore = s.getSubject().getId();
+        s.getSubject().setId(null);
+        NameUsage u = matchUniquely(s, subjectDatasetKey, s.getSubject(), matches.next());
+        if (u != null) {
+          // see if we already have a sector attached
+          Integer s2 = ids.other(s.getDatasetKey(), u.getId(), s.getId());
+          if (s2 != null) {
+            LOG.warn("Sector {} seems to be a duplicate of {} for {} in catalogue {}. Keep sector {} broken", s, s2, u.getName().getScientificName(), s.getDatasetKey(), s.getKey());
+          } else {
+            s.getSubject().setId(u.getId());
+          }
+        }
+        if (updateCounter(sectors, idBefore, s.getSubject().getId())) {
+          ids.move(s.getDatasetKey(), idBefore, s.getSubject().getId(), s.getId());
+          bsm.update(s);
+        }
       }
+      batch.commit();
+    }
+  }
+  
+  /**
+   * Subject ids of all decisions or sectors of a single subject dataset, keyed on their catalogue.
+   */
+  private static class SubjectIds {
+    private final Map<DSID<String>, Set<Integer>> keys = new HashMap<>();
+    
+    void add(int catalogueKey, String id, int key) {
+      if (id != null) {
+        keys.computeIfAbsent(DSID.of(catalogueKey, id), k -> new HashSet<>()).add(key);
+      }
+    }
+    
+    void move(int catalogueKey, String idBefore, String idAfter, int key) {
+      if (idBefore != null) {
+        Set<Integer> before = keys.get(DSID.of(catalogueKey, idBefore));
+        if (before != null) {
+          before.remove(key);
+        }
+      }
+      add(catalogueKey, idAfter, key);
+    }
+    
+    /**
+     * @return the key of another entity than the given one with the same subject id or null
+     */
+    Integer other(int catalogueKey, String id, int key) {
+      return keys.getOrDefault(DSID.of(catalogueKey, id), Collections.emptySet()).stream()
+          .filter(k -> k != key)
+          .findFirst()
+          .orElse(null);
     }
   }
   
@@ -289,10 +347,46 @@ public class SubjectRematcher {
     matchDatasetDecision(datasetKey);
   }
 
+  /**
+   * Rematches all decision subjects of a dataset in bulk with the same outcome as matching each decision individually.
+   * Duplicates are detected with the subject ids of all decisions kept in memory and updates are done in a single batch.
+   */
   private void matchDatasetDecision(final int subjectDatasetKey) {
     LOG.info("Rematch all decision subjects in dataset {}", subjectDatasetKey);
     datasets++;
-    dem.processSearch(DecisionSearchRequest.byDataset(subjectDatasetKey)).forEach(this::matchDecision);
+    final List<EditorialDecision> eds = new ArrayList<>();
+    dem.processSearch(DecisionSearchRequest.byDataset(subjectDatasetKey)).forEach(ed -> {
+      if (ed.getSubject() != null) {
+        eds.add(ed);
+      }
+    });
+    final SubjectIds ids = new SubjectIds();
+    eds.forEach(ed -> ids.add(ed.getDatasetKey(), ed.getSubject().getId(), ed.getId()));
+  
+    Iterator<List<NameUsageBase>> matches = mdao.matchDataset(
+        eds.stream().map(EditorialDecision::getSubject).collect(Collectors.toList()), subjectDatasetKey
+    ).iterator();
+    try (SqlSession batch = factory.openSession(ExecutorType.BATCH, false)) {
+      DecisionMapper bdem = batch.getMapper(DecisionMapper.class);
+      for (EditorialDecision ed : eds) {
+        final String idBefore = ed.getSubject().getId();
+        NameUsage u = matchUniquely(ed, subjectDatasetKey, ed.getSubject(), matches.next());
+        ed.getSubject().setId(u == null ? null : u.getId());
+        // see if we already have another decision with the same subject ID
+        if (u != null) {
+          Integer ed2 = ids.other(ed.getDatasetKey(), u.getId(), ed.getId());
+          if (ed2 != null) {
+            LOG.warn("Decision {} seems to be a duplicate of {} for {} in catalogue {}. Keep decision {} broken", ed, ed2, ed.getSubject(), ed.getDatasetKey(), ed.getKey());
+            ed.getSubject().setId(null);
+          }
+        }
+        if (updateCounter(decisions, idBefore, ed.getSubject().getId())) {
+          ids.move(ed.getDatasetKey(), idBefore, ed.getSubject().getId(), ed.getId());
+          bdem.update(ed);
+        }
+      }
+      batch.commit();
+    }
   }
   
   private void log() {
@@ -309,7 +403,10 @@ public class SubjectRematcher {
   }
   
   private NameUsage matchUniquely(DatasetScopedEntity<Integer> d, int datasetKey, SimpleName sn){
-    List<? extends NameUsage> matches = mdao.matchDataset(sn, datasetKey);
+    return matchUniquely(d, datasetKey, sn, mdao.matchDataset(sn, datasetKey));
+  }
+  
+  private NameUsage matchUniquely(DatasetScopedEntity<Integer> d, int datasetKey, SimpleName sn, List<? extends NameUsage> matches){
     if (matches.isEmpty()) {
       LOG.warn("{} {} cannot be rematched to dataset {} - lost {}", d.getClass().getSimpleName(), d.getKey(), datasetKey, sn);
     } else if (matches.size() > 1) {
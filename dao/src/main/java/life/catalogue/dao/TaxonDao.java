@@ -18,15 +18,16 @@ import org.gbif.nameparser.api.NameType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class TaxonDao extends DatasetEntityDao<String, Taxon, TaxonMapper> {
   private static final Logger LOG = LoggerFactory.getLogger(TaxonDao.class);
+  // max number of ids to load with a single query
+  private static final int BATCH_SIZE = 1000;
   private final NameUsageIndexService indexService;
   private final NameDao nameDao;
 
@@ -126,62 +127,151 @@ public class TaxonDao extends DatasetEntityDao<String, Taxon, TaxonMapper> {
       return getTaxonInfo(session, taxon);
     }
   }
-  
+
+  /**
+   * Loads the infos for several taxa at once with a fixed number of queries per 1000 ids,
+   * loading each kind of associated data for all taxa in one go.
+   *
+   * @param ids taxon ids, ids of synonyms or missing taxa are ignored
+   * @return infos in the order of the given ids
+   */
+  public List<TaxonInfo> getTaxonInfos(int datasetKey, Collection<String> ids) {
+    Set<String> uniqueIds = new LinkedHashSet<>(ids);
+    uniqueIds.remove(null);
+    if (uniqueIds.isEmpty()) {
+      return new ArrayList<>();
+    }
+    try (SqlSession session = factory.openSession(false)) {
+      Map<String, Taxon> taxa = new HashMap<>();
+      TaxonMapper tm = session.getMapper(TaxonMapper.class);
+      for (Taxon t : listBatched(uniqueIds, batch -> tm.listByIds(datasetKey, batch))) {
+        taxa.put(t.getId(), t);
+      }
+      List<Taxon> ordered = uniqueIds.stream()
+          .map(taxa::get)
+          .filter(Objects::nonNull)
+          .collect(Collectors.toList());
+      return getTaxonInfos(session, datasetKey, ordered);
+    }
+  }
+
   private TaxonInfo getTaxonInfo(final SqlSession session, final Taxon taxon) {
     // main taxon object
     if (taxon == null) {
       return null;
     }
-  
+    return getTaxonInfos(session, taxon.getDatasetKey(), List.of(taxon)).get(0);
+  }
+
+  private List<TaxonInfo> getTaxonInfos(final SqlSession session, final int datasetKey, final List<Taxon> taxa) {
+    if (taxa.isEmpty()) {
+      return new ArrayList<>();
+    }
+    final Set<String> taxonIds = taxa.stream()
+        .map(Taxon::getId)
+        .collect(Collectors.toSet());
+
+    // load all associated data in bulk
+    Map<String, List<Synonym>> synonyms = new HashMap<>();
     SynonymMapper sm = session.getMapper(SynonymMapper.class);
-    DistributionMapper dim = session.getMapper(DistributionMapper.class);
-    VernacularNameMapper vm = session.getMapper(VernacularNameMapper.class);
-    DescriptionMapper dem = session.getMapper(DescriptionMapper.class);
-    MediaMapper mm = session.getMapper(MediaMapper.class);
-    ReferenceMapper rm = session.getMapper(ReferenceMapper.class);
+    for (Synonym s : listBatched(taxonIds, batch -> sm.listByTaxa(datasetKey, batch))) {
+      synonyms.computeIfAbsent(s.getParentId(), k -> new ArrayList<>()).add(s);
+    }
+    Map<String, List<Description>> descriptions = byTaxon(session.getMapper(DescriptionMapper.class), datasetKey, taxonIds);
+    Map<String, List<Distribution>> distributions = byTaxon(session.getMapper(DistributionMapper.class), datasetKey, taxonIds);
+    Map<String, List<Media>> media = byTaxon(session.getMapper(MediaMapper.class), datasetKey, taxonIds);
+    Map<String, List<VernacularName>> vernaculars = byTaxon(session.getMapper(VernacularNameMapper.class), datasetKey, taxonIds);
+
+    Set<String> nameIds = new HashSet<>();
+    for (Taxon t : taxa) {
+      nameIds.add(t.getName().getId());
+      synonyms.getOrDefault(t.getId(), Collections.emptyList()).forEach(s -> nameIds.add(s.getName().getId()));
+    }
+    Map<String, List<TypeMaterial>> types = new HashMap<>();
     TypeMaterialMapper tmm = session.getMapper(TypeMaterialMapper.class);
+    for (TypeMaterial tm : listBatched(nameIds, batch -> tmm.listByNames(datasetKey, batch))) {
+      types.computeIfAbsent(tm.getNameId(), k -> new ArrayList<>()).add(tm);
+    }
 
-    TaxonInfo info = new TaxonInfo();
-    info.setTaxon(taxon);
-    // all reference keys so we can select their details at the end
-    Set<String> refIds = new HashSet<>(taxon.getReferenceIds());
-    refIds.add(taxon.getName().getPublishedInId());
+    // assemble infos, keeping all reference keys per taxon so we can select their details at the end
+    List<TaxonInfo> infos = new ArrayList<>(taxa.size());
+    List<Set<String>> infoRefIds = new ArrayList<>(taxa.size());
+    for (Taxon taxon : taxa) {
+      TaxonInfo info = new TaxonInfo();
+      info.setTaxon(taxon);
+      Set<String> refIds = new HashSet<>(taxon.getReferenceIds());
+      refIds.add(taxon.getName().getPublishedInId());
 
-    // synonyms
-    info.setSynonyms(sm.listByTaxon(taxon.getDatasetKey(), taxon.getId()));
-    info.getSynonyms().forEach(s -> refIds.addAll(s.getReferenceIds()));
+      // synonyms
+      info.setSynonyms(synonyms.getOrDefault(taxon.getId(), new ArrayList<>()));
+      info.getSynonyms().forEach(s -> refIds.addAll(s.getReferenceIds()));
 
-    // add all supplementary taxon infos
-    info.setDescriptions(dem.listByTaxon(taxon));
-    info.getDescriptions().forEach(d -> refIds.add(d.getReferenceId()));
-    
-    info.setDistributions(dim.listByTaxon(taxon));
-    info.getDistributions().forEach(d -> refIds.add(d.getReferenceId()));
-    
-    info.setMedia(mm.listByTaxon(taxon));
-    info.getMedia().forEach(m -> refIds.add(m.getReferenceId()));
-    
-    info.setVernacularNames(vm.listByTaxon(taxon));
-    info.getVernacularNames().forEach(d -> refIds.add(d.getReferenceId()));
+      // add all supplementary taxon infos
+      info.setDescriptions(descriptions.getOrDefault(taxon.getId(), new ArrayList<>()));
+      info.getDescriptions().forEach(d -> refIds.add(d.getReferenceId()));
 
-    // add all type material
-    info.getTypeMaterial().put(taxon.getName().getId(), tmm.listByName(taxon.getName()));
-    info.getSynonyms().forEach(s -> info.getTypeMaterial().put(s.getName().getId(), tmm.listByName(s.getName())));
-    info.getTypeMaterial().values().forEach(
-            types -> types.forEach(
-                    t -> refIds.add(t.getReferenceId())
-            )
-    );
+      info.setDistributions(distributions.getOrDefault(taxon.getId(), new ArrayList<>()));
+      info.getDistributions().forEach(d -> refIds.add(d.getReferenceId()));
 
-    // make sure we did not add null by accident
-    refIds.remove(null);
-    
-    if (!refIds.isEmpty()) {
-      List<Reference> refs = rm.listByIds(taxon.getDatasetKey(), refIds);
-      info.addReferences(refs);
+      info.setMedia(media.getOrDefault(taxon.getId(), new ArrayList<>()));
+      info.getMedia().forEach(m -> refIds.add(m.getReferenceId()));
+
+      info.setVernacularNames(vernaculars.getOrDefault(taxon.getId(), new ArrayList<>()));
+      info.getVernacularNames().forEach(d -> refIds.add(d.getReferenceId()));
+
+      // add all type material
+      info.getTypeMaterial().put(taxon.getName().getId(), types.getOrDefault(taxon.getName().getId(), new ArrayList<>()));
+      info.getSynonyms().forEach(s -> info.getTypeMaterial().put(s.getName().getId(), types.getOrDefault(s.getName().getId(), new ArrayList<>())));
+      info.getTypeMaterial().values().forEach(
+              tms -> tms.forEach(
+                      t -> refIds.add(t.getReferenceId())
+              )
+      );
+
+      // make sure we did not add null by accident
+      refIds.remove(null);
+      infos.add(info);
+      infoRefIds.add(refIds);
+    }
+
+    // load all references at once and share them across infos
+    Set<String> allRefIds = new HashSet<>();
+    infoRefIds.forEach(allRefIds::addAll);
+    if (!allRefIds.isEmpty()) {
+      Map<String, Reference> refs = new HashMap<>();
+      ReferenceMapper rm = session.getMapper(ReferenceMapper.class);
+      for (Reference r : listBatched(allRefIds, batch -> rm.listByIds(datasetKey, new HashSet<>(batch)))) {
+        refs.put(r.getId(), r);
+      }
+      for (int i = 0; i < infos.size(); i++) {
+        for (String rid : infoRefIds.get(i)) {
+          if (refs.containsKey(rid)) {
+            infos.get(i).addReference(refs.get(rid));
+          }
+        }
+      }
     }
     
-    return info;
+    return infos;
+  }
+
+  /**
+   * Loads records for many ids with one query per batch of ids, so the IN lists stay within sane limits.
+   */
+  private static <T> List<T> listBatched(Collection<String> ids, Function<List<String>, List<T>> loader) {
+    List<T> result = new ArrayList<>();
+    for (List<String> batch : Lists.partition(new ArrayList<>(ids), BATCH_SIZE)) {
+      result.addAll(loader.apply(batch));
+    }
+    return result;
+  }
+
+  private static <T extends DatasetScopedEntity<Integer>> Map<String, List<T>> byTaxon(TaxonExtensionMapper<T> mapper, int datasetKey, Set<String> taxonIds) {
+    Map<String, List<T>> byTaxon = new HashMap<>();
+    for (TaxonExtension<T> te : listBatched(taxonIds, batch -> mapper.listByTaxa(datasetKey, batch))) {
+      byTaxon.computeIfAbsent(te.getTaxonID(), k -> new ArrayList<>()).add(te.getObj());
+    }
+    return byTaxon;
   }
   
   /**
@@ -223,8 +313,12 @@ public class TaxonDao extends DatasetEntityDao<String, Taxon, TaxonMapper> {
       newKey(t);
       t.setOrigin(Origin.USER);
       t.applyUser(user);
-      session.getMapper(TaxonMapper.class).create(t);
-      
+      TaxonMapper tm = session.getMapper(TaxonMapper.class);
+      tm.create(t);
+      if (t.getParentId() != null) {
+        tm.updateChildCount(DSID.of(datasetKey, t.getParentId()));
+      }
+
       session.commit();
 
       // create taxon in ES
@@ -271,6 +365,14 @@ public class TaxonDao extends DatasetEntityDao<String, Taxon, TaxonMapper> {
           tm.updateDatasetSectorCount(catKey.id(tc.getId()), mergeMapCounts(tc.getCount(), delta, 1));
         }
       }
+      // update stored child counts of both parents
+      if (old.getParentId() != null) {
+        tm.updateChildCount(DSID.of(t.getDatasetKey(), old.getParentId()));
+      }
+      if (t.getParentId() != null) {
+        tm.updateChildCount(DSID.of(t.getDatasetKey(), t.getParentId()));
+      }
+      session.commit();
       // async update classification of all descendants.
       CompletableFuture.runAsync(() -> indexService.updateClassification(t.getDatasetKey(), t.getId()))
           .exceptionally(ex -> {
@@ -314,6 +416,11 @@ public class TaxonDao extends DatasetEntityDao<String, Taxon, TaxonMapper> {
     // update ES. there is probably a bare name now to be indexed!
     indexService.delete(did);
     if (old != null) {
+      // the parent lost this taxon, but received all its children
+      if (old.getParentId() != null) {
+        mapper.updateChildCount(DSID.of(did.getDatasetKey(), old.getParentId()));
+        session.commit();
+      }
       NameUsageWrapper bare = session.getMapper(NameUsageWrapperMapper.class).getBareName(did.getDatasetKey(), old.getName().getId());
       if (bare != null) {
         indexService.add(List.of(bare));
@@ -343,6 +450,7 @@ public class TaxonDao extends DatasetEntityDao<String, Taxon, TaxonMapper> {
         LOG.info("Recursive delete of {} detected {} included sectors, but {} are declared in the taxons sector count map", id, sectorKeys.size(), delta.size());
       }
       List<TaxonSectorCountMap> parents = tm.classificationCounts(id);
+      final Taxon root = tm.get(id);
 
       // we remove usages, names and associated infos.
       // but NOT name_rels or refs
@@ -364,6 +472,10 @@ public class TaxonDao extends DatasetEntityDao<String, Taxon, TaxonMapper> {
           }
         }
       }
+      // update stored child count of the parent
+      if (root != null && root.getParentId() != null) {
+        tm.updateChildCount(DSID.of(id.getDatasetKey(), root.getParentId()));
+      }
 
       // remove included sectors
       for (int skey : sectorKeys) {
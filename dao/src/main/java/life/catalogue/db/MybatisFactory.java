@@ -10,6 +10,7 @@ import life.catalogue.db.mapper.NameMapper;
 import life.catalogue.db.mapper.ProjectSourceDataset;
 import life.catalogue.db.mapper.UsageNameID;
 import life.catalogue.db.type.UuidTypeHandler;
+import life.catalogue.db.type2.MetricCount;
 import life.catalogue.db.type2.StringCount;
 import org.apache.ibatis.binding.MapperRegistry;
 import org.apache.ibatis.reflection.MetaObject;
@@ -139,6 +140,7 @@ public class MybatisFactory {
     // search package
     registry.registerAliases(NameUsageWrapper.class.getPackage().getName());
     registry.registerAlias(StringCount.class);
+    registry.registerAlias(MetricCount.class);
     registry.registerAlias(UsageNameID.class);
     registry.registerAlias(ProjectSourceDataset.class);
     registry.registerAlias("TreeNodeMybatis", TreeNode.TreeNodeMybatis.class);
@@ -4,6 +4,7 @@ import life.catalogue.api.model.DatasetImport;
 import life.catalogue.api.model.Page;
 import life.catalogue.api.vocab.ImportState;
 import life.catalogue.db.DatasetProcessable;
+import life.catalogue.db.type2.MetricCount;
 import life.catalogue.db.type2.StringCount;
 import org.apache.ibatis.annotations.Param;
 import org.gbif.dwc.terms.Term;
@@ -61,4 +62,22 @@ public interface DatasetImportMapper extends DatasetProcessable<DatasetImport> {
   List<StringCount> countVerbatimByType(@Param("key") int datasetKey);
   List<StringCount> countVerbatimTerms(@Param("key") int datasetKey, @Param("rowType") Term rowType);
   List<StringCount> countVernacularsByLanguage(@Param("key") int datasetKey);
+
+  /**
+   * Counts names by rank, type, status and origin in a single scan.
+   * The metric of each count is one of rank, type, status or origin.
+   */
+  List<MetricCount> countNameMetrics(@Param("key") int datasetKey);
+
+  /**
+   * Counts usages by status and by their synonym flag and name rank in a single scan.
+   * The metric of each count is one of status, taxonRank or synonymRank.
+   */
+  List<MetricCount> countUsageMetrics(@Param("key") int datasetKey);
+
+  /**
+   * Counts verbatim records by type, their issues and the terms used per row type in a single scan.
+   * The metric of each count is one of type, issue or term. Term counts also carry their row type.
+   */
+  List<MetricCount> countVerbatimMetrics(@Param("key") int datasetKey);
 }
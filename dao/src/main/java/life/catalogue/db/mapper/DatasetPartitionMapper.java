@@ -45,6 +45,33 @@ public interface DatasetPartitionMapper {
   
   void createSerial(@Param("table") String table, @Param("key") int key);
   
+  /**
+   * Disables the full text triggers of the verbatim and reference partition tables
+   * so inserts do not compute the doc column row by row.
+   */
+  void disableFullTextTriggers(@Param("key") int key);
+  
+  void enableFullTextTriggers(@Param("key") int key);
+  
+  /**
+   * Computes the full text doc column for all records of the verbatim partition table
+   * exactly like the verbatim trigger does.
+   */
+  void updateVerbatimFullText(@Param("key") int key);
+  
+  /**
+   * Computes the full text doc column for all records of the reference partition table
+   * exactly like the reference trigger does.
+   */
+  void updateReferenceFullText(@Param("key") int key);
+  
+  /**
+   * Removes dead tuples and updates the planner statistics of a partition table, e.g. after all its rows were updated.
+   * Must be executed outside of a transaction, i.e. in an auto commit session.
+   * @param table name of the partitioned table, e.g. verbatim
+   */
+  void vacuumAnalyze(@Param("table") String table, @Param("key") int key);
+  
   /**
    * Updates the sequences for a given datasetKey to the current max of existing keys.
    * @param key datasetKey
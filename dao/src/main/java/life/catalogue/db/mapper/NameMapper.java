@@ -21,7 +21,8 @@ public interface NameMapper extends CRUD<DSID<String>, Name>, DatasetProcessable
   Name getByUsage(@Param("datasetKey") int datasetKey, @Param("usageId") String usageId);
   
   /**
-   * Lists all distinct name index ids from the names table.
+   * Lists all distinct name index ids from the names table,
+   * ordered by their binary value just like String.compareTo does for ASCII ids.
    */
   Cursor<String> processIndexIds(@Param("datasetKey") int datasetKey,
                          @Nullable @Param("sectorKey") Integer sectorKey);
@@ -43,6 +44,14 @@ public interface NameMapper extends CRUD<DSID<String>, Name>, DatasetProcessable
    * Returns the list of names published in the same reference.
    */
   List<Name> listByReference(@Param("datasetKey") int datasetKey, @Param("refId") String publishedInId);
+
+  /**
+   * Lists names ordered by their id just like list does, but using keyset pagination.
+   * The page offset is ignored.
+   *
+   * @param after optional id of the last name of the previous page
+   */
+  List<Name> listAfter(@Param("datasetKey") int datasetKey, @Nullable @Param("after") String after, @Param("page") Page page);
   
   /**
    * Lists all names with the same names index key across all datasets.
@@ -11,6 +11,7 @@ import org.apache.ibatis.cursor.Cursor;
 import org.gbif.nameparser.api.Rank;
 
 import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -38,6 +39,19 @@ public interface NameUsageMapper extends SectorProcessable<NameUsageBase>, CopyD
                          @Param("name") String sciname,
                          @Nullable @Param("rank") Rank rank);
 
+  /**
+   * Lists all usages which case insensitively match any of the given scientific names.
+   */
+  List<NameUsageBase> listByNames(@Param("datasetKey") int datasetKey,
+                                  @Param("names") Collection<String> scinames);
+
+  /**
+   * Lists the parent names of the given usages.
+   * The id of each returned SimpleName is the id of the child usage, not the parent!
+   */
+  List<SimpleName> listParentNames(@Param("datasetKey") int datasetKey,
+                                   @Param("ids") Collection<String> usageIds);
+
   /**
    * Lists all children (taxon & synonym) of a given parent
    * @param key the parent to list the direct children from
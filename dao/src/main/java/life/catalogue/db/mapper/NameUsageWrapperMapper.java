@@ -1,5 +1,6 @@
 package life.catalogue.db.mapper;
 
+import life.catalogue.api.model.SimpleName;
 import life.catalogue.api.model.SimpleNameClassification;
 import life.catalogue.api.search.NameUsageWrapper;
 import org.apache.ibatis.annotations.Param;
@@ -33,6 +34,18 @@ public interface NameUsageWrapperMapper {
   List<NameUsageWrapper> getSomeWithoutClassification(@Param("datasetKey") int datasetKey,
                                                 @Param("ids") List<String> taxonIds);
 
+  /**
+   * Iterates over all usages of a dataset ordered by their id.
+   * @return the full wrapper objects but without the recursive classification property
+   */
+  Cursor<NameUsageWrapper> processDatasetWithoutClassification(@Param("datasetKey") int datasetKey);
+
+  /**
+   * Iterates over all usages of a dataset that are the parent of some other usage.
+   * Only the id, name, rank, status and parent properties are populated.
+   */
+  Cursor<SimpleName> processParents(@Param("datasetKey") int datasetKey);
+
   /**
    * Iterates over all usages for a given dataset.
    * The returned wrapper does only include the usage and issues related to name and usage, but no further information.
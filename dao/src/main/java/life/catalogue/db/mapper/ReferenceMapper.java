@@ -29,7 +29,12 @@ public interface ReferenceMapper extends CRUD<DSID<String>, Reference>, DatasetP
 	 */
 	List<Reference> find(@Param("datasetKey") int datasetKey, @Param("sectorKey") Integer sectorKey, @Param("citation") String citation);
 	
-	List<Reference> search(@Param("datasetKey") int datasetKey, @Param("req") ReferenceSearchRequest request, @Param("page") Page page);
+	/**
+	 * @param after optional id of the last reference of the previous page for keyset pagination when sorting by id.
+	 *              The page offset should be zero in that case.
+	 */
+	List<Reference> search(@Param("datasetKey") int datasetKey, @Param("req") ReferenceSearchRequest request,
+	                       @Nullable @Param("after") String after, @Param("page") Page page);
 	
 	int searchCount(@Param("datasetKey") int datasetKey, @Param("req") ReferenceSearchRequest request);
 
@@ -1,5 +1,6 @@
 package life.catalogue.db.mapper;
 
+import java.util.Collection;
 import java.util.List;
 
 import life.catalogue.db.DatasetProcessable;
@@ -28,6 +29,14 @@ public interface SynonymMapper extends CRUD<DSID<String>, Synonym>, DatasetProce
    * @return list of misapplied or heterotypic synonym names ordered by status then homotypic group
    */
   List<Synonym> listByTaxon(@Param("datasetKey") int datasetKey, @Param("taxonId") String taxonId);
+
+  /**
+   * Lists the synonyms of several accepted taxa at once,
+   * ordered by their accepted taxon id and then just like listByTaxon.
+   *
+   * @param taxonIds must contain at least one value, not allowed to be empty !!!
+   */
+  List<Synonym> listByTaxa(@Param("datasetKey") int datasetKey, @Param("taxonIds") Collection<String> taxonIds);
   
   List<Synonym> listByNameID(@Param("datasetKey") int datasetKey, @Param("nameId") String nameId);
   
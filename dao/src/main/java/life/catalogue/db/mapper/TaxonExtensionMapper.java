@@ -7,6 +7,7 @@ import life.catalogue.db.CopyDataset;
 import life.catalogue.db.DatasetProcessable;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface TaxonExtensionMapper<T extends DatasetScopedEntity<Integer>> extends DatasetProcessable<TaxonExtension<T>>, CopyDataset {
@@ -14,6 +15,11 @@ public interface TaxonExtensionMapper<T extends DatasetScopedEntity<Integer>> ex
 	T get(@Param("key") DSID<Integer> key);
 	
 	List<T> listByTaxon(@Param("key") DSID<String> key);
+
+	/**
+	 * Lists the extensions of several taxa at once, ordered by their taxon id.
+	 */
+	List<TaxonExtension<T>> listByTaxa(@Param("datasetKey") int datasetKey, @Param("taxonIds") Collection<String> taxonIds);
 	
 	void create(@Param("obj") T object,
               @Param("taxonId") String taxonId);
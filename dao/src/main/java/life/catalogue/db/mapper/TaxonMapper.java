@@ -9,6 +9,7 @@ import org.apache.ibatis.annotations.Param;
 import org.gbif.nameparser.api.Rank;
 
 import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -81,4 +82,25 @@ public interface TaxonMapper extends CRUD<DSID<String>, Taxon>, DatasetProcessab
    */
   void resetDatasetSectorCount(@Param("datasetKey") int datasetKey);
 
+  /**
+   * Selects a number of taxa from a single dataset by their ids.
+   *
+   * @param ids must contain at least one value, not allowed to be empty !!!
+   */
+  List<Taxon> listByIds(@Param("datasetKey") int datasetKey, @Param("ids") Collection<String> ids);
+
+  /**
+   * Recounts the stored number of accepted children of a single taxon.
+   * @param key the taxon datasetKey & id
+   */
+  void updateChildCount(@Param("key") DSID<String> key);
+
+  /**
+   * Recounts the stored number of accepted children for all taxa of a dataset
+   * with a single set based update, only touching rows with a changed count.
+   * @param datasetKey the dataset to update
+   * @param sectorKey optional sector to restrict the updated taxa to
+   */
+  void updateChildCounts(@Param("datasetKey") int datasetKey, @Nullable @Param("sectorKey") Integer sectorKey);
+
 }
@@ -8,6 +8,7 @@ import life.catalogue.db.DatasetProcessable;
 import life.catalogue.db.SectorProcessable;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -17,4 +18,11 @@ public interface TypeMaterialMapper extends CRUD<DSID<String>, TypeMaterial>, Da
 
 	List<TypeMaterial> listByName(@Param("key") DSID<String> key);
 
+	/**
+	 * Lists the type material of several names at once, ordered by their name id.
+	 *
+	 * @param nameIds must contain at least one value, not allowed to be empty !!!
+	 */
+	List<TypeMaterial> listByNames(@Param("datasetKey") int datasetKey, @Param("nameIds") Collection<String> nameIds);
+
 }
@@ -38,6 +38,7 @@ public interface VerbatimRecordMapper extends Create<VerbatimRecord>, DatasetPro
    * @param termOp logical operator to combine multiple term filters
    * @param issues optional issues to filter by
    * @param q full text search query on term values
+   * @param after optional key of the last record of the previous page for keyset pagination, the page offset should be zero then
    * @param page
    * @return
    */
@@ -47,10 +48,16 @@ public interface VerbatimRecordMapper extends Create<VerbatimRecord>, DatasetPro
                             @Param("termOp") LogicalOperator termOp,
                             @Nullable @Param("issues") Collection<Issue> issues,
                             @Nullable @Param("q") String q,
+                            @Nullable @Param("after") Integer after,
                             @Param("page") Page page
   );
   
   VerbatimRecord get(@Param("key") DSID<Integer> key);
+
+  /**
+   * Lists all verbatim records of a dataset for the given keys
+   */
+  List<VerbatimRecord> listByKeys(@Param("datasetKey") int datasetKey, @Param("keys") Collection<Integer> keys);
   
   IssueContainer getIssues(@Param("key") DSID<Integer> key);
 
@@ -7,16 +7,17 @@ import life.catalogue.api.model.ImportAttempt;
 import life.catalogue.api.model.Page;
 import life.catalogue.api.model.SectorImport;
 import life.catalogue.api.vocab.ImportState;
-import life.catalogue.common.io.InputStreamUtils;
+import life.catalogue.common.io.UTF8IoUtils;
 import life.catalogue.dao.NamesTreeDao;
 import life.catalogue.db.mapper.DatasetImportMapper;
 import life.catalogue.db.mapper.SectorImportMapper;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
@@ -25,6 +26,13 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class DiffService {
+  private static final Logger LOG = LoggerFactory.getLogger(DiffService.class);
+  // unchanged lines shown around tree changes
+  private static final int CONTEXT = 2;
+  private static final int MAX_DIFF_LINES = 100_000;
+  // maximum time in milliseconds to search for a minimal tree diff
+  private static final long DIFF_TIMEOUT = 10_000;
+  private static final int MAX_NAMES = 100_000;
   private final SqlSessionFactory factory;
   private final NamesTreeDao dao;
   
@@ -127,33 +135,112 @@ public class DiffService {
   }
   
   
+  /**
+   * Diffs two name id files by merging them, expecting both to be sorted as written by NamesTreeDao.
+   * Older, unsorted files are compared in memory instead.
+   */
   @VisibleForTesting
   protected NamesDiff namesDiff(int key, int[] atts, Function<Integer, File> getFile) throws IOException {
     File[] files = attemptToFiles(atts, getFile);
-    final NamesDiff diff = new NamesDiff(key, atts[0], atts[1]);
+    NamesDiff diff = new NamesDiff(key, atts[0], atts[1]);
+    if (!mergeNames(files, diff)) {
+      LOG.info("Unsorted names files for {} attempts {}..{}. Compare in memory", key, atts[0], atts[1]);
+      diff = new NamesDiff(key, atts[0], atts[1]);
+      namesDiffInMemory(files, diff);
+    }
+    return diff;
+  }
+  
+  /**
+   * @return false if any of the files is not sorted
+   */
+  private static boolean mergeNames(File[] files, NamesDiff diff) throws IOException {
+    try (SortedLineReader r1 = new SortedLineReader(files[0]);
+         SortedLineReader r2 = new SortedLineReader(files[1])
+    ) {
+      String n1 = r1.next();
+      String n2 = r2.next();
+      while (n1 != null || n2 != null) {
+        if (!r1.sorted || !r2.sorted) {
+          return false;
+        }
+        int cmp = n1 == null ? 1 : (n2 == null ? -1 : n1.compareTo(n2));
+        if (cmp < 0) {
+          if (!add(diff, diff.getDeleted(), n1)) break;
+          n1 = r1.next();
+        } else if (cmp > 0) {
+          if (!add(diff, diff.getInserted(), n2)) break;
+          n2 = r2.next();
+        } else {
+          n1 = r1.next();
+          n2 = r2.next();
+        }
+      }
+      return r1.sorted && r2.sorted;
+    }
+  }
+  
+  private static void namesDiffInMemory(File[] files, NamesDiff diff) throws IOException {
     Set<String> n1 = NamesTreeDao.readNames(files[0]);
     Set<String> n2 = NamesTreeDao.readNames(files[1]);
-    
-    diff.setDeleted(new HashSet<>(n1));
-    diff.getDeleted().removeAll(n2);
-    
-    diff.setInserted(new HashSet<>(n2));
-    diff.getInserted().removeAll(n1);
-    return diff;
+    for (String n : n1) {
+      if (!n2.contains(n) && !add(diff, diff.getDeleted(), n)) return;
+    }
+    for (String n : n2) {
+      if (!n1.contains(n) && !add(diff, diff.getInserted(), n)) return;
+    }
   }
   
-  public String diffBinaryVersion() throws IOException {
-    Runtime rt = Runtime.getRuntime();
-    Process ps = rt.exec("diff -v");
-    return InputStreamUtils.readEntireStream(ps.getInputStream());
+  /**
+   * Adds a name to the given set of the diff unless the maximum number of names has been reached.
+   * @return false if the name was not added and the diff is truncated
+   */
+  private static boolean add(NamesDiff diff, Set<String> names, String name) {
+    if (diff.getDeleted().size() + diff.getInserted().size() >= MAX_NAMES) {
+      diff.setTruncated(true);
+      return false;
+    }
+    names.add(name);
+    return true;
+  }
+  
+  /**
+   * Reads non empty lines and keeps track of whether they are in ascending order.
+   */
+  private static class SortedLineReader implements AutoCloseable {
+    private final BufferedReader br;
+    private String prev;
+    boolean sorted = true;
+  
+    SortedLineReader(File f) throws IOException {
+      br = UTF8IoUtils.readerFromGzipOrPlainFile(f);
+    }
+  
+    String next() throws IOException {
+      String line;
+      do {
+        line = br.readLine();
+      } while (line != null && line.isEmpty());
+      if (line != null && prev != null && line.compareTo(prev) < 0) {
+        sorted = false;
+      }
+      prev = line;
+      return line;
+    }
+  
+    @Override
+    public void close() throws IOException {
+      br.close();
+    }
   }
   
   @VisibleForTesting
   protected BufferedReader udiff(int[] atts, Function<Integer, File> getFile) throws IOException {
     File[] files = attemptToFiles(atts, getFile);
-    Runtime rt = Runtime.getRuntime();
-    Process ps = rt.exec(String.format("diff -B -d -U 2 %s %s", files[0].getAbsolutePath(), files[1].getAbsolutePath()));
-  
-    return new BufferedReader(new InputStreamReader(ps.getInputStream()));
+    StringWriter out = new StringWriter();
+    if (!new UnifiedDiff(CONTEXT, MAX_DIFF_LINES, DIFF_TIMEOUT).diff(files[0], files[1], out)) {
+      LOG.info("Truncated tree diff of {} and {}", files[0], files[1]);
+    }
+    return new BufferedReader(new StringReader(out.toString()));
   }
 }
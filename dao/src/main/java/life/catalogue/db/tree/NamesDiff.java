@@ -10,6 +10,7 @@ public class NamesDiff {
   private final int attempt2;
   private Set<String> deleted = new HashSet<>();
   private Set<String> inserted= new HashSet<>();
+  private boolean truncated;
   
   public NamesDiff(int sectorKey, int attempt1, int attempt2) {
     this.key = sectorKey;
@@ -45,6 +46,17 @@ public class NamesDiff {
     return inserted;
   }
   
+  /**
+   * @return true if there were too many differences and only some of them are listed
+   */
+  public boolean isTruncated() {
+    return truncated;
+  }
+  
+  public void setTruncated(boolean truncated) {
+    this.truncated = truncated;
+  }
+  
   @Override
   public String toString() {
     return "NamesDiff{" +
@@ -53,6 +65,7 @@ public class NamesDiff {
         ", attempt2=" + attempt2 +
         ", deleted=" + deleted +
         ", inserted=" + inserted +
+        ", truncated=" + truncated +
         '}';
   }
 }
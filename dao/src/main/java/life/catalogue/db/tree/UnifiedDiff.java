@@ -0,0 +1,358 @@
+package life.catalogue.db.tree;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import life.catalogue.common.io.UTF8IoUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pure java line based diff of two, optionally gzipped, text files producing the unified diff format.
+ *
+ * Files are first read to keep only a 64 bit hash per line in memory.
+ * The changes are then found with the linear space variant of the Myers diff algorithm
+ * and finally both files are streamed a second time to write the changed lines with their context.
+ *
+ * The time spent on finding a minimal diff is limited. If it is exceeded the remaining differing ranges
+ * are reported as a single change, so the diff is always correct, but maybe not minimal.
+ * The number of written lines is limited, too.
+ */
+public class UnifiedDiff {
+  private static final HashFunction HASH = Hashing.murmur3_128();
+  private final int context;
+  private final int maxLines;
+  private final long timeout;
+  private long deadline;
+  private long[] a;
+  private long[] b;
+
+  /**
+   * @param context number of unchanged lines to show before and after each change
+   * @param maxLines maximum number of lines to write, excluding the file headers
+   * @param timeout maximum time in milliseconds to spend on finding a minimal diff
+   */
+  public UnifiedDiff(int context, int maxLines, long timeout) {
+    this.context = context;
+    this.maxLines = maxLines;
+    this.timeout = timeout;
+  }
+
+  /**
+   * A range of lines [a0, a1) in the first file replaced by lines [b0, b1) of the second file.
+   */
+  static class Change {
+    int a0;
+    int a1;
+    int b0;
+    int b1;
+
+    Change(int a0, int a1, int b0, int b1) {
+      this.a0 = a0;
+      this.a1 = a1;
+      this.b0 = b0;
+      this.b1 = b1;
+    }
+
+    @Override
+    public String toString() {
+      return a0 + "-" + a1 + "/" + b0 + "-" + b1;
+    }
+  }
+
+  /**
+   * Writes the unified diff of both files. Nothing but the headers is written if the files are identical.
+   * @return true if the diff was complete, false if it was truncated
+   */
+  public boolean diff(File f1, File f2, Writer out) throws IOException {
+    a = hashLines(f1);
+    b = hashLines(f2);
+    final int aSize = a.length;
+    List<Change> changes = changes();
+    a = null;
+    b = null;
+    out.write("--- " + f1.getAbsolutePath() + "\n");
+    out.write("+++ " + f2.getAbsolutePath() + "\n");
+    return write(changes, aSize, f1, f2, out);
+  }
+
+  private static long[] hashLines(File f) throws IOException {
+    long[] hashes = new long[1024];
+    int size = 0;
+    try (BufferedReader br = UTF8IoUtils.readerFromGzipOrPlainFile(f)) {
+      String line;
+      while ((line = br.readLine()) != null) {
+        if (size == hashes.length) {
+          hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        hashes[size++] = HASH.hashString(line, StandardCharsets.UTF_8).asLong();
+      }
+    }
+    return Arrays.copyOf(hashes, size);
+  }
+
+  /**
+   * Finds the changes between the hashed lines in a and b, ordered by their position.
+   */
+  List<Change> changes(long[] a, long[] b) {
+    this.a = a;
+    this.b = b;
+    return changes();
+  }
+
+  private List<Change> changes() {
+    deadline = System.currentTimeMillis() + timeout;
+    List<Change> changes = new ArrayList<>();
+    diff(0, a.length, 0, b.length, changes);
+    return changes;
+  }
+
+  private void diff(int aLo, int aHi, int bLo, int bHi, List<Change> changes) {
+    // strip common prefix and suffix
+    while (aLo < aHi && bLo < bHi && a[aLo] == b[bLo]) {
+      aLo++;
+      bLo++;
+    }
+    while (aLo < aHi && bLo < bHi && a[aHi - 1] == b[bHi - 1]) {
+      aHi--;
+      bHi--;
+    }
+    if (aLo == aHi && bLo == bHi) {
+      return;
+    }
+    int[] split = aLo == aHi || bLo == bHi ? null : bisect(aLo, aHi, bLo, bHi);
+    if (split == null) {
+      add(changes, new Change(aLo, aHi, bLo, bHi));
+    } else {
+      diff(aLo, aLo + split[0], bLo, bLo + split[1], changes);
+      diff(aLo + split[0], aHi, bLo + split[1], bHi, changes);
+    }
+  }
+
+  /**
+   * Adds a change, merging it with the previous one if they are adjacent.
+   */
+  private static void add(List<Change> changes, Change c) {
+    if (!changes.isEmpty()) {
+      Change last = changes.get(changes.size() - 1);
+      if (last.a1 == c.a0 && last.b1 == c.b0) {
+        last.a1 = c.a1;
+        last.b1 = c.b1;
+        return;
+      }
+    }
+    changes.add(c);
+  }
+
+  /**
+   * Finds the middle snake of the given ranges, searching from both ends at the same time.
+   * @return the relative offsets in a and b to split the ranges at or null if there is nothing in common or time is up
+   */
+  private int[] bisect(int aLo, int aHi, int bLo, int bHi) {
+    final int n = aHi - aLo;
+    final int m = bHi - bLo;
+    final int maxD = (n + m + 1) / 2;
+    final int vOffset = maxD;
+    final int vLength = 2 * maxD + 2;
+    final int[] v1 = new int[vLength];
+    final int[] v2 = new int[vLength];
+    Arrays.fill(v1, -1);
+    Arrays.fill(v2, -1);
+    v1[vOffset + 1] = 0;
+    v2[vOffset + 1] = 0;
+    final int delta = n - m;
+    // if the total number of lines is odd the front path will collide with the reverse path
+    final boolean front = delta % 2 != 0;
+    // offsets for start and end of k loops, preventing mapping of space beyond the grid
+    int k1start = 0;
+    int k1end = 0;
+    int k2start = 0;
+    int k2end = 0;
+    for (int d = 0; d < maxD; d++) {
+      if (System.currentTimeMillis() > deadline) {
+        break;
+      }
+      // walk the front path one step
+      for (int k1 = -d + k1start; k1 <= d - k1end; k1 += 2) {
+        int k1Offset = vOffset + k1;
+        int x1;
+        if (k1 == -d || (k1 != d && v1[k1Offset - 1] < v1[k1Offset + 1])) {
+          x1 = v1[k1Offset + 1];
+        } else {
+          x1 = v1[k1Offset - 1] + 1;
+        }
+        int y1 = x1 - k1;
+        while (x1 < n && y1 < m && a[aLo + x1] == b[bLo + y1]) {
+          x1++;
+          y1++;
+        }
+        v1[k1Offset] = x1;
+        if (x1 > n) {
+          // ran off the right of the graph
+          k1end += 2;
+        } else if (y1 > m) {
+          // ran off the bottom of the graph
+          k1start += 2;
+        } else if (front) {
+          int k2Offset = vOffset + delta - k1;
+          if (k2Offset >= 0 && k2Offset < vLength && v2[k2Offset] != -1) {
+            // mirror x2 onto top-left coordinate system
+            int x2 = n - v2[k2Offset];
+            if (x1 >= x2) {
+              return new int[]{x1, y1};
+            }
+          }
+        }
+      }
+      // walk the reverse path one step
+      for (int k2 = -d + k2start; k2 <= d - k2end; k2 += 2) {
+        int k2Offset = vOffset + k2;
+        int x2;
+        if (k2 == -d || (k2 != d && v2[k2Offset - 1] < v2[k2Offset + 1])) {
+          x2 = v2[k2Offset + 1];
+        } else {
+          x2 = v2[k2Offset - 1] + 1;
+        }
+        int y2 = x2 - k2;
+        while (x2 < n && y2 < m && a[aHi - x2 - 1] == b[bHi - y2 - 1]) {
+          x2++;
+          y2++;
+        }
+        v2[k2Offset] = x2;
+        if (x2 > n) {
+          k2end += 2;
+        } else if (y2 > m) {
+          k2start += 2;
+        } else if (!front) {
+          int k1Offset = vOffset + delta - k2;
+          if (k1Offset >= 0 && k1Offset < vLength && v1[k1Offset] != -1) {
+            int x1 = v1[k1Offset];
+            int y1 = vOffset + x1 - k1Offset;
+            // mirror x2 onto top-left coordinate system
+            if (x1 >= n - x2) {
+              return new int[]{x1, y1};
+            }
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Groups changes into hunks and writes them with their context by streaming both files again.
+   */
+  private boolean write(List<Change> changes, int aSize, File f1, File f2, Writer out) throws IOException {
+    try (LineReader r1 = new LineReader(f1);
+         LineReader r2 = new LineReader(f2)
+    ) {
+      HunkWriter w = new HunkWriter(out);
+      int i = 0;
+      while (i < changes.size()) {
+        // changes closer than twice the context go into the same hunk
+        int j = i;
+        while (j + 1 < changes.size() && changes.get(j + 1).a0 - changes.get(j).a1 <= 2 * context) {
+          j++;
+        }
+        Change first = changes.get(i);
+        Change last = changes.get(j);
+        int before = Math.min(context, first.a0);
+        int after = Math.min(context, aSize - last.a1);
+        int aStart = first.a0 - before;
+        int bStart = first.b0 - before;
+        int aEnd = last.a1 + after;
+        int bEnd = last.b1 + after;
+        out.write("@@ -" + range(aStart, aEnd - aStart) + " +" + range(bStart, bEnd - bStart) + " @@\n");
+
+        int x = aStart;
+        int y = bStart;
+        for (int c = i; c <= j; c++) {
+          Change ch = changes.get(c);
+          // unchanged lines are the same in both files
+          for (; x < ch.a0; x++, y++) {
+            if (!w.write(' ', r1.line(x))) return false;
+          }
+          for (; x < ch.a1; x++) {
+            if (!w.write('-', r1.line(x))) return false;
+          }
+          for (; y < ch.b1; y++) {
+            if (!w.write('+', r2.line(y))) return false;
+          }
+        }
+        for (; x < aEnd; x++) {
+          if (!w.write(' ', r1.line(x))) return false;
+        }
+        i = j + 1;
+      }
+    }
+    return true;
+  }
+
+  private class HunkWriter {
+    private final Writer out;
+    private int lines = 0;
+
+    HunkWriter(Writer out) {
+      this.out = out;
+    }
+
+    /**
+     * @return false if the maximum number of lines was reached and nothing was written
+     */
+    boolean write(char prefix, String line) throws IOException {
+      if (lines >= maxLines) {
+        out.write("\\ Diff truncated after " + lines + " lines\n");
+        return false;
+      }
+      out.write(prefix);
+      out.write(line);
+      out.write('\n');
+      lines++;
+      return true;
+    }
+  }
+
+  /**
+   * Formats a hunk range with a zero based start, just like GNU diff.
+   */
+  private static String range(int start, int len) {
+    if (len == 1) {
+      return String.valueOf(start + 1);
+    } else if (len == 0) {
+      return start + ",0";
+    }
+    return (start + 1) + "," + len;
+  }
+
+  /**
+   * Reads lines of a file by their increasing, zero based index.
+   */
+  private static class LineReader implements AutoCloseable {
+    private final BufferedReader br;
+    private int idx = 0;
+
+    LineReader(File f) throws IOException {
+      br = UTF8IoUtils.readerFromGzipOrPlainFile(f);
+    }
+
+    String line(int i) throws IOException {
+      String line;
+      do {
+        line = br.readLine();
+        idx++;
+      } while (idx <= i);
+      return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+      br.close();
+    }
+  }
+}
@@ -24,11 +24,17 @@ public class TermTypeHandler extends BaseTypeHandler<Term> {
   
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Term parameter, JdbcType jdbcType) throws SQLException {
-    if (parameter instanceof UnknownTerm) {
-      ps.setString(i, parameter.qualifiedName());
-    } else {
-      ps.setString(i, parameter.prefixedName());
+    ps.setString(i, toKey(parameter));
+  }
+
+  /**
+   * @return the string representation of a term as it is stored in the database
+   */
+  public static String toKey(Term term) {
+    if (term == null) {
+      return null;
     }
+    return term instanceof UnknownTerm ? term.qualifiedName() : term.prefixedName();
   }
   
   @Override
@@ -39,13 +39,19 @@ public class JsonAbstractHandler<T> extends BaseTypeHandler<T> {
   public void setNonNullParameter(PreparedStatement ps, int i, T parameter,
                                   JdbcType jdbcType) throws SQLException {
     try {
-      String x = writer.writeValueAsString(parameter);
-      ps.setString(i, x);
+      ps.setString(i, toJson(parameter));
     } catch (JsonProcessingException e) {
       throw new SQLException("Unable to convert " + typeName + " to JSONB", e);
     }
   }
   
+  /**
+   * @return the JSON representation of the object as it is stored in the database
+   */
+  public String toJson(T obj) throws JsonProcessingException {
+    return writer.writeValueAsString(obj);
+  }
+
   @Override
   public T getNullableResult(ResultSet rs, String columnName) throws SQLException {
     return fromJson(rs.getString(columnName));
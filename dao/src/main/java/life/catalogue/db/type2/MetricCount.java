@@ -0,0 +1,56 @@
+package life.catalogue.db.type2;
+
+import java.util.Objects;
+
+/**
+ * A StringCount for one of several metrics aggregated by a single query.
+ * The optional row type is used for verbatim term counts only.
+ */
+public class MetricCount extends StringCount {
+  private String metric;
+  private String rowType;
+
+  public MetricCount() {
+  }
+
+  public MetricCount(String metric, String key, Integer count) {
+    super(key, count);
+    this.metric = metric;
+  }
+
+  public String getMetric() {
+    return metric;
+  }
+
+  public void setMetric(String metric) {
+    this.metric = metric;
+  }
+
+  public String getRowType() {
+    return rowType;
+  }
+
+  public void setRowType(String rowType) {
+    this.rowType = rowType;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    if (!super.equals(o)) return false;
+    MetricCount that = (MetricCount) o;
+    return Objects.equals(metric, that.metric) &&
+        Objects.equals(rowType, that.rowType);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(super.hashCode(), metric, rowType);
+  }
+
+  @Override
+  public String toString() {
+    return "MetricCount{" + metric + (rowType == null ? "" : "[" + rowType + "]") + ":" + getKey() + "=" + getCount() + '}';
+  }
+}
@@ -0,0 +1,63 @@
+package life.catalogue.es;
+
+import java.io.IOException;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * A name usage document as it is written into bulk index requests. The payload is kept as raw bytes in a reusable buffer and written
+ * straight into the json generator, so we never need to create the (base64-encoded) payload string of {@link EsNameUsage}. The JSON
+ * written is identical to the one of the EsNameUsage with its payload set.
+ *
+ * Instances are mutable and meant to be reused for all documents of a bulk request.
+ */
+public class EsBulkDocument {
+
+  @JsonUnwrapped
+  private EsNameUsage document;
+
+  @JsonSerialize(using = PayloadSerializer.class)
+  private final Payload payload = new Payload();
+
+  /**
+   * @param document the document without a payload
+   * @param bytes buffer holding the payload, either deflated (binary) or UTF8 encoded JSON
+   * @param length number of bytes in the buffer belonging to the payload
+   * @param binary if true the payload is written as a base64-encoded binary value, otherwise as a string
+   */
+  public void set(EsNameUsage document, byte[] bytes, int length, boolean binary) {
+    this.document = document;
+    payload.bytes = bytes;
+    payload.length = length;
+    payload.binary = binary;
+  }
+
+  public EsNameUsage getDocument() {
+    return document;
+  }
+
+  static class Payload {
+    private byte[] bytes;
+    private int length;
+    private boolean binary;
+  }
+
+  public static class PayloadSerializer extends StdSerializer<Payload> {
+
+    public PayloadSerializer() {
+      super(Payload.class);
+    }
+
+    @Override
+    public void serialize(Payload p, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      if (p.binary) {
+        gen.writeBinary(p.bytes, 0, p.length);
+      } else {
+        gen.writeUTF8String(p.bytes, 0, p.length);
+      }
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package life.catalogue.es;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import life.catalogue.dao.NameUsageProcessor;
 
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
@@ -48,6 +49,27 @@ public class EsConfig {
   @Min(1)
   public int indexingThreads = 4;
 
+  /**
+   * Number of parallel threads to use when indexing a single dataset.
+   * Trees of different root taxa are read in parallel and as many bulk requests are sent concurrently.
+   */
+  @Min(1)
+  public int datasetIndexingThreads = 4;
+
+  /**
+   * Strategy for reading entire datasets from postgres.
+   * SET streams all usages with a single query and builds classifications in memory, see {@link NameUsageProcessor.Mode}.
+   */
+  @NotNull
+  public NameUsageProcessor.Mode processingMode = NameUsageProcessor.Mode.TREE;
+
+  /**
+   * Maximum number of parent usages of a single dataset to be held in memory in SET processing mode.
+   * Datasets with more parents are processed tree by tree.
+   */
+  @Min(0)
+  public int maxParents = 2000000;
+
   @JsonIgnore
   public boolean isEmpty() {
     return hosts == null || nameUsage == null;
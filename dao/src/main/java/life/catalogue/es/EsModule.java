@@ -10,6 +10,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
@@ -18,6 +19,7 @@ import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import life.catalogue.api.jackson.ApiModule;
 import life.catalogue.api.model.BareName;
@@ -89,10 +91,16 @@ public class EsModule extends SimpleModule {
 
   private static final ObjectReader documentReader = contentMapper.readerFor(EsNameUsage.class);
   private static final ObjectWriter documentWriter = contentMapper.writerFor(EsNameUsage.class);
+  private static final ObjectWriter bulkDocumentWriter = contentMapper.writerFor(EsBulkDocument.class);
 
   private static final ObjectReader nameUsageReader = contentMapper.readerFor(NameUsageWrapper.class);
   private static final ObjectWriter nameUsageWriter = contentMapper.writerFor(NameUsageWrapper.class);
 
+  // binary Smile encoding for name usage payloads, see PayloadCodec
+  private static final ObjectMapper smileMapper = configureMapper(new ObjectMapper(new SmileFactory()), true);
+  private static final ObjectReader nameUsageSmileReader = smileMapper.readerFor(NameUsageWrapper.class);
+  private static final ObjectWriter nameUsageSmileWriter = smileMapper.writerFor(NameUsageWrapper.class);
+
   private static final TypeReference<Map<String, Object>> mapType = new TypeReference<Map<String, Object>>() {};
 
   /**
@@ -166,6 +174,10 @@ public class EsModule extends SimpleModule {
     return nameUsageReader.readValue(json);
   }
 
+  public static NameUsageWrapper readNameUsageWrapperSmile(InputStream is) throws IOException {
+    return nameUsageSmileReader.readValue(is);
+  }
+
   public static String write(IndexDefinition indexDef) throws JsonProcessingException {
     return ddlWriter.writeValueAsString(indexDef);
   }
@@ -186,6 +198,29 @@ public class EsModule extends SimpleModule {
     nameUsageWriter.writeValue(out, nuw);
   }
 
+  public static void writeSmile(OutputStream out, NameUsageWrapper nuw) throws IOException {
+    nameUsageSmileWriter.writeValue(out, nuw);
+  }
+
+  public static void write(JsonGenerator gen, EsNameUsage document) throws IOException {
+    documentWriter.writeValue(gen, document);
+  }
+
+  public static void write(JsonGenerator gen, EsBulkDocument document) throws IOException {
+    bulkDocumentWriter.writeValue(gen, document);
+  }
+
+  /**
+   * Creates a generator for writing documents as newline delimited JSON straight into the provided stream, e.g. for bulk requests. The
+   * generator never closes the stream and does not separate root level values, so callers must write the newlines themselves.
+   */
+  public static JsonGenerator createGenerator(OutputStream out) throws IOException {
+    JsonGenerator gen = contentMapper.getFactory().createGenerator(out);
+    gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    gen.setRootValueSeparator(null);
+    return gen;
+  }
+
   public static String writeDebug(Object obj) {
     try {
       return DEBUG_WRITER.writeValueAsString(obj);
@@ -11,6 +11,13 @@ public class IndexConfig {
 
   public int numReplicas = 0;
 
+  /**
+   * Encoding of the name usage payload for newly indexed documents.
+   * Documents with payloads of any encoding can be read, so it can be changed without reindexing.
+   */
+  @NotNull
+  public PayloadCodec payloadCodec = PayloadCodec.JSON_DEFLATE;
+
   @Override
   public String toString() {
     return "IndexConfig{" + name + "}";
@@ -0,0 +1,124 @@
+package life.catalogue.es;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import life.catalogue.api.search.NameUsageWrapper;
+
+/**
+ * Encodings for the payload field of name usage documents, which holds the entire serialized NameUsageWrapper.
+ * <p>
+ * All encodings but the original JSON_DEFLATE one start with a version marker consisting of the {@link #MARKER} byte followed by the codec
+ * id, so documents with old and new payloads can live in the same index and are decoded with {@link #decode(byte[])} regardless of the
+ * codec configured for indexing. Payloads written by JSON_DEFLATE always start with the zlib header byte 0x78 which never equals the
+ * marker.
+ * </p>
+ */
+public enum PayloadCodec {
+
+  /**
+   * JSON compressed with the default deflate level. The original format, written without a version marker.
+   */
+  JSON_DEFLATE(0),
+
+  /**
+   * Uncompressed binary Smile. Largest payloads, but by far the fastest to decode.
+   */
+  SMILE(1),
+
+  /**
+   * Binary Smile compressed with the fastest deflate level.
+   */
+  SMILE_DEFLATE(2);
+
+  public static final byte MARKER = (byte) 0xC0;
+
+  private final byte id;
+
+  PayloadCodec(int id) {
+    this.id = (byte) id;
+  }
+
+  /**
+   * @param zipJson whether JSON_DEFLATE payloads are actually zipped
+   * @return true if the payload is binary and must be base64-encoded. Only legacy unzipped JSON payloads are not.
+   */
+  public boolean isBinary(boolean zipJson) {
+    return this != JSON_DEFLATE || zipJson;
+  }
+
+  /**
+   * Serializes the NameUsageWrapper into the provided stream, including the version marker. The provided deflater is reset and can be
+   * reused for subsequent payloads. The stream gets closed, so better use one that ignores it.
+   *
+   * @param zipJson whether JSON_DEFLATE payloads should be zipped or written as plain JSON. Ignored by all other codecs.
+   */
+  public void encode(NameUsageWrapper nuw, OutputStream out, Deflater deflater, boolean zipJson) throws IOException {
+    switch (this) {
+      case JSON_DEFLATE:
+        if (zipJson) {
+          deflate(nuw, out, deflater, Deflater.DEFAULT_COMPRESSION, false);
+        } else {
+          EsModule.write(out, nuw);
+        }
+        break;
+      case SMILE:
+        writeMarker(out);
+        EsModule.writeSmile(out, nuw);
+        break;
+      case SMILE_DEFLATE:
+        writeMarker(out);
+        deflate(nuw, out, deflater, Deflater.BEST_SPEED, true);
+        break;
+    }
+  }
+
+  private void writeMarker(OutputStream out) throws IOException {
+    out.write(MARKER);
+    out.write(id);
+  }
+
+  private static void deflate(NameUsageWrapper nuw, OutputStream out, Deflater deflater, int level, boolean smile) throws IOException {
+    deflater.reset();
+    deflater.setLevel(level);
+    try (DeflaterOutputStream dos = new DeflaterOutputStream(out, deflater)) {
+      if (smile) {
+        EsModule.writeSmile(dos, nuw);
+      } else {
+        EsModule.write(dos, nuw);
+      }
+    }
+  }
+
+  /**
+   * Decodes a binary payload written by any of the codecs.
+   */
+  public static NameUsageWrapper decode(byte[] bytes) throws IOException {
+    if (bytes.length > 1 && bytes[0] == MARKER) {
+      InputStream in = new ByteArrayInputStream(bytes, 2, bytes.length - 2);
+      switch (byId(bytes[1])) {
+        case SMILE:
+          return EsModule.readNameUsageWrapperSmile(in);
+        case SMILE_DEFLATE:
+          return EsModule.readNameUsageWrapperSmile(new InflaterInputStream(in));
+        default:
+          // JSON_DEFLATE never writes a marker
+          throw new IllegalArgumentException("Unexpected payload codec " + bytes[1]);
+      }
+    }
+    return EsModule.readNameUsageWrapper(new InflaterInputStream(new ByteArrayInputStream(bytes)));
+  }
+
+  private static PayloadCodec byId(byte id) {
+    for (PayloadCodec c : values()) {
+      if (c.id == id) {
+        return c;
+      }
+    }
+    throw new IllegalArgumentException("Unknown payload codec " + id);
+  }
+}
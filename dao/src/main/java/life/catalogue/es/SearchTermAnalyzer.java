@@ -0,0 +1,153 @@
+package life.catalogue.es;
+
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.client.RestClient;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import life.catalogue.es.ddl.Analyzer;
+import life.catalogue.es.ddl.MultiField;
+import static life.catalogue.common.text.StringUtils.EMPTY_STRING_ARRAY;
+
+/**
+ * Extracts search terms from a search phrase just like {@link EsUtil#getSearchTerms(RestClient, String, Analyzer, String) the _analyze
+ * endpoint} would, but without a round trip to Elasticsearch where possible.
+ * <p>
+ * The sciname_whole_words analyzer (the query-time analyzer for both {@link Analyzer#SCINAME_WHOLE_WORDS} and
+ * {@link Analyzer#SCINAME_AUTO_COMPLETE}) is reproduced in-process: the sciname_char_filter mappings, whitespace tokenization, lowercasing and
+ * ascii folding. Ascii folding is only done locally for characters of the Latin-1 and Latin Extended-A blocks that decompose into an ascii
+ * letter plus diacritics. Any other non-ascii character, other analyzers and tokens exceeding Lucene's maximum token length are left to
+ * Elasticsearch, with the results being kept in a bounded cache.
+ * </p>
+ * <p>
+ * Keep in sync with es-settings.json!
+ * </p>
+ */
+public class SearchTermAnalyzer {
+
+  private static final String SCINAME_WHOLE_WORDS = "sciname_whole_words";
+  // Lucene's CharTokenizer splits longer tokens
+  private static final int MAX_TOKEN_LENGTH = 255;
+
+  private final RestClient client;
+  private final Cache<List<String>, String[]> cache;
+
+  public SearchTermAnalyzer(RestClient client) {
+    this(client, 10000);
+  }
+
+  public SearchTermAnalyzer(RestClient client, int cacheSize) {
+    this.client = client;
+    this.cache = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+  }
+
+  /**
+   * Returns the tokens that Elasticsearch would extract from the provided search phrase given the query-time analyzer of the provided
+   * analyzer.
+   */
+  public String[] getSearchTerms(String index, Analyzer analyzer, String searchPhrase) throws IOException {
+    if (StringUtils.isBlank(searchPhrase)) {
+      return EMPTY_STRING_ARRAY;
+    }
+    String analyzerName = searchAnalyzer(analyzer);
+    if (analyzerName.equals(SCINAME_WHOLE_WORDS)) {
+      String[] terms = analyzeScientificName(searchPhrase);
+      if (terms != null) {
+        return terms;
+      }
+    }
+    try {
+      // requests keep the array, so never hand out the cached instance
+      return cache.get(List.of(index, analyzerName, searchPhrase), () -> EsUtil.getSearchTerms(client, index, analyzer, searchPhrase))
+          .clone();
+    } catch (ExecutionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new EsException(e.getCause());
+    }
+  }
+
+  private static String searchAnalyzer(Analyzer analyzer) {
+    MultiField mf = analyzer.getMultiField();
+    return mf.getSearchAnalyzer() == null ? mf.getAnalyzer() : mf.getSearchAnalyzer();
+  }
+
+  /**
+   * Applies the sciname_whole_words analyzer to the search phrase.
+   *
+   * @return the tokens or null if the phrase cannot be analyzed locally
+   */
+  @VisibleForTesting
+  static String[] analyzeScientificName(String searchPhrase) {
+    List<String> tokens = new ArrayList<>();
+    StringBuilder token = new StringBuilder();
+    for (int i = 0; i < searchPhrase.length();) {
+      int cp = searchPhrase.codePointAt(i);
+      i += Character.charCount(cp);
+      switch (cp) {
+        // sciname_char_filter
+        case '(':
+        case ')':
+        case '-':
+        case '.':
+        case '\'':
+          continue;
+        case ',':
+        case '\u00D7': // ×
+          cp = ' ';
+      }
+      if (Character.isWhitespace(cp)) {
+        addToken(tokens, token);
+        continue;
+      }
+      cp = Character.toLowerCase(cp);
+      if (cp >= 128) {
+        cp = fold(cp);
+        if (cp < 0) {
+          return null;
+        }
+      }
+      if (token.length() == MAX_TOKEN_LENGTH) {
+        return null;
+      }
+      token.append((char) cp);
+    }
+    addToken(tokens, token);
+    return tokens.toArray(EMPTY_STRING_ARRAY);
+  }
+
+  private static void addToken(List<String> tokens, StringBuilder token) {
+    if (token.length() > 0) {
+      tokens.add(token.toString());
+      token.setLength(0);
+    }
+  }
+
+  /**
+   * @return the ascii letter the character folds into or -1 if we cannot be sure how the asciifolding filter treats it
+   */
+  private static int fold(int cp) {
+    if (cp >= 0x0180) {
+      return -1;
+    }
+    String decomposed = Normalizer.normalize(new String(Character.toChars(cp)), Normalizer.Form.NFD);
+    if (decomposed.length() < 2 || decomposed.charAt(0) >= 128) {
+      return -1;
+    }
+    for (int i = 1; i < decomposed.length(); i++) {
+      char c = decomposed.charAt(i);
+      // combining diacritical marks
+      if (c < 0x0300 || c > 0x036F) {
+        return -1;
+      }
+    }
+    return decomposed.charAt(0);
+  }
+
+}
@@ -31,6 +31,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.joining;
@@ -50,16 +51,19 @@ public class NameUsageIndexServiceEs implements NameUsageIndexService {
     this.client = client;
     this.esConfig = esConfig;
     this.factory = factory;
-    this.processor = new NameUsageProcessor(factory);
+    this.processor = new NameUsageProcessor(factory, esConfig.processingMode, esConfig.maxParents);
   }
 
   @Override
   public Stats indexDataset(int datasetKey) {
-    return indexDatasetInternal(datasetKey, true);
+    return indexDatasetInternal(datasetKey, true, esConfig.datasetIndexingThreads);
   }
 
-  private Stats indexDatasetInternal(int datasetKey, boolean clearIndex) {
-    NameUsageIndexer indexer = new NameUsageIndexer(client, esConfig.nameUsage.name);
+  /**
+   * @param threads number of root taxa to process in parallel and number of concurrent bulk requests.
+   *                A single thread indexes synchronously without an extra executor.
+   */
+  private Stats indexDatasetInternal(int datasetKey, boolean clearIndex, int threads) {
     Stats stats = new Stats();
     try (SqlSession lockSession = factory.openSession()) {
       // we lock the main dataset tables so they are only accessible by select statements, but not any modifying statements.
@@ -69,21 +73,31 @@ public class NameUsageIndexServiceEs implements NameUsageIndexService {
         LOG.info("Remove dataset {} from index", datasetKey);
         createOrEmptyIndex(datasetKey);
       }
-      try (BatchConsumer<NameUsageWrapper> handler = new BatchConsumer<>(indexer, BATCH_SIZE)) {
-        LOG.info("Indexing usages from dataset {}", datasetKey);
-        processor.processDataset(datasetKey, handler);
+      LOG.info("Indexing usages from dataset {}", datasetKey);
+      if (threads > 1) {
+        try (ParallelNameUsageIndexer indexer = new ParallelNameUsageIndexer(client, esConfig.nameUsage.name, esConfig.nameUsage.payloadCodec, threads)) {
+          processor.processDataset(datasetKey, threads, () -> new BatchConsumer<>(indexer, BATCH_SIZE));
+          indexer.flush();
+          EsUtil.refreshIndex(client, esConfig.nameUsage.name);
+          stats.usages = indexer.documentsIndexed();
+          indexer.reset();
+          indexBareNames(datasetKey, indexer);
+          indexer.flush();
+          EsUtil.refreshIndex(client, esConfig.nameUsage.name);
+          stats.names = indexer.documentsIndexed();
+        }
+      } else {
+        NameUsageIndexer indexer = new NameUsageIndexer(client, esConfig.nameUsage.name, esConfig.nameUsage.payloadCodec);
+        try (BatchConsumer<NameUsageWrapper> handler = new BatchConsumer<>(indexer, BATCH_SIZE)) {
+          processor.processDataset(datasetKey, handler);
+        }
+        EsUtil.refreshIndex(client, esConfig.nameUsage.name);
+        stats.usages = indexer.documentsIndexed();
+        indexer.reset();
+        indexBareNames(datasetKey, indexer);
+        EsUtil.refreshIndex(client, esConfig.nameUsage.name);
+        stats.names = indexer.documentsIndexed();
       }
-      EsUtil.refreshIndex(client, esConfig.nameUsage.name);
-      stats.usages = indexer.documentsIndexed();
-      indexer.reset();
-      try (SqlSession session = factory.openSession()) {
-        LOG.info("Indexing bare names from dataset {}", datasetKey);
-        NameUsageWrapperMapper mapper = session.getMapper(NameUsageWrapperMapper.class);
-        Cursor<NameUsageWrapper> cursor = mapper.processDatasetBareNames(datasetKey, null);
-        Iterables.partition(cursor, BATCH_SIZE).forEach(indexer);
-      }
-      EsUtil.refreshIndex(client, esConfig.nameUsage.name);
-      stats.names = indexer.documentsIndexed();
     } catch (IOException e) {
       throw new EsException(e);
     }
@@ -92,6 +106,15 @@ public class NameUsageIndexServiceEs implements NameUsageIndexService {
     return stats;
   }
 
+  private void indexBareNames(int datasetKey, Consumer<List<NameUsageWrapper>> indexer) {
+    try (SqlSession session = factory.openSession()) {
+      LOG.info("Indexing bare names from dataset {}", datasetKey);
+      NameUsageWrapperMapper mapper = session.getMapper(NameUsageWrapperMapper.class);
+      Cursor<NameUsageWrapper> cursor = mapper.processDatasetBareNames(datasetKey, null);
+      Iterables.partition(cursor, BATCH_SIZE).forEach(indexer);
+    }
+  }
+
   @Override
   public int deleteDataset(int datasetKey) {
     LOG.info("Removing dataset {} from index {}", datasetKey, esConfig.nameUsage.name);
@@ -103,7 +126,7 @@ public class NameUsageIndexServiceEs implements NameUsageIndexService {
 
   @Override
   public Stats indexSector(Sector s) {
-    NameUsageIndexer indexer = new NameUsageIndexer(client, esConfig.nameUsage.name);
+    NameUsageIndexer indexer = new NameUsageIndexer(client, esConfig.nameUsage.name, esConfig.nameUsage.payloadCodec);
     Stats stats = new Stats();
     try (SqlSession session = factory.openSession()) {
       deleteSector(s.getId());
@@ -173,7 +196,7 @@ public class NameUsageIndexServiceEs implements NameUsageIndexService {
     if (!usages.isEmpty()) {
       NameUsageWrapper first = usages.iterator().next();
       LOG.info("Adding {} usages. First: {}", usages.size(), first.getUsage());
-      NameUsageIndexer indexer = new NameUsageIndexer(client, esConfig.nameUsage.name);
+      NameUsageIndexer indexer = new NameUsageIndexer(client, esConfig.nameUsage.name, esConfig.nameUsage.payloadCodec);
       indexer.accept(usages);
       return indexer.documentsIndexed();
     }
@@ -182,7 +205,7 @@ public class NameUsageIndexServiceEs implements NameUsageIndexService {
 
   @Override
   public void updateClassification(int datasetKey, String rootTaxonId) {
-    NameUsageIndexer indexer = new NameUsageIndexer(client, esConfig.nameUsage.name);
+    NameUsageIndexer indexer = new NameUsageIndexer(client, esConfig.nameUsage.name, esConfig.nameUsage.payloadCodec);
     try (SqlSession session = factory.openSession()) {
       NameUsageWrapperMapper mapper = session.getMapper(NameUsageWrapperMapper.class);
       Cursor<SimpleNameClassification> cursor = mapper.processTree(datasetKey, null, rootTaxonId);
@@ -212,7 +235,8 @@ public class NameUsageIndexServiceEs implements NameUsageIndexService {
       final AtomicInteger counter = new AtomicInteger(1);
       ExecutorService exec = Executors.newFixedThreadPool(esConfig.indexingThreads, new NamedThreadFactory("ES-Indexer"));
       for (Integer datasetKey : keys) {
-        CompletableFuture.supplyAsync(() -> indexDatasetInternal(datasetKey, false), exec)
+        // datasets are already indexed in parallel, so we index each dataset with a single thread
+        CompletableFuture.supplyAsync(() -> indexDatasetInternal(datasetKey, false, 1), exec)
             .exceptionally(ex -> {
               counter.incrementAndGet();
               LOG.error("Error indexing dataset {}", datasetKey, ex.getCause());
@@ -245,7 +269,7 @@ public class NameUsageIndexServiceEs implements NameUsageIndexService {
    * Indexes documents but does not refresh the index! Must be done by caller.
    */
   private int indexNameUsages(int datasetKey, Collection<String> usageIds) {
-    NameUsageIndexer indexer = new NameUsageIndexer(client, esConfig.nameUsage.name);
+    NameUsageIndexer indexer = new NameUsageIndexer(client, esConfig.nameUsage.name, esConfig.nameUsage.payloadCodec);
     try (SqlSession session = factory.openSession()) {
       NameUsageWrapperMapper mapper = session.getMapper(NameUsageWrapperMapper.class);
       List<NameUsageWrapper> usages = usageIds.stream()
@@ -1,21 +1,27 @@
 package life.catalogue.es.nu;
 
-import com.google.common.base.Charsets;
+import com.fasterxml.jackson.core.JsonGenerator;
 import life.catalogue.api.search.NameUsageWrapper;
+import life.catalogue.es.EsBulkDocument;
 import life.catalogue.es.EsException;
 import life.catalogue.es.EsModule;
 import life.catalogue.es.EsNameUsage;
 import life.catalogue.es.EsServerVersion;
 import life.catalogue.es.EsUtil;
+import life.catalogue.es.PayloadCodec;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
 import org.elasticsearch.client.Request;
 import org.elasticsearch.client.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.text.DecimalFormat;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.zip.Deflater;
 
 class NameUsageIndexer implements Consumer<List<NameUsageWrapper>> {
   
@@ -28,19 +34,36 @@ class NameUsageIndexer implements Consumer<List<NameUsageWrapper>> {
    * The request body. With a batch size of 4096 the request body can grow to about 11 MB for synonyms with zipped
    * payloads, and 20 MB with unzipped payloads. A batch size of 4096 seems about optimal. A batch size of 2048 also
    * performs well, a batch size of 8192 appears to perform slightly worse.
+   * The buffer and all other buffers below are reused for all bulk requests, the JSON is written straight into it.
    */
-  private final StringBuilder buf = new StringBuilder(1024 * 1024 * 4);
+  private final BulkBuffer buf = new BulkBuffer(1024 * 1024 * 4);
+  private final JsonGenerator gen;
+  // serialized and possibly deflated payload of a single document
+  private final BulkBuffer payloadBuf = new BulkBuffer(1024 * 16);
+  private final Deflater deflater = new Deflater();
+  private final EsBulkDocument bulkDoc = new EsBulkDocument();
 
   private final RestClient client;
   private final String index;
   private final String indexHeader;
+  private final PayloadCodec codec;
 
   private int indexed = 0;
 
   NameUsageIndexer(RestClient client, String index) {
+    this(client, index, PayloadCodec.JSON_DEFLATE);
+  }
+
+  NameUsageIndexer(RestClient client, String index, PayloadCodec codec) {
     this.client = client;
     this.index = index;
+    this.codec = codec;
     this.indexHeader = getIndexHeader();
+    try {
+      this.gen = EsModule.createGenerator(buf);
+    } catch (IOException e) {
+      throw new EsException(e);
+    }
   }
 
   @Override
@@ -60,14 +83,16 @@ class NameUsageIndexer implements Consumer<List<NameUsageWrapper>> {
    * @param documents
    */
   void update(List<EsNameUsage> documents) {
-    buf.setLength(0);
     try {
+      clearBuffer();
       for (EsNameUsage doc : documents) {
-        buf.append(getUpdateHeader(doc.getDocumentId()));
+        gen.writeRaw(getUpdateHeader(doc.getDocumentId()));
         doc.setDocumentId(null);
-        buf.append("{\"doc\":");
-        buf.append(EsModule.write(doc));
-        buf.append("}\n");
+        gen.writeStartObject();
+        gen.writeFieldName("doc");
+        EsModule.write(gen, doc);
+        gen.writeEndObject();
+        gen.writeRaw('\n');
       }
       sendBatch(documents.size());
     } catch (IOException e) {
@@ -76,13 +101,11 @@ class NameUsageIndexer implements Consumer<List<NameUsageWrapper>> {
   }
 
   private void index(List<NameUsageWrapper> batch) {
-    buf.setLength(0);
     NameUsageWrapperConverter converter = new NameUsageWrapperConverter();
     try {
+      clearBuffer();
       for (NameUsageWrapper nuw : batch) {
-        buf.append(indexHeader);
-        buf.append(EsModule.write(converter.toDocument(nuw)));
-        buf.append("\n");
+        writeDocument(converter, nuw);
       }
       sendBatch(batch.size());
     } catch (IOException e) {
@@ -91,17 +114,17 @@ class NameUsageIndexer implements Consumer<List<NameUsageWrapper>> {
   }
 
   private void indexWithExtraStats(List<NameUsageWrapper> batch) {
-    buf.setLength(0);
-    int docSize = 0;
+    long docSize = 0;
     NameUsageWrapperConverter converter = new NameUsageWrapperConverter();
     DecimalFormat df = new DecimalFormat("0.0");
     try {
-      String json;
+      clearBuffer();
       for (NameUsageWrapper nuw : batch) {
-        buf.append(indexHeader);
-        buf.append(json = EsModule.write(converter.toDocument(nuw)));
-        docSize += json.getBytes(Charsets.UTF_8).length;
-        buf.append("\n");
+        gen.flush();
+        long start = buf.size() + indexHeader.length();
+        writeDocument(converter, nuw);
+        gen.flush();
+        docSize += buf.size() - start - 1;
       }
       sendBatch(batch.size());
       double totSize = ((double) docSize / (double) (1024 * 1024));
@@ -114,13 +137,47 @@ class NameUsageIndexer implements Consumer<List<NameUsageWrapper>> {
     }
   }
 
-  private void sendBatch(int batchSize) {
+  private void clearBuffer() throws IOException {
+    // make sure no content of a previously failed batch remains in the generator
+    gen.flush();
+    buf.reset();
+  }
+
+  /**
+   * Writes the index header and the document for a single name usage, streaming the payload bytes straight into the request body.
+   */
+  private void writeDocument(NameUsageWrapperConverter converter, NameUsageWrapper nuw) throws IOException {
+    EsNameUsage doc = converter.toDocumentWithoutPayload(nuw);
+    payloadBuf.reset();
+    NameUsageWrapperConverter.writePayload(nuw, codec, payloadBuf, deflater);
+    bulkDoc.set(doc, payloadBuf.array(), payloadBuf.size(), codec.isBinary(NameUsageWrapperConverter.ZIP_PAYLOAD));
+    gen.writeRaw(indexHeader);
+    EsModule.write(gen, bulkDoc);
+    gen.writeRaw('\n');
+  }
+
+  private void sendBatch(int batchSize) throws IOException {
+    gen.flush();
     Request request = new Request("POST", "/_bulk/?timeout=5m");
-    request.setJsonEntity(buf.toString());
+    // the buffer is not modified before the request has completed, so no need to copy it
+    request.setEntity(new ByteArrayEntity(buf.array(), 0, buf.size(), ContentType.APPLICATION_JSON));
     EsUtil.executeWithRetry(client, request);
     indexed += batchSize;
   }
 
+  /**
+   * A byte array output stream giving access to its internal buffer to avoid copying it.
+   */
+  private static class BulkBuffer extends ByteArrayOutputStream {
+    BulkBuffer(int size) {
+      super(size);
+    }
+
+    byte[] array() {
+      return buf;
+    }
+  }
+
   /**
    * Resets the document counter.
    */
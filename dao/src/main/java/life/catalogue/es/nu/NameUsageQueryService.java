@@ -12,6 +12,7 @@ import life.catalogue.es.EsException;
 import life.catalogue.es.EsModule;
 import life.catalogue.es.EsNameUsage;
 import life.catalogue.es.EsUtil;
+import life.catalogue.es.SearchTermAnalyzer;
 import life.catalogue.es.nu.search.NameUsageSearchServiceEs;
 import life.catalogue.es.nu.suggest.NameUsageSuggestionServiceEs;
 import life.catalogue.es.query.EsSearchRequest;
@@ -27,10 +28,12 @@ public class NameUsageQueryService {
 
   protected final String index;
   protected final RestClient client;
+  protected final SearchTermAnalyzer searchTerms;
 
   public NameUsageQueryService(String indexName, RestClient client) {
     this.index = indexName;
     this.client = client;
+    this.searchTerms = new SearchTermAnalyzer(client);
   }
 
   /**
@@ -4,6 +4,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
@@ -13,6 +14,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.InflaterInputStream;
 import org.apache.commons.io.IOUtils;
@@ -32,6 +34,7 @@ import life.catalogue.es.EsModule;
 import life.catalogue.es.EsMonomial;
 import life.catalogue.es.EsNameUsage;
 import life.catalogue.es.NameStrings;
+import life.catalogue.es.PayloadCodec;
 import static life.catalogue.api.vocab.NameField.BASIONYM_AUTHORS;
 import static life.catalogue.api.vocab.NameField.BASIONYM_EX_AUTHORS;
 import static life.catalogue.api.vocab.NameField.BASIONYM_YEAR;
@@ -80,17 +83,24 @@ public class NameUsageWrapperConverter implements DownwardConverter<NameUsageWra
     return new String(bytes, StandardCharsets.UTF_8);
   }
 
+  /**
+   * Serializes a NameUsageWrapper with the given codec into the provided stream without base64-encoding it. The provided deflater is reset
+   * and can be reused for subsequent payloads. The stream is closed afterwards, so better use one that ignores it.
+   */
+  public static void writePayload(NameUsageWrapper nuw, PayloadCodec codec, OutputStream out, Deflater deflater) throws IOException {
+    codec.encode(nuw, out, deflater, ZIP_PAYLOAD);
+  }
+
   /**
    * Base64-decodes, unzips and deserializes the provided payload string back to a NameUsageWrapper instance.
+   * Payloads of any {@link PayloadCodec} are supported.
    * 
    * @param payload
    * @return
    * @throws IOException
    */
   public static NameUsageWrapper inflate(String payload) throws IOException {
-    byte[] bytes = Base64.getDecoder().decode(payload.getBytes());
-    ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
-    return EsModule.readNameUsageWrapper(new InflaterInputStream(bais));
+    return PayloadCodec.decode(Base64.getDecoder().decode(payload));
   }
 
   /**
@@ -266,6 +276,20 @@ public class NameUsageWrapperConverter implements DownwardConverter<NameUsageWra
    * @throws IOException
    */
   public EsNameUsage toDocument(NameUsageWrapper nuw) throws IOException {
+    EsNameUsage doc = toDocumentWithoutPayload(nuw);
+    if (ZIP_PAYLOAD) {
+      doc.setPayload(deflate(nuw));
+    } else {
+      doc.setPayload(EsModule.write(nuw));
+    }
+    return doc;
+  }
+
+  /**
+   * Converts a NameUsageWrapper to an Elasticsearch document, but leaves the payload empty. The NameUsageWrapper gets pruned so it can be
+   * written as the payload afterwards, see {@link #writePayload(NameUsageWrapper, PayloadCodec, OutputStream, Deflater)}.
+   */
+  public EsNameUsage toDocumentWithoutPayload(NameUsageWrapper nuw) {
     EsNameUsage doc = new EsNameUsage();
     saveScientificName(nuw, doc);
     saveAuthorship(nuw, doc);
@@ -296,11 +320,6 @@ public class NameUsageWrapperConverter implements DownwardConverter<NameUsageWra
       doc.setAcceptedName(s.getAccepted().getName().getScientificName());
     }
     prunePayload(nuw);
-    if (ZIP_PAYLOAD) {
-      doc.setPayload(deflate(nuw));
-    } else {
-      doc.setPayload(EsModule.write(nuw));
-    }
     return doc;
   }
 
@@ -0,0 +1,120 @@
+package life.catalogue.es.nu;
+
+import life.catalogue.api.search.NameUsageWrapper;
+import life.catalogue.common.concurrent.ExecutorUtils;
+import life.catalogue.common.concurrent.NamedThreadFactory;
+import life.catalogue.common.lang.InterruptedRuntimeException;
+import life.catalogue.es.PayloadCodec;
+import org.elasticsearch.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Indexes batches of name usages with a pool of threads, each converting the documents and sending its own bulk request.
+ * Accepting batches is thread safe so several producers can share a single instance.
+ *
+ * At most twice as many batches as there are threads are accepted at any time, any further batch blocks the caller
+ * until a bulk request has completed. Make sure to close the indexer to wait for all batches to be indexed.
+ */
+class ParallelNameUsageIndexer implements Consumer<List<NameUsageWrapper>>, AutoCloseable {
+
+  private final ExecutorService exec;
+  private final int maxBatches;
+  private final Semaphore permits;
+  // NameUsageIndexer keeps a large reusable buffer and is not thread safe, so we use one per thread
+  private final ThreadLocal<NameUsageIndexer> indexers;
+  private final AtomicInteger indexed = new AtomicInteger(0);
+  private final AtomicReference<RuntimeException> error = new AtomicReference<>();
+
+  ParallelNameUsageIndexer(RestClient client, String index, PayloadCodec codec, int threads) {
+    this.exec = Executors.newFixedThreadPool(threads, new NamedThreadFactory("ES-Bulk"));
+    this.maxBatches = threads * 2;
+    this.permits = new Semaphore(maxBatches);
+    this.indexers = ThreadLocal.withInitial(() -> new NameUsageIndexer(client, index, codec));
+  }
+
+  /**
+   * Submits a copy of the batch for indexing, blocking if too many batches are already pending.
+   * Rethrows the first error that happened while indexing a previous batch.
+   */
+  @Override
+  public void accept(List<NameUsageWrapper> batch) {
+    checkError();
+    // callers like the BatchConsumer reuse their lists
+    final List<NameUsageWrapper> copy = new ArrayList<>(batch);
+    acquire(1);
+    try {
+      exec.execute(() -> {
+        try {
+          indexers.get().accept(copy);
+          indexed.addAndGet(copy.size());
+        } catch (RuntimeException e) {
+          error.compareAndSet(null, e);
+        } finally {
+          permits.release();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Blocks until all pending batches have been indexed.
+   * Rethrows the first error that happened while indexing.
+   */
+  void flush() {
+    acquire(maxBatches);
+    permits.release(maxBatches);
+    checkError();
+  }
+
+  private void acquire(int n) {
+    try {
+      permits.acquire(n);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedRuntimeException("Interrupted while waiting for pending bulk requests");
+    }
+  }
+
+  private void checkError() {
+    RuntimeException e = error.get();
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  /**
+   * Resets the document counter.
+   */
+  void reset() {
+    indexed.set(0);
+  }
+
+  /**
+   * Returns the number of documents indexed thus far.
+   * Use flush before to include all pending batches.
+   */
+  int documentsIndexed() {
+    return indexed.get();
+  }
+
+  @Override
+  public void close() {
+    try {
+      flush();
+    } finally {
+      ExecutorUtils.shutdown(exec);
+    }
+  }
+}
@@ -16,7 +16,6 @@ import life.catalogue.es.nu.NameUsageQueryService;
 import life.catalogue.es.query.EsSearchRequest;
 import life.catalogue.es.response.EsResponse;
 import static life.catalogue.api.search.NameUsageSearchRequest.SearchContent.SCIENTIFIC_NAME;
-import static life.catalogue.es.EsUtil.getSearchTerms;
 
 public class NameUsageSearchServiceEs extends NameUsageQueryService implements NameUsageSearchService {
 
@@ -40,7 +39,7 @@ public class NameUsageSearchServiceEs extends NameUsageQueryService implements N
     RequestValidator validator = new RequestValidator(request);
     validator.validateRequest();
     if (request.hasQ() && request.getContent().contains(SCIENTIFIC_NAME)) {
-      request.setSearchTerms(getSearchTerms(client, index, Analyzer.SCINAME_WHOLE_WORDS, request.getQ()));
+      request.setSearchTerms(searchTerms.getSearchTerms(index, Analyzer.SCINAME_WHOLE_WORDS, request.getQ()));
     }
     RequestTranslator translator = new RequestTranslator(request, page);
     EsSearchRequest esSearchRequest = translator.translateRequest();
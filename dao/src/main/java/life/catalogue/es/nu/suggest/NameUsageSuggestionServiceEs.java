@@ -13,7 +13,6 @@ import life.catalogue.api.search.NameUsageSuggestResponse;
 import life.catalogue.api.search.NameUsageSuggestion;
 import life.catalogue.es.EsException;
 import life.catalogue.es.EsNameUsage;
-import life.catalogue.es.EsUtil;
 import life.catalogue.es.NameUsageSuggestionService;
 import life.catalogue.es.ddl.Analyzer;
 import life.catalogue.es.nu.NameUsageQueryService;
@@ -41,7 +40,7 @@ public class NameUsageSuggestionServiceEs extends NameUsageQueryService implemen
   @VisibleForTesting
   public NameUsageSuggestResponse suggest(String index, NameUsageSuggestRequest request) throws IOException {
     validateRequest(request);
-    String[] terms = EsUtil.getSearchTerms(client, index, Analyzer.SCINAME_AUTO_COMPLETE, request.getQ());
+    String[] terms = searchTerms.getSearchTerms(index, Analyzer.SCINAME_AUTO_COMPLETE, request.getQ());
     request.setSearchTerms(terms);
     RequestTranslator translator = new RequestTranslator(request);
     EsSearchRequest query = translator.translate();
@@ -7,7 +7,11 @@ public interface ImageService {
   
   void putDatasetLogo(int datasetKey, BufferedImage img) throws IOException;
   
-  BufferedImage datasetLogo(int datasetKey, ImgConfig.Scale scale);
+  /**
+   * @return the stored, already scaled image bytes of the dataset logo
+   * @throws life.catalogue.api.exception.NotFoundException if the dataset has no logo
+   */
+  StoredImage datasetLogo(int datasetKey, ImgConfig.Scale scale);
   
   
   
@@ -18,7 +22,7 @@ public interface ImageService {
       }
   
       @Override
-      public BufferedImage datasetLogo(int datasetKey, ImgConfig.Scale scale) {
+      public StoredImage datasetLogo(int datasetKey, ImgConfig.Scale scale) {
         return null;
       }
     };
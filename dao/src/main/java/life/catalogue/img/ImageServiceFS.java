@@ -4,23 +4,38 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.function.Function;
 import javax.imageio.ImageIO;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import life.catalogue.api.exception.NotFoundException;
 import org.imgscalr.Scalr;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Stores images in all scales as png files in the image repository.
+ * Reads serve the stored file bytes directly and the most recently used ones are kept in a cache
+ * bounded by the total number of bytes. Cached images are validated against the files modification time
+ * so changes done by other processes are picked up.
+ */
 public class ImageServiceFS implements ImageService {
   public static final String IMAGE_FORMAT = "png";
   private static final Logger LOG = LoggerFactory.getLogger(ImageServiceFS.class);
   
   private final ImgConfig cfg;
+  private final Cache<Path, StoredImage> cache;
   
   public ImageServiceFS(ImgConfig cfg) {
     this.cfg = cfg;
+    this.cache = CacheBuilder.newBuilder()
+        .maximumWeight(cfg.cacheSize)
+        .weigher((Path p, StoredImage img) -> img.getBytes().length)
+        .build();
   }
   
   public static BufferedImage read(InputStream img) throws IOException {
@@ -37,7 +52,13 @@ public class ImageServiceFS implements ImageService {
   @Override
   public void putDatasetLogo(int datasetKey, BufferedImage img) throws IOException {
     LOG.info("{} logo for dataset {}", img == null ? "Delete" : "Change", datasetKey);
-    storeAllImageSizes(img, s -> cfg.datasetLogo(datasetKey, s));
+    try {
+      storeAllImageSizes(img, s -> cfg.datasetLogo(datasetKey, s));
+    } finally {
+      for (ImgConfig.Scale scale : ImgConfig.Scale.values()) {
+        cache.invalidate(cfg.datasetLogo(datasetKey, scale));
+      }
+    }
   }
 
   private void storeAllImageSizes(BufferedImage img, Function<ImgConfig.Scale, Path> locator) throws IOException {
@@ -78,17 +99,23 @@ public class ImageServiceFS implements ImageService {
   
   
   @Override
-  public BufferedImage datasetLogo(int datasetKey, ImgConfig.Scale scale) {
+  public StoredImage datasetLogo(int datasetKey, ImgConfig.Scale scale) {
     Path p = cfg.datasetLogo(datasetKey, scale);
     return readImage(p, "Dataset " + datasetKey + " has no logo");
   }
   
-  private BufferedImage readImage(Path p, String notFoundMsg) throws NotFoundException {
+  private StoredImage readImage(Path p, String notFoundMsg) throws NotFoundException {
     try {
-      if (!Files.exists(p)) {
-        throw new NotFoundException(notFoundMsg);
+      final FileTime modified = Files.getLastModifiedTime(p);
+      StoredImage img = cache.getIfPresent(p);
+      if (img == null || !img.getModified().equals(modified)) {
+        img = new StoredImage(Files.readAllBytes(p), modified);
+        cache.put(p, img);
       }
-      return ImageIO.read(p.toFile());
+      return img;
+    } catch (NoSuchFileException e) {
+      cache.invalidate(p);
+      throw new NotFoundException(notFoundMsg);
     } catch (IOException e) {
       throw new RuntimeException("Failed to read image " + p, e);
     }
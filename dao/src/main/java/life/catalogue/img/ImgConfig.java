@@ -1,6 +1,7 @@
 package life.catalogue.img;
 
 import java.nio.file.Path;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 import life.catalogue.db.PgDbConfig;
@@ -29,6 +30,12 @@ public class ImgConfig extends PgDbConfig {
 
   @NotNull
   public Size large = new Size(200, 600);
+
+  /**
+   * Maximum number of image bytes kept in memory for fast reads
+   */
+  @Min(0)
+  public long cacheSize = 16 * 1024 * 1024;
   
   public Size size(Scale scale) {
     switch (scale) {
@@ -0,0 +1,36 @@
+package life.catalogue.img;
+
+import java.nio.file.attribute.FileTime;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * Encoded bytes of an image file as stored in the image repository
+ * together with a content hash to be used as an ETag.
+ */
+public class StoredImage {
+  private final byte[] bytes;
+  private final String etag;
+  private final FileTime modified;
+
+  StoredImage(byte[] bytes, FileTime modified) {
+    this.bytes = bytes;
+    this.etag = Hashing.murmur3_128().hashBytes(bytes).toString();
+    this.modified = modified;
+  }
+
+  public byte[] getBytes() {
+    return bytes;
+  }
+
+  public String getEtag() {
+    return etag;
+  }
+
+  /**
+   * @return the last modification time of the file the bytes were read from
+   */
+  FileTime getModified() {
+    return modified;
+  }
+}
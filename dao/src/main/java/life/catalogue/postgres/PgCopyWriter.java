@@ -0,0 +1,151 @@
+package life.catalogue.postgres;
+
+import com.google.common.base.Preconditions;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * Streams rows into a table with the postgres COPY command using its text format.
+ * Values are written as:
+ * <ul>
+ *   <li>NULL for nulls</li>
+ *   <li>t/f for booleans</li>
+ *   <li>the enum name for enums, just like the default mybatis enum handler</li>
+ *   <li>a postgres array for collections, with all elements converted like top level values</li>
+ *   <li>the toString() value for anything else</li>
+ * </ul>
+ * Other conversions need to be applied before adding a value.
+ *
+ * Close the writer to finish the copy. The data is only visible once the connection is committed.
+ */
+public class PgCopyWriter implements AutoCloseable {
+  private static final int BUFFER_SIZE = 65536;
+  private final PGCopyOutputStream out;
+  private final Writer writer;
+  private final String table;
+  private final int columns;
+  private int col;
+  private long rows;
+
+  public PgCopyWriter(Connection con, String table, String... columns) throws SQLException {
+    this.table = table;
+    this.columns = columns.length;
+    String sql = "COPY " + table + "(" + String.join(",", columns) + ") FROM STDIN";
+    out = new PGCopyOutputStream(con.unwrap(PGConnection.class), sql, BUFFER_SIZE);
+    writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Adds the value of the next column of the current row.
+   */
+  public PgCopyWriter add(Object value) throws IOException {
+    Preconditions.checkState(col < columns, "Too many values for table %s", table);
+    if (col++ > 0) {
+      writer.write('\t');
+    }
+    if (value == null) {
+      writer.write("\\N");
+    } else {
+      escape(toText(value, false));
+    }
+    return this;
+  }
+
+  /**
+   * Finishes the current row.
+   */
+  public void endRow() throws IOException {
+    Preconditions.checkState(col == columns, "Expected %s values for table %s, but got %s", columns, table, col);
+    writer.write('\n');
+    col = 0;
+    rows++;
+  }
+
+  /**
+   * @return number of rows written so far
+   */
+  public long rows() {
+    return rows;
+  }
+
+  private static String toText(Object value, boolean quote) {
+    String x;
+    if (value instanceof Boolean) {
+      return (Boolean) value ? "t" : "f";
+    } else if (value instanceof Enum) {
+      x = ((Enum<?>) value).name();
+    } else if (value instanceof Collection) {
+      x = toArray((Collection<?>) value);
+    } else {
+      x = value.toString();
+    }
+    if (quote) {
+      return '"' + x.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+    return x;
+  }
+
+  private static String toArray(Collection<?> values) {
+    StringBuilder sb = new StringBuilder();
+    sb.append('{');
+    boolean first = true;
+    for (Object v : values) {
+      if (!first) {
+        sb.append(',');
+      }
+      first = false;
+      sb.append(v == null ? "NULL" : toText(v, true));
+    }
+    sb.append('}');
+    return sb.toString();
+  }
+
+  /**
+   * Writes a value escaping backslashes and the characters that delimit columns and rows in the text format.
+   */
+  private void escape(String x) throws IOException {
+    for (int i = 0; i < x.length(); i++) {
+      char c = x.charAt(i);
+      switch (c) {
+        case '\\':
+          writer.write("\\\\");
+          break;
+        case '\n':
+          writer.write("\\n");
+          break;
+        case '\r':
+          writer.write("\\r");
+          break;
+        case '\t':
+          writer.write("\\t");
+          break;
+        default:
+          writer.write(c);
+      }
+    }
+  }
+
+  /**
+   * Finishes the copy or cancels it in case the last row is incomplete, e.g. because of an exception.
+   */
+  @Override
+  public void close() throws IOException {
+    if (col > 0) {
+      try {
+        out.cancelCopy();
+      } catch (SQLException e) {
+        throw new IOException("Failed to cancel copy into " + table, e);
+      }
+    } else {
+      writer.close();
+    }
+  }
+}
@@ -231,7 +231,8 @@ CREATE TYPE ISSUE AS ENUM (
   'CITATION_CONTAINER_TITLE_UNPARSED',
   'CITATION_DETAILS_UNPARSED',
   'CITATION_AUTHORS_UNPARSED',
-  'CITATION_UNPARSED'
+  'CITATION_UNPARSED',
+  'NAME_MATCH_FUZZY'
 );
 
 CREATE TYPE KINGDOM AS ENUM (
@@ -269,6 +270,7 @@ CREATE TYPE MATCHINGMODE AS ENUM (
 CREATE TYPE MATCHTYPE AS ENUM (
   'EXACT',
   'VARIANT',
+  'FUZZY',
   'INSERTED',
   'AMBIGUOUS',
   'NONE'
@@ -967,7 +969,8 @@ CREATE TABLE name_usage (
   lifezones LIFEZONE[] DEFAULT '{}',
   link TEXT,
   remarks TEXT,
-  dataset_sectors JSONB
+  dataset_sectors JSONB,
+  child_count INTEGER NOT NULL DEFAULT 0
 ) PARTITION BY LIST (dataset_key);
 
 
@@ -2,6 +2,8 @@ package life.catalogue.dao;
 
 import java.sql.Connection;
 import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
@@ -35,6 +37,30 @@ public class NameUsageProcessorTest extends DaoTestBase {
     Assert.assertEquals(4, handler.synCounter.get());
   }
   
+  /**
+   * SET mode must produce exactly the same wrappers as the TREE mode
+   */
+  @Test
+  public void processDatasetSetMode() {
+    DRH handler = new DRH();
+    NameUsageProcessor proc = new NameUsageProcessor(PgSetupRule.getSqlSessionFactory(), NameUsageProcessor.Mode.SET, 1000);
+    proc.processDataset(NAME4.getDatasetKey(), handler);
+    Assert.assertEquals(24, handler.counter.get());
+    Assert.assertEquals(4, handler.synCounter.get());
+
+    Map<String, NameUsageWrapper> tree = new HashMap<>();
+    new NameUsageProcessor(PgSetupRule.getSqlSessionFactory()).processDataset(NAME4.getDatasetKey(), u -> tree.put(u.getUsage().getId(), u));
+    Map<String, NameUsageWrapper> set = new HashMap<>();
+    proc.processDataset(NAME4.getDatasetKey(), u -> set.put(u.getUsage().getId(), u));
+    assertEquals(tree, set);
+
+    // too many parents falls back to trees
+    set.clear();
+    new NameUsageProcessor(PgSetupRule.getSqlSessionFactory(), NameUsageProcessor.Mode.SET, 2)
+        .processDataset(NAME4.getDatasetKey(), u -> set.put(u.getUsage().getId(), u));
+    assertEquals(tree, set);
+  }
+
   public static class DRH implements Consumer<NameUsageWrapper> {
     public AtomicInteger counter = new AtomicInteger(0);
     public AtomicInteger synCounter = new AtomicInteger(0);
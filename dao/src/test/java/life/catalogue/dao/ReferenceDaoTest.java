@@ -1,11 +1,23 @@
 package life.catalogue.dao;
 
+import life.catalogue.api.TestEntityGenerator;
+import life.catalogue.api.model.Reference;
+import life.catalogue.api.model.ResultPage;
+import life.catalogue.api.search.ReferenceSearchRequest;
+import life.catalogue.api.util.PagingUtil;
+import life.catalogue.db.mapper.ReferenceMapper;
 import org.apache.ibatis.session.SqlSession;
 import life.catalogue.api.model.Page;
 import life.catalogue.db.PgSetupRule;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
 public class ReferenceDaoTest extends DaoTestBase {
+  ReferenceDao dao = new ReferenceDao(PgSetupRule.getSqlSessionFactory());
   
   /*
    * Issue #54 /reference (without query params) generates NPE.
@@ -18,4 +30,76 @@ public class ReferenceDaoTest extends DaoTestBase {
     }
   }
   
+  @Test
+  public void searchAfter() {
+    final int datasetKey = 11;
+    try (SqlSession session = factory().openSession(true)) {
+      ReferenceMapper rm = session.getMapper(ReferenceMapper.class);
+      for (int i = 0; i < 7; i++) {
+        Reference r = TestEntityGenerator.newReference("Keyset paging " + i);
+        r.setDatasetKey(datasetKey);
+        rm.create(r);
+      }
+    }
+    
+    // offset paging
+    List<Reference> offset = new ArrayList<>();
+    Page page = new Page(0, 3);
+    ResultPage<Reference> rp;
+    do {
+      rp = dao.search(datasetKey, null, page);
+      assertEquals(9, rp.getTotal());
+      offset.addAll(rp.getResult());
+      page.next();
+    } while (!rp.isLast());
+    assertEquals(9, offset.size());
+    
+    // keyset paging with the next token, ignoring the offset
+    List<Reference> keyset = new ArrayList<>();
+    rp = dao.search(datasetKey, null, new Page(0, 3));
+    keyset.addAll(rp.getResult());
+    while (rp.getNext() != null) {
+      ReferenceSearchRequest req = new ReferenceSearchRequest();
+      req.setAfter(rp.getNext());
+      rp = dao.search(datasetKey, req, new Page(100, 3));
+      keyset.addAll(rp.getResult());
+    }
+    assertTrue(rp.isLast());
+    assertEquals(offset, keyset);
+    
+    // a query would be sorted by relevance, but an after token forces the native order
+    ReferenceSearchRequest req = ReferenceSearchRequest.byQuery("keyset");
+    req.setSortBy(ReferenceSearchRequest.SortBy.NATIVE);
+    List<Reference> filtered = dao.search(datasetKey, req, new Page(0, 100)).getResult();
+    assertEquals(7, filtered.size());
+    
+    req = ReferenceSearchRequest.byQuery("keyset");
+    req.setAfter(PagingUtil.encodeToken(filtered.get(1).getId()));
+    rp = dao.search(datasetKey, req, new Page(0, 3));
+    assertEquals(ReferenceSearchRequest.SortBy.NATIVE, req.getSortBy());
+    assertEquals(filtered.subList(2, 5), rp.getResult());
+    assertNotNull(rp.getNext());
+    
+    req.setSortBy(ReferenceSearchRequest.SortBy.NATIVE);
+    rp = dao.search(datasetKey, req, new Page(0, 10));
+    assertEquals(filtered.subList(2, 7), rp.getResult());
+    assertNull(rp.getNext());
+  }
+  
+  @Test
+  public void searchAfterRequiresNativeOrder() {
+    for (ReferenceSearchRequest.SortBy sortBy : ReferenceSearchRequest.SortBy.values()) {
+      if (sortBy == ReferenceSearchRequest.SortBy.NATIVE) continue;
+      ReferenceSearchRequest req = ReferenceSearchRequest.byQuery("Malus");
+      req.setSortBy(sortBy);
+      req.setAfter(PagingUtil.encodeToken("ref-1"));
+      try {
+        dao.search(11, req, new Page());
+        fail("Sorting by " + sortBy + " must be rejected with an after token");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+  
 }
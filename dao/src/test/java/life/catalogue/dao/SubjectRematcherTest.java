@@ -1,8 +1,13 @@
 package life.catalogue.dao;
 
 import life.catalogue.api.model.*;
+import life.catalogue.api.search.DecisionSearchRequest;
+import life.catalogue.api.vocab.NameType;
+import life.catalogue.api.vocab.Origin;
+import life.catalogue.api.vocab.TaxonomicStatus;
 import life.catalogue.db.mapper.DecisionMapper;
 import life.catalogue.db.mapper.NameMapper;
+import life.catalogue.db.mapper.SynonymMapper;
 import life.catalogue.db.mapper.TaxonMapper;
 import org.apache.ibatis.session.SqlSession;
 import life.catalogue.api.vocab.Datasets;
@@ -16,6 +21,9 @@ import org.junit.ClassRule;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.*;
+import java.util.stream.Collectors;
+
 import static org.junit.Assert.*;
 
 public class SubjectRematcherTest {
@@ -112,6 +120,190 @@ public class SubjectRematcherTest {
     }
   }
   
+  /**
+   * Rematches the same sectors and decisions once in bulk for the entire dataset
+   * and once entity by entity and makes sure both result in the same subject ids and counters.
+   */
+  @Test
+  public void bulkEqualsSingle() {
+    MybatisTestUtils.populateDraftTree(importRule.getSqlSession());
+    final int datasetKey = 11;
+    // root-1 Malus sylvestris and root-2 Larus fuscus with synonyms s1 Larus fusca & s2 Larus erfundus exist already
+    try (SqlSession session = PgSetupRule.getSqlSessionFactory().openSession(true)) {
+      createTaxon(session, datasetKey, "a1", "Aus", Rank.GENUS, "root-1");
+      createTaxon(session, datasetKey, "a2", "Aus", Rank.GENUS, "root-2");
+      createTaxon(session, datasetKey, "a3", "Aus", Rank.FAMILY, null);
+      createTaxon(session, datasetKey, "b1", "Bus", Rank.GENUS, "root-1");
+      createSynonym(session, datasetKey, "b2", "Bus", Rank.GENUS, "root-2");
+    }
+    final SimpleName coleoptera = new SimpleName("t4", "Coleoptera", Rank.ORDER);
+    List<Integer> sectorKeys = new ArrayList<>();
+    // ambiguous
+    sectorKeys.add(createSector(Sector.Mode.ATTACH, datasetKey, new SimpleName(null, "Aus", null), coleoptera));
+    // unique by rank
+    sectorKeys.add(createSector(Sector.Mode.ATTACH, datasetKey, new SimpleName(null, "Aus", Rank.FAMILY), coleoptera));
+    // rank mismatch
+    sectorKeys.add(createSector(Sector.Mode.ATTACH, datasetKey, new SimpleName("a1", "Aus", Rank.SPECIES), coleoptera));
+    // unique by parent of a taxon
+    sectorKeys.add(createSector(Sector.Mode.ATTACH, datasetKey, parented("aus", Rank.GENUS, "Malus sylvestris"), coleoptera));
+    // parent filter with the accepted name of a synonym
+    sectorKeys.add(createSector(Sector.Mode.ATTACH, datasetKey, parented("Bus", Rank.GENUS, "larus fuscus"), coleoptera));
+    // duplicate of the previous sector
+    sectorKeys.add(createSector(Sector.Mode.ATTACH, datasetKey, parented("Bus", Rank.GENUS, "Larus fuscus"), coleoptera));
+    // existing id
+    sectorKeys.add(createSector(Sector.Mode.ATTACH, datasetKey, new SimpleName("root-2", "Larus fuscus", Rank.SPECIES), coleoptera));
+    // no match
+    sectorKeys.add(createSector(Sector.Mode.ATTACH, datasetKey, new SimpleName("a2", "Cus", Rank.GENUS), coleoptera));
+  
+    List<Integer> decisionKeys = new ArrayList<>();
+    decisionKeys.add(createDecision(datasetKey, new SimpleName("a3", "Aus", null)));
+    decisionKeys.add(createDecision(datasetKey, parented("Aus", Rank.GENUS, "Larus fuscus")));
+    decisionKeys.add(createDecision(datasetKey, new SimpleName(null, "Bus", Rank.SPECIES)));
+    decisionKeys.add(createDecision(datasetKey, parented("Bus", null, "Malus sylvestris")));
+    decisionKeys.add(createDecision(datasetKey, parented("Bus", null, "Larus fuscus")));
+    decisionKeys.add(createDecision(datasetKey, parented("Bus", Rank.GENUS, "Larus fuscus")));
+    decisionKeys.add(createDecision(datasetKey, new SimpleName(null, "LARUS FUSCA", Rank.SPECIES)));
+    decisionKeys.add(createDecision(datasetKey, new SimpleName("s2", "Larus erfundus", Rank.SPECIES)));
+  
+    final Map<Integer, String> sectorsBefore = sectorSubjects(sectorKeys);
+    final Map<Integer, String> decisionsBefore = decisionSubjects(decisionKeys);
+    
+    SubjectRematcher bulk = new SubjectRematcher(PgSetupRule.getSqlSessionFactory(), Datasets.DRAFT_COL, Users.TESTER);
+    bulk.matchDatasetSubjects(datasetKey);
+    final Map<Integer, String> sectorsBulk = sectorSubjects(sectorKeys);
+    final Map<Integer, String> decisionsBulk = decisionSubjects(decisionKeys);
+    
+    assertNull(sectorsBulk.get(sectorKeys.get(0)));
+    assertEquals("a3", sectorsBulk.get(sectorKeys.get(1)));
+    assertNull(sectorsBulk.get(sectorKeys.get(2)));
+    assertEquals("a1", sectorsBulk.get(sectorKeys.get(3)));
+    assertEquals(1, Arrays.asList(sectorsBulk.get(sectorKeys.get(4)), sectorsBulk.get(sectorKeys.get(5))).stream().filter("b2"::equals).count());
+    assertEquals("root-2", sectorsBulk.get(sectorKeys.get(6)));
+    assertNull(sectorsBulk.get(sectorKeys.get(7)));
+    
+    assertNull(decisionsBulk.get(decisionKeys.get(0)));
+    assertEquals("a2", decisionsBulk.get(decisionKeys.get(1)));
+    assertNull(decisionsBulk.get(decisionKeys.get(2)));
+    assertEquals("b1", decisionsBulk.get(decisionKeys.get(3)));
+    assertEquals(1, Arrays.asList(decisionsBulk.get(decisionKeys.get(4)), decisionsBulk.get(decisionKeys.get(5))).stream().filter("b2"::equals).count());
+    assertEquals("s1", decisionsBulk.get(decisionKeys.get(6)));
+    assertEquals("s2", decisionsBulk.get(decisionKeys.get(7)));
+  
+    // reset subject ids and rematch each sector & decision in the same order as the bulk rematching does
+    resetSubjects(sectorsBefore, decisionsBefore);
+    List<SubjectRematcher> singles = new ArrayList<>();
+    try (SqlSession session = PgSetupRule.getSqlSessionFactory().openSession(true)) {
+      for (Sector s : session.getMapper(SectorMapper.class).listByDataset(null, datasetKey)) {
+        SubjectRematcher rem = new SubjectRematcher(PgSetupRule.getSqlSessionFactory(), Datasets.DRAFT_COL, Users.TESTER);
+        rem.match(RematchRequest.sector(s.getId()));
+        singles.add(rem);
+      }
+      List<Integer> decKeys = new ArrayList<>();
+      session.getMapper(DecisionMapper.class).processSearch(DecisionSearchRequest.byDataset(datasetKey)).forEach(d -> decKeys.add(d.getId()));
+      for (Integer key : decKeys) {
+        SubjectRematcher rem = new SubjectRematcher(PgSetupRule.getSqlSessionFactory(), Datasets.DRAFT_COL, Users.TESTER);
+        rem.match(RematchRequest.decision(key));
+        singles.add(rem);
+      }
+    }
+    assertEquals(sectorsBulk, sectorSubjects(sectorKeys));
+    assertEquals(decisionsBulk, decisionSubjects(decisionKeys));
+    assertCounter(bulk.getSectors(), singles.stream().map(SubjectRematcher::getSectors).collect(Collectors.toList()));
+    assertCounter(bulk.getDecisions(), singles.stream().map(SubjectRematcher::getDecisions).collect(Collectors.toList()));
+  }
+  
+  private static void assertCounter(SubjectRematcher.MatchCounter expected, List<SubjectRematcher.MatchCounter> counters) {
+    assertEquals(expected.getBroken(), counters.stream().mapToInt(SubjectRematcher.MatchCounter::getBroken).sum());
+    assertEquals(expected.getUpdated(), counters.stream().mapToInt(SubjectRematcher.MatchCounter::getUpdated).sum());
+    assertEquals(expected.getUnchanged(), counters.stream().mapToInt(SubjectRematcher.MatchCounter::getUnchanged).sum());
+  }
+  
+  private static SimpleName parented(String name, Rank rank, String parent) {
+    SimpleName sn = new SimpleName(null, name, rank);
+    sn.setParent(parent);
+    return sn;
+  }
+  
+  private static Map<Integer, String> sectorSubjects(List<Integer> keys) {
+    Map<Integer, String> ids = new HashMap<>();
+    try (SqlSession session = PgSetupRule.getSqlSessionFactory().openSession(true)) {
+      SectorMapper sm = session.getMapper(SectorMapper.class);
+      for (Integer key : keys) {
+        Sector s = sm.get(DSID.idOnly(key));
+        assertEquals("t4", s.getTarget().getId());
+        ids.put(key, s.getSubject().getId());
+      }
+    }
+    return ids;
+  }
+  
+  private static Map<Integer, String> decisionSubjects(List<Integer> keys) {
+    Map<Integer, String> ids = new HashMap<>();
+    try (SqlSession session = PgSetupRule.getSqlSessionFactory().openSession(true)) {
+      DecisionMapper dm = session.getMapper(DecisionMapper.class);
+      for (Integer key : keys) {
+        ids.put(key, dm.get(DSID.idOnly(key)).getSubject().getId());
+      }
+    }
+    return ids;
+  }
+  
+  private static void resetSubjects(Map<Integer, String> sectors, Map<Integer, String> decisions) {
+    try (SqlSession session = PgSetupRule.getSqlSessionFactory().openSession(true)) {
+      SectorMapper sm = session.getMapper(SectorMapper.class);
+      sectors.forEach((key, id) -> {
+        Sector s = sm.get(DSID.idOnly(key));
+        s.getSubject().setId(id);
+        sm.update(s);
+      });
+      DecisionMapper dm = session.getMapper(DecisionMapper.class);
+      decisions.forEach((key, id) -> {
+        EditorialDecision d = dm.get(DSID.idOnly(key));
+        d.getSubject().setId(id);
+        dm.update(d);
+      });
+    }
+  }
+  
+  private static Name createName(SqlSession session, int datasetKey, String id, String uninomial, Rank rank) {
+    Name n = new Name();
+    n.applyUser(TestDataRule.TEST_USER);
+    n.setId(id + "-n");
+    n.setHomotypicNameId(n.getId());
+    n.setDatasetKey(datasetKey);
+    n.setUninomial(uninomial);
+    n.setRank(rank);
+    n.setOrigin(Origin.SOURCE);
+    n.setType(NameType.SCIENTIFIC);
+    n.updateNameCache();
+    session.getMapper(NameMapper.class).create(n);
+    return n;
+  }
+  
+  private static void createTaxon(SqlSession session, int datasetKey, String id, String uninomial, Rank rank, String parentId) {
+    Taxon t = new Taxon();
+    t.applyUser(TestDataRule.TEST_USER);
+    t.setId(id);
+    t.setDatasetKey(datasetKey);
+    t.setName(createName(session, datasetKey, id, uninomial, rank));
+    t.setParentId(parentId);
+    t.setStatus(TaxonomicStatus.ACCEPTED);
+    t.setOrigin(Origin.SOURCE);
+    session.getMapper(TaxonMapper.class).create(t);
+  }
+  
+  private static void createSynonym(SqlSession session, int datasetKey, String id, String uninomial, Rank rank, String acceptedId) {
+    Synonym s = new Synonym();
+    s.applyUser(TestDataRule.TEST_USER);
+    s.setId(id);
+    s.setDatasetKey(datasetKey);
+    s.setName(createName(session, datasetKey, id, uninomial, rank));
+    s.setParentId(acceptedId);
+    s.setStatus(TaxonomicStatus.SYNONYM);
+    s.setOrigin(Origin.SOURCE);
+    session.getMapper(SynonymMapper.class).create(s);
+  }
+  
   static int createSector(Sector.Mode mode, int datasetKey, SimpleName src, SimpleName target) {
     try (SqlSession session = PgSetupRule.getSqlSessionFactory().openSession(true)) {
       Sector sector = new Sector();
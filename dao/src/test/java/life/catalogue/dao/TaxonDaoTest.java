@@ -12,6 +12,9 @@ import life.catalogue.db.PgSetupRule;
 import life.catalogue.db.mapper.SectorMapper;
 import life.catalogue.db.mapper.SectorMapperTest;
 import life.catalogue.db.mapper.SynonymMapper;
+import life.catalogue.db.mapper.TaxonMapper;
+import life.catalogue.db.mapper.TreeMapper;
+import life.catalogue.db.mapper.TypeMaterialMapper;
 import life.catalogue.db.TestDataRule;
 import life.catalogue.es.NameUsageIndexService;
 import org.apache.ibatis.session.SqlSession;
@@ -19,9 +22,13 @@ import org.gbif.nameparser.api.NameType;
 import org.gbif.nameparser.api.Rank;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static life.catalogue.api.TestEntityGenerator.*;
@@ -85,6 +92,77 @@ public class TaxonDaoTest extends DaoTestBase {
     }
   }
   
+  @Test
+  public void testInfos() throws Exception {
+    final int datasetKey = DATASET11.getKey();
+    // type material for the accepted name of root-2 and one of its synonyms
+    TypeMaterial tm1 = TestEntityGenerator.newType(datasetKey, "tm1", "name-2");
+    tm1.setReferenceId("ref-2");
+    TypeMaterial tm2 = TestEntityGenerator.newType(datasetKey, "tm2", "name-3");
+    mapper(TypeMaterialMapper.class).create(tm1);
+    mapper(TypeMaterialMapper.class).create(tm2);
+    commit();
+
+    List<TaxonInfo> infos = tDao.getTaxonInfos(datasetKey, List.of(TAXON2.getId(), "unknown", TAXON1.getId(), TAXON2.getId()));
+    // in the order of the given ids, see apple data
+    assertEquals(2, infos.size());
+    assertInfo2(infos.get(0));
+    assertInfo1(infos.get(1));
+
+    assertTrue(tDao.getTaxonInfos(datasetKey, List.of("unknown")).isEmpty());
+
+    // more ids than fit into a single query
+    List<String> ids = new ArrayList<>();
+    ids.add(TAXON2.getId());
+    for (int i = 0; i < 2500; i++) {
+      ids.add("unknown-" + i);
+    }
+    ids.add(TAXON1.getId());
+    infos = tDao.getTaxonInfos(datasetKey, ids);
+    assertEquals(2, infos.size());
+    assertInfo2(infos.get(0));
+    assertInfo1(infos.get(1));
+  }
+
+  private static void assertInfo1(TaxonInfo info) {
+    assertEquals("root-1", info.getTaxon().getId());
+    assertEquals("name-1", info.getTaxon().getName().getId());
+    assertTrue(info.getSynonyms().isEmpty());
+    assertEquals(Set.of(1, 2), distributionIds(info));
+    assertEquals(Set.of("Apple", "Apfel", "Meeuw"), info.getVernacularNames().stream().map(VernacularName::getName).collect(Collectors.toSet()));
+    assertTrue(info.getDescriptions().isEmpty());
+    assertTrue(info.getMedia().isEmpty());
+    assertEquals(Map.of("name-1", List.of()), info.getTypeMaterial());
+    // taxon and published in reference ref-1, distribution reference ref-1b
+    assertEquals(Set.of("ref-1", "ref-1b"), info.getReferences().keySet());
+  }
+
+  private static void assertInfo2(TaxonInfo info) {
+    assertEquals("root-2", info.getTaxon().getId());
+    assertEquals("name-2", info.getTaxon().getName().getId());
+    assertEquals(Set.of("s1", "s2"), info.getSynonyms().stream().map(Synonym::getId).collect(Collectors.toSet()));
+    assertEquals(Set.of(3), distributionIds(info));
+    assertTrue(info.getVernacularNames().isEmpty());
+    assertTrue(info.getDescriptions().isEmpty());
+    assertTrue(info.getMedia().isEmpty());
+    // type material keyed by the name ids of the taxon and its synonyms
+    assertEquals(Set.of("name-2", "name-3", "name-4"), info.getTypeMaterial().keySet());
+    assertEquals(List.of("tm1"), typeIds(info, "name-2"));
+    assertEquals(List.of("tm2"), typeIds(info, "name-3"));
+    assertEquals(List.of(), typeIds(info, "name-4"));
+    // taxon references ref-1 & ref-1b, type material reference ref-2
+    assertEquals(Set.of("ref-1", "ref-1b", "ref-2"), info.getReferences().keySet());
+    info.getReferences().forEach((id, r) -> assertEquals(id, r.getId()));
+  }
+
+  private static Set<Integer> distributionIds(TaxonInfo info) {
+    return info.getDistributions().stream().map(Distribution::getId).collect(Collectors.toSet());
+  }
+
+  private static List<String> typeIds(TaxonInfo info, String nameId) {
+    return info.getTypeMaterial().get(nameId).stream().map(TypeMaterial::getId).collect(Collectors.toList());
+  }
+
   @Test
   public void synonyms() throws Exception {
     try (SqlSession session = session()) {
@@ -295,4 +373,79 @@ public class TaxonDaoTest extends DaoTestBase {
     assertNull(sm.get(s2.getId()));
     assertNull(sm.get(s3.getId()));
   }
+
+  /**
+   * Populates the draft tree with stored child counts:
+   * t1
+   *   t2
+   *     t3
+   *       t4
+   *       t5
+   */
+  private void populateDraftTreeWithCounts() {
+    MybatisTestUtils.populateDraftTree(session());
+    mapper(TaxonMapper.class).updateChildCounts(Datasets.DRAFT_COL, null);
+    commit();
+    assertEquals(1, childCount("t2"));
+    assertEquals(2, childCount("t3"));
+  }
+  
+  /**
+   * @return the stored child count as read by the tree browser
+   */
+  private static int childCount(String id) {
+    try (SqlSession session = factory().openSession(true)) {
+      return session.getMapper(TreeMapper.class).get(Datasets.DRAFT_COL, TreeNode.Type.CATALOGUE, DSID.draftID(id)).getChildCount();
+    }
+  }
+  
+  @Test
+  public void childCountCreate() {
+    populateDraftTreeWithCounts();
+    Name n = new Name();
+    n.setScientificName("Abies");
+    n.setRank(Rank.GENUS);
+    Taxon t = new Taxon();
+    t.setName(n);
+    t.setDatasetKey(Datasets.DRAFT_COL);
+    t.setParentId("t4");
+    t.setStatus(TaxonomicStatus.ACCEPTED);
+    tDao.create(t, USER_EDITOR.getKey());
+    
+    assertEquals(1, childCount("t4"));
+    assertEquals(0, childCount(t.getId()));
+    assertEquals(2, childCount("t3"));
+  }
+  
+  @Test
+  public void childCountMove() {
+    populateDraftTreeWithCounts();
+    Taxon t5 = tDao.get(DSID.draftID("t5"));
+    t5.setParentId("t4");
+    tDao.update(t5, USER_EDITOR.getKey());
+    
+    assertEquals(1, childCount("t3"));
+    assertEquals(1, childCount("t4"));
+    assertEquals(0, childCount("t5"));
+  }
+  
+  @Test
+  public void childCountDelete() {
+    populateDraftTreeWithCounts();
+    // t4 & t5 are moved to t2
+    tDao.delete(DSID.draftID("t3"), USER_EDITOR.getKey());
+    
+    assertEquals(1, childCount("t1"));
+    assertEquals(2, childCount("t2"));
+    assertEquals(0, childCount("t4"));
+  }
+  
+  @Test
+  public void childCountDeleteRecursively() {
+    populateDraftTreeWithCounts();
+    tDao.deleteRecursively(DSID.draftID("t3"), USER_EDITOR);
+    
+    assertEquals(1, childCount("t1"));
+    assertEquals(0, childCount("t2"));
+  }
 }
@@ -9,6 +9,7 @@ import life.catalogue.api.vocab.Origin;
 import life.catalogue.api.vocab.TaxonomicStatus;
 import life.catalogue.common.tax.SciNameNormalizer;
 import life.catalogue.db.mapper.DatasetPartitionMapper;
+import life.catalogue.db.mapper.TaxonMapper;
 import life.catalogue.db.mapper.UserMapper;
 import life.catalogue.postgres.PgCopyUtils;
 import org.apache.ibatis.io.Resources;
@@ -128,6 +129,10 @@ public class TestDataRule extends ExternalResource implements AutoCloseable {
     return new TestDataRule(TestData.DRAFT_WITH_SECTORS);
   }
 
+  public static TestDataRule draftWithSectors(SqlSessionFactory sqlSessionFactory) {
+    return new TestDataRule(TestData.DRAFT_WITH_SECTORS, () -> sqlSessionFactory);
+  }
+
   public static TestDataRule datasets() {
     return new TestDataRule(TestData.DATASETS);
   }
@@ -167,6 +172,7 @@ public class TestDataRule extends ExternalResource implements AutoCloseable {
     partition();
     loadData(false);
     updateSequences();
+    updateChildCounts();
     // finally create a test user to use in tests
     session.getMapper(UserMapper.class).create(TEST_USER);
     session.commit();
@@ -205,6 +211,18 @@ public class TestDataRule extends ExternalResource implements AutoCloseable {
     }
   }
 
+  /**
+   * Stores the child counts for all loaded datasets as the copied test data does not contain them.
+   */
+  public void updateChildCounts() {
+    try (SqlSession session = PgSetupRule.getSqlSessionFactory().openSession(true)) {
+      TaxonMapper tm = session.getMapper(TaxonMapper.class);
+      for (Integer dk : testData.datasetKeys) {
+        tm.updateChildCounts(dk, null);
+      }
+    }
+  }
+
   private void truncate() throws SQLException {
     System.out.println("Truncate tables");
     try (java.sql.Statement st = session.getConnection().createStatement()) {
@@ -7,6 +7,7 @@ import life.catalogue.api.model.DatasetImport;
 import life.catalogue.api.model.Page;
 import life.catalogue.api.vocab.*;
 import life.catalogue.common.text.StringUtils;
+import life.catalogue.db.type2.MetricCount;
 import life.catalogue.db.type2.StringCount;
 import org.gbif.dwc.terms.AcefTerm;
 import org.gbif.dwc.terms.Term;
@@ -238,6 +239,35 @@ public class DatasetImportMapperTest extends MapperTestBase<DatasetImportMapper>
     assertCounts(expected, mapper().countVerbatimByType(DATASET11.getKey()));
   }
   
+  @Test
+  public void metricCounts() throws Exception {
+    Set<MetricCount> expected = new HashSet<>();
+    expected.add(new MetricCount("rank", Rank.SPECIES.name(), 5));
+    expected.add(new MetricCount("type", NameType.SCIENTIFIC.name(), 5));
+    expected.add(new MetricCount("status", null, 5));
+    expected.add(new MetricCount("origin", Origin.SOURCE.name(), 5));
+    assertCounts(expected, mapper().countNameMetrics(DATASET11.getKey()));
+  
+    expected.clear();
+    expected.add(new MetricCount("status", TaxonomicStatus.ACCEPTED.name(), 2));
+    expected.add(new MetricCount("status", TaxonomicStatus.SYNONYM.name(), 2));
+    expected.add(new MetricCount("taxonRank", Rank.SPECIES.name(), 2));
+    expected.add(new MetricCount("synonymRank", Rank.SPECIES.name(), 2));
+    assertCounts(expected, mapper().countUsageMetrics(DATASET11.getKey()));
+  
+    List<MetricCount> verbatim = mapper().countVerbatimMetrics(DATASET11.getKey());
+    assertTrue(verbatim.contains(new MetricCount("type", AcefTerm.AcceptedSpecies.prefixedName(), 3)));
+    assertTrue(verbatim.contains(new MetricCount("type", AcefTerm.Synonyms.prefixedName(), 2)));
+    assertTrue(verbatim.contains(new MetricCount("issue", Issue.REFERENCE_ID_INVALID.name(), 2)));
+    for (MetricCount cnt : verbatim) {
+      if (cnt.getMetric().equals("term")) {
+        assertNotNull(cnt.getRowType());
+      } else {
+        assertNull(cnt.getRowType());
+      }
+    }
+  }
+  
   private static <T> void assertCounts(Set<T> expected, List<T> actual) {
     assertEquals(expected, new HashSet<>(actual));
   }
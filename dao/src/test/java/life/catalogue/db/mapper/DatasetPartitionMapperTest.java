@@ -5,6 +5,7 @@ import life.catalogue.api.TestEntityGenerator;
 import life.catalogue.api.model.*;
 import life.catalogue.api.vocab.Datasets;
 import life.catalogue.api.vocab.Origin;
+import life.catalogue.dao.Partitioner;
 import life.catalogue.db.CRUD;
 import life.catalogue.db.PgSetupRule;
 import life.catalogue.db.TestDataRule;
@@ -17,6 +18,11 @@ import org.gbif.nameparser.api.Rank;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -39,6 +45,98 @@ public class DatasetPartitionMapperTest extends MapperTestBase<DatasetPartitionM
     mapper().delete(Datasets.DRAFT_COL);
   }
 
+  /**
+   * Inserts the same verbatim records and references once with the full text triggers
+   * and once with deferred full text documents and compares the resulting documents.
+   */
+  @Test
+  public void deferredFullText() throws Exception {
+    final int key = Datasets.DRAFT_COL;
+    List<VerbatimRecord> recs = new ArrayList<>();
+    List<Reference> refs = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      VerbatimRecord v = TestEntityGenerator.createVerbatim();
+      v.setDatasetKey(key);
+      recs.add(v);
+      Reference r = TestEntityGenerator.newReference("Deferred full text " + i);
+      r.setDatasetKey(key);
+      r.setYear(1900 + i);
+      refs.add(r);
+    }
+    
+    // triggers
+    mapper().delete(key);
+    mapper().create(key);
+    insert(recs, refs);
+    commit();
+    List<String> verbatimDocs = docs("verbatim", key);
+    List<String> refDocs = docs("reference", key);
+    int hits = countMatches("reference", key, "deferred full text 1910");
+    
+    // deferred
+    mapper().delete(key);
+    mapper().create(key);
+    mapper().disableFullTextTriggers(key);
+    insert(recs, refs);
+    commit();
+    // no docs yet
+    Assert.assertEquals(0, countMatches("reference", key, "deferred"));
+    Partitioner.buildFullText(PgSetupRule.getSqlSessionFactory(), key);
+    
+    Assert.assertEquals(recs.size(), verbatimDocs.size());
+    Assert.assertEquals(refs.size(), refDocs.size());
+    Assert.assertEquals(verbatimDocs, docs("verbatim", key));
+    Assert.assertEquals(refDocs, docs("reference", key));
+    Assert.assertEquals(1, hits);
+    Assert.assertEquals(hits, countMatches("reference", key, "deferred full text 1910"));
+    Assert.assertEquals(refs.size(), countMatches("reference", key, "deferred"));
+    
+    // triggers are enabled again
+    Reference r = TestEntityGenerator.newReference("Triggered");
+    r.setDatasetKey(key);
+    mapper(ReferenceMapper.class).create(r);
+    commit();
+    Assert.assertEquals(1, countMatches("reference", key, "triggered"));
+  
+    mapper().buildIndices(key);
+    mapper().attach(key);
+    mapper().delete(key);
+  }
+  
+  private void insert(List<VerbatimRecord> recs, List<Reference> refs) {
+    VerbatimRecordMapper vm = mapper(VerbatimRecordMapper.class);
+    for (VerbatimRecord v : recs) {
+      v.setId(null);
+      vm.create(v);
+    }
+    ReferenceMapper rm = mapper(ReferenceMapper.class);
+    refs.forEach(rm::create);
+  }
+  
+  /**
+   * @return all non null documents of the partition table sorted by their text
+   */
+  private List<String> docs(String table, int key) throws SQLException {
+    List<String> docs = new ArrayList<>();
+    try (Statement st = session().getConnection().createStatement();
+         ResultSet rs = st.executeQuery("SELECT doc::text FROM " + table + "_" + key + " WHERE doc IS NOT NULL ORDER BY 1")
+    ) {
+      while (rs.next()) {
+        docs.add(rs.getString(1));
+      }
+    }
+    return docs;
+  }
+  
+  private int countMatches(String table, int key, String query) throws SQLException {
+    try (Statement st = session().getConnection().createStatement();
+         ResultSet rs = st.executeQuery("SELECT count(*) FROM " + table + "_" + key + " WHERE doc @@ plainto_tsquery('simple2', '" + query + "')")
+    ) {
+      rs.next();
+      return rs.getInt(1);
+    }
+  }
+
   @Test
   public void exists() {
     Assert.assertTrue(mapper().exists(Datasets.DRAFT_COL));
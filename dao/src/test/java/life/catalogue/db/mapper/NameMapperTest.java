@@ -160,6 +160,28 @@ public class NameMapperTest extends CRUDDatasetScopedStringTestBase<Name, NameMa
     assertEquals(3, dels.size());
   }
   
+  @Test
+  public void listAfter() throws Exception {
+    final int datasetKey = DATASET11.getKey();
+    List<Name> all = nameMapper.list(datasetKey, new Page(0, 100));
+    assertEquals(5, all.size());
+
+    // keyset pages must return the same records in the same order as offset paging
+    Page page = new Page(0, 2);
+    String after = null;
+    List<Name> keyset = Lists.newArrayList();
+    List<Name> names;
+    do {
+      names = nameMapper.listAfter(datasetKey, after, page);
+      keyset.addAll(names);
+      after = names.isEmpty() ? null : names.get(names.size() - 1).getId();
+    } while (names.size() == page.getLimit());
+    assertEquals(all, keyset);
+
+    assertEquals(all.subList(0, 2), nameMapper.listAfter(datasetKey, null, page));
+    assertEquals(all.subList(3, 5), nameMapper.listAfter(datasetKey, all.get(2).getId(), page));
+  }
+
   @Test
   public void hasData() throws Exception {
     assertTrue(nameMapper.hasData(DATASET11.getKey()));
@@ -152,20 +152,74 @@ public class ReferenceMapperTest extends CRUDDatasetScopedStringTestBase<Referen
     final String r3 = in.get(2).getId();
   
     ReferenceSearchRequest req = ReferenceSearchRequest.byQuery("backyard");
-    List<Reference> out = mapper().search(Datasets.DRAFT_COL, req, new Page());
+    List<Reference> out = mapper().search(Datasets.DRAFT_COL, req, null, new Page());
     assertEquals(1, out.size());
     assertEquals(r1, out.get(0).getId());
   
     req = ReferenceSearchRequest.byQuery("Kerouac");
-    out = mapper().search(Datasets.DRAFT_COL, req, new Page());
+    out = mapper().search(Datasets.DRAFT_COL, req, null, new Page());
     assertEquals(1, out.size());
     assertEquals(r2, out.get(0).getId());
     
     req.setIssues(Lists.newArrayList(Issue.REFTYPE_INVALID, Issue.UNMATCHED_REFERENCE_BRACKETS));
-    out = mapper().search(Datasets.DRAFT_COL, req, new Page());
+    out = mapper().search(Datasets.DRAFT_COL, req, null, new Page());
     assertEquals(0, out.size());
   }
 
+  @Test
+  public void searchAfter() throws Exception {
+    for (int i = 0; i < 7; i++) {
+      Reference r = newReference("Keyset paging " + i);
+      r.setDatasetKey(Datasets.DRAFT_COL);
+      r.setSectorKey(null);
+      mapper().create(r);
+    }
+    commit();
+    
+    ReferenceSearchRequest req = new ReferenceSearchRequest();
+    req.setSortBy(ReferenceSearchRequest.SortBy.NATIVE);
+    List<Reference> all = mapper().search(Datasets.DRAFT_COL, req, null, new Page(0, 100));
+    assertTrue(all.size() >= 7);
+    for (int limit = 1; limit < 10; limit++) {
+      assertEquals(all, searchByOffset(req, limit));
+      assertEquals(all, searchAfter(req, limit));
+    }
+    assertEquals(all.subList(3, 5), mapper().search(Datasets.DRAFT_COL, req, all.get(2).getId(), new Page(0, 2)));
+    
+    // filtered
+    req = ReferenceSearchRequest.byQuery("keyset");
+    req.setSortBy(ReferenceSearchRequest.SortBy.NATIVE);
+    List<Reference> filtered = mapper().search(Datasets.DRAFT_COL, req, null, new Page(0, 100));
+    assertEquals(7, filtered.size());
+    assertEquals(filtered, searchByOffset(req, 2));
+    assertEquals(filtered, searchAfter(req, 2));
+  }
+  
+  private List<Reference> searchByOffset(ReferenceSearchRequest req, int limit) {
+    List<Reference> refs = new ArrayList<>();
+    Page page = new Page(0, limit);
+    List<Reference> result;
+    do {
+      result = mapper().search(Datasets.DRAFT_COL, req, null, page);
+      refs.addAll(result);
+      page.next();
+    } while (result.size() == limit);
+    return refs;
+  }
+  
+  private List<Reference> searchAfter(ReferenceSearchRequest req, int limit) {
+    List<Reference> refs = new ArrayList<>();
+    Page page = new Page(0, limit);
+    String after = null;
+    List<Reference> result;
+    do {
+      result = mapper().search(Datasets.DRAFT_COL, req, after, page);
+      refs.addAll(result);
+      after = result.isEmpty() ? null : result.get(result.size() - 1).getId();
+    } while (result.size() == limit);
+    return refs;
+  }
+  
   @Test
   public void listByIds() {
     assertEquals(2, mapper().listByIds(11, Sets.newHashSet("ref-1", "ref-1b")).size());
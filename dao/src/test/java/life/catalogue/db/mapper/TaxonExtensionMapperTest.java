@@ -54,6 +54,14 @@ abstract class TaxonExtensionMapperTest<T extends DatasetScopedEntity<Integer>,
     List<T> created = TestEntityGenerator.nullifyDate(mapper().listByTaxon(tax));
     assertEquals(originals, created);
   
+    // test listByTaxa
+    List<T> created2 = new ArrayList<>();
+    for (TaxonExtension<T> te : mapper().listByTaxa(tax.getDatasetKey(), List.of(tax.getId(), "nonExisting"))) {
+      assertEquals(tax.getId(), te.getTaxonID());
+      created2.add(TestEntityGenerator.nullifyDate(te.getObj()));
+    }
+    assertEquals(originals, created2);
+  
     // processing
     CountHandler handler = new CountHandler();
     mapper().processDataset(tax.getDatasetKey()).forEach(handler);
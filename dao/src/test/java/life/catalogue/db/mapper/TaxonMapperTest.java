@@ -296,6 +296,30 @@ public class TaxonMapperTest extends CRUDDatasetScopedStringTestBase<Taxon, Taxo
     assertEquals(1, getTreeNode("t1").getDatasetSectors().get((int) sector.getSubjectDatasetKey()));
   }
   
+  @Test
+  public void updateChildCounts() throws Exception {
+    assertEquals(0, getTreeNode("t3").getChildCount());
+
+    mapper().updateChildCounts(Datasets.DRAFT_COL, null);
+    assertEquals(1, getTreeNode("t1").getChildCount());
+    assertEquals(1, getTreeNode("t2").getChildCount());
+    assertEquals(2, getTreeNode("t3").getChildCount());
+    assertEquals(0, getTreeNode("t4").getChildCount());
+
+    // move t5 below t4
+    Taxon t5 = mapper().get(DSID.draftID("t5"));
+    t5.setParentId("t4");
+    mapper().update(t5);
+    mapper().updateChildCount(DSID.draftID("t4"));
+    commit();
+    assertEquals(1, getTreeNode("t4").getChildCount());
+    assertEquals(2, getTreeNode("t3").getChildCount());
+
+    mapper().updateChildCount(DSID.draftID("t3"));
+    commit();
+    assertEquals(1, getTreeNode("t3").getChildCount());
+  }
+
   private TreeNode getTreeNode(String id) {
     return session().getMapper(TreeMapper.class).get(Datasets.DRAFT_COL, TreeNode.Type.CATALOGUE, DSID.draftID(id));
     
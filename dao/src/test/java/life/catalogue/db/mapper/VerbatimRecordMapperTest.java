@@ -3,6 +3,7 @@ package life.catalogue.db.mapper;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.ImmutableMap;
@@ -43,24 +44,73 @@ public class VerbatimRecordMapperTest extends MapperTestBase<VerbatimRecordMappe
     VerbatimRecord r2 = mapper().get(r1);
     
     assertEquals(r1, r2);
+  
+    List<VerbatimRecord> recs = mapper().listByKeys(r1.getDatasetKey(), List.of(r1.getId(), -1));
+    assertEquals(1, recs.size());
+    assertEquals(r1, recs.get(0));
   }
   
   @Test
   public void list() {
     assertEquals(0, mapper().list(TAXON1.getDatasetKey(), null, null, AND,
-        Lists.newArrayList(Issue.ACCEPTED_ID_INVALID),null,
+        Lists.newArrayList(Issue.ACCEPTED_ID_INVALID),null, null,
         new Page()).size());
   
     assertEquals(1, mapper().list(TAXON1.getDatasetKey(), null, null, AND,
-        Lists.newArrayList(Issue.ID_NOT_UNIQUE), null,
+        Lists.newArrayList(Issue.ID_NOT_UNIQUE), null, null,
         new Page()).size());
   
     insertTestData();
   
-    assertEquals(8, mapper().list(TAXON1.getDatasetKey(), null, null, AND,null, null, new Page()).size());
-    assertEquals(2, mapper().list(TAXON1.getDatasetKey(), null, null, AND,null, "abies", new Page()).size());
-    assertEquals(2, mapper().list(TAXON1.getDatasetKey(), null, null, AND,null, "t1", new Page()).size());
-    assertEquals(1, mapper().list(TAXON1.getDatasetKey(), null, null, AND,null, "alpina", new Page()).size());
+    assertEquals(8, mapper().list(TAXON1.getDatasetKey(), null, null, AND,null, null, null, new Page()).size());
+    assertEquals(2, mapper().list(TAXON1.getDatasetKey(), null, null, AND,null, "abies", null, new Page()).size());
+    assertEquals(2, mapper().list(TAXON1.getDatasetKey(), null, null, AND,null, "t1", null, new Page()).size());
+    assertEquals(1, mapper().list(TAXON1.getDatasetKey(), null, null, AND,null, "alpina", null, new Page()).size());
+  }
+  
+  @Test
+  public void listAfter() {
+    insertTestData();
+    List<VerbatimRecord> all = mapper().list(datasetKey, null, null, AND, null, null, null, new Page(0, 100));
+    assertEquals(8, all.size());
+    for (int limit = 1; limit < 10; limit++) {
+      assertEquals(all, pageByOffset(null, limit));
+      assertEquals(all, pageAfter(null, limit));
+    }
+    
+    Map<Term, String> abies = ImmutableMap.of(DwcTerm.genus, "Abies");
+    List<VerbatimRecord> filtered = mapper().list(datasetKey, null, abies, AND, null, null, null, new Page(0, 100));
+    assertEquals(2, filtered.size());
+    assertEquals(filtered, pageByOffset(abies, 1));
+    assertEquals(filtered, pageAfter(abies, 1));
+    
+    assertEquals(all.subList(3, 5), mapper().list(datasetKey, null, null, AND, null, null, all.get(2).getId(), new Page(0, 2)));
+    assertEquals(0, mapper().list(datasetKey, null, null, AND, null, null, all.get(7).getId(), new Page(0, 2)).size());
+  }
+  
+  private List<VerbatimRecord> pageByOffset(Map<Term, String> terms, int limit) {
+    List<VerbatimRecord> recs = new ArrayList<>();
+    Page page = new Page(0, limit);
+    List<VerbatimRecord> result;
+    do {
+      result = mapper().list(datasetKey, null, terms, AND, null, null, null, page);
+      recs.addAll(result);
+      page.next();
+    } while (result.size() == limit);
+    return recs;
+  }
+  
+  private List<VerbatimRecord> pageAfter(Map<Term, String> terms, int limit) {
+    List<VerbatimRecord> recs = new ArrayList<>();
+    Page page = new Page(0, limit);
+    Integer after = null;
+    List<VerbatimRecord> result;
+    do {
+      result = mapper().list(datasetKey, null, terms, AND, null, null, after, page);
+      recs.addAll(result);
+      after = result.isEmpty() ? null : result.get(result.size() - 1).getId();
+    } while (result.size() == limit);
+    return recs;
   }
   
   @Test
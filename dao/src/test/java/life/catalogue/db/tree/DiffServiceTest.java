@@ -63,10 +63,14 @@ public class DiffServiceTest extends DaoTestBase {
     });
   
   
-    String version = IOUtils.toString(br);
-    System.out.println(version);
+    String udiff = IOUtils.toString(br);
+    System.out.println(udiff);
     
-    Assert.assertTrue(version.startsWith("---"));
+    Assert.assertTrue(udiff.startsWith("---"));
+    Assert.assertTrue(udiff.contains("\n-    *Compositae [family]\n"));
+    Assert.assertTrue(udiff.contains("\n+          Leontodon saxatilis [species]\n"));
+    Assert.assertTrue(udiff.contains("\n-            *Leontodon saxatilis [species]\n"));
+    Assert.assertTrue(udiff.contains("\n-        Gundelia L. [genus]\n+        Gundelia [genus]\n"));
   }
   
   @Test
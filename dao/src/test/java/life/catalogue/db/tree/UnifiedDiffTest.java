@@ -0,0 +1,100 @@
+package life.catalogue.db.tree;
+
+import life.catalogue.common.io.UTF8IoUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class UnifiedDiffTest {
+  File f1;
+  File f2;
+
+  @Before
+  public void init() throws IOException {
+    f1 = File.createTempFile("diff1", ".txt");
+    f2 = File.createTempFile("diff2", ".txt.gz");
+  }
+
+  @After
+  public void cleanup() {
+    f1.delete();
+    f2.delete();
+  }
+
+  @Test
+  public void changes() {
+    UnifiedDiff diff = new UnifiedDiff(2, 100, 1000);
+    List<UnifiedDiff.Change> changes = diff.changes(new long[]{1, 2, 3, 4, 5}, new long[]{1, 3, 4, 6, 5});
+    assertEquals(2, changes.size());
+    assertChange(1, 2, 1, 1, changes.get(0));
+    assertChange(4, 4, 3, 4, changes.get(1));
+
+    changes = diff.changes(new long[]{1, 2, 3}, new long[]{1, 2, 3});
+    assertTrue(changes.isEmpty());
+
+    changes = diff.changes(new long[]{}, new long[]{1, 2});
+    assertEquals(1, changes.size());
+    assertChange(0, 0, 0, 2, changes.get(0));
+
+    // nothing in common
+    changes = diff.changes(new long[]{1, 2, 3}, new long[]{4, 5});
+    assertEquals(1, changes.size());
+    assertChange(0, 3, 0, 2, changes.get(0));
+  }
+
+  private static void assertChange(int a0, int a1, int b0, int b1, UnifiedDiff.Change c) {
+    assertEquals(a0, c.a0);
+    assertEquals(a1, c.a1);
+    assertEquals(b0, c.b0);
+    assertEquals(b1, c.b1);
+  }
+
+  @Test
+  public void diff() throws Exception {
+    write(f1, false, "a", "b", "c", "d", "e", "f", "g", "h");
+    write(f2, true, "a", "b", "X", "d", "e", "f", "g", "h", "i");
+
+    StringWriter out = new StringWriter();
+    assertTrue(new UnifiedDiff(1, 100, 1000).diff(f1, f2, out));
+    assertEquals("--- " + f1.getAbsolutePath() + "\n" +
+        "+++ " + f2.getAbsolutePath() + "\n" +
+        "@@ -2,3 +2,3 @@\n" +
+        " b\n" +
+        "-c\n" +
+        "+X\n" +
+        " d\n" +
+        "@@ -8 +8,2 @@\n" +
+        " h\n" +
+        "+i\n", out.toString());
+  }
+
+  @Test
+  public void truncated() throws Exception {
+    write(f1, false, "a", "b", "c", "d", "e", "f", "g", "h");
+    write(f2, true, "1", "2", "3", "4", "5", "6", "7", "8");
+
+    StringWriter out = new StringWriter();
+    assertFalse(new UnifiedDiff(2, 10, 1000).diff(f1, f2, out));
+    String[] lines = out.toString().split("\n");
+    // headers, hunk header, 10 lines and the truncation note
+    assertEquals(14, lines.length);
+    assertTrue(lines[13].startsWith("\\"));
+  }
+
+  private static void write(File f, boolean gzip, String... lines) throws IOException {
+    try (Writer w = gzip ? UTF8IoUtils.writerFromGzipFile(f) : UTF8IoUtils.writerFromFile(f)) {
+      for (String l : lines) {
+        w.write(l);
+        w.write('\n');
+      }
+    }
+  }
+}
@@ -50,10 +50,12 @@ import life.catalogue.es.query.TermQueryTest;
     NameUsageSearchServiceFacetTest.class,
     NameUsageSuggestionServiceTest.class,
     NameUsageWrapperConverterTest.class,
+    PayloadCodecTest.class,
     PrefixQueryTest.class,
     QSearchTests.class,
     QueryTest.class,
     RangeQueryTest.class,
+    SearchTermAnalyzerTest.class,
     SortingTest.class,
     TermQueryTest.class
 })
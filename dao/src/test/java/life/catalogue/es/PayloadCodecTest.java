@@ -0,0 +1,55 @@
+package life.catalogue.es;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import life.catalogue.api.TestEntityGenerator;
+import life.catalogue.api.search.NameUsageWrapper;
+import life.catalogue.es.nu.NameUsageWrapperConverter;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PayloadCodecTest {
+
+  @Test
+  public void roundtrip() throws IOException {
+    Deflater deflater = new Deflater();
+    for (PayloadCodec codec : PayloadCodec.values()) {
+      for (NameUsageWrapper nuw : wrappers()) {
+        byte[] bytes = encode(codec, nuw, deflater);
+        assertEquals(codec.name(), nuw, PayloadCodec.decode(bytes));
+        assertEquals(codec.name(), nuw, NameUsageWrapperConverter.inflate(Base64.getEncoder().encodeToString(bytes)));
+      }
+    }
+  }
+
+  /**
+   * Payloads of documents indexed before codecs existed must still be readable.
+   */
+  @Test
+  public void legacyPayload() throws IOException {
+    for (NameUsageWrapper nuw : wrappers()) {
+      String payload = NameUsageWrapperConverter.deflate(nuw);
+      assertEquals(nuw, NameUsageWrapperConverter.inflate(payload));
+      assertEquals(payload, Base64.getEncoder().encodeToString(encode(PayloadCodec.JSON_DEFLATE, nuw, new Deflater())));
+    }
+  }
+
+  private static byte[] encode(PayloadCodec codec, NameUsageWrapper nuw, Deflater deflater) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    codec.encode(nuw, out, deflater, NameUsageWrapperConverter.ZIP_PAYLOAD);
+    return out.toByteArray();
+  }
+
+  private static List<NameUsageWrapper> wrappers() {
+    return List.of(
+        TestEntityGenerator.newNameUsageTaxonWrapper(),
+        TestEntityGenerator.newNameUsageSynonymWrapper(),
+        TestEntityGenerator.newNameUsageBareNameWrapper()
+    );
+  }
+}
@@ -0,0 +1,73 @@
+package life.catalogue.es;
+
+import java.io.IOException;
+import life.catalogue.es.ddl.Analyzer;
+import org.elasticsearch.client.RestClient;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+public class SearchTermAnalyzerTest extends EsReadTestBase {
+
+  private static final String[] PHRASES = {
+      "Rosy bee-eater",
+      "Ro,sy bee,eater",
+      "Acer nigrÜm × Açer saccharùm",
+      "Abies alba Mill.",
+      "H(eterodon) platyrhinos (Latreille, 1801)",
+      "Puma concolor ( Linnaeus , 1771 )",
+      "  O'Brien\t d'Orbigny\n",
+      "Ænigma ßpecies Øresund",
+      "Ĳsselmeer ŉ ǅ İstanbul",
+      "Ĉarcharodon ĉarcharias Šternberg",
+      "αβγ Ω",
+      " Abies alba",
+      "-.()'",
+      "x"
+  };
+
+  private static RestClient client;
+
+  @BeforeClass
+  public static void init() {
+    client = esSetupRule.getClient();
+  }
+
+  @Before
+  public void before() {
+    destroyAndCreateIndex();
+  }
+
+  /**
+   * Local analysis must always yield the same tokens as Elasticsearch.
+   */
+  @Test
+  public void sameAsServer() throws IOException {
+    SearchTermAnalyzer analyzer = new SearchTermAnalyzer(client);
+    for (Analyzer a : new Analyzer[] {Analyzer.SCINAME_WHOLE_WORDS, Analyzer.SCINAME_AUTO_COMPLETE, Analyzer.AUTO_COMPLETE}) {
+      for (String q : PHRASES) {
+        String[] expected = EsUtil.getSearchTerms(client, indexName(), a, q);
+        assertArrayEquals(a + ": " + q, expected, analyzer.getSearchTerms(indexName(), a, q));
+        // 2nd time from cache
+        assertArrayEquals(a + ": " + q, expected, analyzer.getSearchTerms(indexName(), a, q));
+      }
+    }
+  }
+
+  @Test
+  public void analyzeScientificName() {
+    assertArrayEquals(new String[] {"rosy", "beeeater"}, SearchTermAnalyzer.analyzeScientificName("Rosy bee-eater"));
+    assertArrayEquals(new String[] {"ro", "sy", "bee", "eater"}, SearchTermAnalyzer.analyzeScientificName("Ro,sy bee,eater"));
+    assertArrayEquals(new String[] {"acer", "nigrum", "acer", "saccharum"},
+        SearchTermAnalyzer.analyzeScientificName("Acer nigrÜm × Açer saccharùm"));
+    assertArrayEquals(new String[] {"heterodon", "platyrhinos", "latreille", "1801"},
+        SearchTermAnalyzer.analyzeScientificName("H(eterodon) platyrhinos (Latreille, 1801)"));
+    // left to elasticsearch
+    assertNull(SearchTermAnalyzer.analyzeScientificName("Ænigma"));
+    assertNull(SearchTermAnalyzer.analyzeScientificName("αβγ"));
+  }
+
+}
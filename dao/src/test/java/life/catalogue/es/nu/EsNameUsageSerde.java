@@ -1,16 +1,22 @@
 package life.catalogue.es.nu;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.zip.Deflater;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import life.catalogue.api.TestEntityGenerator;
 import life.catalogue.api.search.NameUsageWrapper;
 import life.catalogue.api.vocab.NameField;
 import life.catalogue.api.vocab.TaxonomicStatus;
+import life.catalogue.es.EsBulkDocument;
 import life.catalogue.es.EsModule;
 import life.catalogue.es.EsNameUsage;
 import life.catalogue.es.EsReadTestBase;
+import life.catalogue.es.PayloadCodec;
 import org.gbif.nameparser.api.NameType;
 import org.gbif.nameparser.api.Rank;
 import org.junit.Test;
@@ -131,4 +137,32 @@ public class EsNameUsageSerde extends EsReadTestBase {
     assertEquals(TestEntityGenerator.newNameUsageTaxonWrapper(), nuw);
   }
 
+  @Test
+  public void testBulkDocument() throws IOException {
+    NameUsageWrapperConverter converter = new NameUsageWrapperConverter();
+    EsNameUsage expected = converter.toDocument(TestEntityGenerator.newNameUsageTaxonWrapper());
+
+    NameUsageWrapper nuw = TestEntityGenerator.newNameUsageSynonymWrapper();
+    EsNameUsage doc = converter.toDocumentWithoutPayload(nuw);
+    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    NameUsageWrapperConverter.writePayload(nuw, PayloadCodec.JSON_DEFLATE, payload, new Deflater());
+    EsBulkDocument bulkDoc = new EsBulkDocument();
+    bulkDoc.set(doc, payload.toByteArray(), payload.size(), PayloadCodec.JSON_DEFLATE.isBinary(NameUsageWrapperConverter.ZIP_PAYLOAD));
+
+    // write 2 documents to make sure they are separated properly
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (JsonGenerator gen = EsModule.createGenerator(out)) {
+      EsModule.write(gen, expected);
+      gen.writeRaw('\n');
+      EsModule.write(gen, bulkDoc);
+      gen.writeRaw('\n');
+    }
+    String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+    assertEquals(2, lines.length);
+    assertEquals(expected, EsModule.readDocument(lines[0]));
+
+    EsNameUsage docOut = EsModule.readDocument(lines[1]);
+    assertEquals(converter.toDocument(TestEntityGenerator.newNameUsageSynonymWrapper()), docOut);
+  }
+
 }
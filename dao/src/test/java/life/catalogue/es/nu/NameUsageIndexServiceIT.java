@@ -56,6 +56,24 @@ public class NameUsageIndexServiceIT extends EsReadWriteTestBase {
     assertEquals(pgTaxa, esTaxa);
   }
 
+  @Test
+  public void indexDatasetParallel() throws IOException {
+    createPgTaxa(7);
+    EsConfig cfg = esSetupRule.getEsConfig();
+    final int threads = cfg.datasetIndexingThreads;
+    try {
+      cfg.datasetIndexingThreads = 1;
+      NameUsageIndexService.Stats single = createIndexService().indexDataset(EsSetupRule.DATASET_KEY);
+      cfg.datasetIndexingThreads = 4;
+      NameUsageIndexService.Stats parallel = createIndexService().indexDataset(EsSetupRule.DATASET_KEY);
+      assertEquals(7, single.usages);
+      assertEquals(single.usages, parallel.usages);
+      assertEquals(single.names, parallel.names);
+    } finally {
+      cfg.datasetIndexingThreads = threads;
+    }
+  }
+
   @Test
   public void indexAll() throws IOException {
     NameUsageIndexService.Stats stats = createIndexService().indexAll();
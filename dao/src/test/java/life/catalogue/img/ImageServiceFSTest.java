@@ -0,0 +1,70 @@
+package life.catalogue.img;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+
+import com.google.common.io.Files;
+import life.catalogue.api.exception.NotFoundException;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ImageServiceFSTest {
+  File repo;
+  ImageServiceFS service;
+  
+  @Before
+  public void init() {
+    repo = Files.createTempDir();
+    ImgConfig cfg = new ImgConfig();
+    cfg.repo = repo.toPath();
+    service = new ImageServiceFS(cfg);
+  }
+  
+  @After
+  public void cleanup() throws IOException {
+    FileUtils.deleteDirectory(repo);
+  }
+  
+  @Test
+  public void datasetLogo() throws Exception {
+    service.putDatasetLogo(1, image(Color.RED));
+    StoredImage img = service.datasetLogo(1, ImgConfig.Scale.SMALL);
+    assertTrue(img.getBytes().length > 0);
+    assertNotNull(ImageServiceFS.read(new ByteArrayInputStream(img.getBytes())));
+    // cached
+    assertSame(img, service.datasetLogo(1, ImgConfig.Scale.SMALL));
+    
+    StoredImage orig = service.datasetLogo(1, ImgConfig.Scale.ORIGINAL);
+    assertNotEquals(img.getEtag(), orig.getEtag());
+    
+    // a new logo must not be served from the cache
+    service.putDatasetLogo(1, image(Color.BLUE));
+    StoredImage img2 = service.datasetLogo(1, ImgConfig.Scale.SMALL);
+    assertNotEquals(img.getEtag(), img2.getEtag());
+    assertEquals(img2.getEtag(), service.datasetLogo(1, ImgConfig.Scale.SMALL).getEtag());
+    
+    service.putDatasetLogo(1, null);
+    try {
+      service.datasetLogo(1, ImgConfig.Scale.SMALL);
+      fail("Logo should be deleted");
+    } catch (NotFoundException e) {
+      // expected
+    }
+  }
+  
+  private static BufferedImage image(Color color) {
+    BufferedImage img = new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = img.createGraphics();
+    g.setColor(color);
+    g.fillRect(0, 0, 400, 200);
+    g.dispose();
+    return img;
+  }
+}
@@ -191,7 +191,7 @@ public class WsServer extends Application<WsServerConfig> {
     final ImageService imgService = new ImageServiceFS(cfg.img);
 
     // name index
-    ni = NameIndexFactory.persistentOrMemory(cfg.namesIndexFile, getSqlSessionFactory(), AuthorshipNormalizer.INSTANCE);
+    ni = NameIndexFactory.persistentOrMemory(cfg.namesIndexFile, cfg.namesIndexMMap, cfg.namesIndexFuzzy, getSqlSessionFactory(), AuthorshipNormalizer.INSTANCE);
     env.lifecycle().manage(new ManagedCloseable(ni));
     env.healthChecks().register("names-index", new NamesIndexHealthCheck(ni));
 
@@ -199,6 +199,7 @@ public class WsServer extends Application<WsServerConfig> {
 
     // exporter
     AcExporter exporter = new AcExporter(cfg, getSqlSessionFactory());
+    env.lifecycle().manage(exporter);
 
     // release
     final ReleaseManager releaseManager = new ReleaseManager(exporter, diDao, indexService, getSqlSessionFactory());
@@ -231,7 +232,6 @@ public class WsServer extends Application<WsServerConfig> {
 
     // diff
     DiffService diff = new DiffService(getSqlSessionFactory(), diDao.getTreeDao());
-    env.healthChecks().register("diff", new DiffHealthCheck(diff));
 
     // daos
     DatasetDao ddao = new DatasetDao(getSqlSessionFactory(), new DownloadUtil(httpClient), imgService, diDao, indexService, cfg.normalizer::scratchFile, bus);
@@ -18,6 +18,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import java.io.File;
 import java.util.Properties;
@@ -85,6 +86,18 @@ public class WsServerConfig extends Configuration implements CorsBundleConfigura
    */
   public File namesIndexFile;
   
+  /**
+   * If true use the compact memory mapped names index store instead of mapdb.
+   * The namesIndexFile is then used as a directory to keep the store files in.
+   */
+  public boolean namesIndexMMap = false;
+  
+  /**
+   * If true names not found in the names index are matched against similarly spelled names,
+   * keeping an in memory index of all words used in names.
+   */
+  public boolean namesIndexFuzzy = false;
+  
   /**
    * Directory to store text tree, name index lists and other metrics for each dataset and sector import attempt
    * on disc.
@@ -97,6 +110,12 @@ public class WsServerConfig extends Configuration implements CorsBundleConfigura
    */
   @NotNull
   public File downloadDir = new File("/tmp");
+
+  /**
+   * Number of parallel database connections used to copy and compress tables of a single export
+   */
+  @Min(1)
+  public int exportThreads = 4;
   
   @Override
   @JsonIgnore
@@ -58,6 +58,12 @@ public class SectorDelete extends SectorRunnable {
       // now also remove the names
       final DSID<String> key = DSID.of(catalogueKey, "");
       ids.forEach(nid -> nm.delete(key.id(nid)));
+      // recount accepted children of the remaining sector taxa and the target
+      TaxonMapper tm = session.getMapper(TaxonMapper.class);
+      tm.updateChildCounts(catalogueKey, sectorKey);
+      if (s.getTarget() != null && s.getTarget().getId() != null) {
+        tm.updateChildCount(s.getTargetAsDSID());
+      }
       session.commit();
       // TODO: remove refs and name rels
       LOG.info("Deleted {} taxa and synonyms below genus level from sector {} of dataset {}", delTaxa, sectorKey, catalogueKey);
@@ -99,6 +99,7 @@ public class SectorSync extends SectorRunnable {
       rematchForeignChildren();
       relinkAttachedSectors();
       rematchEstimates();
+      updateChildCounts();
       state.setState( SectorImport.State.INDEXING);
       indexService.indexSector(sector);
     }
@@ -106,6 +107,19 @@ public class SectorSync extends SectorRunnable {
     state.setState( SectorImport.State.FINISHED);
   }
 
+  /**
+   * Recounts the stored accepted children of all sector taxa and the sector target
+   */
+  private void updateChildCounts() {
+    try (SqlSession session = factory.openSession(true)) {
+      TaxonMapper tm = session.getMapper(TaxonMapper.class);
+      tm.updateChildCounts(catalogueKey, sector.getId());
+      if (sector.getTarget() != null && sector.getTarget().getId() != null) {
+        tm.updateChildCount(sector.getTargetAsDSID());
+      }
+    }
+  }
+
   /**
    * Rematch all broken estimates that fall into this sector
    */
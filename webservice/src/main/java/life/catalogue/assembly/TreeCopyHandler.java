@@ -7,13 +7,9 @@ import life.catalogue.api.model.*;
 import life.catalogue.api.vocab.EntityType;
 import life.catalogue.api.vocab.Origin;
 import life.catalogue.api.vocab.TaxonomicStatus;
-import life.catalogue.dao.CatCopy;
+import life.catalogue.dao.CatCopyBatch;
 import life.catalogue.dao.DatasetEntityDao;
-import life.catalogue.dao.ReferenceDao;
-import life.catalogue.db.mapper.NameMapper;
-import life.catalogue.db.mapper.ReferenceMapper;
 import life.catalogue.db.mapper.TaxonMapper;
-import life.catalogue.db.mapper.VerbatimRecordMapper;
 import life.catalogue.parser.NameParser;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.SqlSession;
@@ -35,6 +31,8 @@ public class TreeCopyHandler implements Consumer<NameUsageBase>, AutoCloseable {
       EntityType.DISTRIBUTION,
       EntityType.REFERENCE
   );
+  // number of usages copied in one batch
+  private static final int BATCH_SIZE = 1000;
   private static List<Rank> IMPLICITS = ImmutableList.of(Rank.GENUS,Rank.SUBGENUS, Rank.SPECIES);
 
   private final Set<EntityType> entities;
@@ -46,19 +44,14 @@ public class TreeCopyHandler implements Consumer<NameUsageBase>, AutoCloseable {
   private final Sector sector;
   private final SectorImport state;
   private final Map<String, EditorialDecision> decisions;
-  private final SqlSession session;
   private final SqlSession batchSession;
-  private final ReferenceMapper rm;
-  private final TaxonMapper tm;
-  private final NameMapper nm;
-  private final VerbatimRecordMapper vm;
+  private final CatCopyBatch copy;
   private int sCounter = 0;
   private int tCounter = 0;
   private int ignoredCounter = 0;
   private final Usage target;
   private final Map<RanKnName, Usage> implicits = new HashMap<>();
   private final Map<String, Usage> ids = new HashMap<>();
-  private final Map<String, String> refIds = new HashMap<>();
   
   TreeCopyHandler(Map<String, EditorialDecision> decisions, SqlSessionFactory factory, User user, Sector sector, SectorImport state) {
     this.catalogueKey = sector.getDatasetKey();
@@ -68,7 +61,6 @@ public class TreeCopyHandler implements Consumer<NameUsageBase>, AutoCloseable {
     this.decisions = decisions;
     // we open up a separate batch session that we can write to so we do not disturb the open main cursor for processing with this handler
     batchSession = factory.openSession(ExecutorType.BATCH, false);
-    session = factory.openSession(true);
     this.entities = sector.getEntities() == null ? TreeCopyHandler.ALL_DATA : Set.copyOf(sector.getEntities());
     LOG.info("Copy taxon extensions: {}", Joiner.on(", ").join(entities));
     if (sector.getRanks() == null || sector.getRanks().isEmpty()) {
@@ -84,12 +76,9 @@ public class TreeCopyHandler implements Consumer<NameUsageBase>, AutoCloseable {
     }
     LOG.info("Create implicit taxa for ranks {}", Joiner.on(", ").join(implicitRanks));
 
-    rm = batchSession.getMapper(ReferenceMapper.class);
-    tm = batchSession.getMapper(TaxonMapper.class);
-    nm = batchSession.getMapper(NameMapper.class);
-    vm = batchSession.getMapper(VerbatimRecordMapper.class);
+    copy = new CatCopyBatch(batchSession, sector.getSubjectDatasetKey(), catalogueKey, sector.getId(), user.getKey(), true, entities, BATCH_SIZE);
     // load target taxon
-    Taxon t = tm.get(sector.getTargetAsDSID());
+    Taxon t = batchSession.getMapper(TaxonMapper.class).get(sector.getTargetAsDSID());
     target = new Usage(t.getId(), t.getName().getRank(), t.getStatus());
   }
 
@@ -181,7 +170,6 @@ public class TreeCopyHandler implements Consumer<NameUsageBase>, AutoCloseable {
         n.setOrigin(Origin.IMPLICIT_NAME);
         n.applyUser(user);
         LOG.debug("Create implicit {} from {}: {}", r, origName.getScientificName(), n);
-        nm.create(n);
   
         Taxon t = new Taxon();
         DatasetEntityDao.newKey(t);
@@ -192,7 +180,7 @@ public class TreeCopyHandler implements Consumer<NameUsageBase>, AutoCloseable {
         t.setOrigin(Origin.IMPLICIT_NAME);
         t.setStatus(TaxonomicStatus.ACCEPTED);
         t.applyUser(user);
-        tm.create(t);
+        copy.create(t);
   
         parent = usage(t);
         //reuse implicit names...
@@ -230,10 +218,8 @@ public class TreeCopyHandler implements Consumer<NameUsageBase>, AutoCloseable {
       parent = createImplicit(parent, (Taxon) u);
     }
 
-    // copy usage with all associated information. This assigns a new id !!!
-    DSID<String> orig;
-    DSID<String> parentDID = new DSIDValue<>(catalogueKey, parent.id);
-    orig = CatCopy.copyUsage(batchSession, session, u, parentDID, user.getKey(), true, entities, this::lookupReference, this::lookupReference);
+    // copy usage with all associated information in batches. This assigns a new id !!!
+    DSID<String> orig = copy.copyUsage(u, parent.id);
     // remember old to new id mapping
     ids.put(orig.getId(), usage(u));
     // counter
@@ -242,12 +228,6 @@ public class TreeCopyHandler implements Consumer<NameUsageBase>, AutoCloseable {
     } else {
       state.setSynonymCount(++sCounter);
     }
-    
-    // commit in batches
-    if ((sCounter + tCounter) % 1000 == 0) {
-      session.commit();
-      batchSession.commit();
-    }
   }
   
   private boolean skipUsage(NameUsageBase u) {
@@ -368,58 +348,9 @@ public class TreeCopyHandler implements Consumer<NameUsageBase>, AutoCloseable {
     }
   }
   
-  private String lookupReference(String refID) {
-    if (refID != null) {
-      if (refIds.containsKey(refID)) {
-        // we have seen this ref before
-        return refIds.get(refID);
-      }
-      // not seen before, load full reference
-      Reference r = rm.get(new DSIDValue<>(sector.getSubjectDatasetKey(), refID));
-      if (r != null) {
-        return lookupReference(r);
-      } else {
-        LOG.warn("Reference {} is missing in source dataset {}", refID, sector.getSubjectDatasetKey());
-        refIds.put(refID, null);
-      }
-    }
-    return null;
-  }
-  
-  private String lookupReference(Reference ref) {
-    if (ref != null) {
-      if (refIds.containsKey(ref.getId())) {
-        // we have seen this ref before
-        return refIds.get(ref.getId());
-      }
-      // sth new?
-      List<Reference> matches = rm.find(catalogueKey, sector.getId(), ref.getCitation());
-      if (matches.isEmpty()) {
-        // insert new ref
-        ref.setDatasetKey(catalogueKey);
-        ref.setSectorKey(sector.getId());
-        ref.applyUser(user);
-        DSID<String> origID = ReferenceDao.copyReference(batchSession, ref, catalogueKey, user.getKey());
-        refIds.put(origID.getId(), ref.getId());
-        return ref.getId();
-        
-      } else {
-        if (matches.size() > 1) {
-          LOG.warn("{} duplicate references in catalogue {} with citation {}", matches.size(), catalogueKey, ref.getCitation());
-        }
-        String refID = matches.get(0).getId();
-        refIds.put(ref.getId(), refID);
-        return refID;
-      }
-    }
-    return null;
-  }
-  
   @Override
   public void close() {
-    session.commit();
-    session.close();
-    batchSession.commit();
+    copy.flush();
     batchSession.close();
   }
 }
@@ -90,7 +90,9 @@ public class InitDbCmd extends AbstractPromptCmd {
     // cleanup names index
     if (cfg.namesIndexFile != null && cfg.namesIndexFile.exists()) {
       LOG.info("Clear names index at {}", cfg.namesIndexFile.getAbsolutePath());
-      if (!cfg.namesIndexFile.delete()) {
+      if (cfg.namesIndexFile.isDirectory()) {
+        FileUtils.deleteDirectory(cfg.namesIndexFile);
+      } else if (!cfg.namesIndexFile.delete()) {
         LOG.error("Unable to delete names index at {}", cfg.namesIndexFile.getAbsolutePath());
         throw new IllegalStateException("Unable to delete names index at " + cfg.namesIndexFile.getAbsolutePath());
       }
@@ -197,7 +199,7 @@ public class InitDbCmd extends AbstractPromptCmd {
   
     LOG.info("Match draft CoL to names index");
     // we create a new names index de novo to write new hierarchy names into the names index dataset
-    try (NameIndex ni = NameIndexFactory.persistentOrMemory(cfg.namesIndexFile, factory, AuthorshipNormalizer.INSTANCE)) {
+    try (NameIndex ni = NameIndexFactory.persistentOrMemory(cfg.namesIndexFile, cfg.namesIndexMMap, factory, AuthorshipNormalizer.INSTANCE)) {
       DatasetMatcher matcher = new DatasetMatcher(factory, ni, false);
       matcher.match(Datasets.DRAFT_COL, true);
     }
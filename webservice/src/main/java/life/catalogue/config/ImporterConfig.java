@@ -12,6 +12,18 @@ public class ImporterConfig {
   @Min(1)
   public int batchSize = 10000;
   
+  /**
+   * If true, the postgres import streams verbatim records, references, names, name relations, type material and usages
+   * with the COPY command instead of using batched inserts.
+   */
+  public boolean copy = false;
+  
+  /**
+   * If true, the postgres import disables the full text triggers for verbatim records and references
+   * and computes all their documents with a single update per table once all data is inserted.
+   */
+  public boolean deferFullText = true;
+
   /**
    * Number of parallel imports to allow simultanously
    */
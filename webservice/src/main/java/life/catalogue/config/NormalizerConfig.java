@@ -49,6 +49,20 @@ public class NormalizerConfig {
   
   @Min(0)
   public int mappedMemory = 128;
+
+  /**
+   * Number of threads used to interpret verbatim records, incl name parsing, when inserting into the neodb.
+   * Reading the source files and writing to the neodb stays single threaded and in order.
+   * A value of 1 interprets all records sequentially.
+   */
+  @Min(1)
+  public int interpreterThreads = 1;
+  
+  /**
+   * If true zip archives are read in place without extracting all files to the source dir first.
+   * Other compression formats are always decompressed.
+   */
+  public boolean lazyArchives = true;
   
   /**
    * The dataset source files as a single archive in original format (zip, gzip, etc).
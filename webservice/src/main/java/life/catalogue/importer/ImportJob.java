@@ -33,7 +33,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileSystem;
 import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -63,6 +65,10 @@ public class ImportJob implements Runnable {
   private final NameUsageIndexService indexService;
   private final ImageService imgService;
   private final DistributedArchiveService distributedArchiveService;
+  // the folder with all source files, possibly inside a zip archive
+  private Path sourceDir;
+  // opened zip archive, if read lazily
+  private FileSystem archive;
   
   private final StartNotifier notifier;
   private final Consumer<ImportRequest> successCallback;
@@ -156,7 +162,7 @@ public class ImportJob implements Runnable {
    * This includes downloading, proxy downloads, modified checks and checks for uploads detecting the actual format
    * @return true if sourceDir should be imported
    */
-  private boolean prepareSourceData(Path sourceDir) throws IOException, IllegalArgumentException {
+  private boolean prepareSourceData() throws IOException, IllegalArgumentException {
     last = dao.getLast(dataset.getKey());
 
     File source = cfg.normalizer.source(datasetKey);
@@ -179,7 +185,11 @@ public class ImportJob implements Runnable {
       } else {
         // download archive directly
         LOG.info("Downloading source for dataset {} from {} to {}", datasetKey, dataset.getDataAccess(), source);
-        downloader.downloadIfModified(di.getDownloadUri(), source);
+        MessageDigest md5 = ChecksumUtils.md5Digest();
+        if (downloader.downloadIfModified(di.getDownloadUri(), source, md5)) {
+          // digest calculated while downloading, no need to read the file again
+          di.setMd5(ChecksumUtils.toHexBinary(md5.digest()));
+        }
       }
 
     } else {
@@ -197,8 +207,7 @@ public class ImportJob implements Runnable {
       if (!isModified) {
         LOG.info("Force reimport of unchanged archive {}", datasetKey);
       }
-      LOG.info("Extracting files from archive {}", datasetKey);
-      CompressionUtil.decompressFile(sourceDir.toFile(), source);
+      sourceDir = openSource(source);
 
       // detect data format if not set from proxy yet
       if (dataset.getDataFormat() == null) {
@@ -210,16 +219,33 @@ public class ImportJob implements Runnable {
     return false;
   }
 
+  /**
+   * Opens zip archives in place if configured so files are only read when needed,
+   * otherwise decompresses the source into the scratch source dir.
+   *
+   * @return the folder with all source files
+   */
+  private Path openSource(File source) throws IOException {
+    if (cfg.normalizer.lazyArchives && CompressionUtil.isZip(source)) {
+      LOG.info("Reading files from zip archive {}", datasetKey);
+      archive = CompressionUtil.openZip(source);
+      return CompressionUtil.zipRoot(archive);
+    }
+    LOG.info("Extracting files from archive {}", datasetKey);
+    File dir = cfg.normalizer.sourceDir(datasetKey);
+    CompressionUtil.decompressFile(dir, source);
+    return dir.toPath();
+  }
+
   private void importDataset() throws Exception {
     di = dao.createWaiting(dataset.getDataset(), this, req.createdBy);
     LoggingUtils.setDatasetMDC(datasetKey, getAttempt(), getClass());
     LOG.info("Start new import attempt {} for {} dataset {}: {}", di.getAttempt(), dataset.getOrigin(), datasetKey, dataset.getTitle());
 
-    final Path sourceDir = cfg.normalizer.sourceDir(datasetKey).toPath();
     NeoDb store = null;
 
     try {
-      final boolean doImport = prepareSourceData(sourceDir);
+      final boolean doImport = prepareSourceData();
       checkIfCancelled();
       if (doImport) {
         LOG.info("Normalizing {}", datasetKey);
@@ -291,6 +317,13 @@ public class ImportJob implements Runnable {
       if (store != null) {
         store.close();
       }
+      if (archive != null) {
+        try {
+          archive.close();
+        } catch (IOException e) {
+          LOG.error("Failed to close source archive of dataset {}", datasetKey, e);
+        }
+      }
       // remove source scratch folder with neo4j and decompressed dwca folders
       final File scratchDir = cfg.normalizer.scratchDir(datasetKey);
       LOG.debug("Remove scratch dir {}", scratchDir.getAbsolutePath());
@@ -313,7 +346,9 @@ public class ImportJob implements Runnable {
    * @return true if the source file has a different MD5 hash as the last imported file
    */
   private boolean lastMD5IsDifferent(File source) throws IOException {
-    di.setMd5(ChecksumUtils.getMD5Checksum(source));
+    if (di.getMd5() == null) {
+      di.setMd5(ChecksumUtils.getMD5Checksum(source));
+    }
     if (last != null) {
       LOG.debug("Compare with last MD5 {}", last.getMd5());
       return !di.getMd5().equals(last.getMd5());
@@ -7,6 +7,7 @@ import life.catalogue.api.model.VerbatimRecord;
 import life.catalogue.api.vocab.Issue;
 import life.catalogue.api.vocab.Setting;
 import life.catalogue.common.collection.DefaultMap;
+import life.catalogue.common.concurrent.NamedThreadFactory;
 import life.catalogue.common.lang.InterruptedRuntimeException;
 import life.catalogue.csv.CsvReader;
 import life.catalogue.csv.Schema;
@@ -24,8 +25,10 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -36,6 +39,8 @@ import static life.catalogue.common.lang.Exceptions.interruptIfCancelled;
  */
 public abstract class NeoCsvInserter implements NeoInserter {
   private static final Logger LOG = LoggerFactory.getLogger(NeoCsvInserter.class);
+  // max number of records being interpreted or waiting to be written
+  private static final int PIPELINE_CAPACITY = 1000;
 
   protected final DatasetSettings settings;
   protected final NeoDb store;
@@ -43,6 +48,7 @@ public abstract class NeoCsvInserter implements NeoInserter {
   protected final CsvReader reader;
   protected final ReferenceFactory refFactory;
   private int vcounter;
+  private ExecutorService exec;
   private Map<Term, AtomicInteger> badTaxonFks = DefaultMap.createCounter();
   
   
@@ -78,6 +84,10 @@ public abstract class NeoCsvInserter implements NeoInserter {
   public final void insertAll() throws NormalizationFailedException {
     store.startBatchMode();
     interruptIfCancelled("Normalizer interrupted, exit early");
+    if (store.interpreterThreads > 1) {
+      exec = Executors.newFixedThreadPool(store.interpreterThreads, new NamedThreadFactory("neo-interpreter"));
+      LOG.info("Interpret verbatim records with {} threads", store.interpreterThreads);
+    }
     try {
       batchInsert();
       LOG.info("Batch insert completed, {} verbatim records processed, {} nodes created", vcounter, store.size());
@@ -85,6 +95,11 @@ public abstract class NeoCsvInserter implements NeoInserter {
       throw e;
     } catch (RuntimeException e) {
       throw new NormalizationFailedException("Failed to batch insert csv data", e);
+    } finally {
+      if (exec != null) {
+        exec.shutdownNow();
+        exec = null;
+      }
     }
 
     interruptIfCancelled("Normalizer interrupted, exit early");
@@ -104,41 +119,151 @@ public abstract class NeoCsvInserter implements NeoInserter {
     LOG.info("Insert of {} verbatim records and {} nodes completed", vcounter, store.size());
   }
   
-  private void processVerbatim(final CsvReader reader, final Term classTerm, Function<VerbatimRecord, Boolean> proc) {
+  /**
+   * Reads all records of the given class, interprets them and writes the results to the store.
+   * If configured with more than one interpreter thread this is done in a pipeline with a single thread reading the source file,
+   * a pool of threads interpreting records in parallel and the calling thread writing the results to the store
+   * in the original order of the records.
+   *
+   * Verbatim records are only persisted once after they have been written,
+   * any issues flagged before are merged in memory.
+   *
+   * @param interpret thread safe function that interprets a single record without writing to the store
+   * @param write function writing the interpretation result to the store, returning true if the record was successfully processed
+   */
+  private <R> void processVerbatim(final CsvReader reader, final Term classTerm,
+                                   final Function<VerbatimRecord, R> interpret,
+                                   final BiFunction<VerbatimRecord, R, Boolean> write
+  ) {
     interruptIfCancelled("NeoInserter interrupted, exit early with incomplete import");
     final AtomicInteger counter = new AtomicInteger(0);
     final AtomicInteger success = new AtomicInteger(0);
-    reader.stream(classTerm).forEach(rec -> {
-      store.put(rec);
-      if (proc.apply(rec)) {
+    final BiConsumer<VerbatimRecord, R> writer = (rec, result) -> {
+      if (write.apply(rec, result)) {
         success.incrementAndGet();
       } else {
         rec.addIssue(Issue.NOT_INTERPRETED);
       }
-      // processing might already have flagged issues, load and merge them
-      VerbatimRecord old = store.getVerbatim(rec.getId());
-      rec.addIssues(old.getIssues());
-      store.put(rec);
+      store.commitVerbatim(rec);
       counter.incrementAndGet();
-    });
+    };
+
+    if (exec != null && isThreadSafe(classTerm)) {
+      pipeline(reader, classTerm, interpret, writer);
+    } else {
+      reader.stream(classTerm).forEach(rec -> {
+        interruptIfCancelled("NeoInserter interrupted, exit early");
+        store.beginVerbatim(rec);
+        writer.accept(rec, interpret.apply(rec));
+      });
+    }
     LOG.info("Inserted {} verbatim, {} successfully processed {}", counter.get(), success.get(), classTerm.prefixedName());
     vcounter += counter.get();
   }
-  
+
+  private <R> void pipeline(final CsvReader reader, final Term classTerm,
+                            final Function<VerbatimRecord, R> interpret,
+                            final BiConsumer<VerbatimRecord, R> writer
+  ) {
+    final BlockingQueue<Job<R>> queue = new ArrayBlockingQueue<>(PIPELINE_CAPACITY);
+    Thread readerThread = new Thread(() -> {
+      Job<R> last;
+      try {
+        reader.stream(classTerm).forEach(rec -> {
+          store.beginVerbatim(rec);
+          Future<R> result = exec.submit(() -> interpret.apply(rec));
+          enqueue(queue, new Job<>(rec, result, null));
+        });
+        last = new Job<>(null, null, null);
+
+      } catch (InterruptedRuntimeException e) {
+        // the writer gave up
+        return;
+      } catch (RuntimeException e) {
+        last = new Job<>(null, null, e);
+      }
+      try {
+        queue.put(last);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }, "neo-reader-" + classTerm.simpleName());
+    readerThread.setDaemon(true);
+    readerThread.start();
+
+    try {
+      while (true) {
+        interruptIfCancelled("NeoInserter interrupted, exit early");
+        Job<R> job = queue.take();
+        if (job.error != null) {
+          throw job.error;
+        }
+        if (job.rec == null) {
+          break;
+        }
+        writer.accept(job.rec, job.result.get());
+      }
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedRuntimeException("NeoInserter interrupted, exit early");
+
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException("Failed to interpret " + classTerm.prefixedName() + " record", e.getCause());
+
+    } finally {
+      // stops the reader in case we exit early, a noop otherwise
+      readerThread.interrupt();
+    }
+  }
+
+  private static <R> void enqueue(BlockingQueue<Job<R>> queue, Job<R> job) {
+    try {
+      queue.put(job);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedRuntimeException("Verbatim reader interrupted");
+    }
+  }
+
+  /**
+   * A verbatim record with its future interpretation result.
+   * A job without a record marks the end of the source, optionally with an error from reading it.
+   */
+  private static class Job<R> {
+    final VerbatimRecord rec;
+    final Future<R> result;
+    final RuntimeException error;
+
+    Job(VerbatimRecord rec, Future<R> result, RuntimeException error) {
+      this.rec = rec;
+      this.result = result;
+      this.error = error;
+    }
+  }
+
+  /**
+   * Override to prevent records of the given class from being interpreted in parallel,
+   * e.g. when interpretation reads data written by previous records of the same file.
+   *
+   * @return true if the interpretation of records of the given class does not write to the store
+   */
+  protected boolean isThreadSafe(Term classTerm) {
+    return true;
+  }
+
   protected <T extends VerbatimEntity> void insertEntities(final CsvReader reader, final Term classTerm,
                                                            Function<VerbatimRecord, Optional<T>> interpret,
                                                            Function<T, Boolean> add
   ) {
     processVerbatim(reader, classTerm, rec -> {
-      interruptIfCancelled("NeoInserter interrupted, exit early");
       Optional<T> opt = interpret.apply(rec);
-      if (opt.isPresent()) {
-        T obj = opt.get();
-        obj.setVerbatimKey(rec.getId());
-        return add.apply(obj);
-      }
-      return false;
-    });
+      opt.ifPresent(obj -> obj.setVerbatimKey(rec.getId()));
+      return opt;
+    }, (rec, opt) -> opt.isPresent() && add.apply(opt.get()));
   }
   
   protected <T extends VerbatimEntity> void insertTaxonEntities(final CsvReader reader, final Term classTerm,
@@ -146,9 +271,7 @@ public abstract class NeoCsvInserter implements NeoInserter {
                                                                 final Term taxonIdTerm,
                                                                 final BiConsumer<NeoUsage, T> add
   ) {
-    processVerbatim(reader, classTerm, rec -> {
-      interruptIfCancelled("NeoInserter interrupted, exit early");
-      List<T> results = interpret.apply(rec);
+    processVerbatim(reader, classTerm, interpret, (rec, results) -> {
       if (reader.isEmpty()) return false;
       boolean interpreted = true;
       for (T obj : results) {
@@ -182,8 +305,7 @@ public abstract class NeoCsvInserter implements NeoInserter {
                                      Function<VerbatimRecord, Optional<NeoNameRel>> interpret,
                                      Term nameIdTerm, Term relatedNameIdTerm
   ) {
-    processVerbatim(reader, classTerm, rec -> {
-      Optional<NeoNameRel> opt = interpret.apply(rec);
+    processVerbatim(reader, classTerm, interpret, (rec, opt) -> {
       if (opt.isPresent()) {
         Node n1 = store.names().nodeByID(rec.getRaw(nameIdTerm));
         Node n2 = store.names().nodeByID(rec.getRaw(relatedNameIdTerm));
@@ -200,8 +322,7 @@ public abstract class NeoCsvInserter implements NeoInserter {
   protected void interpretTypeMaterial(final CsvReader reader, final Term classTerm,
                                      Function<VerbatimRecord, Optional<TypeMaterial>> interpret
   ) {
-    processVerbatim(reader, classTerm, rec -> {
-      Optional<TypeMaterial> opt = interpret.apply(rec);
+    processVerbatim(reader, classTerm, interpret, (rec, opt) -> {
       if (opt.isPresent()) {
         TypeMaterial tm = opt.get();
         Node n = store.names().nodeByID(tm.getNameId());
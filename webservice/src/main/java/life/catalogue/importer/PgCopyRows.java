@@ -0,0 +1,204 @@
+package life.catalogue.importer;
+
+import life.catalogue.api.model.*;
+import life.catalogue.db.type.CountryTypeHandler;
+import life.catalogue.db.type.CslJsonHandler;
+import life.catalogue.db.type.TermTypeHandler;
+import life.catalogue.db.type2.TermMapTypeHandler;
+import life.catalogue.postgres.PgCopyWriter;
+import org.gbif.nameparser.api.Authorship;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Converts entities into rows for the COPY based PgImport,
+ * producing exactly the same column values as the create methods of the respective mybatis mappers.
+ * Keep in sync with the mapper xml files!
+ */
+class PgCopyRows {
+  private static final TermMapTypeHandler TERMS = new TermMapTypeHandler();
+  private static final CslJsonHandler CSL = new CslJsonHandler();
+  private static final CountryTypeHandler COUNTRY = new CountryTypeHandler();
+
+  static final String[] VERBATIM = {"id", "dataset_key", "line", "file", "type", "terms", "issues"};
+
+  static final String[] REFERENCE = {"dataset_key", "sector_key", "id", "verbatim_key", "csl", "citation", "year", "created_by", "modified_by"};
+
+  static final String[] NAME = {"dataset_key", "sector_key", "id", "verbatim_key", "name_index_id", "name_index_match_type",
+      "homotypic_name_id", "scientific_name", "scientific_name_normalized", "authorship", "authorship_normalized", "rank",
+      "uninomial", "genus", "infrageneric_epithet", "specific_epithet", "infraspecific_epithet", "cultivar_epithet",
+      "appended_phrase", "candidatus", "notho", "basionym_authors", "basionym_ex_authors", "basionym_year",
+      "combination_authors", "combination_ex_authors", "combination_year", "sanctioning_author", "published_in_id",
+      "published_in_page", "code", "nom_status", "origin", "type", "link", "remarks", "created_by", "modified_by"};
+
+  static final String[] NAME_REL = {"id", "dataset_key", "verbatim_key", "type", "name_id", "related_name_id", "published_in_id",
+      "remarks", "created_by", "modified_by"};
+
+  static final String[] TYPE_MATERIAL = {"dataset_key", "sector_key", "id", "verbatim_key", "name_id", "citation", "status",
+      "locality", "country", "latitude", "longitude", "altitude", "host", "date", "collector", "reference_id", "link", "remarks",
+      "created_by", "modified_by"};
+
+  static final String[] NAME_USAGE = {"id", "dataset_key", "sector_key", "verbatim_key", "parent_id", "name_id", "status",
+      "is_synonym", "origin", "according_to", "reference_ids", "remarks", "created_by", "modified_by",
+      "according_to_date", "extinct", "temporal_range_start", "temporal_range_end", "lifezones", "link"};
+
+  private PgCopyRows() {
+  }
+
+  static void verbatim(PgCopyWriter w, VerbatimRecord v) throws IOException {
+    w.add(v.getId())
+        .add(v.getDatasetKey())
+        .add(v.getLine())
+        .add(v.getFile())
+        .add(TermTypeHandler.toKey(v.getType()))
+        .add(v.getTerms() == null ? null : TERMS.toJson(v.getTerms()))
+        .add(nonNull(v.getIssues()))
+        .endRow();
+  }
+
+  static void reference(PgCopyWriter w, Reference r) throws IOException {
+    w.add(r.getDatasetKey())
+        .add(r.getSectorKey())
+        .add(r.getId())
+        .add(r.getVerbatimKey())
+        .add(r.getCsl() == null ? null : CSL.toJson(r.getCsl()))
+        .add(r.getCitation())
+        .add(r.getYear())
+        .add(r.getCreatedBy())
+        .add(r.getModifiedBy())
+        .endRow();
+  }
+
+  static void name(PgCopyWriter w, Name n) throws IOException {
+    Authorship bas = n.getBasionymAuthorship();
+    Authorship comb = n.getCombinationAuthorship();
+    w.add(n.getDatasetKey())
+        .add(n.getSectorKey())
+        .add(n.getId())
+        .add(n.getVerbatimKey())
+        .add(n.getNameIndexId())
+        .add(n.getNameIndexMatchType())
+        .add(n.getHomotypicNameId())
+        .add(n.getScientificName())
+        .add(n.getScientificNameNormalized())
+        .add(n.getAuthorship())
+        .add(nonNull(n.getAuthorshipNormalized()))
+        .add(n.getRank())
+        .add(n.getUninomial())
+        .add(n.getGenus())
+        .add(n.getInfragenericEpithet())
+        .add(n.getSpecificEpithet())
+        .add(n.getInfraspecificEpithet())
+        .add(n.getCultivarEpithet())
+        .add(n.getAppendedPhrase())
+        .add(n.isCandidatus())
+        .add(n.getNotho())
+        .add(nonNull(bas == null ? null : bas.getAuthors()))
+        .add(nonNull(bas == null ? null : bas.getExAuthors()))
+        .add(bas == null ? null : bas.getYear())
+        .add(nonNull(comb == null ? null : comb.getAuthors()))
+        .add(nonNull(comb == null ? null : comb.getExAuthors()))
+        .add(comb == null ? null : comb.getYear())
+        .add(n.getSanctioningAuthor())
+        .add(n.getPublishedInId())
+        .add(n.getPublishedInPage())
+        .add(n.getCode())
+        .add(n.getNomStatus())
+        .add(n.getOrigin())
+        .add(n.getType())
+        .add(n.getLink())
+        .add(n.getRemarks())
+        .add(n.getCreatedBy())
+        .add(n.getModifiedBy())
+        .endRow();
+  }
+
+  static void nameRelation(PgCopyWriter w, NameRelation nr) throws IOException {
+    w.add(nr.getId())
+        .add(nr.getDatasetKey())
+        .add(nr.getVerbatimKey())
+        .add(nr.getType())
+        .add(nr.getNameId())
+        .add(nr.getRelatedNameId())
+        .add(nr.getPublishedInId())
+        .add(nr.getRemarks())
+        .add(nr.getCreatedBy())
+        .add(nr.getModifiedBy())
+        .endRow();
+  }
+
+  static void typeMaterial(PgCopyWriter w, TypeMaterial tm) throws IOException {
+    w.add(tm.getDatasetKey())
+        .add(tm.getSectorKey())
+        .add(tm.getId())
+        .add(tm.getVerbatimKey())
+        .add(tm.getNameId())
+        .add(tm.getCitation())
+        .add(tm.getStatus())
+        .add(tm.getLocality())
+        .add(COUNTRY.fromEnum(tm.getCountry()))
+        .add(tm.getLatitude())
+        .add(tm.getLongitude())
+        .add(tm.getAltitude())
+        .add(tm.getHost())
+        .add(tm.getDate())
+        .add(tm.getCollector())
+        .add(tm.getReferenceId())
+        .add(tm.getLink())
+        .add(tm.getRemarks())
+        .add(tm.getCreatedBy())
+        .add(tm.getModifiedBy())
+        .endRow();
+  }
+
+  static void taxon(PgCopyWriter w, Taxon t) throws IOException {
+    usage(w, t)
+        .add(t.getAccordingToDate())
+        .add(t.isExtinct())
+        .add(t.getTemporalRangeStart())
+        .add(t.getTemporalRangeEnd())
+        .add(nonNull(t.getLifezones()))
+        .add(t.getLink())
+        .endRow();
+  }
+
+  /**
+   * Synonyms only use the shared columns, all others get their column defaults.
+   */
+  static void synonym(PgCopyWriter w, Synonym s) throws IOException {
+    usage(w, s)
+        .add(null)
+        .add(null)
+        .add(null)
+        .add(null)
+        .add(Collections.emptySet())
+        .add(null)
+        .endRow();
+  }
+
+  private static PgCopyWriter usage(PgCopyWriter w, NameUsageBase u) throws IOException {
+    return w.add(u.getId())
+        .add(u.getDatasetKey())
+        .add(u.getSectorKey())
+        .add(u.getVerbatimKey())
+        .add(u.getParentId())
+        .add(u.getName().getId())
+        .add(u.getStatus())
+        .add(u.getStatus().isSynonym())
+        .add(u.getOrigin())
+        .add(u.getAccordingTo())
+        .add(nonNull(u.getReferenceIds()))
+        .add(u.getRemarks())
+        .add(u.getCreatedBy())
+        .add(u.getModifiedBy());
+  }
+
+  /**
+   * Array type handlers store nulls as empty arrays.
+   */
+  private static Collection<?> nonNull(Collection<?> values) {
+    return values == null ? Collections.emptyList() : values;
+  }
+}
@@ -14,14 +14,21 @@ import life.catalogue.importer.neo.model.NeoUsage;
 import life.catalogue.importer.neo.model.RelType;
 import life.catalogue.importer.neo.traverse.StartEndHandler;
 import life.catalogue.importer.neo.traverse.TreeWalker;
+import life.catalogue.postgres.PgCopyWriter;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.graphdb.Transaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -38,6 +45,8 @@ public class PgImport implements Callable<Boolean> {
   
   private final NeoDb store;
   private final int batchSize;
+  private final boolean copy;
+  private final boolean deferFullText;
   private final SqlSessionFactory sessionFactory;
   private final DatasetWithSettings dataset;
   private final Map<Integer, Integer> verbatimKeys = new HashMap<>();
@@ -56,25 +65,46 @@ public class PgImport implements Callable<Boolean> {
     this.dataset = dataset;
     this.store = store;
     this.batchSize = cfg.batchSize;
+    this.copy = cfg.copy;
+    this.deferFullText = cfg.deferFullText;
     this.sessionFactory = sessionFactory;
   }
   
   @Override
-  public Boolean call() throws InterruptedException, InterruptedRuntimeException {
-    Partitioner.partition(sessionFactory, dataset.getKey());
-    
-    insertVerbatim();
-    
-    insertReferences();
-    
-    insertNames();
-    
-    insertNameRelations();
+  public Boolean call() throws InterruptedException, InterruptedRuntimeException, IOException, SQLException {
+    Partitioner.partition(sessionFactory, dataset.getKey(), deferFullText);
 
-    insertTypeMaterial();
+    if (copy) {
+      copyVerbatim();
 
-    insertUsages();
-  
+      copyReferences();
+
+      copyNames();
+
+      copyNameRelations();
+
+      copyTypeMaterial();
+
+      copyUsages();
+
+    } else {
+      insertVerbatim();
+
+      insertReferences();
+
+      insertNames();
+
+      insertNameRelations();
+
+      insertTypeMaterial();
+
+      insertUsages();
+    }
+    updateChildCounts();
+
+    if (deferFullText) {
+      Partitioner.buildFullText(sessionFactory, dataset.getKey());
+    }
     Partitioner.indexAndAttach(sessionFactory, dataset.getKey());
     
     updateMetadata();
@@ -155,6 +185,31 @@ public class PgImport implements Callable<Boolean> {
     }
   }
   
+  /**
+   * Copies all verbatim records assigning the same keys in the same order as the partitions id sequence would have done.
+   */
+  private void copyVerbatim() throws IOException, SQLException {
+    try (SqlSession session = sessionFactory.openSession(false)) {
+      int counter = 0;
+      try (PgCopyWriter w = new PgCopyWriter(session.getConnection(), "verbatim_" + dataset.getKey(), PgCopyRows.VERBATIM)) {
+        for (VerbatimRecord v : store.verbatimList()) {
+          int storeKey = v.getId();
+          v.setId(++counter);
+          v.setDatasetKey(dataset.getKey());
+          PgCopyRows.verbatim(w, v);
+          verbatimKeys.put(storeKey, v.getId());
+          if (counter % batchSize == 0) {
+            interruptIfCancelled();
+            LOG.debug("Copied {} verbatim records so far", counter);
+          }
+        }
+      }
+      session.getMapper(DatasetPartitionMapper.class).updateIdSequence("verbatim", dataset.getKey());
+      session.commit(true);
+      LOG.info("Copied {} verbatim records", counter);
+    }
+  }
+
   private void commitVerbatimBatch(SqlSession session, Map<Integer, VerbatimRecord> batchCache) {
     interruptIfCancelled();
     session.commit();
@@ -228,6 +283,25 @@ public class PgImport implements Callable<Boolean> {
   }
   
   
+  private void copyReferences() throws IOException, SQLException {
+    try (SqlSession session = sessionFactory.openSession(false)) {
+      // update all tmp ids to nice ones
+      store.references().updateTmpIds();
+      try (PgCopyWriter w = new PgCopyWriter(session.getConnection(), table("reference"), PgCopyRows.REFERENCE)) {
+        for (Reference r : store.references()) {
+          r.setDatasetKey(dataset.getKey());
+          updateVerbatimUserEntity(r);
+          PgCopyRows.reference(w, r);
+          if (rCounter.incrementAndGet() % batchSize == 0) {
+            interruptIfCancelled();
+          }
+        }
+      }
+      session.commit(true);
+      LOG.debug("Copied all {} references", rCounter);
+    }
+  }
+
   /**
    * Inserts all names, collecting all homotypic name keys for later updates if they havent been inserted already.
    */
@@ -251,6 +325,26 @@ public class PgImport implements Callable<Boolean> {
     LOG.info("Inserted {} name in total", nCounter.get());
   }
   
+  private void copyNames() throws IOException, SQLException {
+    try (SqlSession session = sessionFactory.openSession(false)) {
+      LOG.debug("Copying all names");
+      try (PgCopyWriter w = new PgCopyWriter(session.getConnection(), table("name"), PgCopyRows.NAME)) {
+        for (NeoName n : (Iterable<NeoName>) store.names().all()::iterator) {
+          n.name.setDatasetKey(dataset.getKey());
+          updateVerbatimUserEntity(n.name);
+          updateReferenceKey(n.name.getPublishedInId(), n.name::setPublishedInId);
+          PgCopyRows.name(w, n.name);
+          if (nCounter.incrementAndGet() % batchSize == 0) {
+            interruptIfCancelled();
+            LOG.debug("Copied {} names", nCounter.get());
+          }
+        }
+      }
+      session.commit(true);
+    }
+    LOG.info("Copied {} name in total", nCounter.get());
+  }
+
   /**
    * Go through all neo4j relations and convert them to name acts if the rel type matches
    */
@@ -279,6 +373,59 @@ public class PgImport implements Callable<Boolean> {
     }
   }
 
+  /**
+   * Copies all name relations assigning the same keys in the same order as the partitions id sequence would have done.
+   */
+  private void copyNameRelations() throws IOException, SQLException {
+    int id = 0;
+    try (SqlSession session = sessionFactory.openSession(false)) {
+      try (PgCopyWriter w = new PgCopyWriter(session.getConnection(), table("name_rel"), PgCopyRows.NAME_REL);
+           Transaction tx = store.getNeo().beginTx()
+      ) {
+        for (RelType rt : RelType.values()) {
+          if (!rt.isNameRel()) continue;
+
+          LOG.debug("Copying all {} relations", rt);
+          int counter = 0;
+          try (ResourceIterator<Relationship> iter = store.iterRelations(rt)) {
+            while (iter.hasNext()) {
+              NameRelation nr = store.toRelation(iter.next());
+              updateReferenceKey(nr.getPublishedInId(), nr::setPublishedInId);
+              nr.setId(++id);
+              PgCopyRows.nameRelation(w, updateUser(nr));
+              if (++counter % batchSize == 0) {
+                interruptIfCancelled();
+              }
+            }
+          }
+          LOG.info("Copied {} {} relations", counter, rt);
+        }
+      }
+      session.getMapper(DatasetPartitionMapper.class).updateIdSequence("name_rel", dataset.getKey());
+      session.commit(true);
+    }
+  }
+
+  private void copyTypeMaterial() throws IOException, SQLException {
+    try (SqlSession session = sessionFactory.openSession(false)) {
+      LOG.debug("Copying type material");
+      // update all tmp ids to nice ones
+      store.typeMaterial().updateTmpIds();
+      try (PgCopyWriter w = new PgCopyWriter(session.getConnection(), table("type_material"), PgCopyRows.TYPE_MATERIAL)) {
+        for (TypeMaterial tm : store.typeMaterial()) {
+          updateVerbatimUserEntity(tm);
+          updateReferenceKey(tm);
+          PgCopyRows.typeMaterial(w, tm);
+          if (tmCounter.incrementAndGet() % batchSize == 0) {
+            interruptIfCancelled();
+          }
+        }
+      }
+      session.commit(true);
+    }
+    LOG.info("Copied {} type material records", tmCounter);
+  }
+
   private void insertTypeMaterial() {
     try (final SqlSession session = sessionFactory.openSession(ExecutorType.BATCH, false)) {
       final TypeMaterialMapper tmm = session.getMapper(TypeMaterialMapper.class);
@@ -299,10 +446,44 @@ public class PgImport implements Callable<Boolean> {
     LOG.info("Inserted {} type material records", tmCounter);
   }
 
+  /**
+   * copy taxa/synonyms, inserting all the rest
+   */
+  private void copyUsages() throws IOException, SQLException {
+    try (SqlSession session = sessionFactory.openSession(false)) {
+      try (PgCopyWriter w = new PgCopyWriter(session.getConnection(), table("name_usage"), PgCopyRows.NAME_USAGE)) {
+        insertUsages(w);
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      session.commit(true);
+    }
+  }
+
+  /**
+   * Stores the number of accepted children for all taxa with a single set based update
+   * once all usages exist, so the tree never needs to count them on the fly.
+   */
+  private void updateChildCounts() {
+    try (SqlSession session = sessionFactory.openSession(true)) {
+      session.getMapper(TaxonMapper.class).updateChildCounts(dataset.getKey(), null);
+    }
+    LOG.info("Updated child counts of dataset {}", dataset.getKey());
+  }
+
+  private String table(String table) {
+    return table + "_" + Partitioner.partition(dataset.getKey());
+  }
+
+  private void insertUsages() {
+    insertUsages(null);
+  }
+
   /**
    * insert taxa/synonyms with all the rest
+   * @param usageWriter if given taxa and synonyms are copied with it, otherwise inserted by their mappers
    */
-  private void insertUsages() throws InterruptedException {
+  private void insertUsages(@Nullable PgCopyWriter usageWriter) {
     try (SqlSession session = sessionFactory.openSession(ExecutorType.BATCH,false)) {
       LOG.info("Inserting remaining names and all taxa");
       DescriptionMapper descriptionMapper = session.getMapper(DescriptionMapper.class);
@@ -350,11 +531,19 @@ public class PgImport implements Callable<Boolean> {
                 proParteIds.add(u.getId());
               }
             }
-            synMapper.create(u.getSynonym());
+            if (usageWriter == null) {
+              synMapper.create(u.getSynonym());
+            } else {
+              copy(() -> PgCopyRows.synonym(usageWriter, u.getSynonym()));
+            }
             sCounter.incrementAndGet();
 
           } else {
-            taxonMapper.create(updateUser(u.getTaxon()));
+            if (usageWriter == null) {
+              taxonMapper.create(updateUser(u.getTaxon()));
+            } else {
+              copy(() -> PgCopyRows.taxon(usageWriter, updateUser(u.getTaxon())));
+            }
             tCounter.incrementAndGet();
             Taxon acc = u.getTaxon();
 
@@ -417,4 +606,16 @@ public class PgImport implements Callable<Boolean> {
     }
   }
   
+  private interface CopyRow {
+    void write() throws IOException;
+  }
+
+  private static void copy(CopyRow row) {
+    try {
+      row.write();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
 }
@@ -8,6 +8,7 @@ import life.catalogue.api.jackson.ApiModule;
 import life.catalogue.api.model.*;
 import life.catalogue.api.vocab.Issue;
 import life.catalogue.common.csl.CslDataConverter;
+import life.catalogue.common.io.PathUtils;
 import life.catalogue.importer.NeoCsvInserter;
 import life.catalogue.importer.NormalizationFailedException;
 import life.catalogue.importer.neo.NeoDb;
@@ -20,11 +21,10 @@ import org.jbibtex.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Optional;
@@ -130,9 +130,8 @@ public class ColdpInserter extends NeoCsvInserter {
     return TermFactory.instance().findPropertyTerm(BIBTEX_NS + name);
   }
   
-  private void insertBibTex(final int datasetKey, File f) {
-    try {
-      InputStream is = new FileInputStream(f);
+  private void insertBibTex(final int datasetKey, Path f) {
+    try (InputStream is = Files.newInputStream(f)) {
       BibTeXConverter bc = new BibTeXConverter();
       BibTeXDatabase db = bc.loadDatabase(is);
       bc.toItemData(db).forEach((id, cslItem) -> {
@@ -140,7 +139,7 @@ public class ColdpInserter extends NeoCsvInserter {
         VerbatimRecord v = new VerbatimRecord();
         v.setType(BIBTEX_CLASS_TERM);
         v.setDatasetKey(datasetKey);
-        v.setFile(f.getName());
+        v.setFile(PathUtils.getFilename(f));
         for (Map.Entry<Key, Value> field : bib.getFields().entrySet()) {
           v.put(bibTexTerm(field.getKey().getValue()), field.getValue().toUserString());
         }
@@ -164,10 +163,10 @@ public class ColdpInserter extends NeoCsvInserter {
     }
   }
   
-  private void insertCslJson(int datasetKey, File f) {
-    try {
+  private void insertCslJson(int datasetKey, Path f) {
+    try (InputStream is = Files.newInputStream(f)) {
   
-      JsonNode jsonNode = ApiModule.MAPPER.readTree(f);
+      JsonNode jsonNode = ApiModule.MAPPER.readTree(is);
       if (!jsonNode.isArray()) {
         LOG.error("Unable to read CSL-JSON file {}. Array required", f);
         return;
@@ -177,7 +176,7 @@ public class ColdpInserter extends NeoCsvInserter {
         VerbatimRecord v = new VerbatimRecord();
         v.setType(CSLJSON_CLASS_TERM);
         v.setDatasetKey(datasetKey);
-        v.setFile(f.getName());
+        v.setFile(PathUtils.getFilename(f));
         store.put(v);
         
         try {
@@ -1,6 +1,5 @@
 package life.catalogue.importer.coldp;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Optional;
@@ -37,8 +36,8 @@ public class ColdpReader extends CsvReader {
     TermFactory.instance().registerTermEnum(ColdpTerm.class);
   }
   
-  private File bibtex;
-  private File cslJson;
+  private Path bibtex;
+  private Path cslJson;
 
   private ColdpReader(Path folder) throws IOException {
     super(folder, "col", "coldp");
@@ -71,12 +70,12 @@ public class ColdpReader extends CsvReader {
     // spot bibtex & csl-json
     for (Path df : listFiles(dir)) {
       if (PathUtils.getFilename(df).equalsIgnoreCase("reference.bib")) {
-        bibtex  = df.toFile();
-        LOG.info("BibTeX file found: {}", bibtex.getAbsolutePath());
+        bibtex  = df;
+        LOG.info("BibTeX file found: {}", bibtex);
       
       } else if (PathUtils.getFilename(df).equalsIgnoreCase("reference.json")) {
-        cslJson = df.toFile();
-        LOG.info("CSL-JSON file found: {}", cslJson.getAbsolutePath());
+        cslJson = df;
+        LOG.info("CSL-JSON file found: {}", cslJson);
       }
     }
   }
@@ -166,11 +165,11 @@ public class ColdpReader extends CsvReader {
     reportMissingSchemas(ColdpTerm.class);
   }
   
-  public File getBibtexFile() {
+  public Path getBibtexFile() {
     return bibtex;
   }
   
-  public File getCslJsonFile() {
+  public Path getCslJsonFile() {
     return cslJson;
   }
 }
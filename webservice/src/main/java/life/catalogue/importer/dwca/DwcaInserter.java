@@ -11,6 +11,7 @@ import life.catalogue.importer.reference.ReferenceFactory;
 import org.gbif.dwc.terms.DwcTerm;
 import org.gbif.dwc.terms.DwcaTerm;
 import org.gbif.dwc.terms.GbifTerm;
+import org.gbif.dwc.terms.Term;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -94,6 +95,15 @@ public class DwcaInserter extends NeoCsvInserter {
     );
   }
   
+  /**
+   * The dwc interpreter creates new references from citations while interpreting records,
+   * so records cannot be interpreted in parallel without creating duplicate references.
+   */
+  @Override
+  protected boolean isThreadSafe(Term classTerm) {
+    return false;
+  }
+
   @Override
   protected NodeBatchProcessor relationProcessor() {
     return new DwcaRelationInserter(store, reader.getMappingFlags());
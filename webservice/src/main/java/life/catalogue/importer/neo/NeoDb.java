@@ -44,6 +44,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -73,10 +74,13 @@ public class NeoDb {
   private BatchInserter inserter;
   public final int batchSize;
   public final int batchTimeout;
+  public final int interpreterThreads;
 
   // verbatimKey sequence and lookup
   private final AtomicInteger verbatimSequence = new AtomicInteger(0);
   private final Map<Integer, VerbatimRecord> verbatim;
+  // verbatim records being interpreted which are not yet persisted
+  private final Map<Integer, VerbatimRecord> pendingVerbatim = new ConcurrentHashMap<>();
   private final ReferenceStore references;
   private final MapStore<TypeMaterial> typeMaterial;
   private final NeoNameStore names;
@@ -92,8 +96,9 @@ public class NeoDb {
    * @param neoDir
    * @param neoFactory
    * @param batchTimeout in minutes
+   * @param interpreterThreads number of threads to interpret verbatim records with during batch inserts
    */
-  NeoDb(int datasetKey, int attempt, DB mapDb, File neoDir, GraphDatabaseBuilder neoFactory, int batchSize, int batchTimeout) {
+  NeoDb(int datasetKey, int attempt, DB mapDb, File neoDir, GraphDatabaseBuilder neoFactory, int batchSize, int batchTimeout, int interpreterThreads) {
     this.datasetKey = datasetKey;
     this.attempt = attempt;
     this.neoFactory = neoFactory;
@@ -101,6 +106,7 @@ public class NeoDb {
     this.mapDb = mapDb;
     this.batchSize = batchSize;
     this.batchTimeout = batchTimeout;
+    this.interpreterThreads = interpreterThreads;
     
     try {
       pool = new NeoKryoPool(8);
@@ -484,6 +490,26 @@ public class NeoDb {
     }
   }
 
+  /**
+   * Issues a new key for a verbatim record that is about to be interpreted without persisting it yet.
+   * Until it is committed the record is kept in memory and returned by getVerbatim,
+   * so issues flagged during interpretation are all merged into the same instance.
+   */
+  public void beginVerbatim(VerbatimRecord v) {
+    if (v.getId() == null) {
+      v.setId(verbatimSequence.incrementAndGet());
+    }
+    pendingVerbatim.put(v.getId(), v);
+  }
+
+  /**
+   * Persists a verbatim record previously registered via beginVerbatim.
+   */
+  public void commitVerbatim(VerbatimRecord v) {
+    pendingVerbatim.remove(v.getId());
+    put(v);
+  }
+
   /**
    * Creates a new name relation linking the 2 given name nodes.
    * The note and publishedInKey values are stored as relation propLabel
@@ -502,7 +528,12 @@ public class NeoDb {
    * @return the verbatim record belonging to the requested key as assigned from verbatimSequence
    */
   public VerbatimRecord getVerbatim(int key) {
-    VerbatimRecord rec = verbatim.get(key);
+    VerbatimRecord rec = pendingVerbatim.get(key);
+    if (rec != null) {
+      // not yet persisted, hand out the live instance
+      return rec;
+    }
+    rec = verbatim.get(key);
     if (rec != null) {
       rec.setHashCode();
     }
@@ -536,7 +567,9 @@ public class NeoDb {
             v.addIssue(is);
           }
         }
-        put(v);
+        if (!pendingVerbatim.containsKey(verbatimKey)) {
+          put(v);
+        }
       }
     }
   }
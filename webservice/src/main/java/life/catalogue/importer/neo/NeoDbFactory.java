@@ -46,7 +46,7 @@ public class NeoDbFactory {
       if (!storeDir.exists()) {
         storeDir.mkdirs();
       }
-      return new NeoDb(datasetKey, attempt, dbMaker.make(), storeDir, builder, cfg.batchSize, cfg.batchTimeout);
+      return new NeoDb(datasetKey, attempt, dbMaker.make(), storeDir, builder, cfg.batchSize, cfg.batchTimeout, cfg.interpreterThreads);
 
     } catch (Exception e) {
       // can be caused by interruption in mapdb
@@ -153,7 +153,7 @@ public class ReferenceFactory {
   public static Reference fromCsl(int datasetKey, CslData csl) {
     Reference ref = newReference(datasetKey, csl.getId());
     ref.setCsl(csl);
-    // generate default APA citation string - THIS IS SLOOOOOWWW
+    // generate default APA citation string - slow if not supported by the native ApaFormatter
     ref.setCitation(CslUtil.buildCitation(csl));
     updateIntYearFromCsl(ref);
     return ref;
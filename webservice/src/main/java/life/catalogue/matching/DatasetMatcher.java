@@ -10,6 +10,8 @@ import org.apache.ibatis.session.SqlSessionFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
 
@@ -31,17 +33,23 @@ public class DatasetMatcher {
    * @return number of names which have a changed match to before
    */
   public int match(int datasetKey, boolean allowInserts) {
-    try (SqlSession session = factory.openSession(false)){
+    try (SqlSession session = factory.openSession(false);
+         BulkMatchHandler h = new BulkMatchHandler(updateIssues, ni, factory, datasetKey, allowInserts)
+    ){
       NameMapper nm = session.getMapper(NameMapper.class);
-      BulkMatchHandler h = new BulkMatchHandler(updateIssues, ni, factory, datasetKey, allowInserts);
       nm.processDataset(datasetKey).forEach(h);
+      h.flush();
       LOG.info("Updated {} out of {} name matches for dataset {}", h.updates, h.counter, datasetKey);
       return h.updates;
     }
   }
   
   
+  /**
+   * Buffers names and matches them in batches using the names index batch API.
+   */
   static class BulkMatchHandler implements Consumer<Name>, AutoCloseable {
+    private static final int BATCH_SIZE = 1000;
     int counter = 0;
     int updates = 0;
     private final boolean updateIssues;
@@ -52,6 +60,7 @@ public class DatasetMatcher {
     private final NameMapper nm;
     private final VerbatimRecordMapper vm;
     private final DSIDValue<Integer> key;
+    private final List<Name> batch = new ArrayList<>(BATCH_SIZE);
   
     BulkMatchHandler(boolean updateIssues, NameIndex ni, SqlSessionFactory factory, int datasetKey, boolean allowInserts) {
       this.updateIssues = updateIssues;
@@ -66,10 +75,28 @@ public class DatasetMatcher {
   
     @Override
     public void accept(Name n) {
+      batch.add(n);
+      if (batch.size() >= BATCH_SIZE) {
+        flush();
+      }
+    }
+    
+    /**
+     * Matches all buffered names and updates postgres.
+     */
+    void flush() {
+      if (!batch.isEmpty()) {
+        List<NameMatch> matches = ni.matchAll(batch, allowInserts);
+        for (int idx = 0; idx < batch.size(); idx++) {
+          update(batch.get(idx), matches.get(idx));
+        }
+        batch.clear();
+      }
+    }
+    
+    private void update(Name n, NameMatch m) {
       counter++;
       String oldId = n.getNameIndexId();
-      NameMatch m = ni.match(n, allowInserts, false);
-      
       if (!Objects.equals(oldId, m.hasMatch() ? m.getName().getId() : null)) {
         if (m.hasMatch()) {
           nm.updateMatch(datasetKey, n.getId(), m.getName().getId(), m.getType());
@@ -107,11 +134,13 @@ public class DatasetMatcher {
       issues.removeIssue(Issue.NAME_MATCH_NONE);
       issues.removeIssue(Issue.NAME_MATCH_AMBIGUOUS);
       issues.removeIssue(Issue.NAME_MATCH_VARIANT);
+      issues.removeIssue(Issue.NAME_MATCH_FUZZY);
       issues.removeIssue(Issue.NAME_MATCH_INSERTED);
     }
   
     @Override
-    public void close() throws Exception {
+    public void close() {
+      flush();
       session.commit();
       session.close();
     }
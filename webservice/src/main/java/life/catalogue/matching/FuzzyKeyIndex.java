@@ -0,0 +1,268 @@
+package life.catalogue.matching;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import life.catalogue.matching.similarity.LevenshteinDistance;
+import life.catalogue.matching.similarity.ScientificNameSimilarity;
+import life.catalogue.matching.similarity.StringSimilarity;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * In memory index of the normalized names index keys to quickly find keys similar to a given, unknown one.
+ *
+ * Keys are split into their words and only the distinct words are indexed in BK-trees
+ * partitioned by their first letter and length, as the first letter of a word must always match
+ * and the length can differ by 2 at most.
+ * Candidate keys are assembled from all combinations of similar words with the same number of words as the query,
+ * verified to exist in the store and finally scored by {@link ScientificNameSimilarity}.
+ * Keys are never removed from the index, their existence is always checked against the store.
+ *
+ * The index is safe for concurrent use.
+ */
+public class FuzzyKeyIndex {
+  // maximum edit distance for a single word
+  private static final int MAX_DISTANCE = 2;
+  // words shorter than this must match exactly, see ScientificNameSimilarity
+  private static final int MIN_FUZZY_LENGTH = 4;
+  // maximum number of word combinations to check against the store
+  private static final int MAX_COMBINATIONS = 256;
+  private static final double DEFAULT_MIN_SIMILARITY = 80;
+
+  private final Int2ObjectOpenHashMap<BKTree> trees = new Int2ObjectOpenHashMap<>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final Predicate<String> exists;
+  private final StringSimilarity similarity = new ScientificNameSimilarity();
+  private final double minSimilarity;
+
+  /**
+   * @param exists predicate to test whether a key exists in the names index
+   */
+  public FuzzyKeyIndex(Predicate<String> exists) {
+    this(exists, DEFAULT_MIN_SIMILARITY);
+  }
+
+  /**
+   * @param exists predicate to test whether a key exists in the names index
+   * @param minSimilarity minimum ScientificNameSimilarity between 0 and 100 for keys to be considered
+   */
+  public FuzzyKeyIndex(Predicate<String> exists, double minSimilarity) {
+    this.exists = exists;
+    this.minSimilarity = minSimilarity;
+  }
+
+  /**
+   * Adds all words of a normalized key to the index.
+   */
+  public void add(String key) {
+    for (String w : words(key)) {
+      if (tree(w, true).add(w)) {
+        size.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * @return number of distinct words in the index
+   */
+  public int size() {
+    return size.get();
+  }
+
+  /**
+   * Finds existing keys similar to the given normalized key, excluding the key itself.
+   *
+   * @return similar keys ordered by their decreasing similarity
+   */
+  public List<Scored> candidates(String key) {
+    String[] words = words(key);
+    if (words.length == 0) {
+      return Collections.emptyList();
+    }
+    List<List<String>> similarWords = new ArrayList<>(words.length);
+    for (String w : words) {
+      List<String> similar = similar(w);
+      if (similar.isEmpty()) {
+        return Collections.emptyList();
+      }
+      similarWords.add(similar);
+    }
+
+    List<Scored> candidates = new ArrayList<>();
+    combine(similarWords, 0, new String[words.length], key, candidates, new AtomicInteger(MAX_COMBINATIONS));
+    candidates.sort(Comparator.comparingDouble(Scored::getSimilarity).reversed());
+    return candidates;
+  }
+
+  private void combine(List<List<String>> similarWords, int idx, String[] current, String key, List<Scored> candidates, AtomicInteger budget) {
+    if (idx == current.length) {
+      String candidate = String.join(" ", current);
+      if (budget.decrementAndGet() >= 0 && !candidate.equals(key) && exists.test(candidate)) {
+        double sim = similarity.getSimilarity(key, candidate);
+        if (sim >= minSimilarity) {
+          candidates.add(new Scored(candidate, sim));
+        }
+      }
+    } else {
+      for (String w : similarWords.get(idx)) {
+        if (budget.get() <= 0) {
+          return;
+        }
+        current[idx] = w;
+        combine(similarWords, idx + 1, current, key, candidates, budget);
+      }
+    }
+  }
+
+  /**
+   * @return all indexed words similar to the given one, ordered by their edit distance
+   */
+  private List<String> similar(String word) {
+    List<List<String>> byDist = new ArrayList<>(MAX_DISTANCE + 1);
+    for (int d = 0; d <= MAX_DISTANCE; d++) {
+      byDist.add(new ArrayList<>());
+    }
+    if (word.length() < MIN_FUZZY_LENGTH) {
+      BKTree t = tree(word, false);
+      if (t != null && t.contains(word)) {
+        byDist.get(0).add(word);
+      }
+    } else {
+      for (int len = Math.max(1, word.length() - MAX_DISTANCE); len <= word.length() + MAX_DISTANCE; len++) {
+        BKTree t = trees(partition(word.charAt(0), len));
+        if (t != null) {
+          t.search(word, byDist);
+        }
+      }
+    }
+    List<String> similar = new ArrayList<>();
+    byDist.forEach(similar::addAll);
+    return similar;
+  }
+
+  private static String[] words(String key) {
+    return key == null || key.isEmpty() ? new String[0] : key.split(" ");
+  }
+
+  private static int partition(char first, int length) {
+    return (first << 16) | Math.min(length, 0xFFFF);
+  }
+
+  private BKTree trees(int partition) {
+    synchronized (trees) {
+      return trees.get(partition);
+    }
+  }
+
+  private BKTree tree(String word, boolean create) {
+    final int p = partition(word.charAt(0), word.length());
+    synchronized (trees) {
+      BKTree t = trees.get(p);
+      if (t == null && create) {
+        t = new BKTree();
+        trees.put(p, t);
+      }
+      return t;
+    }
+  }
+
+  /**
+   * A key with its similarity to the query key.
+   */
+  public static class Scored {
+    private final String key;
+    private final double similarity;
+
+    Scored(String key, double similarity) {
+      this.key = key;
+      this.similarity = similarity;
+    }
+
+    public String getKey() {
+      return key;
+    }
+
+    public double getSimilarity() {
+      return similarity;
+    }
+
+    @Override
+    public String toString() {
+      return key + " " + similarity;
+    }
+  }
+
+  /**
+   * Burkhard-Keller tree using the levenshtein distance which satisfies the triangle inequality.
+   */
+  private static class BKTree {
+    private static final LevenshteinDistance DISTANCE = new LevenshteinDistance();
+    private Node root;
+
+    synchronized boolean add(String word) {
+      if (root == null) {
+        root = new Node(word);
+        return true;
+      }
+      Node n = root;
+      while (true) {
+        int d = DISTANCE.getDistance(word, n.word);
+        if (d == 0) {
+          return false;
+        }
+        Node child = n.children.get(d);
+        if (child == null) {
+          n.children.put(d, new Node(word));
+          return true;
+        }
+        n = child;
+      }
+    }
+
+    synchronized boolean contains(String word) {
+      Node n = root;
+      while (n != null) {
+        int d = DISTANCE.getDistance(word, n.word);
+        if (d == 0) {
+          return true;
+        }
+        n = n.children.get(d);
+      }
+      return false;
+    }
+
+    /**
+     * Adds all words within MAX_DISTANCE to the list of their distance.
+     */
+    synchronized void search(String word, List<List<String>> byDist) {
+      if (root == null) {
+        return;
+      }
+      Deque<Node> stack = new ArrayDeque<>();
+      stack.push(root);
+      while (!stack.isEmpty()) {
+        Node n = stack.pop();
+        int d = DISTANCE.getDistance(word, n.word);
+        if (d <= MAX_DISTANCE) {
+          byDist.get(d).add(n.word);
+        }
+        for (int cd = Math.max(1, d - MAX_DISTANCE); cd <= d + MAX_DISTANCE; cd++) {
+          Node child = n.children.get(cd);
+          if (child != null) {
+            stack.push(child);
+          }
+        }
+      }
+    }
+  }
+
+  private static class Node {
+    final String word;
+    final Int2ObjectOpenHashMap<Node> children = new Int2ObjectOpenHashMap<>(2);
+
+    Node(String word) {
+      this.word = word;
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package life.catalogue.matching;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * An append only file that is memory mapped in fixed size segments to get around the 2GB limit of a single mapped buffer.
+ * Entries never span two segments, so a segment can always be read with a single buffer.
+ *
+ * Appending is not thread safe and must be synchronized by the caller.
+ * Reading with the absolute get methods is safe for concurrent use.
+ */
+class MMapFile implements AutoCloseable {
+  private final FileChannel channel;
+  private final int segmentSize;
+  // copy on write array so readers never need a lock
+  private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+  private long size;
+
+  /**
+   * @param file        the file to map, created if not existing
+   * @param segmentSize size in bytes of a single mapped segment
+   * @param size        the number of bytes already used in an existing file
+   */
+  MMapFile(File file, int segmentSize, long size) throws IOException {
+    Preconditions.checkArgument(segmentSize > 0);
+    this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    this.segmentSize = segmentSize;
+    this.size = size;
+    if (size > 0) {
+      segment((int) ((size - 1) / segmentSize));
+    }
+  }
+
+  /**
+   * @return the number of bytes used
+   */
+  long size() {
+    return size;
+  }
+
+  /**
+   * Appends the given bytes, starting a new segment if they do not fit into the current one.
+   *
+   * @return the position the bytes were written to
+   */
+  long append(byte[] bytes) throws IOException {
+    Preconditions.checkArgument(bytes.length <= segmentSize, "Entry of %s bytes exceeds segment size %s", bytes.length, segmentSize);
+    int offset = (int) (size % segmentSize);
+    if (offset + bytes.length > segmentSize) {
+      // skip the remainder of the current segment, marking it as unused for scans
+      if (segmentSize - offset >= 4) {
+        segments[(int) (size / segmentSize)].putInt(offset, 0);
+      }
+      size += segmentSize - offset;
+      offset = 0;
+    }
+    long pos = size;
+    ByteBuffer buf = segment((int) (pos / segmentSize)).duplicate();
+    buf.position(offset);
+    buf.put(bytes);
+    size += bytes.length;
+    return pos;
+  }
+
+  /**
+   * Discards all content, keeping the mapped segments for reuse.
+   */
+  void reset() {
+    size = 0;
+  }
+
+  /**
+   * Returns the given position or, if it points to the unused remainder of a segment, the start of the next segment.
+   * Used to scan over all entries of a file, which therefore must start with a non zero int.
+   */
+  long entryStart(long pos) {
+    int offset = (int) (pos % segmentSize);
+    if (pos < size && (segmentSize - offset < 4 || getInt(pos) == 0)) {
+      return pos - offset + segmentSize;
+    }
+    return pos;
+  }
+
+  byte[] read(long pos, int length) {
+    ByteBuffer buf = segments[(int) (pos / segmentSize)].duplicate();
+    buf.position((int) (pos % segmentSize));
+    byte[] bytes = new byte[length];
+    buf.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * @return true if the bytes at the given position equal the given ones
+   */
+  boolean matches(long pos, byte[] bytes) {
+    MappedByteBuffer seg = segments[(int) (pos / segmentSize)];
+    int offset = (int) (pos % segmentSize);
+    for (int i = 0; i < bytes.length; i++) {
+      if (seg.get(offset + i) != bytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  byte getByte(long pos) {
+    return segments[(int) (pos / segmentSize)].get((int) (pos % segmentSize));
+  }
+
+  short getShort(long pos) {
+    return segments[(int) (pos / segmentSize)].getShort((int) (pos % segmentSize));
+  }
+
+  int getInt(long pos) {
+    return segments[(int) (pos / segmentSize)].getInt((int) (pos % segmentSize));
+  }
+
+  long getLong(long pos) {
+    return segments[(int) (pos / segmentSize)].getLong((int) (pos % segmentSize));
+  }
+
+  /**
+   * Overwrites a single byte of an existing entry.
+   */
+  void putByte(long pos, byte value) {
+    segments[(int) (pos / segmentSize)].put((int) (pos % segmentSize), value);
+  }
+
+  /**
+   * Overwrites a single int of an existing entry.
+   */
+  void putInt(long pos, int value) {
+    segments[(int) (pos / segmentSize)].putInt((int) (pos % segmentSize), value);
+  }
+
+  private MappedByteBuffer segment(int idx) throws IOException {
+    MappedByteBuffer[] segs = segments;
+    if (idx >= segs.length) {
+      MappedByteBuffer[] segs2 = new MappedByteBuffer[idx + 1];
+      System.arraycopy(segs, 0, segs2, 0, segs.length);
+      for (int i = segs.length; i <= idx; i++) {
+        // mapping beyond the end of the file grows it
+        segs2[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * segmentSize, segmentSize);
+      }
+      segments = segs2;
+      segs = segs2;
+    }
+    return segs[idx];
+  }
+
+  /**
+   * Forces all changes to be written to disk.
+   */
+  void force() {
+    for (MappedByteBuffer seg : segments) {
+      seg.force();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    force();
+    channel.close();
+  }
+}
@@ -0,0 +1,171 @@
+package life.catalogue.matching;
+
+import life.catalogue.api.model.Name;
+import life.catalogue.common.tax.SciNameNormalizer;
+import life.catalogue.matching.authorship.NormalizedAuthorship;
+import org.gbif.nameparser.api.NomCode;
+import org.gbif.nameparser.api.Rank;
+
+/**
+ * A compact view of a single name kept in a NameIndexStore.
+ * It exposes the precomputed normalized forms needed to score a candidate during matching,
+ * so stores can avoid normalizing names again and again and also avoid materializing the full name instance
+ * which is only requested for the final match.
+ */
+public abstract class NameCandidate {
+
+  public abstract String getId();
+
+  public abstract Rank getRank();
+
+  public abstract NomCode getCode();
+
+  /**
+   * @return the ascii normalized canonical name with authorship
+   */
+  public abstract String getFullName();
+
+  /**
+   * @return the ascii normalized canonical name without authorship
+   */
+  public abstract String getCanonicalName();
+
+  /**
+   * @return the ascii normalized complete authorship or null
+   */
+  public abstract String getAuthorship();
+
+  /**
+   * @return case insensitive hash of the normalized authorship, see {@link #hash(String)}
+   */
+  public abstract int getAuthorshipHash();
+
+  /**
+   * @return the normalized combination authorship, never null
+   */
+  public abstract NormalizedAuthorship getCombinationAuthorship();
+
+  /**
+   * @return the normalized basionym authorship, never null
+   */
+  public abstract NormalizedAuthorship getBasionymAuthorship();
+
+  /**
+   * @return a string uniquely representing both normalized authorships
+   */
+  public String authorshipKey() {
+    return key(getCombinationAuthorship(), getBasionymAuthorship());
+  }
+
+  static String key(NormalizedAuthorship combination, NormalizedAuthorship basionym) {
+    return combination.key() + '\u0001' + basionym.key();
+  }
+
+  /**
+   * @return the full name instance, potentially materialized from the store on every call
+   */
+  public abstract Name getName();
+
+  /**
+   * A hash code that is equal for all strings that are equal ignoring case,
+   * i.e. a.equalsIgnoreCase(b) implies hash(a) == hash(b).
+   * Folds chars the same way as String.equalsIgnoreCase does.
+   * Null and empty strings both return 0.
+   */
+  public static int hash(String x) {
+    int h = 0;
+    if (x != null) {
+      for (int i = 0; i < x.length(); i++) {
+        h = 31 * h + Character.toLowerCase(Character.toUpperCase(x.charAt(i)));
+      }
+    }
+    return h;
+  }
+
+  /**
+   * Wraps an existing name instance, normalizing its strings lazily on first access.
+   */
+  public static NameCandidate of(Name n) {
+    return new NameWrapper(n);
+  }
+
+  private static class NameWrapper extends NameCandidate {
+    private final Name name;
+    private String fullName;
+    private String canonicalName;
+    private String authorship;
+    private boolean authorshipNormalized;
+    private NormalizedAuthorship combinationAuthorship;
+    private NormalizedAuthorship basionymAuthorship;
+
+    NameWrapper(Name name) {
+      this.name = name;
+    }
+
+    @Override
+    public String getId() {
+      return name.getId();
+    }
+
+    @Override
+    public Rank getRank() {
+      return name.getRank();
+    }
+
+    @Override
+    public NomCode getCode() {
+      return name.getCode();
+    }
+
+    @Override
+    public String getFullName() {
+      if (fullName == null) {
+        fullName = SciNameNormalizer.normalizedAscii(name.canonicalNameWithAuthorship());
+      }
+      return fullName;
+    }
+
+    @Override
+    public String getCanonicalName() {
+      if (canonicalName == null) {
+        canonicalName = SciNameNormalizer.normalizedAscii(name.canonicalNameWithoutAuthorship());
+      }
+      return canonicalName;
+    }
+
+    @Override
+    public String getAuthorship() {
+      if (!authorshipNormalized) {
+        authorship = SciNameNormalizer.normalizedAscii(name.authorshipComplete());
+        authorshipNormalized = true;
+      }
+      return authorship;
+    }
+
+    @Override
+    public int getAuthorshipHash() {
+      return hash(getAuthorship());
+    }
+
+    @Override
+    public NormalizedAuthorship getCombinationAuthorship() {
+      if (combinationAuthorship == null) {
+        combinationAuthorship = NormalizedAuthorship.of(name.getCombinationAuthorship());
+      }
+      return combinationAuthorship;
+    }
+
+    @Override
+    public NormalizedAuthorship getBasionymAuthorship() {
+      if (basionymAuthorship == null) {
+        basionymAuthorship = NormalizedAuthorship.of(name.getBasionymAuthorship());
+      }
+      return basionymAuthorship;
+    }
+
+    @Override
+    public Name getName() {
+      return name;
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package life.catalogue.matching;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import life.catalogue.api.model.Name;
 import life.catalogue.api.model.NameMatch;
@@ -21,6 +23,22 @@ public interface NameIndex extends AutoCloseable {
    */
   NameMatch match(Name name, boolean allowInserts, boolean verbose);
   
+  /**
+   * Matches a batch of parsed names against the names index without verbose information.
+   * Implementations should be safe to use from concurrent threads.
+   *
+   * @param names        the parsed names to match
+   * @param allowInserts if true inserts names to be matched into the index if not yet existing
+   * @return list of matches in the same order as the names given
+   */
+  default List<NameMatch> matchAll(List<Name> names, boolean allowInserts) {
+    List<NameMatch> matches = new ArrayList<>(names.size());
+    for (Name n : names) {
+      matches.add(match(n, allowInserts, false));
+    }
+    return matches;
+  }
+  
   /**
    * @return the number of names in the index
    */
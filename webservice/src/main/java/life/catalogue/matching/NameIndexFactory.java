@@ -46,25 +46,51 @@ public class NameIndexFactory {
    * Returns a persistent index if location is given, otherwise an in memory one
    */
   public static NameIndex persistentOrMemory(@Nullable File location, SqlSessionFactory sqlFactory, AuthorshipNormalizer aNormalizer) throws IOException {
+    return persistentOrMemory(location, false, sqlFactory, aNormalizer);
+  }
+  
+  /**
+   * Returns a persistent index if location is given, otherwise an in memory one
+   * @param mmap if true use the memory mapped store for a persistent index, treating the location as a directory
+   */
+  public static NameIndex persistentOrMemory(@Nullable File location, boolean mmap, SqlSessionFactory sqlFactory, AuthorshipNormalizer aNormalizer) throws IOException {
+    return persistentOrMemory(location, mmap, false, sqlFactory, aNormalizer);
+  }
+  
+  /**
+   * Returns a persistent index if location is given, otherwise an in memory one
+   * @param mmap if true use the memory mapped store for a persistent index, treating the location as a directory
+   * @param fuzzy if true match unknown names against similarly spelled ones
+   */
+  public static NameIndex persistentOrMemory(@Nullable File location, boolean mmap, boolean fuzzy, SqlSessionFactory sqlFactory, AuthorshipNormalizer aNormalizer) throws IOException {
     NameIndex ni;
     if (location == null) {
-      ni = memory(sqlFactory, aNormalizer);
+      ni = memory(fuzzy, sqlFactory, aNormalizer);
+    } else if (mmap) {
+      ni = persistentMMap(location, fuzzy, sqlFactory, aNormalizer);
     } else {
-      ni = persistent(location, sqlFactory, aNormalizer);
+      ni = persistent(location, fuzzy, sqlFactory, aNormalizer);
     }
     return ni;
   }
   
   public static NameIndex memory(SqlSessionFactory sqlFactory, AuthorshipNormalizer authorshipNormalizer) {
+    return memory(false, sqlFactory, authorshipNormalizer);
+  }
+  
+  /**
+   * @param fuzzy if true match unknown names against similarly spelled ones
+   */
+  public static NameIndex memory(boolean fuzzy, SqlSessionFactory sqlFactory, AuthorshipNormalizer authorshipNormalizer) {
     LOG.info("Use volatile in memory names index");
     NameIndexStore store = new NameIndexMapDBStore(DBMaker.memoryDB());
-    return new NameIndexImpl(store, authorshipNormalizer, Datasets.NAME_INDEX, sqlFactory);
+    return new NameIndexImpl(store, authorshipNormalizer, Datasets.NAME_INDEX, sqlFactory, fuzzy);
   }
 
   /**
    * Creates or opens a persistent mapdb names index.
    */
-  public static NameIndex persistent(File location, SqlSessionFactory sqlFactory, AuthorshipNormalizer authorshipNormalizer) throws IOException {
+  public static NameIndex persistent(File location, boolean fuzzy, SqlSessionFactory sqlFactory, AuthorshipNormalizer authorshipNormalizer) throws IOException {
     if (!location.exists()) {
       FileUtils.forceMkdirParent(location);
       LOG.info("Create persistent names index at {}", location.getAbsolutePath());
@@ -83,7 +109,17 @@ public class NameIndexFactory {
       store = new NameIndexMapDBStore(maker);
     }
     LOG.info("Opened names index");
-    return new NameIndexImpl(store, authorshipNormalizer, Datasets.NAME_INDEX, sqlFactory);
+    return new NameIndexImpl(store, authorshipNormalizer, Datasets.NAME_INDEX, sqlFactory, fuzzy);
+  }
+  
+  /**
+   * Creates or opens a persistent names index using the compact memory mapped store in the given directory.
+   */
+  public static NameIndex persistentMMap(File dir, boolean fuzzy, SqlSessionFactory sqlFactory, AuthorshipNormalizer authorshipNormalizer) throws IOException {
+    LOG.info("Open memory mapped names index at {}", dir.getAbsolutePath());
+    NameIndexStore store = new NameIndexMMapStore(dir);
+    LOG.info("Opened names index");
+    return new NameIndexImpl(store, authorshipNormalizer, Datasets.NAME_INDEX, sqlFactory, fuzzy);
   }
   
 }
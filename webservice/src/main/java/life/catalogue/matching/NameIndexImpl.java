@@ -1,21 +1,28 @@
 package life.catalogue.matching;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Striped;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import life.catalogue.api.model.Name;
 import life.catalogue.api.model.NameMatch;
 import life.catalogue.api.vocab.MatchType;
 import life.catalogue.api.vocab.NomStatus;
 import life.catalogue.api.vocab.Origin;
 import life.catalogue.api.vocab.Users;
+import life.catalogue.common.concurrent.ExecutorUtils;
+import life.catalogue.common.concurrent.NamedThreadFactory;
 import life.catalogue.common.tax.AuthorshipNormalizer;
 import life.catalogue.common.tax.SciNameNormalizer;
 import life.catalogue.dao.NameDao;
 import life.catalogue.db.mapper.NameMapper;
 import life.catalogue.importer.IdGenerator;
 import life.catalogue.matching.authorship.AuthorComparator;
+import life.catalogue.matching.authorship.NormalizedAuthorship;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.gbif.nameparser.api.NameType;
@@ -24,18 +31,30 @@ import org.gbif.nameparser.api.Rank;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
 
 /**
  * NameMatching implementation that is backed by a generic store with a list of names keyed to their normalised
  * canonical name using the SciNameNormalizer.normalize() method.
+ *
+ * The index is safe for concurrent use. Reads do not block, inserts and updates are guarded by locks
+ * striped by the normalized key so that a given name only gets inserted once.
+ *
+ * Optionally names with an unknown key can be matched fuzzily against similar keys found in a {@link FuzzyKeyIndex}.
  */
 public class NameIndexImpl implements NameIndex {
   private static final Logger LOG = LoggerFactory.getLogger(NameIndexImpl.class);
+  private static final int LOAD_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+  private static final int LOAD_BATCH_SIZE = 1000;
+  // names modified shortly before the checkpoint might have been committed only after it was taken
+  private static final Duration CHECKPOINT_OVERLAP = Duration.ofMinutes(10);
   private static final Set<NameType> INDEX_NAME_TYPES = ImmutableSet.of(
       NameType.SCIENTIFIC, NameType.HYBRID_FORMULA, NameType.VIRUS, NameType.OTU
   );
@@ -43,10 +62,20 @@ public class NameIndexImpl implements NameIndex {
   private final AtomicInteger counter = new AtomicInteger(0);
   private final IdGenerator idGen;
   private final NameIndexStore store;
+  @Nullable
+  private final FuzzyKeyIndex fuzzy;
   private final AuthorComparator authComp;
+  // cache of author comparison results keyed by the normalized query & candidate authorships
+  private final Cache<String, Equality> authComparisons = Caffeine.newBuilder()
+      .maximumSize(100_000)
+      .build();
   private final int datasetKey;
   private final SqlSessionFactory sqlFactory;
   private final NameDao dao;
+  // locks striped by the normalized key to guarantee atomic read & inserts for a given key
+  private final Striped<Lock> locks = Striped.lock(1024);
+  // the latest modified timestamp of all names added from postgres
+  private final AtomicReference<LocalDateTime> maxModified = new AtomicReference<>();
   private LocalDateTime startedLoading;
   
   
@@ -56,24 +85,46 @@ public class NameIndexImpl implements NameIndex {
    * @throws IllegalStateException when db is in a bad state
    */
   public NameIndexImpl(NameIndexStore store, AuthorshipNormalizer normalizer, int datasetKey, SqlSessionFactory sqlFactory) {
+    this(store, normalizer, datasetKey, sqlFactory, false);
+  }
+
+  /**
+   * @param datasetKey the dataset the names index is stored in
+   * @param sqlFactory sql session factory to talk to the data store backend if needed for inserts or initial loading
+   * @param fuzzy if true match names with unknown keys against similar keys
+   * @throws IllegalStateException when db is in a bad state
+   */
+  public NameIndexImpl(NameIndexStore store, AuthorshipNormalizer normalizer, int datasetKey, SqlSessionFactory sqlFactory, boolean fuzzy) {
       this.store = store;
+      this.fuzzy = fuzzy ? new FuzzyKeyIndex(store::containsKey) : null;
       this.authComp = new AuthorComparator(normalizer);
       this.datasetKey = datasetKey;
       this.sqlFactory = Preconditions.checkNotNull(sqlFactory);
       dao = new NameDao(sqlFactory);
       int storeSize = store.count();
+      LocalDateTime checkpoint = store.getCheckpoint();
       if (storeSize == 0) {
         loadFromPg();
+      } else if (checkpoint == null) {
+        LOG.warn("Existing name index contains {} names, but no checkpoint. Reload from postgres", storeSize);
+        loadFromPg();
       } else {
+        // replay all names changed since the last checkpoint
+        loadSince(checkpoint.minus(CHECKPOINT_OVERLAP));
         // verify postgres and store match up - otherwise trust postgres
+        storeSize = store.count();
         long pgCount = countPg();
         if (pgCount != storeSize) {
           LOG.warn("Existing name index contains {} names, but postgres has {}. Trust postgres", storeSize, pgCount);
           loadFromPg();
-        } else {
-          counter.set(storeSize);
         }
       }
+      if (this.fuzzy != null && startedLoading == null) {
+        // keys loaded from postgres are indexed already
+        LOG.info("Indexing names index keys for fuzzy matching");
+        store.forEachKey(this.fuzzy::add);
+      }
+      counter.set(store.count());
       LOG.info("Started name index with {} names", counter.get());
       idGen = new IdGenerator(counter::incrementAndGet);
     }
@@ -84,81 +135,240 @@ public class NameIndexImpl implements NameIndex {
     }
   }
   
+  /**
+   * Clears the store and loads all names from postgres in parallel batches.
+   */
   private void loadFromPg() {
-    LOG.info("Loading names from postgres into names index");
+    LOG.info("Loading names from postgres into names index using {} threads", LOAD_THREADS);
     startedLoading = LocalDateTime.now();
-    counter.set(0);
+    store.clear();
+    maxModified.set(null);
+    ThreadPoolExecutor exec = new ThreadPoolExecutor(LOAD_THREADS, LOAD_THREADS, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(LOAD_THREADS * 2), new NamedThreadFactory("nidx-loader"),
+        // the cursor reading thread adds batches itself if the queue is full
+        new ThreadPoolExecutor.CallerRunsPolicy()
+    );
+    List<Future<?>> futures = new ArrayList<>();
     try (SqlSession s = sqlFactory.openSession()) {
-      NameMapper mapper = s.getMapper(NameMapper.class);
-      mapper.processDataset(datasetKey).forEach(n -> {
-        addWithID(n);
-        counter.incrementAndGet();
-      });
-      LOG.info("Loaded {} names from postgres into names index", counter);
+      List<Name> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+      for (Name n : s.getMapper(NameMapper.class).processDataset(datasetKey)) {
+        batch.add(n);
+        if (batch.size() >= LOAD_BATCH_SIZE) {
+          futures.add(exec.submit(addBatch(batch)));
+          batch = new ArrayList<>(LOAD_BATCH_SIZE);
+        }
+      }
+      futures.add(exec.submit(addBatch(batch)));
+      // make sure all batches succeeded
+      for (Future<?> f : futures) {
+        f.get();
+      }
+    } catch (InterruptedException | ExecutionException e) {
+      throw new IllegalStateException("Failed to load names index from postgres", e);
+    } finally {
+      ExecutorUtils.shutdown(exec);
     }
+    checkpoint();
+    LOG.info("Loaded {} names from postgres into names index", store.count());
   }
   
-  public void loadFromPgSinceStart() {
-    LOG.info("Loading names from postgres into names index");
-    final AtomicInteger newCnt = new AtomicInteger();
+  private Runnable addBatch(List<Name> batch) {
+    return () -> batch.forEach(this::addWithID);
+  }
+  
+  /**
+   * Loads all names modified since the given timestamp, replacing existing versions in the store.
+   */
+  private void loadSince(LocalDateTime since) {
+    LOG.info("Loading names modified since {} from postgres into names index", since);
+    int newCnt = 0;
     try (SqlSession s = sqlFactory.openSession()) {
       NameMapper mapper = s.getMapper(NameMapper.class);
-      mapper.processSince(datasetKey, startedLoading).forEach(n -> {
+      for (Name n : mapper.processSince(datasetKey, since)) {
         addWithID(n);
-        counter.incrementAndGet();
-        newCnt.incrementAndGet();
-      });
-      LOG.info("Loaded {} additional names since start {} from postgres into names index", newCnt, startedLoading);
+        newCnt++;
+      }
     }
+    checkpoint();
+    LOG.info("Loaded {} names modified since {} from postgres into names index", newCnt, since);
+  }
+  
+  /**
+   * Persists the latest modified timestamp of all names loaded so far as the stores checkpoint.
+   */
+  private void checkpoint() {
+    LocalDateTime latest = maxModified.get();
+    if (latest != null) {
+      store.setCheckpoint(latest);
+    }
+  }
+  
+  public void loadFromPgSinceStart() {
+    loadSince(startedLoading);
+    counter.set(store.count());
   }
   
   @Override
   public NameMatch match(Name name, boolean allowInserts, boolean verbose) {
+    final String key = key(name);
+    List<NameCandidate> candidates = store.candidates(key);
+    NameMatch m = matchGroup(name, candidates, verbose);
+    if (candidates == null && fuzzy != null) {
+      m = matchFuzzy(name, key, m, verbose);
+    }
+    if (!m.hasMatch() && allowInserts && isInsertable(name, m)) {
+      m = matchOrInsert(key, name, verbose);
+    }
+    LOG.debug("Matched {} => {}", name.canonicalNameWithAuthorship(), m);
+    return m;
+  }
+  
+  /**
+   * Matches a batch of names, loading the candidates for each normalized key only once.
+   * Names sharing a key are matched in the order given, so a name inserted for the first one
+   * will be matched by subsequent ones.
+   */
+  @Override
+  public List<NameMatch> matchAll(List<Name> names, boolean allowInserts) {
+    // group names by their key, keeping the original order
+    Map<String, IntArrayList> byKey = new LinkedHashMap<>();
+    for (int idx = 0; idx < names.size(); idx++) {
+      byKey.computeIfAbsent(key(names.get(idx)), k -> new IntArrayList(1)).add(idx);
+    }
+    NameMatch[] matches = new NameMatch[names.size()];
+    for (Map.Entry<String, IntArrayList> e : byKey.entrySet()) {
+      final String key = e.getKey();
+      List<NameCandidate> candidates = store.candidates(key);
+      for (int idx : e.getValue()) {
+        Name name = names.get(idx);
+        NameMatch m = matchGroup(name, candidates, false);
+        if (candidates == null && fuzzy != null) {
+          m = matchFuzzy(name, key, m, false);
+        }
+        if (!m.hasMatch() && allowInserts && isInsertable(name, m)) {
+          m = matchOrInsert(key, name, false);
+          // reload candidates to include the new name
+          candidates = store.candidates(key);
+        }
+        LOG.debug("Matched {} => {}", name.canonicalNameWithAuthorship(), m);
+        matches[idx] = m;
+      }
+    }
+    return Arrays.asList(matches);
+  }
+  
+  private boolean isInsertable(Name name, NameMatch m) {
+    if (MatchType.AMBIGUOUS == m.getType()) {
+      LOG.debug("Do not insert ambiguous name match: {}", name.canonicalNameWithAuthorship());
+      return false;
+    } else if (!INDEX_NAME_TYPES.contains(name.getType())) {
+      LOG.debug("Do not insert {} name: {}", name.getType(), name.canonicalNameWithAuthorship());
+      return false;
+    }
+    return true;
+  }
+  
+  /**
+   * Inserts a name while holding the lock for its key.
+   * The name is matched again once the lock is acquired, so concurrent callers only ever insert a name once
+   * and later ones will match the inserted name instead.
+   */
+  private NameMatch matchOrInsert(String key, Name name, boolean verbose) {
+    Lock lock = locks.get(key);
+    lock.lock();
+    try {
+      NameMatch m = matchGroup(name, store.candidates(key), verbose);
+      if (!m.hasMatch() && isInsertable(name, m)) {
+        m.setName(insert(name));
+        m.setType(MatchType.INSERTED);
+        LOG.debug("Inserted: {}", m.getName().canonicalNameWithAuthorship());
+      }
+      return m;
+    } finally {
+      lock.unlock();
+    }
+  }
+  
+  /**
+   * Tries to match a name with an unknown key against the names of the most similar existing keys.
+   * Several matches from equally similar keys are ambiguous.
+   *
+   * @param m the exact match result to return if nothing similar matches
+   */
+  private NameMatch matchFuzzy(Name name, String key, NameMatch m, boolean verbose) {
+    List<NameMatch> matches = new ArrayList<>();
+    double bestSimilarity = 0;
+    for (FuzzyKeyIndex.Scored sk : fuzzy.candidates(key)) {
+      if (!matches.isEmpty() && sk.getSimilarity() < bestSimilarity) {
+        break;
+      }
+      NameMatch fm = matchGroup(name, store.candidates(sk.getKey()), verbose);
+      if (fm.hasMatch()) {
+        matches.add(fm);
+        bestSimilarity = sk.getSimilarity();
+      }
+    }
+    if (matches.isEmpty()) {
+      return m;
+
+    } else if (matches.size() == 1) {
+      m = matches.get(0);
+      m.setType(MatchType.FUZZY);
+      return m;
+
+    } else {
+      LOG.debug("Ambiguous fuzzy match ({} hits) for {}", matches.size(), name.canonicalNameWithAuthorship());
+      m = new NameMatch();
+      m.setType(MatchType.AMBIGUOUS);
+      List<Name> alternatives = new ArrayList<>(matches.size());
+      for (NameMatch fm : matches) {
+        alternatives.add(fm.getName());
+      }
+      m.setAlternatives(alternatives);
+      return m;
+    }
+  }
+
+  private NameMatch matchGroup(Name name, @Nullable List<NameCandidate> candidates, boolean verbose) {
     NameMatch m;
-    List<Name> candidates = store.get(key(name));
     if (candidates != null) {
       m = matchCandidates(name, candidates);
       if (verbose) {
-        if (m.hasMatch()) {
-          candidates.remove(m.getName());
+        List<Name> alternatives = new ArrayList<>(candidates.size());
+        for (NameCandidate c : candidates) {
+          if (!m.hasMatch() || !c.getId().equals(m.getName().getId())) {
+            alternatives.add(c.getName());
+          }
         }
-        m.setAlternatives(candidates);
+        m.setAlternatives(alternatives);
       }
       
     } else {
       m = NameMatch.noMatch();
     }
-    
-    if (!m.hasMatch() && allowInserts) {
-      if (MatchType.AMBIGUOUS == m.getType()) {
-        LOG.debug("Do not insert ambiguous name match: {}", name.canonicalNameWithAuthorship());
-      } else if (INDEX_NAME_TYPES.contains(name.getType())) {
-        m.setName(insert(name));
-        m.setType(MatchType.INSERTED);
-        LOG.debug("Inserted: {}", m.getName().canonicalNameWithAuthorship());
-      } else {
-        LOG.debug("Do not insert {} name: {}", name.getType(), name.canonicalNameWithAuthorship());
-      }
-    }
-    LOG.debug("Matched {} => {}", name.canonicalNameWithAuthorship(), m);
     return m;
   }
   
   /**
-   * Does comparison by rank, author and nom code to pick real match from candidates
+   * Does comparison by rank, author and nom code to pick real match from candidates.
+   * Candidates are scored by their precomputed normalized forms and only the selected ones get materialized into full names.
    */
-  private NameMatch matchCandidates(Name query, final List<Name> candidates) {
+  private NameMatch matchCandidates(Name query, final List<NameCandidate> candidates) {
     final boolean compareRank = query.getRank() != null && query.getRank() != Rank.UNRANKED;
     final boolean compareAuthorship = query.hasAuthorship();
     final boolean compareCode = query.getCode() != null;
     final String queryname = SciNameNormalizer.normalizedAscii(query.canonicalNameWithoutAuthorship());
     final String queryfullname = SciNameNormalizer.normalizedAscii(query.canonicalNameWithAuthorship());
     final String queryauthorship = Strings.nullToEmpty(SciNameNormalizer.normalizedAscii(query.authorshipComplete()));
+    final int queryauthorshipHash = NameCandidate.hash(queryauthorship);
+    final NormalizedAuthorship querycomb = compareAuthorship ? NormalizedAuthorship.of(query.getCombinationAuthorship()) : null;
+    final NormalizedAuthorship querybas = compareAuthorship ? NormalizedAuthorship.of(query.getBasionymAuthorship()) : null;
+    final String queryauthorshipKey = compareAuthorship ? NameCandidate.key(querycomb, querybas) : null;
     // calculate score by rank, nomCode & authorship
     // immediately filtering no matches with a negative score
     int bestScore = 0;
-    final List<Name> matches = Lists.newArrayList();
-    for (Name n : candidates) {
+    final List<NameCandidate> matches = Lists.newArrayList();
+    for (NameCandidate n : candidates) {
       // 0 to 5
       int score = 0;
       
@@ -173,7 +383,7 @@ public class NameIndexImpl implements NameIndex {
       }
       
       // exact full name match: =5
-      if (queryfullname.equalsIgnoreCase(SciNameNormalizer.normalizedAscii(n.canonicalNameWithAuthorship()))) {
+      if (queryfullname.equalsIgnoreCase(n.getFullName())) {
         score = 5;
         
       } else {
@@ -181,19 +391,19 @@ public class NameIndexImpl implements NameIndex {
         // 0 for unknown match
         // +1 for equal authorships
         // +2 for exact equal authorship strings
-        Equality aeq = compareAuthorship ? authComp.compare(query, n) : Equality.UNKNOWN;
+        Equality aeq = compareAuthorship ? compareAuthorship(querycomb, querybas, queryauthorshipKey, n) : Equality.UNKNOWN;
         if (aeq == Equality.DIFFERENT) {
           continue;
         }
         
-        if (queryauthorship.equalsIgnoreCase(SciNameNormalizer.normalizedAscii(n.authorshipComplete()))) {
+        if (queryauthorshipHash == n.getAuthorshipHash() && queryauthorship.equalsIgnoreCase(n.getAuthorship())) {
           score += 2;
         } else if (aeq == Equality.EQUAL) {
           score += 1;
         }
         
         // exact canonical name match: +1
-        if (queryname.equalsIgnoreCase(SciNameNormalizer.normalizedAscii(n.canonicalNameWithoutAuthorship()))) {
+        if (queryname.equalsIgnoreCase(n.getCanonicalName())) {
           score += 1;
         }
       }
@@ -204,22 +414,36 @@ public class NameIndexImpl implements NameIndex {
       return NameMatch.noMatch();
       
     } else if (matches.size() == 1) {
-      return buildMatch(query, matches.get(0));
+      return buildMatch(query, matches.get(0).getName());
       
     } else {
       // multiple, ambiguous matches
       LOG.debug("Ambiguous match ({} hits) for {}", matches.size(), query.canonicalNameWithAuthorship());
       NameMatch m = new NameMatch();
       m.setType(MatchType.AMBIGUOUS);
-      m.setAlternatives(matches);
+      List<Name> alternatives = new ArrayList<>(matches.size());
+      for (NameCandidate c : matches) {
+        alternatives.add(c.getName());
+      }
+      m.setAlternatives(alternatives);
       return m;
     }
   }
   
+  /**
+   * Compares the precomputed authorships of a query and a candidate,
+   * caching the result as the same authorships get compared very often.
+   */
+  private Equality compareAuthorship(NormalizedAuthorship querycomb, NormalizedAuthorship querybas, String queryKey, NameCandidate n) {
+    return authComparisons.get(queryKey + '\u0002' + n.authorshipKey(), k -> authComp.compare(
+        querycomb, querybas, n.getCombinationAuthorship(), n.getBasionymAuthorship()
+    ));
+  }
+  
   /**
    * @return new best score
    */
-  private int addOrRemove(int score, Name n, int bestScore, List<Name> matches) {
+  private int addOrRemove(int score, NameCandidate n, int bestScore, List<NameCandidate> matches) {
     if (score < bestScore) {
       //LOG.debug("Worse match {}<{}: {}", score, bestScore, n.canonicalNameComplete());
       return bestScore;
@@ -279,19 +503,23 @@ public class NameIndexImpl implements NameIndex {
     addWithID(name);
   }
   
-  private synchronized void addWithID(Name name) {
-    String key = key(name);
-    ArrayList<Name> group;
-    if (store.containsKey(key)) {
-      group = store.get(key);
-      // remove previous version if itt already existed.
+  private void addWithID(Name name) {
+    if (name.getModified() != null) {
+      maxModified.accumulateAndGet(name.getModified(), (a, b) -> a == null || b.isAfter(a) ? b : a);
+    }
+    final String key = key(name);
+    Lock lock = locks.get(key);
+    lock.lock();
+    try {
+      // the store removes a previous version if it already existed.
       // Note that if the scientificName changed the key is likely different !!!
-      group.removeIf(ex -> ex.getId().equals(name.getId()));
-    } else {
-      group = new ArrayList<>(1);
+      store.add(key, name);
+      if (fuzzy != null) {
+        fuzzy.add(key);
+      }
+    } finally {
+      lock.unlock();
     }
-    group.add(name);
-    store.put(key, group);
   }
   
   private static String key(Name n) {
@@ -348,6 +576,7 @@ public class NameIndexImpl implements NameIndex {
   @Override
   public void close() throws Exception {
     LOG.info("Closing names index ...");
+    checkpoint();
     store.close();
     LOG.info("Names index db closed");
   }
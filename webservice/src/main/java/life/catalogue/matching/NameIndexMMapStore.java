@@ -0,0 +1,728 @@
+package life.catalogue.matching;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.util.Pool;
+import it.unimi.dsi.fastutil.HashCommon;
+import life.catalogue.api.model.Name;
+import life.catalogue.common.kryo.ApiKryoPool;
+import life.catalogue.common.tax.SciNameNormalizer;
+import life.catalogue.matching.authorship.NormalizedAuthorship;
+import org.apache.commons.io.FileUtils;
+import org.gbif.nameparser.api.NomCode;
+import org.gbif.nameparser.api.Rank;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * NameIndexStore implementation with a compact, memory mapped layout that avoids deserializing entire name groups.
+ * Normalized keys are stored in a mapped keys file and looked up via an in memory open addressing hash table
+ * that only holds the positions of the key entries.
+ * Every indexed name is kept as a fixed width record in a mapped records file, pointing to a variable length entry
+ * in a mapped data file that holds the id, the normalized name strings and finally the kryo serialized name.
+ * The records of a key are chained in insertion order, the key entry pointing to the first and last record.
+ * <p>
+ * Keys file entry layout:
+ * <pre>
+ *  0 int   entry length in bytes
+ *  4 int   index of the first record, -1 for none
+ *  8 int   index of the last record, -1 for none
+ * 12 UTF8 key bytes
+ * </pre>
+ * Records file layout, 28 bytes per record:
+ * <pre>
+ *  0 int   index of the next record of the same key, -1 for the last
+ *  4 byte  deleted flag
+ *  5 byte  nomenclatural code ordinal + 1, 0 for null
+ *  6 short rank ordinal + 1, 0 for null
+ *  8 int   authorship hash
+ * 12 long  data pointer
+ * 20 int   length of the string block in the data file
+ * 24 int   id hash
+ * </pre>
+ * Data entries start with the length prefixed UTF8 strings id, full name, canonical name and authorship,
+ * the normalized combination and basionym authorships, i.e. the author list, year and empty flag,
+ * followed by the length prefixed kryo bytes of the name.
+ * Entries are encoded before the write lock is taken, so concurrent writers only serialize the actual appends.
+ * Candidates copy their entire data entry while holding the read lock and never touch the mapped files afterwards.
+ * <p>
+ * Counters, file sizes and the checkpoint are kept in a small properties file that is written whenever a checkpoint
+ * is set and when the store is closed. Existing records are only ever modified by relinking chains,
+ * so a store that was not closed cleanly is restored to its last checkpoint, cutting off all records appended later.
+ * Names replaced after the checkpoint might be missing and need to be reloaded from their source.
+ */
+public class NameIndexMMapStore implements NameIndexStore {
+  private static final Logger LOG = LoggerFactory.getLogger(NameIndexMMapStore.class);
+  private static final int VERSION = 4;
+  static final int RECORD_SIZE = 28;
+  // 2.8 million records per segment, a multiple of the record size
+  private static final int RECORD_SEGMENT_SIZE = RECORD_SIZE * (1 << 16) * 44;
+  private static final int KEY_SEGMENT_SIZE = 1 << 26;
+  private static final int KEY_HEAD = 4;
+  private static final int KEY_TAIL = 8;
+  private static final int KEY_HEADER = 12;
+  private static final int DATA_SEGMENT_SIZE = 1 << 28;
+  private static final float MAX_LOAD = 0.75f;
+  private static final String META_FILE = "meta.properties";
+  private static final String KEYS_FILE = "keys.bin";
+  private static final String RECORDS_FILE = "records.bin";
+  private static final String DATA_FILE = "data.bin";
+  private static final Rank[] RANKS = Rank.values();
+  private static final NomCode[] CODES = NomCode.values();
+
+  private final File dir;
+  private final Pool<Kryo> pool = new ApiKryoPool(8);
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final MMapFile keys;
+  private final MMapFile records;
+  private final MMapFile data;
+  // open addressing hash table with linear probing of key entry positions + 1, 0 for empty slots
+  private long[] slots;
+  private int keyCount;
+  private int recordCount;
+  private int liveCount;
+  private volatile LocalDateTime checkpoint;
+  private boolean closed;
+
+  /**
+   * Creates or opens a store in the given directory.
+   */
+  public NameIndexMMapStore(File dir) throws IOException {
+    this.dir = dir;
+    Properties meta = readMeta(dir);
+    if (meta == null) {
+      if (dir.exists()) {
+        LOG.warn("Names index store at {} has no valid checkpoint. Remove and rebuild from scratch", dir.getAbsolutePath());
+        FileUtils.deleteDirectory(dir);
+      }
+      FileUtils.forceMkdir(dir);
+      meta = new Properties();
+    }
+    recordCount = Integer.parseInt(meta.getProperty("records", "0"));
+    long keysSize = Long.parseLong(meta.getProperty("keysSize", "0"));
+    long dataSize = Long.parseLong(meta.getProperty("data", "0"));
+    if (meta.containsKey("checkpoint")) {
+      checkpoint = LocalDateTime.parse(meta.getProperty("checkpoint"));
+    }
+    keys = new MMapFile(new File(dir, KEYS_FILE), KEY_SEGMENT_SIZE, keysSize);
+    records = new MMapFile(new File(dir, RECORDS_FILE), RECORD_SEGMENT_SIZE, (long) recordCount * RECORD_SIZE);
+    data = new MMapFile(new File(dir, DATA_FILE), DATA_SEGMENT_SIZE, dataSize);
+    slots = new long[HashCommon.arraySize(Math.max(1024, Integer.parseInt(meta.getProperty("keys", "0"))), MAX_LOAD)];
+    forEachEntry(pos -> addSlot(pos, hash(keyBytes(pos))));
+    if (Boolean.parseBoolean(meta.getProperty("clean", "true"))) {
+      liveCount = Integer.parseInt(meta.getProperty("live", "0"));
+    } else {
+      LOG.warn("Names index store at {} was not closed cleanly. Restore checkpoint {}", dir.getAbsolutePath(), checkpoint);
+      restore();
+    }
+    // mark store as open until it gets closed
+    writeMeta(false);
+    LOG.info("Opened names index store at {} with {} keys and {} names", dir.getAbsolutePath(), keyCount, liveCount);
+  }
+
+  /**
+   * @return the meta properties or null if the store does not exist or has an incompatible version
+   */
+  private static Properties readMeta(File dir) throws IOException {
+    File mf = new File(dir, META_FILE);
+    if (mf.exists()) {
+      Properties meta = new Properties();
+      try (Reader reader = new InputStreamReader(new FileInputStream(mf), StandardCharsets.UTF_8)) {
+        meta.load(reader);
+      }
+      if (Integer.parseInt(meta.getProperty("version", "0")) == VERSION) {
+        return meta;
+      }
+      LOG.warn("Names index store at {} has an incompatible version", dir.getAbsolutePath());
+    }
+    return null;
+  }
+
+  /**
+   * Flushes all mapped files to disk and then atomically replaces the meta file
+   * so it always describes a consistent state of the store.
+   *
+   * @param clean true if the store is closed and no further changes follow
+   */
+  private void writeMeta(boolean clean) throws IOException {
+    keys.force();
+    records.force();
+    data.force();
+    Properties meta = new Properties();
+    meta.setProperty("version", String.valueOf(VERSION));
+    meta.setProperty("clean", String.valueOf(clean));
+    meta.setProperty("keys", String.valueOf(keyCount));
+    meta.setProperty("keysSize", String.valueOf(keys.size()));
+    meta.setProperty("records", String.valueOf(recordCount));
+    meta.setProperty("live", String.valueOf(liveCount));
+    meta.setProperty("data", String.valueOf(data.size()));
+    if (checkpoint != null) {
+      meta.setProperty("checkpoint", checkpoint.toString());
+    }
+    File tmp = new File(dir, META_FILE + ".tmp");
+    try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+      meta.store(writer, "names index store");
+    }
+    Files.move(tmp.toPath(), new File(dir, META_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Cuts off all links to records appended after the last checkpoint and recounts the live records.
+   * Record chains are strictly ascending, so any link beyond the checkpoint ends a chain.
+   */
+  private void restore() {
+    liveCount = 0;
+    forEachEntry(pos -> {
+      int last = -1;
+      int idx = keys.getInt(pos + KEY_HEAD);
+      if (idx >= recordCount) {
+        keys.putInt(pos + KEY_HEAD, -1);
+        idx = -1;
+      }
+      while (idx >= 0) {
+        liveCount++;
+        last = idx;
+        idx = records.getInt(recordPos(idx));
+        if (idx >= recordCount) {
+          records.putInt(recordPos(last), -1);
+          idx = -1;
+        }
+      }
+      keys.putInt(pos + KEY_TAIL, last);
+    });
+  }
+
+  /**
+   * Calls the action with the position of every key entry.
+   */
+  private void forEachEntry(LongConsumer action) {
+    long pos = keys.entryStart(0);
+    while (pos < keys.size()) {
+      action.accept(pos);
+      pos = keys.entryStart(pos + keys.getInt(pos));
+    }
+  }
+
+  private byte[] keyBytes(long pos) {
+    return keys.read(pos + KEY_HEADER, keys.getInt(pos) - KEY_HEADER);
+  }
+
+  private static long recordPos(int idx) {
+    return (long) idx * RECORD_SIZE;
+  }
+
+  private static int hash(byte[] key) {
+    return HashCommon.mix(Arrays.hashCode(key));
+  }
+
+  /**
+   * Adds a new key entry to the hash table, doubling its size if needed.
+   */
+  private void addSlot(long pos, int hash) {
+    if (keyCount + 1 > slots.length * MAX_LOAD) {
+      long[] old = slots;
+      slots = new long[old.length * 2];
+      for (long p : old) {
+        if (p != 0) {
+          insertSlot(p - 1, hash(keyBytes(p - 1)));
+        }
+      }
+    }
+    insertSlot(pos, hash);
+    keyCount++;
+  }
+
+  private void insertSlot(long pos, int hash) {
+    final int mask = slots.length - 1;
+    int i = hash & mask;
+    while (slots[i] != 0) {
+      i = (i + 1) & mask;
+    }
+    slots[i] = pos + 1;
+  }
+
+  /**
+   * @return the position of the key entry or -1 if the key does not exist
+   */
+  private long find(byte[] key) {
+    final int mask = slots.length - 1;
+    for (int i = hash(key) & mask; slots[i] != 0; i = (i + 1) & mask) {
+      long pos = slots[i] - 1;
+      if (keys.getInt(pos) == KEY_HEADER + key.length && keys.matches(pos + KEY_HEADER, key)) {
+        return pos;
+      }
+    }
+    return -1;
+  }
+
+  private long find(String key) {
+    return find(key.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @return the position of the existing or newly created key entry
+   */
+  private long keyEntry(String key) throws IOException {
+    byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+    long pos = find(bytes);
+    if (pos < 0) {
+      ByteBuffer entry = ByteBuffer.allocate(KEY_HEADER + bytes.length);
+      entry.putInt(KEY_HEADER + bytes.length);
+      entry.putInt(-1);
+      entry.putInt(-1);
+      entry.put(bytes);
+      pos = keys.append(entry.array());
+      addSlot(pos, hash(bytes));
+    }
+    return pos;
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("Names index store at " + dir.getAbsolutePath() + " is closed");
+    }
+  }
+
+  @Override
+  public int count() {
+    lock.readLock().lock();
+    try {
+      checkOpen();
+      return liveCount;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Removes all names and deletes the meta file, as existing files are overwritten from the start.
+   * A crash before the next checkpoint therefore rebuilds the store from scratch.
+   */
+  @Override
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      checkOpen();
+      Files.deleteIfExists(new File(dir, META_FILE).toPath());
+      keys.reset();
+      records.reset();
+      data.reset();
+      slots = new long[HashCommon.arraySize(1024, MAX_LOAD)];
+      keyCount = 0;
+      recordCount = 0;
+      liveCount = 0;
+      checkpoint = null;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public LocalDateTime getCheckpoint() {
+    return checkpoint;
+  }
+
+  /**
+   * Sets the checkpoint and persists the current state of the store, so it can be restored after a crash.
+   */
+  @Override
+  public void setCheckpoint(LocalDateTime checkpoint) {
+    lock.writeLock().lock();
+    try {
+      checkOpen();
+      this.checkpoint = checkpoint;
+      writeMeta(false);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public ArrayList<Name> get(String key) {
+    List<NameCandidate> candidates = candidates(key);
+    if (candidates == null) {
+      return null;
+    }
+    ArrayList<Name> names = new ArrayList<>(candidates.size());
+    for (NameCandidate c : candidates) {
+      names.add(c.getName());
+    }
+    return names;
+  }
+
+  @Override
+  public void forEachKey(Consumer<String> action) {
+    lock.readLock().lock();
+    try {
+      checkOpen();
+      forEachEntry(pos -> action.accept(new String(keyBytes(pos), StandardCharsets.UTF_8)));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean containsKey(String key) {
+    lock.readLock().lock();
+    try {
+      checkOpen();
+      long pos = find(key);
+      return pos >= 0 && keys.getInt(pos + KEY_HEAD) >= 0;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<NameCandidate> candidates(String key) {
+    lock.readLock().lock();
+    try {
+      checkOpen();
+      long pos = find(key);
+      if (pos < 0 || keys.getInt(pos + KEY_HEAD) < 0) {
+        return null;
+      }
+      List<NameCandidate> candidates = new ArrayList<>();
+      for (int idx = keys.getInt(pos + KEY_HEAD); idx >= 0; idx = records.getInt(recordPos(idx))) {
+        candidates.add(new Candidate(idx));
+      }
+      return candidates;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void put(String key, ArrayList<Name> group) {
+    List<Entry> entries = new ArrayList<>(group.size());
+    for (Name n : group) {
+      entries.add(encode(n));
+    }
+    lock.writeLock().lock();
+    try {
+      checkOpen();
+      long pos = keyEntry(key);
+      for (int idx = keys.getInt(pos + KEY_HEAD); idx >= 0; idx = records.getInt(recordPos(idx))) {
+        delete(idx);
+      }
+      keys.putInt(pos + KEY_HEAD, -1);
+      keys.putInt(pos + KEY_TAIL, -1);
+      for (Entry entry : entries) {
+        append(pos, entry);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void add(String key, Name name) {
+    Entry entry = encode(name);
+    lock.writeLock().lock();
+    try {
+      checkOpen();
+      long pos = keyEntry(key);
+      // unlink previous version if it already existed
+      int prev = -1;
+      int idx = keys.getInt(pos + KEY_HEAD);
+      while (idx >= 0) {
+        int next = records.getInt(recordPos(idx));
+        // compare the stored id hash before decoding the id itself
+        if (records.getInt(recordPos(idx) + 24) == entry.idHash && Objects.equals(readId(idx), name.getId())) {
+          delete(idx);
+          if (prev < 0) {
+            keys.putInt(pos + KEY_HEAD, next);
+          } else {
+            records.putInt(recordPos(prev), next);
+          }
+          if (next < 0) {
+            keys.putInt(pos + KEY_TAIL, prev);
+          }
+        } else {
+          prev = idx;
+        }
+        idx = next;
+      }
+      append(pos, entry);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void delete(int idx) {
+    records.putByte(recordPos(idx) + 4, (byte) 1);
+    liveCount--;
+  }
+
+  /**
+   * A name encoded as a data entry together with the fields of its record.
+   */
+  private static class Entry {
+    private final byte[] bytes;
+    private final int stringLength;
+    private final byte code;
+    private final short rank;
+    private final int authorshipHash;
+    private final int idHash;
+
+    Entry(byte[] bytes, int stringLength, Name n, int authorshipHash) {
+      this.bytes = bytes;
+      this.stringLength = stringLength;
+      this.code = n.getCode() == null ? 0 : (byte) (n.getCode().ordinal() + 1);
+      this.rank = n.getRank() == null ? 0 : (short) (n.getRank().ordinal() + 1);
+      this.authorshipHash = authorshipHash;
+      this.idHash = Objects.hashCode(n.getId());
+    }
+  }
+
+  /**
+   * Normalizes and serializes the name into a data entry. Does not access the store and needs no lock.
+   */
+  private Entry encode(Name n) {
+    String authorship = SciNameNormalizer.normalizedAscii(n.authorshipComplete());
+    ByteArrayOutputStream strings = new ByteArrayOutputStream(128);
+    try (DataOutputStream out = new DataOutputStream(strings)) {
+      writeString(out, n.getId());
+      writeString(out, SciNameNormalizer.normalizedAscii(n.canonicalNameWithAuthorship()));
+      writeString(out, SciNameNormalizer.normalizedAscii(n.canonicalNameWithoutAuthorship()));
+      writeString(out, authorship);
+      writeAuthorship(out, NormalizedAuthorship.of(n.getCombinationAuthorship()));
+      writeAuthorship(out, NormalizedAuthorship.of(n.getBasionymAuthorship()));
+      byte[] nameBytes = serialize(n);
+      // the string block length does not include the serialized name
+      int stringLength = out.size();
+      out.writeInt(nameBytes.length);
+      out.write(nameBytes);
+      out.flush();
+      return new Entry(strings.toByteArray(), stringLength, n, NameCandidate.hash(authorship));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Writes the data entry and a new record and links it as the last record of the given key entry.
+   */
+  private void append(long keyPos, Entry e) throws IOException {
+    long dataPos = data.append(e.bytes);
+    ByteBuffer rec = ByteBuffer.allocate(RECORD_SIZE);
+    rec.putInt(-1);
+    rec.put((byte) 0);
+    rec.put(e.code);
+    rec.putShort(e.rank);
+    rec.putInt(e.authorshipHash);
+    rec.putLong(dataPos);
+    rec.putInt(e.stringLength);
+    rec.putInt(e.idHash);
+    records.append(rec.array());
+    final int idx = recordCount++;
+    int tail = keys.getInt(keyPos + KEY_TAIL);
+    if (tail < 0) {
+      keys.putInt(keyPos + KEY_HEAD, idx);
+    } else {
+      records.putInt(recordPos(tail), idx);
+    }
+    keys.putInt(keyPos + KEY_TAIL, idx);
+    liveCount++;
+  }
+
+  /**
+   * Decodes only the id, the first string of the data entry of a record.
+   */
+  private String readId(int idx) {
+    long dataPos = records.getLong(recordPos(idx) + 12);
+    int len = data.getInt(dataPos);
+    return len < 0 ? null : new String(data.read(dataPos + 4, len), StandardCharsets.UTF_8);
+  }
+
+  private static void writeString(DataOutputStream out, String x) throws IOException {
+    if (x == null) {
+      out.writeInt(-1);
+    } else {
+      byte[] bytes = x.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  private static void writeAuthorship(DataOutputStream out, NormalizedAuthorship a) throws IOException {
+    out.writeInt(a.getAuthors().size());
+    for (String x : a.getAuthors()) {
+      writeString(out, x);
+    }
+    writeString(out, a.getYear());
+    out.writeBoolean(a.isEmpty());
+  }
+
+  private static NormalizedAuthorship readAuthorship(ByteBuffer buf) {
+    int size = buf.getInt();
+    List<String> authors = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      authors.add(readString(buf));
+    }
+    String year = readString(buf);
+    boolean empty = buf.get() != 0;
+    return new NormalizedAuthorship(authors, year, empty);
+  }
+
+  private static String readString(ByteBuffer buf) {
+    int len = buf.getInt();
+    if (len < 0) {
+      return null;
+    }
+    String x = new String(buf.array(), buf.position(), len, StandardCharsets.UTF_8);
+    buf.position(buf.position() + len);
+    return x;
+  }
+
+  private byte[] serialize(Name n) {
+    Kryo kryo = pool.obtain();
+    try {
+      Output output = new Output(256, -1);
+      kryo.writeObject(output, n);
+      return output.toBytes();
+    } finally {
+      pool.free(kryo);
+    }
+  }
+
+  private Name deserialize(byte[] bytes, int offset, int length) {
+    Kryo kryo = pool.obtain();
+    try {
+      return kryo.readObject(new Input(bytes, offset, length), Name.class);
+    } finally {
+      pool.free(kryo);
+    }
+  }
+
+  /**
+   * A candidate backed by a copy of a single record and its data entry.
+   * It must be created while holding the read lock, but is independent of the mapped files afterwards.
+   * The strings are decoded eagerly, the name is deserialized from the copied bytes on every call to getName.
+   */
+  private class Candidate extends NameCandidate {
+    private final Rank rank;
+    private final NomCode code;
+    private final int authorshipHash;
+    private final byte[] entry;
+    private final int nameOffset;
+    private final String id;
+    private final String fullName;
+    private final String canonicalName;
+    private final String authorship;
+    private final NormalizedAuthorship combinationAuthorship;
+    private final NormalizedAuthorship basionymAuthorship;
+
+    Candidate(int idx) {
+      long pos = recordPos(idx);
+      byte c = records.getByte(pos + 5);
+      short r = records.getShort(pos + 6);
+      code = c == 0 ? null : CODES[c - 1];
+      rank = r == 0 ? null : RANKS[r - 1];
+      authorshipHash = records.getInt(pos + 8);
+      long dataPos = records.getLong(pos + 12);
+      int stringLength = records.getInt(pos + 20);
+      nameOffset = stringLength + 4;
+      entry = data.read(dataPos, nameOffset + data.getInt(dataPos + stringLength));
+      ByteBuffer buf = ByteBuffer.wrap(entry);
+      id = readString(buf);
+      fullName = readString(buf);
+      canonicalName = readString(buf);
+      authorship = readString(buf);
+      combinationAuthorship = readAuthorship(buf);
+      basionymAuthorship = readAuthorship(buf);
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public Rank getRank() {
+      return rank;
+    }
+
+    @Override
+    public NomCode getCode() {
+      return code;
+    }
+
+    @Override
+    public String getFullName() {
+      return fullName;
+    }
+
+    @Override
+    public String getCanonicalName() {
+      return canonicalName;
+    }
+
+    @Override
+    public String getAuthorship() {
+      return authorship;
+    }
+
+    @Override
+    public int getAuthorshipHash() {
+      return authorshipHash;
+    }
+
+    @Override
+    public NormalizedAuthorship getCombinationAuthorship() {
+      return combinationAuthorship;
+    }
+
+    @Override
+    public NormalizedAuthorship getBasionymAuthorship() {
+      return basionymAuthorship;
+    }
+
+    @Override
+    public Name getName() {
+      return deserialize(entry, nameOffset, entry.length - nameOffset);
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    lock.writeLock().lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      writeMeta(true);
+      keys.close();
+      records.close();
+      data.close();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+}
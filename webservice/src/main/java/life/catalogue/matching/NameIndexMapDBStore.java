@@ -1,14 +1,24 @@
 package life.catalogue.matching;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.util.Pool;
 import life.catalogue.api.model.Name;
 import life.catalogue.common.kryo.ApiKryoPool;
 import life.catalogue.common.kryo.map.MapDbObjectSerializer;
+import life.catalogue.matching.authorship.NormalizedAuthorship;
+import org.gbif.nameparser.api.NomCode;
+import org.gbif.nameparser.api.Rank;
+import org.mapdb.Atomic;
 import org.mapdb.DB;
 import org.mapdb.DBException;
 import org.mapdb.DBMaker;
@@ -18,13 +28,20 @@ import org.slf4j.LoggerFactory;
 
 /**
  * NameIndexStore implementation that is backed by a mapdb using kryo serialization.
+ * Next to the name groups a second map keeps the precomputed match candidates of every group,
+ * so matching neither deserializes nor normalizes the full names.
  */
 public class NameIndexMapDBStore implements NameIndexStore {
   private static final Logger LOG = LoggerFactory.getLogger(NameIndexMapDBStore.class);
+  private static final Rank[] RANKS = Rank.values();
+  private static final NomCode[] CODES = NomCode.values();
   
   private final DB db;
   private final Pool<Kryo> pool;
   private final Map<String, NameList> names;
+  private final Map<String, CandidateList> candidates;
+  private final Atomic.Integer counter;
+  private final Atomic.String checkpoint;
   
   static class NameList extends ArrayList<Name> {
     NameList() {
@@ -40,6 +57,167 @@ public class NameIndexMapDBStore implements NameIndexStore {
     }
   }
   
+  static class CandidateList extends ArrayList<Candidate> {
+    CandidateList() {
+      super(1);
+    }
+
+    CandidateList(int initialCapacity) {
+      super(initialCapacity);
+    }
+
+    static CandidateList of(List<Name> names) {
+      CandidateList candidates = new CandidateList(names.size());
+      for (Name n : names) {
+        candidates.add(Candidate.of(n));
+      }
+      return candidates;
+    }
+  }
+
+  /**
+   * A candidate with all normalized fields precomputed when the name was stored.
+   * The full name is only loaded from the names map when requested.
+   */
+  static class Candidate extends NameCandidate {
+    private final String id;
+    private final Rank rank;
+    private final NomCode code;
+    private final String fullName;
+    private final String canonicalName;
+    private final String authorship;
+    private final int authorshipHash;
+    private final NormalizedAuthorship combinationAuthorship;
+    private final NormalizedAuthorship basionymAuthorship;
+    // the group the name is read from, set when the candidate is listed
+    private Map<String, NameList> names;
+    private String key;
+
+    Candidate(String id, Rank rank, NomCode code, String fullName, String canonicalName, String authorship, int authorshipHash,
+              NormalizedAuthorship combinationAuthorship, NormalizedAuthorship basionymAuthorship) {
+      this.id = id;
+      this.rank = rank;
+      this.code = code;
+      this.fullName = fullName;
+      this.canonicalName = canonicalName;
+      this.authorship = authorship;
+      this.authorshipHash = authorshipHash;
+      this.combinationAuthorship = combinationAuthorship;
+      this.basionymAuthorship = basionymAuthorship;
+    }
+
+    static Candidate of(Name n) {
+      NameCandidate c = NameCandidate.of(n);
+      return new Candidate(c.getId(), c.getRank(), c.getCode(), c.getFullName(), c.getCanonicalName(), c.getAuthorship(),
+          c.getAuthorshipHash(), c.getCombinationAuthorship(), c.getBasionymAuthorship());
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public Rank getRank() {
+      return rank;
+    }
+
+    @Override
+    public NomCode getCode() {
+      return code;
+    }
+
+    @Override
+    public String getFullName() {
+      return fullName;
+    }
+
+    @Override
+    public String getCanonicalName() {
+      return canonicalName;
+    }
+
+    @Override
+    public String getAuthorship() {
+      return authorship;
+    }
+
+    @Override
+    public int getAuthorshipHash() {
+      return authorshipHash;
+    }
+
+    @Override
+    public NormalizedAuthorship getCombinationAuthorship() {
+      return combinationAuthorship;
+    }
+
+    @Override
+    public NormalizedAuthorship getBasionymAuthorship() {
+      return basionymAuthorship;
+    }
+
+    /**
+     * @return the name with the candidates id from the current group or null if it was removed in the meantime
+     */
+    @Override
+    public Name getName() {
+      NameList group = names == null ? null : names.get(key);
+      if (group != null) {
+        for (Name n : group) {
+          if (n.getId().equals(id)) {
+            return n;
+          }
+        }
+      }
+      return null;
+    }
+  }
+
+  static class CandidateSerializer extends Serializer<Candidate> {
+
+    @Override
+    public void write(Kryo kryo, Output output, Candidate c) {
+      output.writeString(c.id);
+      output.writeVarInt(c.rank == null ? 0 : c.rank.ordinal() + 1, true);
+      output.writeVarInt(c.code == null ? 0 : c.code.ordinal() + 1, true);
+      output.writeString(c.fullName);
+      output.writeString(c.canonicalName);
+      output.writeString(c.authorship);
+      output.writeInt(c.authorshipHash);
+      writeAuthorship(output, c.combinationAuthorship);
+      writeAuthorship(output, c.basionymAuthorship);
+    }
+
+    @Override
+    public Candidate read(Kryo kryo, Input input, Class<? extends Candidate> type) {
+      String id = input.readString();
+      int r = input.readVarInt(true);
+      int c = input.readVarInt(true);
+      return new Candidate(id, r == 0 ? null : RANKS[r - 1], c == 0 ? null : CODES[c - 1],
+          input.readString(), input.readString(), input.readString(), input.readInt(),
+          readAuthorship(input), readAuthorship(input));
+    }
+
+    private static void writeAuthorship(Output output, NormalizedAuthorship a) {
+      output.writeVarInt(a.getAuthors().size(), true);
+      for (String x : a.getAuthors()) {
+        output.writeString(x);
+      }
+      output.writeString(a.getYear());
+      output.writeBoolean(a.isEmpty());
+    }
+
+    private static NormalizedAuthorship readAuthorship(Input input) {
+      int size = input.readVarInt(true);
+      List<String> authors = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        authors.add(input.readString());
+      }
+      return new NormalizedAuthorship(authors, input.readString(), input.readBoolean());
+    }
+  }
+
   static class NameIndexKryoPool extends ApiKryoPool {
 
     public NameIndexKryoPool(int maximumCapacity) {
@@ -50,6 +228,8 @@ public class NameIndexMapDBStore implements NameIndexStore {
     public Kryo create() {
       Kryo kryo = super.create();
       kryo.register(NameList.class);
+      kryo.register(CandidateList.class);
+      kryo.register(Candidate.class, new CandidateSerializer());
       return kryo;
     }
   }
@@ -64,22 +244,72 @@ public class NameIndexMapDBStore implements NameIndexStore {
           //.valueInline()
           //.valuesOutsideNodesEnable()
           .createOrOpen();
+      // older stores have no precomputed candidates yet
+      boolean precomputed = db.exists("candidates");
+      candidates = db.hashMap("candidates")
+          .keySerializer(Serializer.STRING_ASCII)
+          .valueSerializer(new MapDbObjectSerializer<>(CandidateList.class, pool, 128))
+          .createOrOpen();
+      if (!precomputed) {
+        precomputeCandidates();
+      }
+      // older stores have no counter yet
+      boolean counted = db.exists("count");
+      counter = db.atomicInteger("count").createOrOpen();
+      if (!counted) {
+        counter.set(countValues());
+      }
+      checkpoint = db.atomicString("checkpoint").createOrOpen();
     }
   
-  @Override
-  public int count() {
-    AtomicInteger counter = new AtomicInteger(0);
+  private void precomputeCandidates() {
+    LOG.info("Precomputing match candidates for all names in the names index");
+    names.forEach((key, group) -> candidates.put(key, CandidateList.of(group)));
+  }
+
+  private int countValues() {
+    LOG.info("Counting all names in the names index");
+    AtomicInteger cnt = new AtomicInteger(0);
     names.values().forEach(vl -> {
-      counter.addAndGet(vl.size());
+      cnt.addAndGet(vl.size());
     });
+    return cnt.get();
+  }
+  
+  @Override
+  public int count() {
     return counter.get();
   }
   
+  @Override
+  public void clear() {
+    names.clear();
+    candidates.clear();
+    counter.set(0);
+    checkpoint.set("");
+  }
+  
+  @Override
+  public LocalDateTime getCheckpoint() {
+    String cp = checkpoint.get();
+    return cp == null || cp.isEmpty() ? null : LocalDateTime.parse(cp);
+  }
+  
+  @Override
+  public void setCheckpoint(LocalDateTime cp) {
+    checkpoint.set(cp.toString());
+  }
+  
   @Override
   public ArrayList<Name> get(String key) {
     return names.get(key);
   }
   
+  @Override
+  public void forEachKey(Consumer<String> action) {
+    names.keySet().forEach(action);
+  }
+
   @Override
   public boolean containsKey(String key) {
     return names.containsKey(key);
@@ -87,9 +317,27 @@ public class NameIndexMapDBStore implements NameIndexStore {
   
   @Override
   public void put(String key, ArrayList<Name> group) {
-    names.put(key, new NameList(group));
+    NameList old = names.put(key, new NameList(group));
+    candidates.put(key, CandidateList.of(group));
+    counter.addAndGet(group.size() - (old == null ? 0 : old.size()));
   }
   
+  /**
+   * Lists the precomputed candidates of the key without touching the full names.
+   */
+  @Override
+  public List<NameCandidate> candidates(String key) {
+    CandidateList group = candidates.get(key);
+    if (group == null) {
+      return null;
+    }
+    for (Candidate c : group) {
+      c.names = names;
+      c.key = key;
+    }
+    return new ArrayList<>(group);
+  }
+
   @Override
   public void close() throws Exception {
     db.close();
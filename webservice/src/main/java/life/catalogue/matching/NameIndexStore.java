@@ -1,19 +1,79 @@
 package life.catalogue.matching;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
 
 import life.catalogue.api.model.Name;
 
 public interface NameIndexStore extends AutoCloseable {
   
   /**
-   * Counts all name usages. Potentially an expensive operation.
+   * Counts all names. Implementations keep a persistent counter so this is a cheap operation.
    */
   int count();
   
+  /**
+   * Removes all names from the store, also resetting the checkpoint.
+   */
+  void clear();
+
+  /**
+   * @return the persisted timestamp of the most recently modified name loaded from postgres or null if not existing
+   */
+  @Nullable
+  LocalDateTime getCheckpoint();
+
+  /**
+   * Persists the timestamp of the most recently modified name loaded from postgres.
+   * Used to incrementally load changed names when an existing store is reopened.
+   */
+  void setCheckpoint(LocalDateTime checkpoint);
+
   ArrayList<Name> get(String key);
   
+  /**
+   * Iterates over all keys of the store. Keys might exist with an empty group of names.
+   */
+  void forEachKey(Consumer<String> action);
+
   boolean containsKey(String key);
   
   void put(String key, ArrayList<Name> group);
+
+  /**
+   * Adds a single name to the group of the given key, replacing an existing name with the same id.
+   * Stores are encouraged to override this to avoid rewriting the entire group.
+   */
+  default void add(String key, Name name) {
+    ArrayList<Name> group;
+    if (containsKey(key)) {
+      group = get(key);
+      group.removeIf(ex -> ex.getId().equals(name.getId()));
+    } else {
+      group = new ArrayList<>(1);
+    }
+    group.add(name);
+    put(key, group);
+  }
+
+  /**
+   * Lists the match candidates for a given key.
+   * Stores with a compact layout should override this to avoid materializing the full names.
+   *
+   * @return list of candidates or null if the key does not exist
+   */
+  default List<NameCandidate> candidates(String key) {
+    ArrayList<Name> group = get(key);
+    if (group == null) {
+      return null;
+    }
+    List<NameCandidate> candidates = new ArrayList<>(group.size());
+    for (Name n : group) {
+      candidates.add(NameCandidate.of(n));
+    }
+    return candidates;
+  }
 }
@@ -39,8 +39,15 @@ public class AuthorComparator {
    * Only if they appear to differ also a year comparison is done which can still yield an overall EQUAL in case years match.
    */
   public Equality compare(@Nullable Authorship a1, @Nullable Authorship a2) {
+    return compare(NormalizedAuthorship.of(a1), NormalizedAuthorship.of(a2));
+  }
+  
+  /**
+   * Same as compare(Authorship, Authorship) but using already normalized authorships.
+   */
+  public Equality compare(NormalizedAuthorship a1, NormalizedAuthorship a2) {
     // compare authors first
-    Equality result = compareAuthorteam(a1, a2, minCommonSubstring, MIN_AUTHOR_LENGTH_WITHOUT_LOOKUP);
+    Equality result = compareAuthorteam(a1.getAuthors(), a2.getAuthors(), minCommonSubstring, MIN_AUTHOR_LENGTH_WITHOUT_LOOKUP);
     if (result != Equality.EQUAL) {
       // if authors are not the same we allow a positive year comparison to override it as author comparison is very difficult
       Equality yresult = new YearComparator(a1.getYear(), a2.getYear()).compare();
@@ -55,19 +62,30 @@ public class AuthorComparator {
    * Does a comparison of recombination and basionym authorship using the author compare method once for the recombination authorship and once for the basionym.
    */
   public Equality compare(Name n1, Name n2) {
-    Equality recomb = compare(n1.getCombinationAuthorship(), n2.getCombinationAuthorship());
+    return compare(
+        NormalizedAuthorship.of(n1.getCombinationAuthorship()), NormalizedAuthorship.of(n1.getBasionymAuthorship()),
+        NormalizedAuthorship.of(n2.getCombinationAuthorship()), NormalizedAuthorship.of(n2.getBasionymAuthorship())
+    );
+  }
+  
+  /**
+   * Same as compare(Name, Name) but using the already normalized recombination and basionym authorships of both names.
+   */
+  public Equality compare(NormalizedAuthorship combination1, NormalizedAuthorship basionym1,
+                          NormalizedAuthorship combination2, NormalizedAuthorship basionym2) {
+    Equality recomb = compare(combination1, combination2);
     if (recomb != Equality.UNKNOWN) {
       // in case the recomb author differs or is the same we are done, no need for basionym authorship comparison
       return recomb;
     }
-    Equality original = compare(n1.getBasionymAuthorship(), n2.getBasionymAuthorship());
+    Equality original = compare(basionym1, basionym2);
     if (original == Equality.UNKNOWN) {
       // a common error is missing brackets, so if all is unknown we compare authorship across brackets and return a possible match
       Equality across = Equality.UNKNOWN;
-      if (n1.getCombinationAuthorship().isEmpty()) {
-        across = compare(n1.getBasionymAuthorship(), n2.getCombinationAuthorship());
-      } else if (n1.getBasionymAuthorship().isEmpty()) {
-        across = compare(n1.getCombinationAuthorship(), n2.getBasionymAuthorship());
+      if (combination1.isEmpty()) {
+        across = compare(basionym1, combination2);
+      } else if (basionym1.isEmpty()) {
+        across = compare(combination1, basionym2);
       }
       return across == Equality.EQUAL ? Equality.EQUAL : Equality.UNKNOWN;
     }
@@ -102,8 +120,15 @@ public class AuthorComparator {
    */
   private Equality compareAuthorteam(@Nullable Authorship a1, @Nullable Authorship a2, int minCommonSubstring, int maxAuthorLengthWithoutLookup) {
     // convert to all lower case, no punctuation but commas seperating authors and normed whitespace
-    List<String> authorTeam1 = normalizer.lookup(AuthorshipNormalizer.normalize(a1), maxAuthorLengthWithoutLookup);
-    List<String> authorTeam2 = normalizer.lookup(AuthorshipNormalizer.normalize(a2), maxAuthorLengthWithoutLookup);
+    return compareAuthorteam(AuthorshipNormalizer.normalize(a1), AuthorshipNormalizer.normalize(a2), minCommonSubstring, maxAuthorLengthWithoutLookup);
+  }
+  
+  /**
+   * Same as above, but with already normalized authors.
+   */
+  private Equality compareAuthorteam(List<String> normedAuthors1, List<String> normedAuthors2, int minCommonSubstring, int maxAuthorLengthWithoutLookup) {
+    List<String> authorTeam1 = normalizer.lookup(normedAuthors1, maxAuthorLengthWithoutLookup);
+    List<String> authorTeam2 = normalizer.lookup(normedAuthors2, maxAuthorLengthWithoutLookup);
     if (!authorTeam1.isEmpty() && !authorTeam2.isEmpty()) {
       Equality equality = compareNormalizedAuthorteam(authorTeam1, authorTeam2, minCommonSubstring);
       if (equality != Equality.EQUAL) {
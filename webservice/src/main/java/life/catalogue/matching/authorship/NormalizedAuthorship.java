@@ -0,0 +1,95 @@
+package life.catalogue.matching.authorship;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+import life.catalogue.common.tax.AuthorshipNormalizer;
+import org.gbif.nameparser.api.Authorship;
+
+/**
+ * The normalized form of a single authorship as used by the AuthorComparator.
+ * It keeps the regex heavy author normalization result, i.e. the output of {@link AuthorshipNormalizer#normalize(Authorship)},
+ * so the same authorship can be compared repeatedly without normalizing it again.
+ * Author lookups are cheap map lookups and are done by the comparator.
+ */
+public class NormalizedAuthorship {
+  public static final NormalizedAuthorship EMPTY = new NormalizedAuthorship(Collections.emptyList(), null, true);
+
+  private final List<String> authors;
+  private final String year;
+  private final boolean empty;
+  private String key;
+
+  /**
+   * @param authors normalized authors as returned by AuthorshipNormalizer.normalize(Authorship)
+   * @param year    the verbatim year
+   * @param empty   true if the original authorship was empty
+   */
+  public NormalizedAuthorship(List<String> authors, @Nullable String year, boolean empty) {
+    this.authors = Objects.requireNonNull(authors);
+    this.year = year;
+    this.empty = empty;
+  }
+
+  public static NormalizedAuthorship of(@Nullable Authorship authorship) {
+    if (authorship == null) {
+      return EMPTY;
+    }
+    return new NormalizedAuthorship(AuthorshipNormalizer.normalize(authorship), authorship.getYear(), authorship.isEmpty());
+  }
+
+  public List<String> getAuthors() {
+    return authors;
+  }
+
+  public String getYear() {
+    return year;
+  }
+
+  public boolean isEmpty() {
+    return empty;
+  }
+
+  /**
+   * @return a string uniquely representing the normalized authorship, useful as a cache key
+   */
+  public String key() {
+    if (key == null) {
+      StringBuilder sb = new StringBuilder();
+      for (String a : authors) {
+        sb.append(a).append('|');
+      }
+      sb.append('#');
+      if (year != null) {
+        sb.append(year);
+      }
+      if (empty) {
+        sb.append('#');
+      }
+      key = sb.toString();
+    }
+    return key;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    NormalizedAuthorship that = (NormalizedAuthorship) o;
+    return empty == that.empty &&
+        authors.equals(that.authors) &&
+        Objects.equals(year, that.year);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(authors, year, empty);
+  }
+
+  @Override
+  public String toString() {
+    return key();
+  }
+}
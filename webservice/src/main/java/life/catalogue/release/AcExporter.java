@@ -1,24 +1,30 @@
 package life.catalogue.release;
 
-import com.google.common.io.Files;
+import com.google.common.base.Throwables;
 import freemarker.template.*;
+import io.dropwizard.lifecycle.Managed;
 import life.catalogue.WsServerConfig;
 import life.catalogue.api.model.Dataset;
 import life.catalogue.api.model.Page;
 import life.catalogue.api.search.DatasetSearchRequest;
 import life.catalogue.api.vocab.Country;
 import life.catalogue.api.vocab.Language;
-import life.catalogue.common.io.CompressionUtil;
+import life.catalogue.common.concurrent.ExecutorUtils;
+import life.catalogue.common.concurrent.NamedThreadFactory;
 import life.catalogue.common.io.Resources;
 import life.catalogue.common.io.UTF8IoUtils;
 import life.catalogue.db.mapper.DatasetMapper;
 import life.catalogue.img.ImgConfig;
-import life.catalogue.postgres.PgCopyUtils;
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.parallel.InputStreamSupplier;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.gbif.nameparser.api.Rank;
+import org.postgresql.copy.PGCopyInputStream;
 import org.postgresql.jdbc.PgConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,10 +40,13 @@ import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
 
-public class AcExporter {
+public class AcExporter implements Managed {
   private static final Logger LOG = LoggerFactory.getLogger(AcExporter.class);
   private static final String EXPORT_SQL = "/exporter/ac-export.sql";
   private static final String CLEANUP_SQL = "exporter/ac-export-cleanup.sql";
@@ -60,49 +69,120 @@ public class AcExporter {
   }
   private final WsServerConfig cfg;
   private final SqlSessionFactory factory;
-  // we only allow a single export to run at a time
-  private static boolean LOCK = false;
+  // exports share the same helper tables in postgres, so only a single export can run at a time
+  private static final ReentrantLock LOCK = new ReentrantLock();
+  // queue for background exports
+  private final ThreadPoolExecutor exec;
+  // copy executor of the currently running export
+  private volatile ExecutorService copyExec;
+  // latest export job by dataset key
+  private final Map<Integer, ExportJob> jobs = new ConcurrentHashMap<>();
 
   public AcExporter(WsServerConfig cfg, SqlSessionFactory factory) {
     this.cfg = cfg;
     this.factory = factory;
+    exec = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new NamedThreadFactory("ac-export"));
+    exec.allowCoreThreadTimeOut(true);
   }
   
   /**
+   * Queues a new export of the given dataset unless there is a waiting or running one already.
+   * @return the queued or already existing export job
+   */
+  public synchronized ExportJob submit(int catalogueKey, Integer userKey) {
+    ExportJob job = jobs.get(catalogueKey);
+    if (job != null && !job.isFinished()) {
+      LOG.info("Export of catalogue {} is already {}", catalogueKey, job.getState());
+      return job;
+    }
+    final ExportJob newJob = new ExportJob(catalogueKey, userKey);
+    jobs.put(catalogueKey, newJob);
+    exec.execute(() -> {
+      newJob.start();
+      try {
+        File arch = export(catalogueKey);
+        newJob.finish(arch.getName());
+      } catch (Throwable e) {
+        LOG.error("Error exporting catalogue {}", catalogueKey, e);
+        newJob.fail(e);
+      }
+    });
+    LOG.info("Queued export of catalogue {}", catalogueKey);
+    return newJob;
+  }
+  
+  /**
+   * @return the latest export job of the given dataset or null if there never was one
+   */
+  public ExportJob getJob(int catalogueKey) {
+    return jobs.get(catalogueKey);
+  }
+  
+  @Override
+  public void start() throws Exception {
+    // nothing to start, exports are queued on demand
+  }
+  
+  /**
+   * Aborts a running export and discards all queued ones.
+   */
+  @Override
+  public void stop() throws Exception {
+    ExecutorService running = copyExec;
+    if (running != null) {
+      running.shutdownNow();
+    }
+    ExecutorUtils.shutdown(exec, ExecutorUtils.MILLIS_TO_DIE, TimeUnit.MILLISECONDS);
+  }
+  
+  /**
+   * Exports a catalogue synchronously, waiting for any other running export to finish first.
+   * The COPY statements are executed concurrently on separate connections
+   * and their results are compressed straight into the archive.
+   * COPY statements drawing record ids from the shared sequence are executed in script order instead,
+   * so the exported ids are deterministic.
+   *
    * @return final archive
    */
-  public File export(int catalogueKey) throws IOException, SQLException, IllegalStateException {
+  public File export(int catalogueKey) throws IOException, SQLException, InterruptedException {
+    LOG.info("Waiting to export catalogue {}", catalogueKey);
+    LOCK.lockInterruptibly();
+    ExecutorService copyExec = Executors.newFixedThreadPool(cfg.exportThreads, new NamedThreadFactory("ac-export-copy-" + catalogueKey));
+    this.copyExec = copyExec;
     File expDir = new File(cfg.normalizer.scratchDir(catalogueKey), "exports");
-    if (!aquireLock()) {
-      throw new IllegalStateException("There is a running export already");
-    }
-
     try {
-      LOG.info("Export catalogue {} to {}", catalogueKey, expDir.getAbsolutePath());
-      // create csv files
+      LOG.info("Export catalogue {}", catalogueKey);
+      ParallelScatterZipCreator zip = new ParallelScatterZipCreator(copyExec);
+      // create csv entries
       try (PgConnection c = cfg.db.connect()) {
         c.setAutoCommit(false);
         executeSql(c, Resources.toString(CLEANUP_SQL));
         setupTables(c);
         InputStream sql = AcExporter.class.getResourceAsStream(EXPORT_SQL);
-        executeAcExportSql(catalogueKey, c, new BufferedReader(new InputStreamReader(sql, StandardCharsets.UTF_8)), expDir);
+        executeAcExportSql(catalogueKey, c, new BufferedReader(new InputStreamReader(sql, StandardCharsets.UTF_8)), zip, expDir);
       } catch (UnsupportedEncodingException e) {
         throw new RuntimeException(e);
       }
       // include images
-      exportLogos(catalogueKey, expDir);
+      exportLogos(catalogueKey, zip);
   
       // export citation.ini
-      exportCitations(catalogueKey, expDir);
+      exportCitations(catalogueKey, zip);
       
-      // zip up archive in download directory
+      // write archive to download directory, waiting for all copy commands to finish
       File arch = new File(cfg.downloadDir, "export-"+catalogueKey+".zip");
-      LOG.info("Zip up archive and move to download");
       if (arch.exists()) {
         LOG.debug("Remove previous export file {}", arch.getAbsolutePath());
       }
       LOG.info("Creating final export archive {}", arch.getAbsolutePath());
-      CompressionUtil.zipDir(expDir, arch, true);
+      try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(arch)) {
+        zip.writeTo(out);
+      } catch (ExecutionException e) {
+        Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+        Throwables.throwIfUnchecked(e.getCause());
+        throw new RuntimeException(e.getCause());
+      }
+      LOG.info("Export archive written: {}", zip.getStatisticsMessage());
       // create sym link to point to latest export
       File symlink = new File(cfg.downloadDir, "ac-export.zip");
       if (symlink.exists()) {
@@ -112,38 +192,86 @@ public class AcExporter {
       return arch;
       
     } finally {
-      LOG.info("Clean up temp files");
-      LOG.debug("Remove temp export directory {}", expDir.getAbsolutePath());
+      copyExec.shutdownNow();
+      awaitCopies(copyExec);
+      this.copyExec = null;
       FileUtils.deleteQuietly(expDir);
-      LOG.debug("Remove temp tables & sequences from postgres");
       LOG.info("Clean up tables & sequences from postgres");
       try (PgConnection c = cfg.db.connect()) {
         c.setAutoCommit(false);
         String sql = Resources.toString(CLEANUP_SQL);
         executeSql(c, sql);
       } finally {
-        releaseLock();
+        LOCK.unlock();
       }
       LOG.info("Export completed");
     }
   }
 
-  private static synchronized boolean aquireLock(){
-    if (!LOCK) {
-      LOCK = true;
-      return true;
+  /**
+   * Waits for copy tasks that are still streaming after a failure.
+   * Interrupts do not abort a blocking COPY, so the export tables must not be dropped before all copies are done.
+   */
+  private static void awaitCopies(ExecutorService copyExec) {
+    try {
+      while (!copyExec.awaitTermination(1, TimeUnit.MINUTES)) {
+        LOG.info("Waiting for running export copy commands to finish");
+      }
+    } catch (InterruptedException e) {
+      LOG.warn("Interrupted while waiting for export copy commands to finish");
+      Thread.currentThread().interrupt();
     }
-    return false;
   }
 
-  private static synchronized void releaseLock(){
-    LOCK = false;
+  /**
+   * Adds a new deflated entry to the archive.
+   */
+  private static void addEntry(ParallelScatterZipCreator zip, String name, InputStreamSupplier source) {
+    ZipArchiveEntry entry = new ZipArchiveEntry(name);
+    entry.setMethod(ZipEntry.DEFLATED);
+    zip.addArchiveEntry(entry, source);
+  }
+  
+  /**
+   * Opens a new connection when the entry is written, streaming the copy output which closes the connection at the end.
+   */
+  private InputStreamSupplier copyOut(String sql) {
+    return () -> {
+      try {
+        final PgConnection con = cfg.db.connect();
+        PGCopyInputStream copy;
+        try {
+          copy = new PGCopyInputStream(con, "COPY (" + sql + ") TO STDOUT WITH " + COPY_WITH);
+        } catch (SQLException | RuntimeException e) {
+          try {
+            con.close();
+          } catch (SQLException e2) {
+            e.addSuppressed(e2);
+          }
+          throw e;
+        }
+        return new FilterInputStream(copy) {
+          @Override
+          public void close() throws IOException {
+            try {
+              super.close();
+            } finally {
+              try {
+                con.close();
+              } catch (SQLException e) {
+                LOG.warn("Failed to close export connection", e);
+              }
+            }
+          }
+        };
+      } catch (SQLException e) {
+        throw new RuntimeException("Failed to copy out " + sql, e);
+      }
+    };
   }
 
-  private void exportCitations(int catalogueKey, File dir) throws IOException {
+  private void exportCitations(int catalogueKey, ParallelScatterZipCreator zip) throws IOException {
     LOG.info("Export citations");
-    File cf = new File(dir, "credits.ini");
-  
     Map<String, Object> data = new HashMap<>();
   
     try (SqlSession session = factory.openSession(true)) {
@@ -156,18 +284,20 @@ public class AcExporter {
       data.put("d", d);
       
       Template temp = fmk.getTemplate("credits.ftl");
-      Writer out = UTF8IoUtils.writerFromFile(cf);
-      temp.process(data, out);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (Writer out = UTF8IoUtils.writerFromStream(bytes)) {
+        temp.process(data, out);
+      }
+      addEntry(zip, "credits.ini", () -> new ByteArrayInputStream(bytes.toByteArray()));
+
     } catch (TemplateException e) {
       LOG.error("Failed to write credits", e);
       throw new RuntimeException(e);
     }
   }
   
-  private void exportLogos(int catalogueKey, File expDir) throws IOException {
+  private void exportLogos(int catalogueKey, ParallelScatterZipCreator zip) {
     LOG.info("Export logos for sources of catalogue " + catalogueKey);
-    File logoDir = new File(expDir, "logos");
-    logoDir.mkdir();
   
     int counter = 0;
     try (SqlSession session = factory.openSession(true)) {
@@ -179,12 +309,9 @@ public class AcExporter {
       for (Dataset d : resp) {
         Path p = cfg.img.datasetLogo(d.getKey(), ImgConfig.Scale.MEDIUM);
         if (java.nio.file.Files.exists(p)) {
-          File img =  new File(logoDir, (d.getKey()-1000) + ".png");
-          Files.copy(p.toFile(), img);
-          
+          addEntry(zip, "logos/" + (d.getKey()-1000) + ".png", fileSource(p));
           p = cfg.img.datasetLogo(d.getKey(), ImgConfig.Scale.SMALL);
-          img =  new File(logoDir, (d.getKey()-1000) + "-sm.png");
-          Files.copy(p.toFile(), img);
+          addEntry(zip, "logos/" + (d.getKey()-1000) + "-sm.png", fileSource(p));
           counter++;
           
         } else {
@@ -196,6 +323,16 @@ public class AcExporter {
     LOG.info(counter + " logos exported");
   }
   
+  private static InputStreamSupplier fileSource(Path p) {
+    return () -> {
+      try {
+        return java.nio.file.Files.newInputStream(p);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    };
+  }
+  
   private static void setupTables(Connection c) throws SQLException, IOException {
     try (Statement st = c.createStatement()) {
       st.execute("CREATE TABLE __ranks (key rank PRIMARY KEY, marker TEXT)");
@@ -230,9 +367,13 @@ public class AcExporter {
   }
   
   /**
-   * @return directory with all CSV dump files
+   * Executes the export sql script, adding an archive entry for every COPY statement
+   * which is run concurrently to the remaining script.
+   * Copies using the record id sequence are written to a file in expDir right away
+   * so ids are assigned in the same order for every export.
+   * All other statements are committed right away so they are visible to the copy connections.
    */
-  private void executeAcExportSql(int datasetKey, PgConnection con, BufferedReader sql, File csvDir) throws IOException, SQLException {
+  private void executeAcExportSql(int datasetKey, PgConnection con, BufferedReader sql, ParallelScatterZipCreator zip, File expDir) throws IOException, SQLException {
     StringBuilder sb = new StringBuilder();
     String line;
     while ((line = sql.readLine()) != null) {
@@ -242,12 +383,22 @@ public class AcExporter {
         sb = new StringBuilder();
       
       } else if (m.find()) {
-        // copy to file
-        File f = new File(csvDir, m.group(1).trim());
-        Files.createParentDirs(f);
-        LOG.info("Exporting " + f.getName());
-        LOG.info("Exporting {}", f.getAbsolutePath());
-        PgCopyUtils.dump(con, sb.toString(), f, COPY_WITH);
+        // copy into archive entry
+        String name = m.group(1).trim();
+        String copy = sb.toString();
+        if (copy.contains("nextval(")) {
+          LOG.info("Exporting {} sequentially", name);
+          File f = new File(expDir, name);
+          FileUtils.forceMkdirParent(f);
+          try (OutputStream out = new FileOutputStream(f)) {
+            con.getCopyAPI().copyOut("COPY (" + copy + ") TO STDOUT WITH " + COPY_WITH, out);
+          }
+          con.commit();
+          addEntry(zip, name, fileSource(f.toPath()));
+        } else {
+          LOG.info("Exporting {}", name);
+          addEntry(zip, name, copyOut(copy));
+        }
         sb = new StringBuilder();
       
       } else {
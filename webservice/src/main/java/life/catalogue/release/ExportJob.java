@@ -0,0 +1,102 @@
+package life.catalogue.release;
+
+import life.catalogue.api.vocab.ImportState;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Status of a queued AC export of a single dataset.
+ * The state is one of WAITING, EXPORTING, FINISHED or FAILED.
+ */
+public class ExportJob {
+  private final int datasetKey;
+  private final Integer createdBy;
+  private final LocalDateTime created = LocalDateTime.now();
+  private volatile LocalDateTime started;
+  private volatile LocalDateTime finished;
+  private volatile ImportState state = ImportState.WAITING;
+  private volatile String error;
+  private volatile String archive;
+
+  public ExportJob(int datasetKey, Integer createdBy) {
+    this.datasetKey = datasetKey;
+    this.createdBy = createdBy;
+  }
+
+  public int getDatasetKey() {
+    return datasetKey;
+  }
+
+  public Integer getCreatedBy() {
+    return createdBy;
+  }
+
+  public LocalDateTime getCreated() {
+    return created;
+  }
+
+  public LocalDateTime getStarted() {
+    return started;
+  }
+
+  public LocalDateTime getFinished() {
+    return finished;
+  }
+
+  public ImportState getState() {
+    return state;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  /**
+   * @return file name of the final archive in the download directory
+   */
+  public String getArchive() {
+    return archive;
+  }
+
+  public boolean isFinished() {
+    return state.isFinished();
+  }
+
+  void start() {
+    started = LocalDateTime.now();
+    state = ImportState.EXPORTING;
+  }
+
+  void finish(String archive) {
+    this.archive = archive;
+    finished = LocalDateTime.now();
+    state = ImportState.FINISHED;
+  }
+
+  void fail(Throwable e) {
+    error = e.getClass().getSimpleName() + ": " + e.getMessage();
+    finished = LocalDateTime.now();
+    state = ImportState.FAILED;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    ExportJob exportJob = (ExportJob) o;
+    return datasetKey == exportJob.datasetKey &&
+        Objects.equals(createdBy, exportJob.createdBy) &&
+        Objects.equals(created, exportJob.created);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(datasetKey, createdBy, created);
+  }
+
+  @Override
+  public String toString() {
+    return "ExportJob{" + datasetKey + " " + state + '}';
+  }
+}
@@ -21,6 +21,7 @@ import life.catalogue.dw.jersey.filter.DatasetKeyRewriteFilter;
 import life.catalogue.img.ImageService;
 import life.catalogue.img.ImageServiceFS;
 import life.catalogue.img.ImgConfig;
+import life.catalogue.img.StoredImage;
 import life.catalogue.release.ReleaseManager;
 import org.apache.commons.io.IOUtils;
 import org.apache.ibatis.session.SqlSession;
@@ -33,10 +34,11 @@ import javax.annotation.security.RolesAllowed;
 import javax.validation.Valid;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
-import java.awt.image.BufferedImage;
 import java.io.*;
 import java.util.List;
 import java.util.Optional;
@@ -186,8 +188,16 @@ public class DatasetResource extends AbstractGlobalResource<Dataset> {
   @GET
   @Path("{key}/logo")
   @Produces("image/png")
-  public BufferedImage logo(@PathParam("key") int key, @QueryParam("size") @DefaultValue("small") ImgConfig.Scale scale) {
-    return imgService.datasetLogo(key, scale);
+  public Response logo(@PathParam("key") int key, @QueryParam("size") @DefaultValue("small") ImgConfig.Scale scale,
+                       @Context Request request) {
+    StoredImage img = imgService.datasetLogo(key, scale);
+    EntityTag etag = new EntityTag(img.getEtag());
+    // 304 if the client already has the same image
+    Response.ResponseBuilder rb = request.evaluatePreconditions(etag);
+    if (rb == null) {
+      rb = Response.ok(img.getBytes());
+    }
+    return rb.tag(etag).build();
   }
   
   @POST
@@ -4,14 +4,12 @@ import io.dropwizard.auth.Auth;
 import life.catalogue.api.model.User;
 import life.catalogue.dw.auth.Roles;
 import life.catalogue.release.AcExporter;
+import life.catalogue.release.ExportJob;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.security.RolesAllowed;
-import javax.ws.rs.POST;
-import javax.ws.rs.Path;
-import javax.ws.rs.PathParam;
-import javax.ws.rs.Produces;
+import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 
 @Path("/dataset/{datasetKey}/export")
@@ -26,22 +24,28 @@ public class ExportResource {
     this.exporter = exporter;
   }
 
+  /**
+   * Queues a new AC export of the dataset and returns right away.
+   * @return the queued export job or an already waiting or running one for the same dataset
+   */
   @POST
   @Path("export")
   @RolesAllowed({Roles.ADMIN, Roles.EDITOR})
-  public boolean export(@PathParam("datasetKey") int datasetKey, @Auth User user) {
-    return exportAC(datasetKey, user);
+  public ExportJob export(@PathParam("datasetKey") int datasetKey, @Auth User user) {
+    return exporter.submit(datasetKey, user.getKey());
   }
 
-  private boolean exportAC(int key, User user) {
-    try {
-      exporter.export(key);
-      return true;
-
-    } catch (Throwable e) {
-      LOG.error("Error exporting dataset {}", key, e);
+  /**
+   * @return status of the latest export of the dataset
+   */
+  @GET
+  @Path("export")
+  public ExportJob status(@PathParam("datasetKey") int datasetKey) {
+    ExportJob job = exporter.getJob(datasetKey);
+    if (job == null) {
+      throw new NotFoundException("No export exists for dataset " + datasetKey);
     }
-    return false;
+    return job;
   }
 
 }
@@ -3,6 +3,7 @@ package life.catalogue.resources;
 import io.dropwizard.auth.Auth;
 import io.dropwizard.jersey.jsr310.LocalDateTimeParam;
 import life.catalogue.api.model.*;
+import life.catalogue.api.search.KeysetRequest;
 import life.catalogue.dao.NameDao;
 import life.catalogue.db.mapper.NameMapper;
 import life.catalogue.db.mapper.NameRelationMapper;
@@ -21,7 +22,7 @@ import java.util.List;
 
 @Path("/dataset/{datasetKey}/name")
 @Produces(MediaType.APPLICATION_JSON)
-public class NameResource extends AbstractDatasetScopedResource<String, Name, Page> {
+public class NameResource extends AbstractDatasetScopedResource<String, Name, KeysetRequest> {
   @SuppressWarnings("unused")
   private static final Logger LOG = LoggerFactory.getLogger(NameResource.class);
 
@@ -31,6 +32,11 @@ public class NameResource extends AbstractDatasetScopedResource<String, Name, Pa
     super(Name.class, dao);
     this.dao = dao;
   }
+
+  @Override
+  ResultPage<Name> searchImpl(int datasetKey, KeysetRequest request, Page page) {
+    return dao.list(datasetKey, request == null ? null : request.getAfter(), page);
+  }
   
   @GET
   @Path("{id}/synonyms")
@@ -67,5 +67,24 @@ public class TaxonResource extends AbstractDatasetScopedResource<String, Taxon,
     }
     return info;
   }
+
+  /**
+   * Bulk variant of the info method for up to 1000 taxa, returning infos in the order of the given ids.
+   * The ids are posted as a JSON array in the request body, as 1000 ids do not fit into a request url.
+   * Unknown ids are skipped.
+   */
+  @POST
+  @Timed
+  @Path("info")
+  @Consumes(MediaType.APPLICATION_JSON)
+  public List<TaxonInfo> infos(@PathParam("datasetKey") int datasetKey, List<String> ids) {
+    if (ids == null || ids.isEmpty()) {
+      throw new IllegalArgumentException("At least one taxon id required");
+    }
+    if (ids.size() > Page.MAX_LIMIT) {
+      throw new IllegalArgumentException("Maximum of " + Page.MAX_LIMIT + " taxon ids allowed");
+    }
+    return dao.getTaxonInfos(datasetKey, ids);
+  }
   
 }
@@ -13,6 +13,7 @@ import life.catalogue.api.model.DSID;
 import life.catalogue.api.model.Page;
 import life.catalogue.api.model.ResultPage;
 import life.catalogue.api.model.VerbatimRecord;
+import life.catalogue.api.util.PagingUtil;
 import life.catalogue.api.vocab.Issue;
 import life.catalogue.db.mapper.LogicalOperator;
 import life.catalogue.db.mapper.VerbatimRecordMapper;
@@ -34,6 +35,7 @@ public class VerbatimResource {
     paras.add("issue");
     paras.add("termOp");
     paras.add("q");
+    paras.add("after");
     KNOWN_PARAMS = Collections.unmodifiableSet(paras);
   }
   
@@ -46,16 +48,23 @@ public class VerbatimResource {
                                          @QueryParam("termOp") @DefaultValue("AND") LogicalOperator termOp,
                                          @QueryParam("issue") List<Issue> issues,
                                          @QueryParam("q") String q,
+                                         @QueryParam("after") String after,
                                          @Valid @BeanParam Page page,
                                          @Context UriInfo uri,
                                          @Context SqlSession session) {
     VerbatimRecordMapper mapper = session.getMapper(VerbatimRecordMapper.class);
     Map<Term, String> terms = termFilter(uri.getQueryParameters());
     
+    if (after != null) {
+      // keyset pagination, ignoring the offset
+      Integer lastKey = Integer.valueOf(PagingUtil.decodeToken(after));
+      Page p = new Page(0, page.getLimit());
+      return ResultPage.keyset(p.getLimit(), mapper.list(datasetKey, types, terms, termOp, issues, q, lastKey, p), VerbatimRecord::getId);
+    }
     return new ResultPage<VerbatimRecord>(page,
         mapper.count(datasetKey, types, terms, termOp, issues, q),
-        mapper.list(datasetKey, types, terms, termOp, issues, q, page)
-    );
+        mapper.list(datasetKey, types, terms, termOp, issues, q, null, page)
+    ).withNext(VerbatimRecord::getId);
   }
   
   private Map<Term, String> termFilter(MultivaluedMap<String, String> filter) {
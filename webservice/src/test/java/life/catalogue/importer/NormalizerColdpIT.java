@@ -1,13 +1,17 @@
 package life.catalogue.importer;
 
+import life.catalogue.api.model.Name;
 import life.catalogue.api.model.NameRelation;
 import life.catalogue.api.model.ParserConfig;
+import life.catalogue.api.model.Reference;
 import life.catalogue.api.model.VerbatimRecord;
 import life.catalogue.api.vocab.DataFormat;
 import life.catalogue.api.vocab.Issue;
 import life.catalogue.api.vocab.NomRelType;
+import life.catalogue.common.io.CompressionUtil;
 import life.catalogue.dao.ParserConfigDao;
 import life.catalogue.importer.neo.model.NeoUsage;
+import life.catalogue.importer.neo.printer.PrinterUtils;
 import org.gbif.nameparser.api.Authorship;
 import org.gbif.nameparser.api.NameType;
 import org.gbif.nameparser.api.NomCode;
@@ -15,7 +19,13 @@ import org.gbif.nameparser.api.Rank;
 import org.junit.Test;
 import org.neo4j.graphdb.Transaction;
 
+import java.io.File;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.Comparator;
 import java.util.List;
+import java.util.TreeSet;
 
 import static org.junit.Assert.*;
 
@@ -137,4 +147,69 @@ public class NormalizerColdpIT extends NormalizerITBase {
       assertTrue(v.getIssues().isEmpty());
     }
   }
+
+  /**
+   * Makes sure the pipelined, multi threaded interpretation creates the same graph as the sequential one.
+   */
+  @Test
+  public void parallelInterpretation() throws Exception {
+    normalize(0);
+    String expected = snapshot();
+    store.closeAndDelete();
+    store = null;
+
+    cfg.interpreterThreads = 4;
+    normalize(0);
+    assertEquals(expected, snapshot());
+  }
+
+  /**
+   * Reads the archive lazily from a zip file system, just like imports with lazyArchives do,
+   * making sure the readers never need a local file.
+   */
+  @Test
+  public void zipArchive() throws Exception {
+    normalize(0);
+    String expected = snapshot();
+    store.closeAndDelete();
+    store = null;
+
+    File zip = File.createTempFile("coldp", ".zip");
+    try {
+      CompressionUtil.zipDir(new File(getClass().getResource("/coldp/0").toURI()), zip);
+      assertTrue(CompressionUtil.isZip(zip));
+      try (FileSystem fs = CompressionUtil.openZip(zip)) {
+        Path root = CompressionUtil.zipRoot(fs);
+        assertNotEquals(FileSystems.getDefault(), root.getFileSystem());
+        normalize(root, readDatasetCode("/coldp/0").orElse(null));
+      }
+      assertEquals(expected, snapshot());
+    } finally {
+      zip.delete();
+    }
+  }
+
+  private String snapshot() throws Exception {
+    StringBuilder sb = new StringBuilder();
+    try (Transaction tx = store.getNeo().beginTx()) {
+      sb.append(PrinterUtils.textTree(store.getNeo())).append("\n");
+    }
+    store.names().all()
+        .map(n -> n.name)
+        .sorted(Comparator.comparing(Name::getId))
+        .forEach(n -> sb.append(n.toStringComplete()).append(" ").append(n.getType()).append(" ").append(n.getPublishedInId())
+            .append(" ").append(n.getVerbatimKey()).append("\n"));
+    store.usages().all()
+        .sorted(Comparator.comparing(NeoUsage::getId))
+        .forEach(u -> sb.append(u.getId()).append(" ").append(u.usage.getStatus()).append(" ").append(u.usage.getName().getId())
+            .append(" ").append(u.usage.getReferenceIds()).append(" ").append(u.getVerbatimKey()).append("\n"));
+    for (VerbatimRecord v : store.verbatimList()) {
+      sb.append(v.getId()).append(" ").append(v.getType()).append(" ").append(v.getLine())
+          .append(" ").append(new TreeSet<>(v.getIssues())).append("\n");
+    }
+    store.references().values().stream()
+        .sorted(Comparator.comparing(Reference::getId))
+        .forEach(r -> sb.append(r.getId()).append(" ").append(r.getCitation()).append(" ").append(r.getVerbatimKey()).append("\n"));
+    return sb.toString();
+  }
 }
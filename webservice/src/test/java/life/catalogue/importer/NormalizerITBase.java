@@ -48,7 +48,7 @@ abstract class NormalizerITBase {
   
   protected NeoDb store;
   private int attempt;
-  private NormalizerConfig cfg;
+  protected NormalizerConfig cfg;
   private final DataFormat format;
   private final Supplier<NameIndex> nameIndexSupplier;
   protected DatasetWithSettings dws;
@@ -361,13 +361,52 @@ public class PgImportIT {
       // https://github.com/Sp2000/colplus-backend/issues/25
       ReferenceMapper rm = session.getMapper(ReferenceMapper.class);
       ReferenceSearchRequest req = ReferenceSearchRequest.byQuery("Canarias");
-      List<Reference> out = rm.search(dataset.getKey(), req, new Page());
+      List<Reference> out = rm.search(dataset.getKey(), req, null, new Page());
       assertEquals(1, out.size());
       assertEquals("24", out.get(0).getId());
   
     }
   }
   
+  /**
+   * The COPY mode must produce the very same records and keys as the default batch inserts.
+   */
+  @Test
+  public void testCopy() throws Exception {
+    normalizeAndImport(ACEF, 0);
+    final int batchKey = dataset.getKey();
+    store.closeAndDelete();
+
+    icfg.copy = true;
+    dataset.setKey(null);
+    normalizeAndImport(ACEF, 0);
+    final int copyKey = dataset.getKey();
+    assertNotEquals(batchKey, copyKey);
+
+    try (SqlSession session = PgSetupRule.getSqlSessionFactory().openSession(true)) {
+      DatasetImportMapper dim = session.getMapper(DatasetImportMapper.class);
+      assertEquals(dim.countVerbatim(batchKey), dim.countVerbatim(copyKey));
+      assertEquals(dim.countReference(batchKey), dim.countReference(copyKey));
+      assertEquals(dim.countName(batchKey), dim.countName(copyKey));
+      assertEquals(dim.countTypeMaterial(batchKey), dim.countTypeMaterial(copyKey));
+      assertEquals(dim.countTaxon(batchKey), dim.countTaxon(copyKey));
+      assertEquals(dim.countSynonym(batchKey), dim.countSynonym(copyKey));
+      assertEquals(dim.countVernacular(batchKey), dim.countVernacular(copyKey));
+      assertEquals(dim.countDistribution(batchKey), dim.countDistribution(copyKey));
+    }
+
+    for (String id : new String[]{"s6", "s7"}) {
+      Name b = ndao.get(key(batchKey, id));
+      Name c = ndao.get(key(copyKey, id));
+      assertEquals(b.getVerbatimKey(), c.getVerbatimKey());
+      assertEquals(b.getScientificName(), c.getScientificName());
+      assertEquals(b.getAuthorship(), c.getAuthorship());
+      assertEquals(b.getRank(), c.getRank());
+      assertEquals(b.getHomotypicNameId(), c.getHomotypicNameId());
+      assertEquals(ndao.relations(batchKey, b.getId()).size(), ndao.relations(copyKey, c.getId()).size());
+    }
+  }
+
   @Test
   public void testAcef1() throws Exception {
     normalizeAndImport(ACEF, 1);
@@ -592,7 +631,7 @@ public class PgImportIT {
       
       // https://github.com/Sp2000/colplus-backend/issues/237
       VerbatimRecordMapper vm = session.getMapper(VerbatimRecordMapper.class);
-      for (VerbatimRecord v : vm.list(dataset.getKey(), null, null, LogicalOperator.AND, null, null, new Page(0, 100))) {
+      for (VerbatimRecord v : vm.list(dataset.getKey(), null, null, LogicalOperator.AND, null, null, null, new Page(0, 100))) {
         for (Term t : v.terms()) {
           assertFalse(t instanceof UnknownTerm);
         }
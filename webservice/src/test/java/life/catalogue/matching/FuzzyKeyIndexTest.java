@@ -0,0 +1,150 @@
+package life.catalogue.matching;
+
+import life.catalogue.common.tax.SciNameNormalizer;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class FuzzyKeyIndexTest {
+
+  private static FuzzyKeyIndex index(Set<String> keys) {
+    FuzzyKeyIndex idx = new FuzzyKeyIndex(keys::contains);
+    keys.forEach(idx::add);
+    return idx;
+  }
+
+  private static List<String> keys(FuzzyKeyIndex idx, String name) {
+    return idx.candidates(SciNameNormalizer.normalize(name)).stream()
+        .map(FuzzyKeyIndex.Scored::getKey)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void candidates() {
+    Set<String> keys = new HashSet<>();
+    for (String n : new String[]{"Abies alba", "Abies alpina", "Abies nordmanniana", "Picea abies", "Picea alba", "Oenanthe aquatica", "Oenanthe"}) {
+      keys.add(SciNameNormalizer.normalize(n));
+    }
+    FuzzyKeyIndex idx = index(keys);
+    assertEquals(8, idx.size());
+
+    assertEquals(List.of("Oenanthe aquatica"), keys(idx, "Oenanthe aquatika"));
+    assertEquals(List.of("Oenanthe aquatica"), keys(idx, "Oenante aquatica"));
+    assertEquals(List.of("Oenanthe"), keys(idx, "Oenante"));
+    assertEquals(List.of("Abies nordmaniana"), keys(idx, "Abies nordmaniena"));
+    assertEquals(List.of("Abies nordmaniana"), keys(idx, "Abies nordmainana"));
+    // the key itself is never returned
+    assertTrue(keys(idx, "Abies alba").isEmpty());
+    // first letters must match
+    assertTrue(keys(idx, "Abies nlba").isEmpty());
+    assertTrue(keys(idx, "Xbies alba").isEmpty());
+    // short epithets must match exactly
+    assertTrue(keys(idx, "Abies ala").isEmpty());
+    // different number of words
+    assertTrue(keys(idx, "Abies alba alba").isEmpty());
+    assertTrue(keys(idx, "Abies").isEmpty());
+  }
+
+  @Test
+  public void order() {
+    Set<String> keys = new HashSet<>(List.of("Abies nordmaniana", "Abies nordmaniaxa"));
+    FuzzyKeyIndex idx = index(keys);
+    assertEquals(List.of("Abies nordmaniana", "Abies nordmaniaxa"), keys(idx, "Abies nordmaniena"));
+
+    // keys removed from the store are never returned
+    keys.remove("Abies nordmaniana");
+    assertEquals(List.of("Abies nordmaniaxa"), keys(idx, "Abies nordmaniena"));
+  }
+
+  /**
+   * Makes sure randomly misspelled keys of a fixed, generated corpus are found again.
+   * A lookup is recalled if the original key is amongst the candidates.
+   */
+  @Test
+  public void recall() {
+    final int genera = 1_000;
+    final int names = 20_000;
+    final int queries = 2_000;
+    Random rnd = new Random(17);
+    List<String> generaList = new ArrayList<>(genera);
+    for (int i = 0; i < genera; i++) {
+      generaList.add(capitalize(word(rnd)));
+    }
+    Set<String> keys = new HashSet<>(names);
+    while (keys.size() < names) {
+      String genus = generaList.get(rnd.nextInt(genera));
+      String key = rnd.nextInt(10) == 0 ? genus : genus + " " + word(rnd);
+      if (rnd.nextInt(5) == 0 && key.indexOf(' ') > 0) {
+        key = key + " " + word(rnd);
+      }
+      keys.add(SciNameNormalizer.normalize(key));
+    }
+    List<String> keyList = new ArrayList<>(keys);
+    FuzzyKeyIndex idx = index(keys);
+
+    int recalled = 0;
+    int total = 0;
+    for (int i = 0; i < queries; i++) {
+      String key = keyList.get(rnd.nextInt(keyList.size()));
+      String query = SciNameNormalizer.normalize(misspell(key, rnd));
+      // misspellings hitting an existing key are no fuzzy lookups
+      if (!keys.contains(query)) {
+        total++;
+        if (idx.candidates(query).stream().anyMatch(c -> c.getKey().equals(key))) {
+          recalled++;
+        }
+      }
+    }
+    assertTrue(total > queries / 2);
+    assertTrue("Recall of " + recalled + " out of " + total, recalled >= total * 0.95);
+  }
+
+  private static final char[] LETTERS = "aaaabcdeeeefghiiijklmnooopqrstuuuvwxyz".toCharArray();
+  private static final String[] SUFFICES = {"a", "us", "um", "is", "ensis", "oides", "ii", "iana", "ata"};
+
+  private static String word(Random rnd) {
+    int len = 3 + rnd.nextInt(7);
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < len; i++) {
+      sb.append(LETTERS[rnd.nextInt(LETTERS.length)]);
+    }
+    return sb.append(SUFFICES[rnd.nextInt(SUFFICES.length)]).toString();
+  }
+
+  private static String capitalize(String x) {
+    return Character.toUpperCase(x.charAt(0)) + x.substring(1);
+  }
+
+  /**
+   * Applies a single random edit to a random word of the key, keeping the first letter unchanged.
+   */
+  private static String misspell(String key, Random rnd) {
+    String[] words = key.split(" ");
+    int w = rnd.nextInt(words.length);
+    StringBuilder sb = new StringBuilder(words[w]);
+    int pos = 1 + rnd.nextInt(Math.max(1, sb.length() - 1));
+    char c = LETTERS[rnd.nextInt(LETTERS.length)];
+    switch (rnd.nextInt(4)) {
+      case 0:
+        sb.insert(Math.min(pos, sb.length()), c);
+        break;
+      case 1:
+        if (sb.length() > 1 && pos < sb.length()) sb.deleteCharAt(pos);
+        break;
+      case 2:
+        if (pos < sb.length()) sb.setCharAt(pos, c);
+        break;
+      default:
+        if (pos + 1 < sb.length()) {
+          char x = sb.charAt(pos);
+          sb.setCharAt(pos, sb.charAt(pos + 1));
+          sb.setCharAt(pos + 1, x);
+        }
+    }
+    words[w] = sb.toString();
+    return String.join(" ", words);
+  }
+}
@@ -0,0 +1,244 @@
+package life.catalogue.matching;
+
+import life.catalogue.api.TestEntityGenerator;
+import life.catalogue.api.model.Name;
+import life.catalogue.api.model.NameMatch;
+import life.catalogue.api.vocab.MatchType;
+import life.catalogue.common.tax.AuthorshipNormalizer;
+import life.catalogue.dao.Partitioner;
+import life.catalogue.db.PgSetupRule;
+import life.catalogue.db.TestDataRule;
+import life.catalogue.db.mapper.NameMapper;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.mapdb.DBMaker;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the startup of a persistent names index from an existing store,
+ * replaying names changed since the stores checkpoint or reloading all names from postgres.
+ */
+@RunWith(Parameterized.class)
+public class NameIndexImplIT {
+  static final AuthorshipNormalizer aNormalizer = AuthorshipNormalizer.INSTANCE;
+  static final int DATASET_KEY = 11;
+  static final LocalDateTime CHECKPOINT = LocalDateTime.of(2020, 1, 1, 0, 0);
+  // the only apple name modified at the checkpoint, all others are modified long before
+  static final String RECENT_ID = "name-1";
+  static final String MARKED_ID = "name-2";
+  static final String MARKER = "loaded from store";
+
+  @ClassRule
+  public static PgSetupRule pgSetupRule = new PgSetupRule();
+
+  @Rule
+  public TestDataRule testDataRule = TestDataRule.apple();
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Parameterized.Parameters(name = "{0}")
+  public static Collection<Object[]> data() {
+    return Arrays.asList(new Object[][]{{"mapdb"}, {"mmap"}});
+  }
+
+  private final String storeType;
+  private File dir;
+  private NameIndexStore store;
+  private NameIndex ni;
+
+  public NameIndexImplIT(String storeType) {
+    this.storeType = storeType;
+  }
+
+  @Before
+  public void init() throws Exception {
+    dir = folder.newFolder();
+    try (Connection con = PgSetupRule.getSqlSessionFactory().openSession().getConnection();
+         Statement st = con.createStatement()
+    ) {
+      String table = "name_" + Partitioner.partition(DATASET_KEY);
+      st.execute("UPDATE " + table + " SET modified = '2019-01-01'");
+      st.execute("UPDATE " + table + " SET modified = '" + CHECKPOINT + "' WHERE id = '" + RECENT_ID + "'");
+      con.commit();
+    }
+  }
+
+  @After
+  public void stop() throws Exception {
+    if (ni != null) {
+      ni.close();
+    }
+  }
+
+  private NameIndexStore openStore() throws IOException {
+    if (storeType.equals("mmap")) {
+      return new NameIndexMMapStore(new File(dir, "mmap"));
+    }
+    return new NameIndexMapDBStore(DBMaker.fileDB(new File(dir, "nidx.db")).fileMmapEnableIfSupported());
+  }
+
+  private void start() throws Exception {
+    store = openStore();
+    ni = new NameIndexImpl(store, aNormalizer, DATASET_KEY, PgSetupRule.getSqlSessionFactory());
+  }
+
+  private void restart() throws Exception {
+    ni.close();
+    start();
+  }
+
+  /**
+   * Closes the names index and changes the existing store directly while it is offline.
+   */
+  private void modifyOffline(StoreChange change) throws Exception {
+    ni.close();
+    ni = null;
+    try (NameIndexStore s = openStore()) {
+      change.apply(s);
+    }
+  }
+
+  interface StoreChange {
+    void apply(NameIndexStore store) throws Exception;
+  }
+
+  /**
+   * Replaces the name with the given id by a copy carrying a marker in its remarks.
+   * The marker only survives a restart if the name is not reloaded from postgres.
+   */
+  private static void mark(NameIndexStore store, String id) {
+    AtomicReference<String> key = new AtomicReference<>();
+    store.forEachKey(k -> {
+      if (find(store, k, id) != null) {
+        key.set(k);
+      }
+    });
+    assertNotNull("Name " + id + " missing in store", key.get());
+    Name n = find(store, key.get(), id);
+    n.setRemarks(MARKER);
+    store.add(key.get(), n);
+  }
+
+  private static Name find(NameIndexStore store, String id) {
+    AtomicReference<Name> name = new AtomicReference<>();
+    store.forEachKey(k -> {
+      Name n = find(store, k, id);
+      if (n != null) {
+        name.set(n);
+      }
+    });
+    return name.get();
+  }
+
+  /**
+   * @return the name with the given id from the group of the key, keys might exist with an empty group
+   */
+  private static Name find(NameIndexStore store, String key, String id) {
+    List<Name> group = store.get(key);
+    if (group != null) {
+      for (Name n : group) {
+        if (n.getId().equals(id)) {
+          return n;
+        }
+      }
+    }
+    return null;
+  }
+
+  @Test
+  public void startFromCheckpoint() throws Exception {
+    start();
+    assertEquals(5, ni.size());
+    assertEquals(CHECKPOINT, store.getCheckpoint());
+
+    modifyOffline(s -> {
+      assertEquals(CHECKPOINT, s.getCheckpoint());
+      assertEquals(5, s.count());
+      mark(s, MARKED_ID);
+    });
+
+    start();
+    assertEquals(5, ni.size());
+    assertEquals(CHECKPOINT, store.getCheckpoint());
+    // only names modified since the checkpoint were replayed
+    assertEquals(MARKER, find(store, MARKED_ID).getRemarks());
+    assertNull(find(store, RECENT_ID).getRemarks());
+    assertMatch("Larus fuscus", MARKED_ID);
+  }
+
+  @Test
+  public void loadNamesAddedAfterCheckpoint() throws Exception {
+    start();
+    assertEquals(5, ni.size());
+
+    modifyOffline(s -> mark(s, MARKED_ID));
+    Name n1 = TestEntityGenerator.newName(DATASET_KEY, "name-6", "Abies alba");
+    Name n2 = TestEntityGenerator.newName(DATASET_KEY, "name-7", "Picea abies");
+    try (SqlSession session = PgSetupRule.getSqlSessionFactory().openSession(true)) {
+      NameMapper nm = session.getMapper(NameMapper.class);
+      nm.create(n1);
+      nm.create(n2);
+    }
+
+    start();
+    assertEquals(7, ni.size());
+    assertEquals(MARKER, find(store, MARKED_ID).getRemarks());
+    assertTrue(store.getCheckpoint().isAfter(CHECKPOINT));
+    assertMatch(n1, "name-6");
+    assertMatch(n2, "name-7");
+
+    // a second restart keeps the new names
+    restart();
+    assertEquals(7, ni.size());
+    assertMatch(n1, "name-6");
+  }
+
+  @Test
+  public void reloadOnCountMismatch() throws Exception {
+    start();
+    assertEquals(5, ni.size());
+
+    modifyOffline(s -> {
+      mark(s, MARKED_ID);
+      // a name unknown to postgres corrupts the count
+      s.add("bogus", TestEntityGenerator.newName(DATASET_KEY, "bogus-1", "Bogus bogus"));
+      assertEquals(6, s.count());
+    });
+
+    start();
+    assertEquals(5, ni.size());
+    assertFalse(store.containsKey("bogus"));
+    // all names were reloaded from postgres
+    assertNull(find(store, MARKED_ID).getRemarks());
+    assertEquals(CHECKPOINT, store.getCheckpoint());
+    assertMatch("Larus fuscus", MARKED_ID);
+  }
+
+  private void assertMatch(String name, String expectedId) {
+    Name n = new Name();
+    n.setScientificName(name);
+    assertMatch(n, expectedId);
+  }
+
+  private void assertMatch(Name name, String expectedId) {
+    NameMatch m = ni.match(name, false, false);
+    assertTrue("No match for " + name.getScientificName(), m.hasMatch());
+    assertNotEquals(MatchType.INSERTED, m.getType());
+    assertEquals(expectedId, m.getName().getId());
+  }
+}
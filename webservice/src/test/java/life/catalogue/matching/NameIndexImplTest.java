@@ -21,8 +21,10 @@ import org.junit.ClassRule;
 import org.junit.Rule;
 import org.junit.Test;
 
-import java.util.Collection;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
 
@@ -55,7 +57,11 @@ public class NameIndexImplTest {
   }
   
   void setupTest() throws Exception {
-    ni = NameIndexFactory.memory(PgSetupRule.getSqlSessionFactory(), aNormalizer);
+    setupTest(false);
+  }
+  
+  void setupTest(boolean fuzzy) throws Exception {
+    ni = NameIndexFactory.memory(fuzzy, PgSetupRule.getSqlSessionFactory(), aNormalizer);
     Collection<Name> names = Lists.newArrayList(
         name(1, "Animalia", Rank.KINGDOM, NomCode.ZOOLOGICAL),
         
@@ -165,6 +171,77 @@ public class NameIndexImplTest {
     
   }
   
+  @Test
+  public void fuzzy() throws Exception {
+    setupTest(true);
+    NameMatch m = assertMatch(5, "Oenanthe aquatika", Rank.SPECIES, NomCode.BOTANICAL);
+    assertEquals(MatchType.FUZZY, m.getType());
+    m = assertMatch(5, "Oenante aquatica", Rank.SPECIES, NomCode.BOTANICAL);
+    assertEquals(MatchType.FUZZY, m.getType());
+    m = assertMatch(12, "Picea albo 1778", Rank.SPECIES, NomCode.BOTANICAL);
+    assertEquals(MatchType.FUZZY, m.getType());
+    // the first letter must match
+    assertNoMatch("Xenanthe aquatica", Rank.SPECIES, NomCode.BOTANICAL);
+    // known keys are never matched fuzzily
+    assertNoMatch("Rodentia", Rank.ORDER, NomCode.BOTANICAL);
+    
+    // inserted names can be matched fuzzily right away
+    ni.match(name(null, "Larus fundatus", Rank.SPECIES, null), true, false);
+    m = assertMatch(23, "Larus fundatis", Rank.SPECIES, null);
+    assertEquals(MatchType.FUZZY, m.getType());
+  }
+  
+  @Test
+  public void noFuzzy() throws Exception {
+    setupTest();
+    assertNoMatch("Oenanthe aquatika", Rank.SPECIES, NomCode.BOTANICAL);
+  }
+  
+  @Test
+  public void matchAll() throws Exception {
+    setupTest();
+    List<NameMatch> matches = ni.matchAll(Lists.newArrayList(
+        name(null, "Abies alba Mumpf.", Rank.SPECIES, NomCode.BOTANICAL),
+        name(null, "Larus fundatus", Rank.SPECIES, null),
+        name(null, "Oenanthe aquatica", Rank.SPECIES, NomCode.BOTANICAL),
+        name(null, "Larus fundatus", Rank.SPECIES, null)
+    ), true);
+    assertEquals(4, matches.size());
+    assertEquals(idGen.id(10), matches.get(0).getName().getId());
+    assertEquals(MatchType.INSERTED, matches.get(1).getType());
+    assertEquals(idGen.id(5), matches.get(2).getName().getId());
+    // the second name with the same key must match the inserted one
+    assertEquals(MatchType.EXACT, matches.get(3).getType());
+    assertEquals(matches.get(1).getName().getId(), matches.get(3).getName().getId());
+    assertEquals(23, ni.size());
+  }
+  
+  /**
+   * Concurrent inserts of the same name must only insert a single name.
+   */
+  @Test
+  public void concurrentInserts() throws Exception {
+    setupTest();
+    ExecutorService exec = Executors.newFixedThreadPool(8);
+    List<Future<NameMatch>> futures = new ArrayList<>();
+    for (int i = 0; i < 32; i++) {
+      futures.add(exec.submit(() -> ni.match(name(null, "Puma concolor", Rank.SPECIES, NomCode.ZOOLOGICAL), true, false)));
+    }
+    Set<String> ids = new HashSet<>();
+    int inserted = 0;
+    for (Future<NameMatch> f : futures) {
+      NameMatch m = f.get();
+      ids.add(m.getName().getId());
+      if (m.getType() == MatchType.INSERTED) {
+        inserted++;
+      }
+    }
+    exec.shutdown();
+    assertEquals(1, inserted);
+    assertEquals(1, ids.size());
+    assertEquals(23, ni.size());
+  }
+  
   /**
    * https://github.com/Sp2000/colplus-backend/issues/451
    */
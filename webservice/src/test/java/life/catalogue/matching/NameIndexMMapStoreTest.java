@@ -0,0 +1,201 @@
+package life.catalogue.matching;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import life.catalogue.api.TestEntityGenerator;
+import life.catalogue.api.model.Name;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NameIndexMMapStoreTest {
+
+  @Test
+  public void size() throws Exception {
+    File dir = File.createTempFile("colNidxStore","");
+    dir.delete();
+    try {
+      NameIndexMMapStore db = new NameIndexMMapStore(dir);
+
+      assertEquals(0, db.count());
+
+      db.put("a", newNameList(1));
+      assertEquals(1, db.count());
+
+      db.put("b", newNameList(2));
+      assertEquals(3, db.count());
+
+      db.put("c", newNameList(3));
+      assertEquals(6, db.count());
+
+      db.put("a", newNameList(3));
+      assertEquals(8, db.count());
+
+      // now shutdown and reopen
+      db.close();
+      db = new NameIndexMMapStore(dir);
+
+      assertEquals(8, db.count());
+
+      db.put("a", newNameList(2));
+      assertEquals(7, db.count());
+      db.close();
+
+    } finally {
+      FileUtils.deleteQuietly(dir);
+    }
+  }
+
+  @Test
+  public void candidates() throws Exception {
+    File dir = File.createTempFile("colNidxStore","");
+    dir.delete();
+    try {
+      NameIndexMMapStore db = new NameIndexMMapStore(dir);
+      assertNull(db.candidates("abies"));
+
+      Name n = TestEntityGenerator.newName();
+      db.add("abies", n);
+      db.add("abies", TestEntityGenerator.newName());
+      // replaces the existing name with the same id
+      db.add("abies", n);
+      assertEquals(2, db.count());
+      assertTrue(db.containsKey("abies"));
+
+      db.close();
+      db = new NameIndexMMapStore(dir);
+
+      List<NameCandidate> cands = db.candidates("abies");
+      assertEquals(2, cands.size());
+      NameCandidate c = cands.get(1);
+      assertEquals(n.getId(), c.getId());
+      assertEquals(n.getRank(), c.getRank());
+      assertEquals(n.getCode(), c.getCode());
+      assertEquals(NameCandidate.of(n).getFullName(), c.getFullName());
+      assertEquals(NameCandidate.of(n).getCanonicalName(), c.getCanonicalName());
+      assertEquals(NameCandidate.of(n).getAuthorshipHash(), c.getAuthorshipHash());
+      assertEquals(n, c.getName());
+
+      // candidates are detached from the mapped files
+      db.clear();
+      assertEquals(n.getId(), c.getId());
+      assertEquals(n, c.getName());
+      db.close();
+      assertEquals(NameCandidate.of(n).getFullName(), c.getFullName());
+      assertEquals(n, c.getName());
+      try {
+        db.candidates("abies");
+        fail("Closed store must not be readable");
+      } catch (IllegalStateException e) {
+        // expected
+      }
+      // closing twice is a no-op
+      db.close();
+
+    } finally {
+      FileUtils.deleteQuietly(dir);
+    }
+  }
+
+  @Test
+  public void checkpoint() throws Exception {
+    File dir = File.createTempFile("colNidxStore","");
+    dir.delete();
+    try {
+      NameIndexMMapStore db = new NameIndexMMapStore(dir);
+      assertNull(db.getCheckpoint());
+      db.put("a", newNameList(2));
+      LocalDateTime cp = LocalDateTime.of(2020, 3, 12, 17, 45, 10);
+      db.setCheckpoint(cp);
+      db.close();
+
+      db = new NameIndexMMapStore(dir);
+      assertEquals(cp, db.getCheckpoint());
+      assertEquals(2, db.count());
+
+      db.clear();
+      assertNull(db.getCheckpoint());
+      assertEquals(0, db.count());
+      assertFalse(db.containsKey("a"));
+      db.close();
+
+    } finally {
+      FileUtils.deleteQuietly(dir);
+    }
+  }
+
+  @Test
+  public void restoreCheckpoint() throws Exception {
+    File dir = File.createTempFile("colNidxStore","");
+    dir.delete();
+    try {
+      NameIndexMMapStore db = new NameIndexMMapStore(dir);
+      db.put("a", newNameList(2));
+      Name n = TestEntityGenerator.newName();
+      db.add("b", n);
+      LocalDateTime cp = LocalDateTime.of(2020, 3, 12, 17, 45, 10);
+      db.setCheckpoint(cp);
+      // changes after the checkpoint get lost if the store is not closed
+      db.add("a", TestEntityGenerator.newName());
+      db.add("c", TestEntityGenerator.newName());
+      assertEquals(5, db.count());
+
+      // reopen without closing, simulating a crash
+      NameIndexMMapStore db2 = new NameIndexMMapStore(dir);
+      assertEquals(cp, db2.getCheckpoint());
+      assertEquals(3, db2.count());
+      assertEquals(2, db2.candidates("a").size());
+      assertEquals(n, db2.get("b").get(0));
+      assertFalse(db2.containsKey("c"));
+
+      db2.add("a", TestEntityGenerator.newName());
+      db2.add("c", TestEntityGenerator.newName());
+      assertEquals(3, db2.candidates("a").size());
+      assertEquals(5, db2.count());
+      db2.close();
+
+    } finally {
+      FileUtils.deleteQuietly(dir);
+    }
+  }
+
+  @Test
+  public void manyKeys() throws Exception {
+    File dir = File.createTempFile("colNidxStore","");
+    dir.delete();
+    try {
+      NameIndexMMapStore db = new NameIndexMMapStore(dir);
+      for (int i = 0; i < 10000; i++) {
+        db.add("key" + i, TestEntityGenerator.newName());
+      }
+      db.close();
+
+      db = new NameIndexMMapStore(dir);
+      assertEquals(10000, db.count());
+      for (int i = 0; i < 10000; i++) {
+        assertEquals(1, db.candidates("key" + i).size());
+      }
+      assertFalse(db.containsKey("key10000"));
+      AtomicInteger counter = new AtomicInteger();
+      db.forEachKey(k -> counter.incrementAndGet());
+      assertEquals(10000, counter.get());
+      db.close();
+
+    } finally {
+      FileUtils.deleteQuietly(dir);
+    }
+  }
+
+  private ArrayList<Name> newNameList(int size) {
+    ArrayList<Name> names = new ArrayList<>(size);
+    for (int idx = 0; idx<size; idx++) {
+      names.add(TestEntityGenerator.newName());
+    }
+    return names;
+  }
+}
@@ -1,14 +1,16 @@
 package life.catalogue.matching;
 
 import java.io.File;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
 import life.catalogue.api.TestEntityGenerator;
 import life.catalogue.api.model.Name;
 import org.junit.Test;
 import org.mapdb.DBMaker;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 public class NameIndexMapDBStoreTest {
   
@@ -47,6 +49,80 @@ public class NameIndexMapDBStoreTest {
       dbf.delete();
     }
   }
+  
+  @Test
+  public void checkpoint() throws Exception {
+    File dbf = File.createTempFile("colNidxStore",".db");
+    dbf.delete();
+    try {
+      DBMaker.Maker maker = DBMaker.fileDB(dbf).fileMmapEnableIfSupported();
+      NameIndexMapDBStore db = new NameIndexMapDBStore(maker);
+      assertNull(db.getCheckpoint());
+      db.put("a", newNameList(2));
+      LocalDateTime cp = LocalDateTime.of(2020, 3, 12, 17, 45, 10);
+      db.setCheckpoint(cp);
+      db.close();
+
+      db = new NameIndexMapDBStore(maker);
+      assertEquals(cp, db.getCheckpoint());
+      assertEquals(2, db.count());
+
+      db.clear();
+      assertNull(db.getCheckpoint());
+      assertEquals(0, db.count());
+      assertFalse(db.containsKey("a"));
+      db.close();
+
+    } finally {
+      dbf.delete();
+    }
+  }
+
+  @Test
+  public void candidates() throws Exception {
+    File dbf = File.createTempFile("colNidxStore",".db");
+    dbf.delete();
+    try {
+      DBMaker.Maker maker = DBMaker.fileDB(dbf).fileMmapEnableIfSupported();
+      NameIndexMapDBStore db = new NameIndexMapDBStore(maker);
+      assertNull(db.candidates("abies"));
+
+      ArrayList<Name> group = newNameList(2);
+      db.put("abies", group);
+      db.close();
+      db = new NameIndexMapDBStore(maker);
+
+      List<NameCandidate> cands = db.candidates("abies");
+      assertEquals(2, cands.size());
+      for (int i = 0; i < 2; i++) {
+        Name n = group.get(i);
+        NameCandidate c = cands.get(i);
+        NameCandidate expected = NameCandidate.of(n);
+        // read from the precomputed candidates, not normalized from the name again
+        assertTrue(c instanceof NameIndexMapDBStore.Candidate);
+        assertEquals(n.getId(), c.getId());
+        assertEquals(n.getRank(), c.getRank());
+        assertEquals(n.getCode(), c.getCode());
+        assertEquals(expected.getFullName(), c.getFullName());
+        assertEquals(expected.getCanonicalName(), c.getCanonicalName());
+        assertEquals(expected.getAuthorship(), c.getAuthorship());
+        assertEquals(expected.getAuthorshipHash(), c.getAuthorshipHash());
+        assertEquals(expected.authorshipKey(), c.authorshipKey());
+        assertEquals(n, c.getName());
+      }
+
+      // the normalized fields do not depend on the stored name anymore, only the name itself is loaded on demand
+      NameCandidate c = cands.get(0);
+      db.put("abies", newNameList(1));
+      assertEquals(NameCandidate.of(group.get(0)).getFullName(), c.getFullName());
+      assertNull(c.getName());
+      db.close();
+
+    } finally {
+      dbf.delete();
+    }
+  }
+
   private ArrayList<Name> newNameList(int size) {
     ArrayList<Name> names = new ArrayList<>(size);
     for (int idx = 0; idx<size; idx++) {
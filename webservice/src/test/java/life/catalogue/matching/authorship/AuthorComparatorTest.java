@@ -27,6 +27,25 @@ public class AuthorComparatorTest {
     return parse(x);
   }
   
+  @Test
+  public void testCompareNormalized() throws Exception {
+    String[][] pairs = new String[][]{
+        {"L.", "Linne"},
+        {"Linné 1847", "Carl von Linne 1877"},
+        {"Mill.", "Miller"},
+        {"Bowdich, 1821", "Bow 1221"},
+        {"Pallas", "Vieillot"},
+        {"Mumpf.", "Döring, 1778"}
+    };
+    for (String[] p : pairs) {
+      Authorship a1 = parse(p[0]);
+      Authorship a2 = parse(p[1]);
+      assertEquals(comp.compare(a1, a2), comp.compare(NormalizedAuthorship.of(a1), NormalizedAuthorship.of(a2)));
+    }
+    assertEquals(NormalizedAuthorship.of(parse("Linné 1847")), NormalizedAuthorship.of(parse("Linne, 1847")));
+    assertEquals(NormalizedAuthorship.of(parse("Linné 1847")).key(), NormalizedAuthorship.of(parse("Linne, 1847")).key());
+  }
+  
   @Test
   public void testCompareName() throws Exception {
     Name p1 = new Name();
@@ -12,9 +12,16 @@ import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 
+import javax.imageio.ImageIO;
 import javax.ws.rs.NotAuthorizedException;
+import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.LocalDate;
 
 import static life.catalogue.ApiUtils.*;
@@ -113,4 +120,39 @@ public class DatasetResourceTest extends ResourceTestBase {
     assertNotNull(d.getDeleted());
   }
 
+  @Test
+  public void logo() throws IOException {
+    addUserPermission("editor", 1008);
+    Response resp = editorCreds(base.path("1008/logo")).post(Entity.entity(png(), "image/png"));
+    assertEquals(200, resp.getStatus());
+  
+    resp = userCreds(base.path("1008/logo")).get();
+    assertEquals(200, resp.getStatus());
+    String etag = resp.getHeaderString(HttpHeaders.ETAG);
+    assertNotNull(etag);
+    assertTrue(resp.readEntity(byte[].class).length > 0);
+  
+    // the client has the same image already
+    resp = userCreds(base.path("1008/logo")).header(HttpHeaders.IF_NONE_MATCH, etag).get();
+    assertEquals(304, resp.getStatus());
+    assertEquals(etag, resp.getHeaderString(HttpHeaders.ETAG));
+    assertFalse(resp.hasEntity());
+  
+    // a different image
+    resp = userCreds(base.path("1008/logo")).header(HttpHeaders.IF_NONE_MATCH, "\"xyz\"").get();
+    assertEquals(200, resp.getStatus());
+    assertTrue(resp.readEntity(byte[].class).length > 0);
+  }
+  
+  private static byte[] png() throws IOException {
+    BufferedImage img = new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = img.createGraphics();
+    g.setColor(Color.RED);
+    g.fillRect(0, 0, 400, 200);
+    g.dispose();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(img, "png", out);
+    return out.toByteArray();
+  }
+
 }
\ No newline at end of file
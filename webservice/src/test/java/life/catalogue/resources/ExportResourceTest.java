@@ -0,0 +1,94 @@
+package life.catalogue.resources;
+
+import life.catalogue.api.vocab.Datasets;
+import life.catalogue.api.vocab.ImportState;
+import life.catalogue.db.TestDataRule;
+import life.catalogue.db.mapper.UserMapper;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+import java.util.Map;
+
+import static life.catalogue.ApiUtils.editorCreds;
+import static life.catalogue.ApiUtils.userCreds;
+import static org.junit.Assert.*;
+
+public class ExportResourceTest extends ResourceTestBase {
+
+  @Rule
+  public TestDataRule testDataRule = TestDataRule.draftWithSectors(RULE.getSqlSessionFactory());
+
+  public ExportResourceTest() {
+    super("/dataset");
+  }
+
+  private WebTarget export(int datasetKey) {
+    return base.path(datasetKey + "/export/export");
+  }
+
+  @Test
+  public void noExport() {
+    Response resp = userCreds(export(1)).get();
+    assertEquals(404, resp.getStatus());
+  }
+
+  @Test
+  public void submitRequiresEditor() {
+    Response resp = export(Datasets.DRAFT_COL).request().post(null);
+    assertEquals(401, resp.getStatus());
+
+    resp = userCreds(export(Datasets.DRAFT_COL)).post(null);
+    assertEquals(403, resp.getStatus());
+  }
+
+  @Test
+  public void submitAndStatus() throws Exception {
+    int editorKey;
+    try (SqlSession session = factory().openSession(true)) {
+      editorKey = session.getMapper(UserMapper.class).getByUsername("editor").getKey();
+    }
+
+    Map<?, ?> job = editorCreds(export(Datasets.DRAFT_COL)).post(null, Map.class);
+    assertEquals(Datasets.DRAFT_COL, job.get("datasetKey"));
+    assertEquals(editorKey, job.get("createdBy"));
+    assertNotNull(job.get("created"));
+
+    // the status reports the same job until it is done
+    Map<?, ?> status = userCreds(export(Datasets.DRAFT_COL)).get(Map.class);
+    assertEquals(job.get("created"), status.get("created"));
+    status = awaitFinal();
+    assertEquals(job.get("created"), status.get("created"));
+    assertEquals(ImportState.FINISHED.name(), status.get("state"));
+    assertNotNull(status.get("started"));
+    assertNotNull(status.get("finished"));
+    assertEquals("export-" + Datasets.DRAFT_COL + ".zip", status.get("archive"));
+
+    // a finished export can be resubmitted
+    Map<?, ?> job2 = editorCreds(export(Datasets.DRAFT_COL)).post(null, Map.class);
+    assertNotEquals(job.get("created"), job2.get("created"));
+    // wait for the second export so it does not overlap with the cleanup of the test data
+    status = awaitFinal();
+    assertEquals(job2.get("created"), status.get("created"));
+    assertEquals(ImportState.FINISHED.name(), status.get("state"));
+  }
+
+  /**
+   * Polls the export status until the current job has finished or failed.
+   */
+  private Map<?, ?> awaitFinal() throws InterruptedException {
+    Map<?, ?> status = userCreds(export(Datasets.DRAFT_COL)).get(Map.class);
+    int attempts = 0;
+    while (!isFinal(status) && attempts++ < 600) {
+      Thread.sleep(100);
+      status = userCreds(export(Datasets.DRAFT_COL)).get(Map.class);
+    }
+    return status;
+  }
+
+  private static boolean isFinal(Map<?, ?> job) {
+    return ImportState.FINISHED.name().equals(job.get("state")) || ImportState.FAILED.name().equals(job.get("state"));
+  }
+}
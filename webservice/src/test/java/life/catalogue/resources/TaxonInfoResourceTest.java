@@ -0,0 +1,74 @@
+package life.catalogue.resources;
+
+import life.catalogue.api.model.Page;
+import life.catalogue.db.TestDataRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static life.catalogue.ApiUtils.json;
+import static life.catalogue.ApiUtils.userCreds;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the bulk taxon info method that accepts the taxon ids as a posted JSON array.
+ */
+public class TaxonInfoResourceTest extends ResourceTestBase {
+
+  static GenericType<List<Map<String, Object>>> RESP_TYPE = new GenericType<List<Map<String, Object>>>() {};
+
+  @Rule
+  public TestDataRule testDataRule = TestDataRule.apple(RULE.getSqlSessionFactory());
+
+  public TaxonInfoResourceTest() {
+    super("/dataset/11/taxon/info");
+  }
+
+  @Test
+  public void infos() {
+    List<Map<String, Object>> infos = userCreds(base).post(json(List.of("root-2", "unknown", "root-1")), RESP_TYPE);
+    // in the order of the given ids, skipping unknown ones
+    assertEquals(2, infos.size());
+    assertEquals("root-2", taxonId(infos.get(0)));
+    assertEquals(2, ((List<?>) infos.get(0).get("synonyms")).size());
+    assertEquals("root-1", taxonId(infos.get(1)));
+    assertEquals(3, ((List<?>) infos.get(1).get("vernacularNames")).size());
+  }
+
+  @Test
+  public void maxIds() {
+    List<String> ids = new ArrayList<>();
+    ids.add("root-1");
+    for (int i = 1; i < Page.MAX_LIMIT; i++) {
+      ids.add("unknown-" + i);
+    }
+    List<Map<String, Object>> infos = userCreds(base).post(json(ids), RESP_TYPE);
+    assertEquals(1, infos.size());
+    assertEquals("root-1", taxonId(infos.get(0)));
+
+    // one more is too many
+    ids.add("root-2");
+    Response resp = userCreds(base).post(json(ids));
+    assertEquals(400, resp.getStatus());
+  }
+
+  @Test
+  public void noIds() {
+    Response resp = userCreds(base).post(json(List.of()));
+    assertEquals(400, resp.getStatus());
+
+    resp = userCreds(base).post(Entity.entity("", MediaType.APPLICATION_JSON_TYPE));
+    assertEquals(400, resp.getStatus());
+  }
+
+  private static String taxonId(Map<String, Object> info) {
+    return (String) ((Map<?, ?>) info.get("taxon")).get("id");
+  }
+}